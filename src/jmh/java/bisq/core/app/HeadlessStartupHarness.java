@@ -0,0 +1,271 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.app;
+
+import bisq.core.arbitration.Dispute;
+import bisq.core.btc.BtcOptionKeys;
+import bisq.core.util.SegmentedStorage;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.Message;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds an app data dir with large PendingTrades, ClosedTrades, DisputeList and AddressEntryList stores and starts
+ * BisqHeadlessAppMain with it. The startup task graph logs the duration of each task and BisqHeadlessApp logs the
+ * total startup time and the step durations once the setup is complete.
+ * <p>
+ * Valid trades and disputes need keys, contracts and transactions, so the stores are built from the data dir of an
+ * app which has been used for a few trades with this version (e.g. on regtest). The template data dir is copied and
+ * its trades and disputes are cloned with new ids until the requested sizes are reached. The address entries of a
+ * cloned trade are cloned with the new id as well.
+ * <pre>
+ *     java -cp [jmh runtime classpath] bisq.core.app.HeadlessStartupHarness templateAppDataDir appDataDir
+ *          baseCurrencyNetwork [numPendingTrades numClosedTrades numDisputes] [-- further app options]
+ * </pre>
+ */
+@Slf4j
+public class HeadlessStartupHarness {
+    private static final int NUM_PENDING_TRADES = 500;
+    private static final int NUM_CLOSED_TRADES = 5000;
+    private static final int NUM_DISPUTES = 500;
+    private static final String ADDRESS_ENTRY_LIST_FILE_NAME = "AddressEntryList";
+
+    public static void main(String[] args) throws Exception {
+        List<String> harnessArgs = new ArrayList<>(Arrays.asList(args));
+        List<String> appArgs = new ArrayList<>();
+        int separatorIndex = harnessArgs.indexOf("--");
+        if (separatorIndex >= 0) {
+            appArgs.addAll(harnessArgs.subList(separatorIndex + 1, harnessArgs.size()));
+            harnessArgs = harnessArgs.subList(0, separatorIndex);
+        }
+        if (harnessArgs.size() < 3) {
+            System.err.println("Usage: HeadlessStartupHarness templateAppDataDir appDataDir baseCurrencyNetwork " +
+                    "[numPendingTrades numClosedTrades numDisputes] [-- further app options]");
+            System.exit(1);
+        }
+
+        String networkDirName = harnessArgs.get(2).toLowerCase();
+        File templateDbDir = Paths.get(harnessArgs.get(0), networkDirName, "db").toFile();
+        File networkDir = Paths.get(harnessArgs.get(1), networkDirName).toFile();
+        int numPendingTrades = harnessArgs.size() > 3 ? Integer.parseInt(harnessArgs.get(3)) : NUM_PENDING_TRADES;
+        int numClosedTrades = harnessArgs.size() > 4 ? Integer.parseInt(harnessArgs.get(4)) : NUM_CLOSED_TRADES;
+        int numDisputes = harnessArgs.size() > 5 ? Integer.parseInt(harnessArgs.get(5)) : NUM_DISPUTES;
+
+        long ts = System.currentTimeMillis();
+        if (networkDir.exists())
+            throw new IOException("The app data dir must not exist yet. dir=" + networkDir.getAbsolutePath());
+        copyRecursively(templateDbDir.getParentFile().toPath(), networkDir.toPath());
+        File dbDir = new File(networkDir, "db");
+
+        // Maps the id of each cloned tradable to the id of its template, for cloning the address entries
+        Map<String, String> templateIdById = new HashMap<>();
+        buildTradableStore(templateDbDir, dbDir, "pending_trades", numPendingTrades, templateIdById);
+        buildTradableStore(templateDbDir, dbDir, "closed_trades", numClosedTrades, templateIdById);
+        buildDisputeStore(templateDbDir, dbDir, numDisputes);
+        buildAddressEntryList(templateDbDir, dbDir, templateIdById);
+        log.info("Building the stores took {} ms", System.currentTimeMillis() - ts);
+
+        appArgs.add("--" + AppOptionKeys.APP_DATA_DIR_KEY + "=" + harnessArgs.get(1));
+        appArgs.add("--" + BtcOptionKeys.BASE_CURRENCY_NETWORK + "=" + harnessArgs.get(2));
+        BisqHeadlessAppMain.main(appArgs.toArray(new String[0]));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static void buildTradableStore(File templateDbDir, File dbDir, String dirName, int numTradables,
+                                           Map<String, String> templateIdById) throws IOException, InterruptedException {
+        List<PB.Tradable> templates = readRecords(new File(templateDbDir, dirName)).stream()
+                .flatMap(record -> record.getTradableList().getTradableList().stream())
+                .collect(Collectors.toList());
+        if (templates.isEmpty())
+            throw new IOException("No tradables in the template dir " + dirName);
+
+        Map<String, Message> records = new LinkedHashMap<>();
+        for (int i = 0; i < numTradables; i++) {
+            PB.Tradable template = templates.get(i % templates.size());
+            String templateId = getOfferPayload(template.toBuilder()).getId();
+            String id = i < templates.size() ? templateId : i + "-" + templateId;
+            PB.Tradable.Builder builder = template.toBuilder();
+            setId(builder, id);
+            templateIdById.put(id, templateId);
+            records.put(id, PB.PersistableEnvelope.newBuilder()
+                    .setTradableList(PB.TradableList.newBuilder().addTradable(builder))
+                    .build());
+        }
+        writeRecords(new File(dbDir, dirName), records);
+    }
+
+    private static void buildDisputeStore(File templateDbDir, File dbDir, int numDisputes)
+            throws IOException, InterruptedException {
+        File templateDir = new File(templateDbDir, "disputes");
+        List<PB.Dispute> templates = readRecords(templateDir).stream()
+                .flatMap(record -> record.getDisputeList().getDisputeList().stream())
+                .collect(Collectors.toList());
+        if (templates.isEmpty())
+            throw new IOException("No disputes in the template dir");
+
+        Map<String, Message> records = new LinkedHashMap<>();
+        for (int i = 0; i < numDisputes; i++) {
+            PB.Dispute template = templates.get(i % templates.size());
+            String tradeId = i < templates.size() ? template.getTradeId() : i + "-" + template.getTradeId();
+            String id = Dispute.createId(tradeId, template.getTraderId());
+            records.put(id, PB.PersistableEnvelope.newBuilder()
+                    .setDisputeList(PB.DisputeList.newBuilder()
+                            .addDispute(template.toBuilder().setTradeId(tradeId).setId(id)))
+                    .build());
+        }
+        // The attachments of the cloned disputes reference the blobs of the template, which got copied
+        writeRecords(new File(dbDir, "disputes"), records);
+    }
+
+    private static void buildAddressEntryList(File templateDbDir, File dbDir, Map<String, String> templateIdById)
+            throws IOException {
+        PB.AddressEntryList template;
+        try (InputStream inputStream = new FileInputStream(new File(templateDbDir, ADDRESS_ENTRY_LIST_FILE_NAME))) {
+            template = PB.PersistableEnvelope.parseDelimitedFrom(inputStream).getAddressEntryList();
+        }
+
+        Map<String, List<PB.AddressEntry>> entriesByOfferId = template.getAddressEntryList().stream()
+                .filter(entry -> !entry.getOfferId().isEmpty())
+                .collect(Collectors.groupingBy(PB.AddressEntry::getOfferId));
+        PB.AddressEntryList.Builder builder = template.toBuilder();
+        templateIdById.forEach((id, templateId) -> {
+            if (!id.equals(templateId)) {
+                entriesByOfferId.getOrDefault(templateId, new ArrayList<>())
+                        .forEach(entry -> builder.addAddressEntry(entry.toBuilder().setOfferId(id)));
+            }
+        });
+
+        // Same format as Storage
+        try (OutputStream outputStream = new FileOutputStream(new File(dbDir, ADDRESS_ENTRY_LIST_FILE_NAME))) {
+            PB.PersistableEnvelope.newBuilder().setAddressEntryList(builder).build().writeDelimitedTo(outputStream);
+        }
+        log.info("Built AddressEntryList with {} entries", builder.getAddressEntryCount());
+    }
+
+    private static PB.OfferPayload.Builder getOfferPayload(PB.Tradable.Builder builder) {
+        switch (builder.getMessageCase()) {
+            case OPEN_OFFER:
+                return builder.getOpenOfferBuilder().getOfferBuilder().getOfferPayloadBuilder();
+            case BUYER_AS_MAKER_TRADE:
+                return builder.getBuyerAsMakerTradeBuilder().getTradeBuilder().getOfferBuilder().getOfferPayloadBuilder();
+            case BUYER_AS_TAKER_TRADE:
+                return builder.getBuyerAsTakerTradeBuilder().getTradeBuilder().getOfferBuilder().getOfferPayloadBuilder();
+            case SELLER_AS_MAKER_TRADE:
+                return builder.getSellerAsMakerTradeBuilder().getTradeBuilder().getOfferBuilder().getOfferPayloadBuilder();
+            case SELLER_AS_TAKER_TRADE:
+                return builder.getSellerAsTakerTradeBuilder().getTradeBuilder().getOfferBuilder().getOfferPayloadBuilder();
+            default:
+                throw new IllegalArgumentException("Unknown messageCase. messageCase=" + builder.getMessageCase());
+        }
+    }
+
+    // The id of a trade is the id of its offer
+    private static void setId(PB.Tradable.Builder builder, String id) {
+        getOfferPayload(builder).setId(id);
+        switch (builder.getMessageCase()) {
+            case BUYER_AS_MAKER_TRADE:
+                builder.getBuyerAsMakerTradeBuilder().getTradeBuilder().getProcessModelBuilder().setOfferId(id);
+                break;
+            case BUYER_AS_TAKER_TRADE:
+                builder.getBuyerAsTakerTradeBuilder().getTradeBuilder().getProcessModelBuilder().setOfferId(id);
+                break;
+            case SELLER_AS_MAKER_TRADE:
+                builder.getSellerAsMakerTradeBuilder().getTradeBuilder().getProcessModelBuilder().setOfferId(id);
+                break;
+            case SELLER_AS_TAKER_TRADE:
+                builder.getSellerAsTakerTradeBuilder().getTradeBuilder().getProcessModelBuilder().setOfferId(id);
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Reads the records of a SegmentedStorage dir without resolving them, so we don't need the proto resolvers
+    private static List<PB.PersistableEnvelope> readRecords(File dir) throws IOException {
+        List<PB.PersistableEnvelope> records = new ArrayList<>();
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".record"));
+        if (files == null)
+            throw new IOException("Template dir not found. dir=" + dir.getAbsolutePath());
+
+        for (File file : files)
+            records.add(PB.PersistableEnvelope.parseFrom(Files.readAllBytes(file.toPath())));
+        return records;
+    }
+
+    // Replaces the records of the copied template with the given ones. The blobs are kept.
+    private static void writeRecords(File dir, Map<String, Message> records) throws IOException, InterruptedException {
+        File[] files = dir.listFiles(File::isFile);
+        if (files != null) {
+            for (File file : files)
+                Files.delete(file.toPath());
+        }
+
+        SegmentedStorage segmentedStorage = new SegmentedStorage(dir, null, 0);
+        Map<String, Supplier<? extends Message>> suppliers = new LinkedHashMap<>();
+        records.forEach((key, record) -> suppliers.put(key, () -> record));
+        segmentedStorage.migrate(suppliers);
+        // The marker file is written after all records
+        while (!segmentedStorage.isInitialized())
+            Thread.sleep(100);
+        segmentedStorage.shutDown();
+        log.info("Built {} with {} records", dir.getName(), records.size());
+    }
+
+    private static void copyRecursively(Path source, Path target) throws IOException {
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path path : paths.sorted(Comparator.naturalOrder()).collect(Collectors.toList())) {
+                Path targetPath = target.resolve(source.relativize(path));
+                if (Files.isDirectory(path))
+                    Files.createDirectories(targetPath);
+                else
+                    Files.copy(path, targetPath, StandardCopyOption.COPY_ATTRIBUTES);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.btc.wallet;
+
+import bisq.core.app.BisqEnvironment;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Context;
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.wallet.CoinSelection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coin selection from a synthetic wallet. Most outputs are confirmed with different depths, some are pending and some
+ * belong to addresses which are not ours.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CoinSelectorBenchmark {
+    private static final int NUM_ADDRESSES = 50;
+
+    @Param({"100", "2000"})
+    private int numOutputs;
+
+    @Param({"1000000", "500000000"})
+    private long target;
+
+    private BtcCoinSelector coinSelector;
+    private final List<TransactionOutput> candidates = new ArrayList<>();
+
+    @Setup
+    public void createWallet() {
+        NetworkParameters params = BisqEnvironment.getParameters();
+        Context.propagate(new Context(params));
+        Random random = new Random(1);
+
+        List<Address> addresses = new ArrayList<>();
+        for (int i = 0; i < NUM_ADDRESSES; i++) {
+            addresses.add(new ECKey().toAddress(params));
+        }
+        Set<Address> ownAddresses = new HashSet<>(addresses.subList(0, NUM_ADDRESSES * 4 / 5));
+        coinSelector = new BtcCoinSelector(ownAddresses);
+
+        for (int i = 0; i < numOutputs; i++) {
+            Transaction tx = new Transaction(params);
+            tx.addOutput(Coin.valueOf(10_000 + random.nextInt(100_000_000)), addresses.get(random.nextInt(NUM_ADDRESSES)));
+            tx.addOutput(Coin.valueOf(10_000 + random.nextInt(100_000_000)), addresses.get(random.nextInt(NUM_ADDRESSES)));
+            TransactionConfidence confidence = tx.getConfidence();
+            if (random.nextInt(10) == 0) {
+                confidence.setConfidenceType(TransactionConfidence.ConfidenceType.PENDING);
+                confidence.setSource(TransactionConfidence.Source.SELF);
+            } else {
+                confidence.setConfidenceType(TransactionConfidence.ConfidenceType.BUILDING);
+                confidence.setDepthInBlocks(1 + random.nextInt(10_000));
+            }
+            candidates.addAll(tx.getOutputs());
+        }
+    }
+
+    @Benchmark
+    public CoinSelection select() {
+        return coinSelector.select(Coin.valueOf(target), candidates);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.btc.wallet;
+
+import bisq.core.app.BisqEnvironment;
+import bisq.core.btc.listeners.AddressConfidenceListener;
+import bisq.core.btc.listeners.TxConfidenceListener;
+
+import bisq.common.UserThread;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Context;
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.wallet.Wallet;
+import org.bitcoinj.wallet.WalletTransaction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Confidence listener dispatch and confidence lookups of the WalletService with a wallet holding thousands of txs and
+ * hundreds of UI listeners (half of them for addresses, half of them for txIds). A new block results in one confidence
+ * change event for each wallet tx. The legacy benchmarks run the former implementation which called all address
+ * listeners and scanned all tx listeners for each event, and which scanned all wallet txs for the lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class WalletServiceConfidenceBenchmark {
+    private static final int NUM_ADDRESSES = 500;
+
+    @Param({"1000", "5000"})
+    private int numTxs;
+
+    @Param({"100", "500"})
+    private int numListeners;
+
+    private WalletService walletService;
+    private Wallet wallet;
+    private final List<Transaction> transactions = new ArrayList<>();
+    private final List<Address> addresses = new ArrayList<>();
+    // Listeners of the former implementation, same instances as registered at the walletService
+    private final List<AddressConfidenceListener> addressConfidenceListeners = new ArrayList<>();
+    private final List<TxConfidenceListener> txConfidenceListeners = new ArrayList<>();
+    // Tasks passed to the UserThread, executed when a burst of events is processed
+    private final Deque<Runnable> userThreadTasks = new ArrayDeque<>();
+    private int numListenerCalls;
+    private int lookupIndex;
+
+    @Setup
+    public void createWallet() {
+        NetworkParameters params = BisqEnvironment.getParameters();
+        Context.propagate(new Context(params));
+        UserThread.setExecutor(userThreadTasks::add);
+        Random random = new Random(1);
+
+        WalletsSetup walletsSetup = mock(WalletsSetup.class);
+        when(walletsSetup.getParams()).thenReturn(params);
+        walletService = new WalletService(walletsSetup, null, null) {
+            @Override
+            String getWalletAsString(boolean includePrivKeys) {
+                return "";
+            }
+        };
+        wallet = new Wallet(params);
+        walletService.wallet = wallet;
+
+        for (int i = 0; i < NUM_ADDRESSES; i++) {
+            addresses.add(new ECKey().toAddress(params));
+        }
+        for (int i = 0; i < numTxs; i++) {
+            Transaction tx = new Transaction(params);
+            tx.addOutput(Coin.valueOf(10_000 + random.nextInt(100_000_000)), addresses.get(random.nextInt(NUM_ADDRESSES)));
+            tx.addOutput(Coin.valueOf(10_000 + random.nextInt(100_000_000)), addresses.get(random.nextInt(NUM_ADDRESSES)));
+            tx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.BUILDING);
+            tx.getConfidence().setDepthInBlocks(1 + random.nextInt(10_000));
+            wallet.addWalletTransaction(new WalletTransaction(WalletTransaction.Pool.UNSPENT, tx));
+            transactions.add(tx);
+        }
+
+        for (int i = 0; i < numListeners / 2; i++) {
+            AddressConfidenceListener addressListener = new AddressConfidenceListener(addresses.get(random.nextInt(NUM_ADDRESSES))) {
+                @Override
+                public void onTransactionConfidenceChanged(TransactionConfidence confidence) {
+                    numListenerCalls++;
+                }
+            };
+            walletService.addAddressConfidenceListener(addressListener);
+            addressConfidenceListeners.add(addressListener);
+
+            TxConfidenceListener txListener = new TxConfidenceListener(transactions.get(random.nextInt(numTxs)).getHashAsString()) {
+                @Override
+                public void onTransactionConfidenceChanged(TransactionConfidence confidence) {
+                    numListenerCalls++;
+                }
+            };
+            walletService.addTxConfidenceListener(txListener);
+            txConfidenceListeners.add(txListener);
+        }
+    }
+
+    @Benchmark
+    public int newBlock() {
+        //noinspection deprecation
+        transactions.forEach(tx -> walletService.walletEventListener.onTransactionConfidenceChanged(wallet, tx));
+        // The listeners are dispatched once all queued events are processed
+        while (!userThreadTasks.isEmpty()) {
+            userThreadTasks.poll().run();
+        }
+        return numListenerCalls;
+    }
+
+    @Benchmark
+    public int newBlockLegacy() {
+        transactions.forEach(this::legacyNotifyConfidenceListeners);
+        return numListenerCalls;
+    }
+
+    @Benchmark
+    public TransactionConfidence confidenceForAddress() {
+        return walletService.getConfidenceForAddress(nextAddress());
+    }
+
+    @Benchmark
+    public TransactionConfidence confidenceForAddressLegacy() {
+        Address address = nextAddress();
+        List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
+        wallet.getTransactions(false).forEach(tx ->
+                transactionConfidenceList.add(walletService.getTransactionConfidence(tx, address)));
+        return walletService.getMostRecentConfidence(transactionConfidenceList);
+    }
+
+    @Benchmark
+    public TransactionConfidence confidenceForTxId() {
+        return walletService.getConfidenceForTxId(nextTxId());
+    }
+
+    @Benchmark
+    public TransactionConfidence confidenceForTxIdLegacy() {
+        String txId = nextTxId();
+        for (Transaction tx : wallet.getTransactions(false)) {
+            if (tx.getHashAsString().equals(txId))
+                return tx.getConfidence();
+        }
+        return null;
+    }
+
+    private void legacyNotifyConfidenceListeners(Transaction tx) {
+        for (AddressConfidenceListener addressConfidenceListener : addressConfidenceListeners) {
+            List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
+            transactionConfidenceList.add(walletService.getTransactionConfidence(tx, addressConfidenceListener.getAddress()));
+            TransactionConfidence transactionConfidence = walletService.getMostRecentConfidence(transactionConfidenceList);
+            addressConfidenceListener.onTransactionConfidenceChanged(transactionConfidence);
+        }
+        txConfidenceListeners.stream()
+                .filter(txConfidenceListener -> tx.getHashAsString().equals(txConfidenceListener.getTxID()))
+                .forEach(txConfidenceListener -> txConfidenceListener.onTransactionConfidenceChanged(tx.getConfidence()));
+    }
+
+    private Address nextAddress() {
+        return addresses.get(lookupIndex++ % NUM_ADDRESSES);
+    }
+
+    private String nextTxId() {
+        return transactions.get(lookupIndex++ % numTxs).getHashAsString();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.node.parser;
+
+import bisq.core.dao.node.parser.exceptions.BlockNotConnectingException;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.blockchain.RawBlock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a synthetic chain from the genesis block on. Each invocation starts with an empty state, so the result is
+ * the average time for parsing one block including the growth of the state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BlockParserBenchmark {
+    private static final int NUM_BLOCKS = 500;
+
+    @Param({"10", "100"})
+    private int bsqTxsPerBlock;
+
+    private List<RawBlock> rawBlocks;
+    private GenesisTxInfo genesisTxInfo;
+    private BlockParser blockParser;
+
+    @Setup(Level.Trial)
+    public void createChain() {
+        SyntheticChainGenerator generator = new SyntheticChainGenerator(1, bsqTxsPerBlock, 2 * bsqTxsPerBlock, 24);
+        genesisTxInfo = generator.getGenesisTxInfo();
+        rawBlocks = generator.generate(NUM_BLOCKS);
+    }
+
+    @Setup(Level.Invocation)
+    public void createParser() {
+        blockParser = new ChainReplay(genesisTxInfo).getBlockParser();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_BLOCKS)
+    public Object parseBlocks() throws BlockNotConnectingException {
+        Object lastBlock = null;
+        for (RawBlock rawBlock : rawBlocks) {
+            lastBlock = blockParser.parseBlock(rawBlock);
+        }
+        return lastBlock;
+    }
+}
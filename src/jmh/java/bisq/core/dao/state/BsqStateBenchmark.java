@@ -0,0 +1,81 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.node.parser.ChainReplay;
+import bisq.core.dao.node.parser.SyntheticChainGenerator;
+import bisq.core.dao.node.parser.exceptions.BlockNotConnectingException;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cloning is done for each snapshot, serializing and deserializing at persisting and reading the state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BsqStateBenchmark {
+    @Param({"1000", "10000"})
+    private int chainSize;
+
+    private BsqState bsqState;
+    private byte[] serialized;
+
+    @Setup
+    public void parseChain() throws BlockNotConnectingException {
+        SyntheticChainGenerator generator = new SyntheticChainGenerator(1, 10, 0, 5);
+        bsqState = new BsqState();
+        new ChainReplay(bsqState, generator.getGenesisTxInfo()).parseBlocks(generator.generate(chainSize));
+        serialized = serialize();
+    }
+
+    @Benchmark
+    public BsqState getClone() {
+        return bsqState.getClone();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return bsqState.toProtoMessage().toByteArray();
+    }
+
+    @Benchmark
+    public BsqState deserialize() throws InvalidProtocolBufferException {
+        return (BsqState) BsqState.fromProto(PB.PersistableEnvelope.parseFrom(serialized).getBsqState());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.node.parser.ChainReplay;
+import bisq.core.dao.node.parser.SyntheticChainGenerator;
+import bisq.core.dao.node.parser.exceptions.BlockNotConnectingException;
+import bisq.core.dao.state.blockchain.Block;
+import bisq.core.dao.state.blockchain.Tx;
+import bisq.core.dao.state.blockchain.TxOutput;
+import bisq.core.dao.state.blockchain.TxOutputKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups used by the parser and the DAO domain services at different chain sizes. The keys are taken from the parsed
+ * chain and get cycled through so that every invocation looks up a different entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BsqStateServiceBenchmark {
+    @Param({"1000", "10000"})
+    private int chainSize;
+
+    private BsqStateService bsqStateService;
+    private String[] blockHashes;
+    private int[] blockHeights;
+    private String[] txIds;
+    private TxOutputKey[] unspentTxOutputKeys;
+    private int index;
+
+    @Setup
+    public void parseChain() throws BlockNotConnectingException {
+        SyntheticChainGenerator generator = new SyntheticChainGenerator(1, 10, 0, 5);
+        ChainReplay chainReplay = new ChainReplay(generator.getGenesisTxInfo());
+        chainReplay.parseBlocks(generator.generate(chainSize));
+        bsqStateService = chainReplay.getBsqStateService();
+
+        blockHashes = bsqStateService.getBlocks().stream().map(Block::getHash).toArray(String[]::new);
+        blockHeights = bsqStateService.getBlocks().stream().mapToInt(Block::getHeight).toArray();
+        txIds = bsqStateService.getTxStream().map(Tx::getId).toArray(String[]::new);
+        unspentTxOutputKeys = bsqStateService.getUnspentTxOutputs().stream()
+                .map(TxOutput::getKey)
+                .toArray(TxOutputKey[]::new);
+    }
+
+    @Benchmark
+    public boolean isBlockHashKnown() {
+        return bsqStateService.isBlockHashKnown(blockHashes[next(blockHashes.length)]);
+    }
+
+    @Benchmark
+    public Optional<Block> getBlockAtHeight() {
+        return bsqStateService.getBlockAtHeight(blockHeights[next(blockHeights.length)]);
+    }
+
+    @Benchmark
+    public Optional<Tx> getTx() {
+        return bsqStateService.getTx(txIds[next(txIds.length)]);
+    }
+
+    @Benchmark
+    public Optional<TxOutput> getUnspentTxOutput() {
+        return bsqStateService.getUnspentTxOutput(unspentTxOutputKeys[next(unspentTxOutputKeys.length)]);
+    }
+
+    private int next(int length) {
+        index = (index + 1) % length;
+        return index;
+    }
+}
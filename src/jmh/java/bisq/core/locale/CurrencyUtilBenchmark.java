@@ -0,0 +1,78 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.locale;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Currency lookups which are done for each offer and trade statistics entry when filling the UI lists.
+ * We use a fiat currency, an altcoin at the end of the sorted list and an unknown code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CurrencyUtilBenchmark {
+    @Param({"EUR", "ZEC", "FAK"})
+    private String currencyCode;
+
+    @Setup
+    public void setup() {
+        Locale.setDefault(new Locale("en", "US"));
+        // Fill the lazily created lists before measuring
+        CurrencyUtil.getAllSortedFiatCurrencies();
+        CurrencyUtil.getAllSortedCryptoCurrencies();
+    }
+
+    @Benchmark
+    public boolean isFiatCurrency() {
+        return CurrencyUtil.isFiatCurrency(currencyCode);
+    }
+
+    @Benchmark
+    public boolean isCryptoCurrency() {
+        return CurrencyUtil.isCryptoCurrency(currencyCode);
+    }
+
+    @Benchmark
+    public Optional<TradeCurrency> getTradeCurrency() {
+        return CurrencyUtil.getTradeCurrency(currencyCode);
+    }
+
+    @Benchmark
+    public String getNameByCode() {
+        return CurrencyUtil.getNameByCode(currencyCode);
+    }
+}
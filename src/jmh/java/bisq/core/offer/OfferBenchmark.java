@@ -0,0 +1,143 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.offer;
+
+import bisq.core.monetary.Volume;
+import bisq.core.provider.PriceNodeHttpClient;
+import bisq.core.provider.ProvidersRepository;
+import bisq.core.provider.price.MarketPrice;
+import bisq.core.provider.price.PriceFeedService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static bisq.core.offer.OfferMaker.amount;
+import static bisq.core.offer.OfferMaker.baseCurrencyCode;
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.offer.OfferMaker.counterCurrencyCode;
+import static bisq.core.offer.OfferMaker.direction;
+import static bisq.core.offer.OfferMaker.marketPriceMargin;
+import static bisq.core.offer.OfferMaker.minAmount;
+import static bisq.core.offer.OfferMaker.price;
+import static bisq.core.offer.OfferMaker.useMarketBasedPrice;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Price and volume of all offers of a synthetic offer book, as done by the offer book views and the trade statistics.
+ * Half of the offers use a market based price.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class OfferBenchmark {
+    private static final int NUM_OFFERS = 1000;
+    private static final String[] FIAT_CODES = {"EUR", "USD", "BRL", "GBP", "CAD"};
+    private static final double[] FIAT_PRICES = {6500, 7400, 27000, 5700, 9600};
+    private static final String[] CRYPTO_CODES = {"XMR", "ETH", "LTC", "DASH"};
+    private static final double[] CRYPTO_PRICES = {0.0155, 0.0305, 0.0075, 0.0232};
+
+    private final List<Offer> offers = new ArrayList<>();
+
+    @Setup
+    public void createOfferBook() {
+        Map<String, MarketPrice> marketPrices = new HashMap<>();
+        long now = Instant.now().getEpochSecond();
+        for (int i = 0; i < FIAT_CODES.length; i++)
+            marketPrices.put(FIAT_CODES[i], new MarketPrice(FIAT_CODES[i], FIAT_PRICES[i], now, true));
+        for (int i = 0; i < CRYPTO_CODES.length; i++)
+            marketPrices.put(CRYPTO_CODES[i], new MarketPrice(CRYPTO_CODES[i], CRYPTO_PRICES[i], now, true));
+        PriceFeedService priceFeedService = new FixedPriceFeedService(marketPrices);
+
+        Random random = new Random(1);
+        for (int i = 0; i < NUM_OFFERS; i++) {
+            boolean isCrypto = random.nextInt(4) == 0;
+            int currencyIndex = random.nextInt(isCrypto ? CRYPTO_CODES.length : FIAT_CODES.length);
+            String currencyCode = isCrypto ? CRYPTO_CODES[currencyIndex] : FIAT_CODES[currencyIndex];
+            double marketPrice = isCrypto ? CRYPTO_PRICES[currencyIndex] : FIAT_PRICES[currencyIndex];
+            long offerAmount = 1_000_000 + random.nextInt(99_000_000);
+            Offer offer = make(btcUsdOffer.but(
+                    with(baseCurrencyCode, isCrypto ? currencyCode : "BTC"),
+                    with(counterCurrencyCode, isCrypto ? "BTC" : currencyCode),
+                    with(direction, random.nextBoolean() ? OfferPayload.Direction.BUY : OfferPayload.Direction.SELL),
+                    with(price, Math.round(marketPrice * (isCrypto ? 100_000_000 : 10_000))),
+                    with(useMarketBasedPrice, random.nextBoolean()),
+                    with(marketPriceMargin, (random.nextInt(11) - 5) / 100d),
+                    with(amount, offerAmount),
+                    with(minAmount, offerAmount / 2)));
+            offer.setPriceFeedService(priceFeedService);
+            offers.add(offer);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_OFFERS)
+    public void getPrice(Blackhole blackhole) {
+        for (Offer offer : offers) {
+            blackhole.consume(offer.getPrice());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_OFFERS)
+    public void getVolumeByAmount(Blackhole blackhole) {
+        for (Offer offer : offers) {
+            Volume volume = offer.getVolumeByAmount(offer.getMinAmount());
+            blackhole.consume(volume);
+        }
+    }
+
+    // Serves the market prices from a map without any http requests
+    private static class FixedPriceFeedService extends PriceFeedService {
+        private final Map<String, MarketPrice> marketPrices;
+
+        FixedPriceFeedService(Map<String, MarketPrice> marketPrices) {
+            super(mock(PriceNodeHttpClient.class), mock(ProvidersRepository.class), null);
+            this.marketPrices = marketPrices;
+        }
+
+        @Override
+        public MarketPrice getMarketPrice(String currencyCode) {
+            return marketPrices.get(currencyCode);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.payment;
+
+import bisq.network.p2p.P2PService;
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
+
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.KeyRing;
+import bisq.common.crypto.KeyStorage;
+import bisq.common.storage.FileUtil;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.Security;
+import java.security.cert.CertificateException;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Trade limit of the users payment accounts as requested for each offer in the offer book and at creating offers.
+ * All accounts have a 90 days old witness.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AccountAgeWitnessServiceBenchmark {
+    private static final int NUM_ACCOUNTS = 20;
+
+    @Param({"EUR", "XMR"})
+    private String currencyCode;
+
+    private File keyStorageDir;
+    private AccountAgeWitnessService accountAgeWitnessService;
+    private final List<PaymentAccount> paymentAccounts = new ArrayList<>();
+
+    @Setup
+    public void setup() throws CertificateException, NoSuchAlgorithmException, KeyStoreException, IOException, CryptoException {
+        Security.addProvider(new BouncyCastleProvider());
+        keyStorageDir = File.createTempFile("jmh_keys", "");
+        //noinspection ResultOfMethodCallIgnored
+        keyStorageDir.delete();
+        //noinspection ResultOfMethodCallIgnored
+        keyStorageDir.mkdir();
+        KeyRing keyRing = new KeyRing(new KeyStorage(keyStorageDir));
+
+        AccountAgeWitnessStorageService storageService = mock(AccountAgeWitnessStorageService.class);
+        long witnessDate = new Date().getTime() - TimeUnit.DAYS.toMillis(90);
+        when(storageService.getWitness(any())).thenReturn(new AccountAgeWitness(new byte[20], witnessDate));
+        accountAgeWitnessService = new AccountAgeWitnessService(keyRing, mock(P2PService.class), null,
+                storageService, mock(AppendOnlyDataStoreService.class));
+
+        for (int i = 0; i < NUM_ACCOUNTS; i++) {
+            SepaAccount account = new SepaAccount();
+            account.init();
+            account.setHolderName("Holder " + i);
+            account.setIban("DE8937040044053201300" + i);
+            paymentAccounts.add(account);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(keyStorageDir);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_ACCOUNTS)
+    public void getMyTradeLimit(Blackhole blackhole) {
+        for (PaymentAccount paymentAccount : paymentAccounts) {
+            blackhole.consume(accountAgeWitnessService.getMyTradeLimit(paymentAccount, currencyCode));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.payment;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the persisted account age witness store, once into the AccountAgeWitnessMap of the AccountAgeWitnessStore
+ * and once into a ConcurrentHashMap of AccountAgeWitness objects like before. The load time and the lookup time are
+ * measured by JMH, the retained heap of both variants is printed by the main method:
+ * <pre>
+ *     java -Xmx2g -cp [jmh runtime classpath] bisq.core.payment.AccountAgeWitnessStoreBenchmark [numWitnesses]
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AccountAgeWitnessStoreBenchmark {
+    private static final int NUM_WITNESSES = 1_000_000;
+    private static final int NUM_LOOKUPS = 1000;
+
+    @Param({"true", "false"})
+    private boolean compact;
+
+    private byte[] serializedStore;
+    private Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map;
+    private P2PDataStorage.ByteArray[] lookupKeys;
+
+    @Setup
+    public void createStore() throws InvalidProtocolBufferException {
+        serializedStore = createSerializedStore(NUM_WITNESSES);
+        map = load(serializedStore, compact);
+
+        // Half of the lookups are for witnesses we don't have, like for new payment accounts
+        PB.AccountAgeWitnessStore proto = PB.PersistableEnvelope.parseFrom(serializedStore).getAccountAgeWitnessStore();
+        Random random = new Random(2);
+        lookupKeys = new P2PDataStorage.ByteArray[NUM_LOOKUPS];
+        for (int i = 0; i < NUM_LOOKUPS; i++) {
+            byte[] hash;
+            if (i % 2 == 0) {
+                hash = proto.getItems(random.nextInt(NUM_WITNESSES)).getHash().toByteArray();
+            } else {
+                hash = new byte[AccountAgeWitnessMap.HASH_SIZE];
+                random.nextBytes(hash);
+            }
+            lookupKeys[i] = new P2PDataStorage.ByteArray(hash);
+        }
+    }
+
+    @Benchmark
+    public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> load() throws InvalidProtocolBufferException {
+        return load(serializedStore, compact);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(NUM_LOOKUPS)
+    public void get(Blackhole blackhole) {
+        for (P2PDataStorage.ByteArray key : lookupKeys) {
+            blackhole.consume(map.get(key));
+        }
+    }
+
+    public static void main(String[] args) throws InvalidProtocolBufferException {
+        int numWitnesses = args.length > 0 ? Integer.parseInt(args[0]) : NUM_WITNESSES;
+        byte[] serializedStore = createSerializedStore(numWitnesses);
+        System.out.println("Serialized store of " + numWitnesses + " witnesses: " +
+                serializedStore.length / 1024 + " kB");
+        printRetainedHeap(serializedStore, false);
+        printRetainedHeap(serializedStore, true);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The loaded map is not reachable anymore after the method returns, so the next call starts from the same heap
+    private static void printRetainedHeap(byte[] serializedStore, boolean compact) throws InvalidProtocolBufferException {
+        long before = getUsedHeap();
+        long ts = System.currentTimeMillis();
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = load(serializedStore, compact);
+        long loadTime = System.currentTimeMillis() - ts;
+        long retained = getUsedHeap() - before;
+        System.out.println((compact ? "AccountAgeWitnessMap: " : "ConcurrentHashMap:    ") +
+                retained / 1024 + " kB retained for " + map.size() + " witnesses, " +
+                retained / map.size() + " bytes per witness, loaded in " + loadTime + " ms");
+    }
+
+    private static byte[] createSerializedStore(int numWitnesses) {
+        Random random = new Random(1);
+        long now = System.currentTimeMillis();
+        PB.AccountAgeWitnessStore.Builder builder = PB.AccountAgeWitnessStore.newBuilder();
+        for (int i = 0; i < numWitnesses; i++) {
+            byte[] hash = new byte[AccountAgeWitnessMap.HASH_SIZE];
+            random.nextBytes(hash);
+            builder.addItems(PB.AccountAgeWitness.newBuilder()
+                    .setHash(ByteString.copyFrom(hash))
+                    .setDate(now - (long) random.nextInt(Integer.MAX_VALUE) * 10));
+        }
+        return PB.PersistableEnvelope.newBuilder()
+                .setAccountAgeWitnessStore(builder)
+                .build()
+                .toByteArray();
+    }
+
+    private static Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> load(byte[] serializedStore,
+                                                                                boolean compact)
+            throws InvalidProtocolBufferException {
+        PB.AccountAgeWitnessStore proto = PB.PersistableEnvelope.parseFrom(serializedStore).getAccountAgeWitnessStore();
+        if (compact)
+            return ((AccountAgeWitnessStore) AccountAgeWitnessStore.fromProto(proto)).getMap();
+
+        // AccountAgeWitnessStore.fromProto before the AccountAgeWitnessMap
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = new ConcurrentHashMap<>();
+        proto.getItemsList().forEach(item -> {
+            AccountAgeWitness witness = AccountAgeWitness.fromProto(item);
+            map.put(witness.getHashAsByteArray(), witness);
+        });
+        return map;
+    }
+
+    private static long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.proto.network;
+
+import bisq.core.dao.node.messages.GetBlocksResponse;
+import bisq.core.dao.node.messages.NewBlockBroadcastMessage;
+import bisq.core.dao.node.parser.SyntheticChainGenerator;
+import bisq.core.dao.state.blockchain.RawBlock;
+import bisq.core.offer.OfferPayload;
+import bisq.core.trade.statistics.TradeStatistics2;
+
+import bisq.network.p2p.storage.messages.AddPersistableNetworkPayloadMessage;
+
+import bisq.common.proto.ProtobufferException;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a message and resolving it from the received bytes again. We use the DAO block sync messages and a
+ * trade statistics payload as the most frequent messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CoreNetworkProtoResolverBenchmark {
+    private static final int NUM_BLOCKS = 100;
+
+    private final CoreNetworkProtoResolver resolver = new CoreNetworkProtoResolver();
+    private GetBlocksResponse getBlocksResponse;
+    private NewBlockBroadcastMessage newBlockBroadcastMessage;
+    private AddPersistableNetworkPayloadMessage addTradeStatisticsMessage;
+
+    @Setup
+    public void createMessages() {
+        List<RawBlock> rawBlocks = new SyntheticChainGenerator(1, 20, 40, 5).generate(NUM_BLOCKS);
+        getBlocksResponse = new GetBlocksResponse(rawBlocks, 1);
+        newBlockBroadcastMessage = new NewBlockBroadcastMessage(rawBlocks.get(rawBlocks.size() - 1));
+        addTradeStatisticsMessage = new AddPersistableNetworkPayloadMessage(new TradeStatistics2(OfferPayload.Direction.BUY,
+                "BTC",
+                "EUR",
+                "SEPA",
+                1534800000000L,
+                true,
+                0.02,
+                25_000_000,
+                10_000_000,
+                "offerId",
+                65_000_000,
+                20_000_000,
+                1534800600000L,
+                String.format("%064x", 1),
+                null,
+                Collections.singletonMap("referralId", "123456")));
+    }
+
+    @Benchmark
+    public NetworkEnvelope getBlocksResponseRoundTrip() throws InvalidProtocolBufferException, ProtobufferException {
+        return roundTrip(getBlocksResponse);
+    }
+
+    @Benchmark
+    public NetworkEnvelope newBlockBroadcastMessageRoundTrip() throws InvalidProtocolBufferException, ProtobufferException {
+        return roundTrip(newBlockBroadcastMessage);
+    }
+
+    @Benchmark
+    public NetworkEnvelope addTradeStatisticsMessageRoundTrip() throws InvalidProtocolBufferException, ProtobufferException {
+        return roundTrip(addTradeStatisticsMessage);
+    }
+
+    private NetworkEnvelope roundTrip(NetworkEnvelope networkEnvelope) throws InvalidProtocolBufferException, ProtobufferException {
+        byte[] bytes = networkEnvelope.toProtoNetworkEnvelope().toByteArray();
+        return resolver.fromProto(PB.NetworkEnvelope.parseFrom(bytes));
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade;
+
+import bisq.core.offer.Offer;
+import bisq.core.util.SegmentedStorage;
+
+import bisq.common.UserThread;
+import bisq.common.proto.ProtoUtil;
+import bisq.common.util.Utilities;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+/**
+ * Measures the write amplification of a trade state change and of closing a trade, once with one record per trade
+ * in the SegmentedStorage and once with the whole list written to a single file like Storage did before.
+ * The time per change is measured by JMH, the records and bytes written per change are printed at the end of each
+ * trial.
+ * <p>
+ * Like in the app the lists are only changed on the UserThread, which also runs the flush of the SegmentedStorage
+ * timer. All variants pay for the handover to the UserThread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TradableListWriteBenchmark {
+    // Size of the contract json of a real trade, it dominates the size of a persisted trade
+    private static final int CONTRACT_JSON_LENGTH = 6_000;
+
+    @Param({"100", "500"})
+    private int numPendingTrades;
+
+    @Param({"1000", "5000"})
+    private int numClosedTrades;
+
+    private File dir;
+    private SegmentedStorage pendingTradesStorage;
+    private SegmentedStorage closedTradesStorage;
+    private TradableList<Tradable> pendingTrades;
+    private TradableList<Tradable> closedTrades;
+    private List<Tradable> legacyPendingTrades;
+    private List<Tradable> legacyClosedTrades;
+    private Path legacyPendingTradesFile;
+    private Path legacyClosedTradesFile;
+
+    private int nextPendingTrade;
+    private int nextClosedTrade;
+    private Tradable tradeToClose;
+    @Nullable
+    private Tradable lastClosedTrade;
+
+    private long numStateChanges;
+    private long numLegacyStateChanges;
+    private long numTradesClosed;
+    private long numLegacyTradesClosed;
+    private long numLegacyBytesWritten;
+    private long numLegacyClosedBytesWritten;
+    private long numClosedRecordWrites;
+    private long numClosedBytesWritten;
+
+    @Setup
+    public void createStores() throws IOException {
+        dir = Files.createTempDirectory("TradableListWriteBenchmark").toFile();
+        pendingTradesStorage = createSegmentedStorage("pending_trades");
+        closedTradesStorage = createSegmentedStorage("closed_trades");
+        pendingTrades = new TradableList<>(null, pendingTradesStorage, "PendingTrades");
+        closedTrades = new TradableList<>(null, closedTradesStorage, "ClosedTrades");
+        legacyPendingTrades = new ArrayList<>();
+        legacyClosedTrades = new ArrayList<>();
+        legacyPendingTradesFile = new File(dir, "PendingTrades").toPath();
+        legacyClosedTradesFile = new File(dir, "ClosedTrades").toPath();
+
+        Random random = new Random(1);
+        onUserThread(() -> {
+            for (int i = 0; i < numPendingTrades; i++) {
+                Tradable trade = new BenchmarkTrade("pending" + i, random);
+                pendingTrades.add(trade);
+                legacyPendingTrades.add(trade);
+            }
+            for (int i = 0; i < numClosedTrades; i++) {
+                Tradable trade = new BenchmarkTrade("closed" + i, random);
+                closedTrades.add(trade);
+                legacyClosedTrades.add(trade);
+            }
+            pendingTradesStorage.flush();
+            closedTradesStorage.flush();
+        });
+        awaitRecordWrites(pendingTradesStorage, numPendingTrades);
+        awaitRecordWrites(closedTradesStorage, numClosedTrades);
+        pendingTradesStorage.getNumRecordWrites().set(0);
+        pendingTradesStorage.getNumBytesWritten().set(0);
+        closedTradesStorage.getNumRecordWrites().set(0);
+        closedTradesStorage.getNumBytesWritten().set(0);
+    }
+
+    @TearDown
+    public void printWriteAmplification() {
+        System.out.println();
+        System.out.println("Trade state change with " + numPendingTrades + " pending trades: " +
+                perChange(pendingTradesStorage.getNumRecordWrites().get(), numStateChanges) + " records and " +
+                perChange(pendingTradesStorage.getNumBytesWritten().get(), numStateChanges) +
+                " bytes written, whole list: " + perChange(numLegacyBytesWritten, numLegacyStateChanges) + " bytes");
+        System.out.println("Trade closed with " + numClosedTrades + " closed trades: " +
+                perChange(numClosedRecordWrites, numTradesClosed) + " records and " +
+                perChange(numClosedBytesWritten, numTradesClosed) +
+                " bytes written, whole list: " + perChange(numLegacyClosedBytesWritten, numLegacyTradesClosed) +
+                " bytes");
+
+        pendingTradesStorage.shutDown();
+        closedTradesStorage.shutDown();
+        deleteRecursively(dir);
+    }
+
+    // The trade to close is created outside of the measurement. The trade closed before gets removed again, so the
+    // closed trades keep their size.
+    @Setup(Level.Invocation)
+    public void prepareTradeToClose() {
+        tradeToClose = new BenchmarkTrade("closedInBenchmark" + nextClosedTrade, new Random(nextClosedTrade));
+        nextClosedTrade++;
+
+        if (lastClosedTrade != null) {
+            Tradable trade = lastClosedTrade;
+            onUserThread(() -> {
+                closedTrades.remove(trade);
+                legacyClosedTrades.remove(trade);
+            });
+            lastClosedTrade = null;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Benchmarks
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Benchmark
+    public void tradeStateChange() {
+        Tradable trade = pendingTrades.getList().get(nextPendingTrade++ % numPendingTrades);
+        long expected = pendingTradesStorage.getNumRecordWrites().get() + 1;
+        onUserThread(() -> {
+            pendingTrades.persist(trade);
+            pendingTradesStorage.flush();
+        });
+        awaitRecordWrites(pendingTradesStorage, expected);
+        numStateChanges++;
+    }
+
+    @Benchmark
+    public void tradeStateChangeLegacy() {
+        onUserThread(() -> numLegacyBytesWritten += writeWholeList(legacyPendingTrades, legacyPendingTradesFile));
+        numLegacyStateChanges++;
+    }
+
+    @Benchmark
+    public void tradeClosed() {
+        Tradable trade = tradeToClose;
+        lastClosedTrade = trade;
+        long recordWrites = closedTradesStorage.getNumRecordWrites().get();
+        long bytesWritten = closedTradesStorage.getNumBytesWritten().get();
+        onUserThread(() -> {
+            closedTrades.add(trade);
+            closedTradesStorage.flush();
+        });
+        awaitRecordWrites(closedTradesStorage, recordWrites + 1);
+        numClosedRecordWrites += closedTradesStorage.getNumRecordWrites().get() - recordWrites;
+        numClosedBytesWritten += closedTradesStorage.getNumBytesWritten().get() - bytesWritten;
+        numTradesClosed++;
+    }
+
+    @Benchmark
+    public void tradeClosedLegacy() {
+        Tradable trade = tradeToClose;
+        lastClosedTrade = trade;
+        onUserThread(() -> {
+            legacyClosedTrades.add(trade);
+            numLegacyClosedBytesWritten += writeWholeList(legacyClosedTrades, legacyClosedTradesFile);
+        });
+        numLegacyTradesClosed++;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private SegmentedStorage createSegmentedStorage(String name) throws IOException {
+        File storageDir = new File(dir, name);
+        if (!storageDir.mkdirs())
+            throw new IOException("make dir failed. dir=" + storageDir.getAbsolutePath());
+        // Marks the directory as migrated, so the TradableList does not read the legacy file
+        Files.write(new File(storageDir, "initialized").toPath(), new byte[0]);
+        return new SegmentedStorage(storageDir, null, TradableList.SAVE_DELAY_MS);
+    }
+
+    private static void onUserThread(Runnable task) {
+        CountDownLatch latch = new CountDownLatch(1);
+        UserThread.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                latch.countDown();
+            }
+        });
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // The records are written on the writer thread of the storage. The record counter gets incremented after the
+    // bytes are on disk, so we wait until it has caught up with the records we have flushed.
+    private static void awaitRecordWrites(SegmentedStorage segmentedStorage, long numRecordWrites) {
+        while (segmentedStorage.getNumRecordWrites().get() < numRecordWrites)
+            Thread.yield();
+    }
+
+    // Same as Storage with a PersistableEnvelope holding the whole list
+    private static long writeWholeList(List<Tradable> tradables, Path file) {
+        byte[] bytes = PB.PersistableEnvelope.newBuilder()
+                .setTradableList(PB.TradableList.newBuilder()
+                        .addAllTradable(ProtoUtil.collectionToProto(new ArrayList<>(tradables))))
+                .build()
+                .toByteArray();
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.write(tempFile, bytes);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.length;
+    }
+
+    private static String perChange(long total, long numChanges) {
+        return numChanges == 0 ? "-" : String.valueOf(total / numChanges);
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files)
+                deleteRecursively(child);
+        }
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    // Stands in for a trade, the proto has the size of a persisted trade but the trade itself carries no state
+    private static class BenchmarkTrade implements Tradable {
+        private final String id;
+        private final Date date;
+        private final PB.Tradable proto;
+
+        BenchmarkTrade(String id, Random random) {
+            this.id = id;
+            date = new Date();
+            byte[] txId = new byte[32];
+            random.nextBytes(txId);
+            char[] contractAsJson = new char[CONTRACT_JSON_LENGTH];
+            for (int i = 0; i < contractAsJson.length; i++)
+                contractAsJson[i] = (char) ('a' + random.nextInt(26));
+            proto = PB.Tradable.newBuilder()
+                    .setBuyerAsMakerTrade(PB.BuyerAsMakerTrade.newBuilder()
+                            .setTrade(PB.Trade.newBuilder()
+                                    .setTakeOfferDate(date.getTime())
+                                    .setTradeAmountAsLong(random.nextInt(100_000_000))
+                                    .setTradePrice(random.nextInt(100_000_000))
+                                    .setDepositTxId(Utilities.bytesAsHexString(txId))
+                                    .setContractAsJson(new String(contractAsJson))
+                                    .setContractHash(ByteString.copyFrom(txId))
+                                    .setState(PB.Trade.State.DEPOSIT_CONFIRMED_IN_BLOCK_CHAIN)))
+                    .build();
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            return proto;
+        }
+
+        @Override
+        public Offer getOffer() {
+            return null;
+        }
+
+        @Override
+        public Date getDate() {
+            return date;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getShortId() {
+            return id;
+        }
+    }
+}
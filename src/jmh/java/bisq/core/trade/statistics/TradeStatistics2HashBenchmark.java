@@ -0,0 +1,79 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import bisq.core.offer.OfferPayload;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates a trade statistics object including its hash, once with the json based hash and once with the canonical
+ * binary encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TradeStatistics2HashBenchmark {
+    @Param({"0", "1"})
+    private int hashVersion;
+
+    private long offerId;
+
+    @Benchmark
+    public byte[] createHash() {
+        Map<String, String> extraDataMap = new HashMap<>();
+        extraDataMap.put("referralId", "123456");
+        if (hashVersion != TradeStatistics2.LEGACY_JSON_HASH_VERSION)
+            extraDataMap.put(TradeStatistics2.HASH_VERSION, String.valueOf(hashVersion));
+
+        // A new offer ID for each invocation so nothing can be cached
+        return new TradeStatistics2(OfferPayload.Direction.BUY,
+                "BTC",
+                "EUR",
+                "SEPA",
+                1500000000000L,
+                true,
+                0.02,
+                10_000_000,
+                5_000_000,
+                "offer-" + offerId++,
+                65_000_000,
+                10_000_000,
+                1500000600000L,
+                "4f7a1e8e3b6dd5c41d1a4b4c0f0a3a39e1c6a7e0b9b0e2a6f8d1c3b5a7e9f0d2",
+                null,
+                extraDataMap).getHash();
+    }
+}
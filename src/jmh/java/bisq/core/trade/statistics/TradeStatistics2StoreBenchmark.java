@@ -0,0 +1,111 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the persisted trade statistics store. The load time is measured by JMH, the retained heap is printed by the
+ * main method:
+ * <pre>
+ *     java -cp [jmh runtime classpath] bisq.core.trade.statistics.TradeStatistics2StoreBenchmark [numTrades]
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TradeStatistics2StoreBenchmark {
+    private static final int NUM_TRADES = 50_000;
+
+    private byte[] serializedStore;
+
+    @Setup
+    public void createStore() {
+        serializedStore = createSerializedStore(NUM_TRADES);
+    }
+
+    @Benchmark
+    public Map<P2PDataStorage.ByteArray, ?> load() throws InvalidProtocolBufferException {
+        return load(serializedStore);
+    }
+
+    public static void main(String[] args) throws InvalidProtocolBufferException {
+        int numTrades = args.length > 0 ? Integer.parseInt(args[0]) : NUM_TRADES;
+        byte[] serializedStore = createSerializedStore(numTrades);
+        System.out.println("Serialized store of " + numTrades + " trades: " + serializedStore.length / 1024 + " kB");
+        printRetainedHeap(serializedStore);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static void printRetainedHeap(byte[] serializedStore) throws InvalidProtocolBufferException {
+        long before = getUsedHeap();
+        Map<P2PDataStorage.ByteArray, ?> map = load(serializedStore);
+        long retained = getUsedHeap() - before;
+        System.out.println(retained / 1024 + " kB retained for " + map.size() + " trades, " +
+                retained / map.size() + " bytes per trade");
+    }
+
+    private static byte[] createSerializedStore(int numTrades) {
+        return PB.PersistableEnvelope.newBuilder()
+                .setTradeStatistics2Store(PB.TradeStatistics2Store.newBuilder()
+                        .addAllItems(TradeStatisticsFixture.createTradeStatistics(numTrades).stream()
+                                .map(TradeStatistics2::toProtoTradeStatistics2)
+                                .collect(Collectors.toList())))
+                .build()
+                .toByteArray();
+    }
+
+    private static Map<P2PDataStorage.ByteArray, ?> load(byte[] serializedStore) throws InvalidProtocolBufferException {
+        PB.TradeStatistics2Store proto = PB.PersistableEnvelope.parseFrom(serializedStore).getTradeStatistics2Store();
+        return ((TradeStatistics2Store) TradeStatistics2Store.fromProto(proto)).getMap();
+    }
+
+    private static long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import bisq.core.offer.OfferPayload;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic history of trade statistics with a realistic mix of currencies and payment methods.
+ */
+class TradeStatisticsFixture {
+    private static final String[] CURRENCY_CODES = {"EUR", "USD", "BRL", "GBP", "XMR", "ETH"};
+    private static final String[] FIAT_PAYMENT_METHODS = {"SEPA", "OK_PAY", "CLEAR_X_CHANGE", "US_POSTAL_MONEY_ORDER"};
+    private static final String[] REFERRAL_IDS = {"123456", "654321"};
+
+    static List<TradeStatistics2> createTradeStatistics(int numTrades) {
+        List<TradeStatistics2> tradeStatistics = new ArrayList<>(numTrades);
+        Random random = new Random(1);
+        long tradeDate = 1500000000000L;
+        for (int i = 0; i < numTrades; i++) {
+            String currencyCode = CURRENCY_CODES[random.nextInt(CURRENCY_CODES.length)];
+            boolean isCrypto = currencyCode.equals("XMR") || currencyCode.equals("ETH");
+            long amount = 1_000_000 + random.nextInt(99_000_000);
+            tradeDate += random.nextInt(3_600_000);
+            // About every 10th trade was done with a referral ID
+            String referralId = random.nextInt(10) == 0 ? REFERRAL_IDS[random.nextInt(REFERRAL_IDS.length)] : null;
+            tradeStatistics.add(new TradeStatistics2(random.nextBoolean() ? OfferPayload.Direction.BUY : OfferPayload.Direction.SELL,
+                    isCrypto ? currencyCode : "BTC",
+                    isCrypto ? "BTC" : currencyCode,
+                    isCrypto ? "BLOCK_CHAINS" : FIAT_PAYMENT_METHODS[random.nextInt(FIAT_PAYMENT_METHODS.length)],
+                    tradeDate - 600_000,
+                    random.nextBoolean(),
+                    (random.nextInt(11) - 5) / 100d,
+                    amount,
+                    amount / 2,
+                    "offer-" + i,
+                    isCrypto ? 1_000_000 + random.nextInt(2_000_000) : 50_000_000 + random.nextInt(30_000_000),
+                    amount,
+                    tradeDate,
+                    String.format("%064x", i),
+                    null,
+                    referralId != null ? Collections.singletonMap(OfferPayload.REFERRAL_ID, referralId) : null));
+        }
+        return tradeStatistics;
+    }
+}
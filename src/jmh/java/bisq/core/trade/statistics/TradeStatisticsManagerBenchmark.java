@@ -0,0 +1,100 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import bisq.core.provider.price.PriceFeedService;
+
+import bisq.network.p2p.P2PService;
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
+
+import bisq.common.storage.FileUtil;
+
+import com.google.common.io.Files;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Adds a synthetic history of trade statistics to an empty manager, like it happens for each statistics object
+ * received from the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TradeStatisticsManagerBenchmark {
+    private static final int NUM_TRADES = 10_000;
+
+    private List<TradeStatistics2> tradeStatistics;
+    private File storageDir;
+    private TradeStatisticsManager tradeStatisticsManager;
+
+    @Setup
+    public void createTradeStatistics() {
+        storageDir = Files.createTempDir();
+        tradeStatistics = TradeStatisticsFixture.createTradeStatistics(NUM_TRADES);
+    }
+
+    @Setup(Level.Invocation)
+    public void createManager() {
+        tradeStatisticsManager = new TradeStatisticsManager(mock(P2PService.class),
+                mock(PriceFeedService.class),
+                mock(TradeStatistics2StorageService.class),
+                mock(AppendOnlyDataStoreService.class),
+                mock(ReferralIdService.class),
+                new TradeStatisticsAggregator(),
+                storageDir,
+                false);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(storageDir);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_TRADES)
+    public TradeStatisticsManager addToMap() {
+        for (TradeStatistics2 statistics : tradeStatistics) {
+            tradeStatisticsManager.addToMap(statistics, true);
+        }
+        return tradeStatisticsManager;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.util;
+
+import bisq.core.monetary.Price;
+import bisq.core.monetary.Volume;
+import bisq.core.offer.Offer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static bisq.core.offer.OfferMaker.amount;
+import static bisq.core.offer.OfferMaker.baseCurrencyCode;
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.offer.OfferMaker.counterCurrencyCode;
+import static bisq.core.offer.OfferMaker.minAmount;
+import static bisq.core.offer.OfferMaker.price;
+import static bisq.core.offer.OfferMaker.useMarketBasedPrice;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+
+/**
+ * Price, amount and volume of all offers of a synthetic offer book as shown in the offer book, once with the
+ * format methods of BSFormatter which create a string per value and once with the append methods which write into a
+ * reused StringBuilder. A quarter of the offers are altcoin offers, half of the offers have an amount range.
+ * The allocation rate of both paths is reported with -PjmhArgs="-prof gc".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BSFormatterBenchmark {
+    private static final int NUM_OFFERS = 1000;
+    private static final int DECIMAL_PLACES = 4;
+    private static final String[] FIAT_CODES = {"EUR", "USD", "BRL", "GBP", "CAD"};
+    private static final double[] FIAT_PRICES = {6500, 7400, 27000, 5700, 9600};
+    private static final String[] CRYPTO_CODES = {"XMR", "ETH", "LTC", "BSQ"};
+    private static final double[] CRYPTO_PRICES = {0.0155, 0.0305, 0.0075, 0.0001};
+
+    private final BSFormatter formatter = new BSFormatter();
+    private final List<Offer> offers = new ArrayList<>();
+    private final List<Price> prices = new ArrayList<>();
+    private final List<Volume> volumes = new ArrayList<>();
+    private final StringBuilder sb = new StringBuilder();
+
+    @Setup
+    public void createOfferBook() {
+        Random random = new Random(1);
+        for (int i = 0; i < NUM_OFFERS; i++) {
+            boolean isCrypto = random.nextInt(4) == 0;
+            int currencyIndex = random.nextInt(isCrypto ? CRYPTO_CODES.length : FIAT_CODES.length);
+            String currencyCode = isCrypto ? CRYPTO_CODES[currencyIndex] : FIAT_CODES[currencyIndex];
+            double marketPrice = isCrypto ? CRYPTO_PRICES[currencyIndex] : FIAT_PRICES[currencyIndex];
+            long offerAmount = 1_000_000 + random.nextInt(99_000_000);
+            Offer offer = make(btcUsdOffer.but(
+                    with(baseCurrencyCode, isCrypto ? currencyCode : "BTC"),
+                    with(counterCurrencyCode, isCrypto ? "BTC" : currencyCode),
+                    with(price, Math.round(marketPrice * (isCrypto ? 100_000_000 : 10_000))),
+                    with(useMarketBasedPrice, false),
+                    with(amount, offerAmount),
+                    with(minAmount, random.nextBoolean() ? offerAmount / 2 : offerAmount)));
+            offers.add(offer);
+            // We only want to measure the formatting
+            prices.add(offer.getPrice());
+            volumes.add(offer.getVolume());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_OFFERS)
+    public void format(Blackhole blackhole) {
+        for (int i = 0; i < NUM_OFFERS; i++) {
+            blackhole.consume(formatter.formatPrice(prices.get(i)));
+            blackhole.consume(formatter.formatAmount(offers.get(i), DECIMAL_PLACES, false, 0));
+            blackhole.consume(formatter.formatVolume(volumes.get(i)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_OFFERS)
+    public void append(Blackhole blackhole) {
+        for (int i = 0; i < NUM_OFFERS; i++) {
+            sb.setLength(0);
+            formatter.appendPrice(sb, prices.get(i), false).append(' ');
+            formatter.appendAmount(sb, offers.get(i), DECIMAL_PLACES).append(' ');
+            formatter.appendVolume(sb, volumes.get(i), false);
+            blackhole.consume(sb.toString());
+        }
+    }
+}
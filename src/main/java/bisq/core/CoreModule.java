@@ -26,8 +26,10 @@ import bisq.core.app.P2PNetworkSetup;
 import bisq.core.app.WalletAppSetup;
 import bisq.core.arbitration.ArbitratorModule;
 import bisq.core.btc.BitcoinModule;
+import bisq.core.crypto.SignatureVerificationCache;
 import bisq.core.dao.DaoModule;
 import bisq.core.filter.FilterModule;
+import bisq.core.metrics.MetricsReporter;
 import bisq.core.network.p2p.seed.DefaultSeedNodeRepository;
 import bisq.core.network.p2p.seed.SeedNodeAddressLookup;
 import bisq.core.notifications.MobileMessageEncryption;
@@ -83,11 +85,13 @@ public class CoreModule extends AppModule {
         bind(P2PNetworkSetup.class).in(Singleton.class);
         bind(WalletAppSetup.class).in(Singleton.class);
         bind(BisqFacade.class).in(Singleton.class);
+        bind(MetricsReporter.class).in(Singleton.class);
 
         bind(BisqEnvironment.class).toInstance((BisqEnvironment) environment);
 
         bind(KeyStorage.class).in(Singleton.class);
         bind(KeyRing.class).in(Singleton.class);
+        bind(SignatureVerificationCache.class).in(Singleton.class);
         bind(User.class).in(Singleton.class);
         bind(Clock.class).in(Singleton.class);
         bind(Preferences.class).in(Singleton.class);
@@ -18,18 +18,23 @@
 package bisq.core.app;
 
 import bisq.core.arbitration.ArbitratorManager;
+import bisq.core.arbitration.DisputeManager;
 import bisq.core.btc.BtcOptionKeys;
 import bisq.core.btc.RegTestHost;
 import bisq.core.btc.wallet.BsqWalletService;
 import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.btc.wallet.WalletsSetup;
+import bisq.core.crypto.SignatureVerificationCache;
 import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.DaoSetup;
 import bisq.core.exceptions.BisqException;
+import bisq.core.metrics.MetricsReporter;
+import bisq.core.offer.OfferBookService;
 import bisq.core.offer.OpenOfferManager;
 import bisq.core.setup.CorePersistedDataHost;
 import bisq.core.setup.CoreSetup;
 import bisq.core.trade.TradeManager;
+import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.util.joptsimple.EnumValueConverter;
 
 import bisq.network.NetworkOptionKeys;
@@ -40,7 +45,6 @@ import bisq.common.UserThread;
 import bisq.common.app.AppModule;
 import bisq.common.app.DevEnv;
 import bisq.common.handlers.ResultHandler;
-import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.setup.GracefulShutDownHandler;
 import bisq.common.storage.CorruptedDatabaseFilesHandler;
 import bisq.common.storage.Storage;
@@ -218,13 +222,13 @@ public abstract class BisqExecutable implements GracefulShutDownHandler {
 
     protected void setupPersistedDataHosts(Injector injector) {
         try {
-            PersistedDataHost.apply(CorePersistedDataHost.getPersistedDataHosts(injector));
+            CorePersistedDataHost.readPersisted(CorePersistedDataHost.getPersistedDataHosts(injector));
         } catch (Throwable t) {
             // If we are in dev mode we want to get the exception if some db files are corrupted
             // We need to delay it as the stage is not created yet and so popups would not be shown.
             if (DevEnv.isDevMode())
                 UserThread.runAfter(() -> {
-                    log.error("Error at PersistedDataHost.apply: " + t.toString());
+                    log.error("Error at CorePersistedDataHost.readPersisted: " + t.toString());
                     throw t;
                 }, 2);
         }
@@ -253,7 +257,12 @@ public abstract class BisqExecutable implements GracefulShutDownHandler {
         try {
             if (injector != null) {
                 injector.getInstance(ArbitratorManager.class).shutDown();
+                injector.getInstance(SignatureVerificationCache.class).shutDown();
                 injector.getInstance(TradeManager.class).shutDown();
+                injector.getInstance(DisputeManager.class).shutDown();
+                injector.getInstance(TradeStatisticsManager.class).shutDown();
+                injector.getInstance(OfferBookService.class).shutDown();
+                injector.getInstance(MetricsReporter.class).shutDown();
                 injector.getInstance(DaoSetup.class).shutDown();
                 injector.getInstance(OpenOfferManager.class).shutDown(() -> {
                     injector.getInstance(P2PService.class).shutDown(() -> {
@@ -368,6 +377,10 @@ public abstract class BisqExecutable implements GracefulShutDownHandler {
                 description("If set to true the trade statistics are stored as json file in the data dir.", false))
                 .withRequiredArg()
                 .ofType(boolean.class);
+        parser.accepts(AppOptionKeys.ENABLE_METRICS,
+                description("If set to true timings and counters of the core services are logged and stored as json file in the data dir.", false))
+                .withRequiredArg()
+                .ofType(boolean.class);
         parser.accepts(AppOptionKeys.PROVIDERS,
                 description("Custom providers (comma separated)", false))
                 .withRequiredArg();
@@ -46,6 +46,7 @@ public class BisqHeadlessApp implements HeadlessApp {
     private BisqSetup bisqSetup;
     private CorruptedDatabaseFilesHandler corruptedDatabaseFilesHandler;
     private TradeManager tradeManager;
+    private long startTs;
 
     public BisqHeadlessApp() {
         shutDownHandler = this::stop;
@@ -53,6 +54,7 @@ public class BisqHeadlessApp implements HeadlessApp {
 
     public void startApplication() {
         try {
+            startTs = System.currentTimeMillis();
             bisqSetup = injector.getInstance(BisqSetup.class);
             bisqSetup.addBisqSetupCompleteListener(this);
 
@@ -70,7 +72,9 @@ public class BisqHeadlessApp implements HeadlessApp {
 
     @Override
     public void onSetupComplete() {
-        log.info("onSetupComplete");
+        // Used for measuring the startup with large persisted data sets
+        log.info("onSetupComplete after {} ms. Durations of startup steps: {}",
+                System.currentTimeMillis() - startTs, bisqSetup.getStartupDurations());
     }
 
     protected void setupHandlers() {
@@ -92,6 +96,7 @@ public class BisqHeadlessApp implements HeadlessApp {
         bisqSetup.setDisplaySecurityRecommendationHandler(key -> log.info("onDisplaySecurityRecommendationHandler"));
         bisqSetup.setDisplayLocalhostHandler(key -> log.info("onDisplayLocalhostHandler"));
         bisqSetup.setWrongOSArchitectureHandler(msg -> log.info("onWrongOSArchitectureHandler. msg={}", msg));
+        bisqSetup.setStartupErrorHandler(throwable -> handleUncaughtException(throwable, true));
 
         //TODO move to bisqSetup
         corruptedDatabaseFilesHandler.getCorruptedDatabaseFiles().ifPresent(files -> log.info("getCorruptedDatabaseFiles. files={}", files));
@@ -32,6 +32,7 @@ import bisq.core.btc.wallet.WalletsSetup;
 import bisq.core.dao.DaoSetup;
 import bisq.core.filter.FilterManager;
 import bisq.core.locale.Res;
+import bisq.core.metrics.MetricsReporter;
 import bisq.core.notifications.MobileNotificationService;
 import bisq.core.notifications.alerts.DisputeMsgEvents;
 import bisq.core.notifications.alerts.MyOfferTakenEvents;
@@ -45,6 +46,7 @@ import bisq.core.payment.PaymentAccount;
 import bisq.core.payment.payload.PaymentMethod;
 import bisq.core.provider.fee.FeeService;
 import bisq.core.provider.price.PriceFeedService;
+import bisq.core.setup.StartupTaskGraph;
 import bisq.core.trade.Trade;
 import bisq.core.trade.TradeManager;
 import bisq.core.trade.statistics.TradeStatisticsManager;
@@ -64,6 +66,7 @@ import bisq.common.app.DevEnv;
 import bisq.common.crypto.CryptoException;
 import bisq.common.crypto.KeyRing;
 import bisq.common.crypto.SealedAndSigned;
+import bisq.common.handlers.ResultHandler;
 import bisq.common.proto.ProtobufferException;
 import bisq.common.util.Utilities;
 
@@ -96,7 +99,9 @@ import java.net.Socket;
 import java.io.IOException;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -147,6 +152,7 @@ public class BisqSetup {
     private final PriceAlert priceAlert;
     private final MarketAlerts marketAlerts;
     private final BSFormatter formatter;
+    private final MetricsReporter metricsReporter;
     @Setter
     @Nullable
     private Consumer<Runnable> displayTacHandler;
@@ -160,6 +166,9 @@ public class BisqSetup {
     private Consumer<Boolean> displayTorNetworkSettingsHandler;
     @Setter
     @Nullable
+    private Consumer<Throwable> startupErrorHandler;
+    @Setter
+    @Nullable
     private Runnable showFirstPopupIfResyncSPVRequestedHandler;
     @Setter
     @Nullable
@@ -182,6 +191,8 @@ public class BisqSetup {
     @SuppressWarnings("FieldCanBeLocal")
     private MonadicBinding<Boolean> p2pNetworkAndWalletInitialized;
     private List<BisqSetupCompleteListener> bisqSetupCompleteListeners = new ArrayList<>();
+    @Nullable
+    private StartupTaskGraph startupTaskGraph;
 
     @Inject
     public BisqSetup(P2PNetworkSetup p2PNetworkSetup,
@@ -215,7 +226,8 @@ public class BisqSetup {
                      DisputeMsgEvents disputeMsgEvents,
                      PriceAlert priceAlert,
                      MarketAlerts marketAlerts,
-                     BSFormatter formatter) {
+                     BSFormatter formatter,
+                     MetricsReporter metricsReporter) {
 
 
         this.p2PNetworkSetup = p2PNetworkSetup;
@@ -251,6 +263,7 @@ public class BisqSetup {
         this.priceAlert = priceAlert;
         this.marketAlerts = marketAlerts;
         this.formatter = formatter;
+        this.metricsReporter = metricsReporter;
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -261,26 +274,32 @@ public class BisqSetup {
         bisqSetupCompleteListeners.add(listener);
     }
 
+    // The startup steps are run as a dependency graph. The check for a localhost node and the reading of the maps
+    // from the resources do not depend on the acceptance of the tac, the P2P network and the wallet need all three.
     public void start() {
+        metricsReporter.start();
         maybeReSyncSPVChain();
-        maybeShowTac();
-    }
 
-    private void step2() {
-        checkIfLocalHostNodeIsRunning();
-    }
-
-    private void step3() {
-        readMapsFromResources();
-        checkCryptoSetup();
-        checkForCorrectOSArchitecture();
-    }
-
-    private void step4() {
-        startP2pNetworkAndWallet();
+        startupTaskGraph = new StartupTaskGraph("BisqSetup")
+                .addAsyncTask("maybeShowTac", this::maybeShowTac)
+                .addTask("checkIfLocalHostNodeIsRunning", this::checkIfLocalHostNodeIsRunning)
+                .addTask("readMapsFromResources", this::readMapsFromResources)
+                .addTask("checkCryptoSetup", this::checkCryptoSetup, "maybeShowTac")
+                .addUserThreadTask("checkForCorrectOSArchitecture", this::checkForCorrectOSArchitecture, "maybeShowTac")
+                .addAsyncTask("startP2pNetworkAndWallet", this::startP2pNetworkAndWallet,
+                        "maybeShowTac", "checkIfLocalHostNodeIsRunning", "readMapsFromResources")
+                .addUserThreadTask("initDomainServices", this::onP2pNetworkAndWalletInitialized,
+                        "startP2pNetworkAndWallet");
+        // The error handler is called on the UserThread
+        startupTaskGraph.start(() -> log.info("BisqSetup completed"),
+                throwable -> {
+                    log.error("BisqSetup failed", throwable);
+                    if (startupErrorHandler != null)
+                        startupErrorHandler.accept(throwable);
+                });
     }
 
-    private void step5() {
+    private void onP2pNetworkAndWalletInitialized() {
         initDomainServices();
 
         bisqSetupCompleteListeners.forEach(BisqSetupCompleteListener::onSetupComplete);
@@ -319,6 +338,11 @@ public class BisqSetup {
     // Getters
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Durations in ms of the startup steps which are completed
+    public Map<String, Long> getStartupDurations() {
+        return startupTaskGraph != null ? startupTaskGraph.getDurations() : new HashMap<>();
+    }
+
     // Wallet
     public StringProperty getBtcInfo() {
         return walletAppSetup.getBtcInfo();
@@ -378,90 +402,80 @@ public class BisqSetup {
         }
     }
 
-    private void maybeShowTac() {
+    private void maybeShowTac(ResultHandler resultHandler) {
         if (!preferences.isTacAccepted() && !DevEnv.isDevMode()) {
             if (displayTacHandler != null)
                 displayTacHandler.accept(() -> {
                     preferences.setTacAccepted(true);
-                    step2();
+                    resultHandler.handleResult();
                 });
         } else {
-            step2();
+            resultHandler.handleResult();
         }
     }
 
+    // Runs on the thread pool of the startupTaskGraph
     private void checkIfLocalHostNodeIsRunning() {
-        Thread checkIfLocalHostNodeIsRunningThread = new Thread(() -> {
-            Thread.currentThread().setName("checkIfLocalHostNodeIsRunningThread");
-            Socket socket = null;
-            try {
-                socket = new Socket();
-                socket.connect(new InetSocketAddress(InetAddresses.forString("127.0.0.1"),
-                        BisqEnvironment.getBaseCurrencyNetwork().getParameters().getPort()), 5000);
-                log.info("Localhost Bitcoin node detected.");
-                UserThread.execute(() -> {
-                    bisqEnvironment.setBitcoinLocalhostNodeRunning(true);
-                    step3();
-                });
-            } catch (Throwable e) {
-                log.info("Localhost Bitcoin node not detected.");
-                UserThread.execute(BisqSetup.this::step3);
-            } finally {
-                if (socket != null) {
-                    try {
-                        socket.close();
-                    } catch (IOException ignore) {
-                    }
+        Socket socket = null;
+        try {
+            socket = new Socket();
+            socket.connect(new InetSocketAddress(InetAddresses.forString("127.0.0.1"),
+                    BisqEnvironment.getBaseCurrencyNetwork().getParameters().getPort()), 5000);
+            log.info("Localhost Bitcoin node detected.");
+            bisqEnvironment.setBitcoinLocalhostNodeRunning(true);
+        } catch (Throwable e) {
+            log.info("Localhost Bitcoin node not detected.");
+        } finally {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException ignore) {
                 }
             }
-        });
-        checkIfLocalHostNodeIsRunningThread.start();
+        }
     }
 
+    // Runs on the thread pool of the startupTaskGraph
     private void readMapsFromResources() {
-        SetupUtils.readFromResources(p2PService.getP2PDataStorage()).addListener((observable, oldValue, newValue) -> {
-            if (newValue)
-                step4();
-        });
+        SetupUtils.readFromResourcesBlocking(p2PService.getP2PDataStorage());
     }
 
+    // Runs on the thread pool of the startupTaskGraph
     private void checkCryptoSetup() {
         // We want to test if the client is compiled with the correct crypto provider (BountyCastle)
         // and if the unlimited Strength for cryptographic keys is set.
         // If users compile themselves they might miss that step and then would get an exception in the trade.
         // To avoid that we add here at startup a sample encryption and signing to see if it don't causes an exception.
         // See: https://github.com/bisq-network/exchange/blob/master/doc/build.md#7-enable-unlimited-strength-for-cryptographic-keys
-        Thread checkCryptoThread = new Thread(() -> {
-            try {
-                Thread.currentThread().setName("checkCryptoThread");
-                log.trace("Run crypto test");
-                // just use any simple dummy msg
-                Ping payload = new Ping(1, 1);
-                SealedAndSigned sealedAndSigned = EncryptionService.encryptHybridWithSignature(payload,
-                        keyRing.getSignatureKeyPair(), keyRing.getPubKeyRing().getEncryptionPubKey());
-                DecryptedDataTuple tuple = encryptionService.decryptHybridWithSignature(sealedAndSigned, keyRing.getEncryptionKeyPair().getPrivate());
-                if (tuple.getNetworkEnvelope() instanceof Ping &&
-                        ((Ping) tuple.getNetworkEnvelope()).getNonce() == payload.getNonce() &&
-                        ((Ping) tuple.getNetworkEnvelope()).getLastRoundTripTime() == payload.getLastRoundTripTime()) {
-                    log.debug("Crypto test succeeded");
-
-                    if (Security.getProvider("BC") == null)
-                        throw new CryptoException("Security provider BountyCastle is not available.");
-                } else {
-                    throw new CryptoException("Payload not correct after decryption");
-                }
-            } catch (CryptoException | ProtobufferException e) {
-                e.printStackTrace();
-                String msg = Res.get("popup.warning.cryptoTestFailed", e.getMessage());
-                log.error(msg);
+        try {
+            log.trace("Run crypto test");
+            // just use any simple dummy msg
+            Ping payload = new Ping(1, 1);
+            SealedAndSigned sealedAndSigned = EncryptionService.encryptHybridWithSignature(payload,
+                    keyRing.getSignatureKeyPair(), keyRing.getPubKeyRing().getEncryptionPubKey());
+            DecryptedDataTuple tuple = encryptionService.decryptHybridWithSignature(sealedAndSigned, keyRing.getEncryptionKeyPair().getPrivate());
+            if (tuple.getNetworkEnvelope() instanceof Ping &&
+                    ((Ping) tuple.getNetworkEnvelope()).getNonce() == payload.getNonce() &&
+                    ((Ping) tuple.getNetworkEnvelope()).getLastRoundTripTime() == payload.getLastRoundTripTime()) {
+                log.debug("Crypto test succeeded");
+
+                if (Security.getProvider("BC") == null)
+                    throw new CryptoException("Security provider BountyCastle is not available.");
+            } else {
+                throw new CryptoException("Payload not correct after decryption");
+            }
+        } catch (CryptoException | ProtobufferException e) {
+            e.printStackTrace();
+            String msg = Res.get("popup.warning.cryptoTestFailed", e.getMessage());
+            log.error(msg);
+            UserThread.execute(() -> {
                 if (cryptoSetupFailedHandler != null)
                     cryptoSetupFailedHandler.accept(msg);
-            }
-        });
-        checkCryptoThread.start();
+            });
+        }
     }
 
-    private void startP2pNetworkAndWallet() {
+    private void startP2pNetworkAndWallet(ResultHandler resultHandler) {
         ChangeListener<Boolean> walletInitializedListener = (observable, oldValue, newValue) -> {
             // TODO that seems to be called too often if Tor takes longer to start up...
             if (newValue && !p2pNetworkReady.get() && displayTorNetworkSettingsHandler != null)
@@ -496,7 +510,7 @@ public class BisqSetup {
                 walletInitialized.removeListener(walletInitializedListener);
                 if (displayTorNetworkSettingsHandler != null)
                     displayTorNetworkSettingsHandler.accept(false);
-                step5();
+                resultHandler.handleResult();
             }
         });
     }
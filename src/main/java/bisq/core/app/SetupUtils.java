@@ -90,16 +90,21 @@ public class SetupUtils {
         BooleanProperty result = new SimpleBooleanProperty();
         Thread thread = new Thread(() -> {
             Thread.currentThread().setName("readFromResourcesThread");
-            // Used to load different files per base currency (EntryMap_BTC_MAINNET, EntryMap_LTC,...)
-            final BaseCurrencyNetwork baseCurrencyNetwork = BisqEnvironment.getBaseCurrencyNetwork();
-            final String postFix = "_" + baseCurrencyNetwork.getCurrencyCode() + "_"
-                    + baseCurrencyNetwork.getNetwork();
-            long ts = new Date().getTime();
-            p2PDataStorage.readFromResources(postFix);
-            log.info("readFromResources took {} ms", (new Date().getTime() - ts));
+            readFromResourcesBlocking(p2PDataStorage);
             UserThread.execute(() -> result.set(true));
         });
         thread.start();
         return result;
     }
+
+    // Reads on the calling thread, must not be called on the UserThread
+    public static void readFromResourcesBlocking(P2PDataStorage p2PDataStorage) {
+        // Used to load different files per base currency (EntryMap_BTC_MAINNET, EntryMap_LTC,...)
+        final BaseCurrencyNetwork baseCurrencyNetwork = BisqEnvironment.getBaseCurrencyNetwork();
+        final String postFix = "_" + baseCurrencyNetwork.getCurrencyCode() + "_"
+                + baseCurrencyNetwork.getNetwork();
+        long ts = new Date().getTime();
+        p2PDataStorage.readFromResources(postFix);
+        log.info("readFromResources took {} ms", (new Date().getTime() - ts));
+    }
 }
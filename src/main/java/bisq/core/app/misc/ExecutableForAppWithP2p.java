@@ -24,6 +24,7 @@ import bisq.core.arbitration.ArbitratorManager;
 import bisq.core.btc.wallet.BsqWalletService;
 import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.btc.wallet.WalletsSetup;
+import bisq.core.crypto.SignatureVerificationCache;
 import bisq.core.offer.OpenOfferManager;
 
 import bisq.network.p2p.P2PService;
@@ -67,6 +68,7 @@ public abstract class ExecutableForAppWithP2p extends BisqExecutable implements
         try {
             if (injector != null) {
                 injector.getInstance(ArbitratorManager.class).shutDown();
+                injector.getInstance(SignatureVerificationCache.class).shutDown();
                 injector.getInstance(OpenOfferManager.class).shutDown(() -> injector.getInstance(P2PService.class).shutDown(() -> {
                     injector.getInstance(WalletsSetup.class).shutDownComplete.addListener((ov, o, n) -> {
                         module.close(injector);
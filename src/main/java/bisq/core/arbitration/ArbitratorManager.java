@@ -18,6 +18,7 @@
 package bisq.core.arbitration;
 
 import bisq.core.app.AppOptionKeys;
+import bisq.core.crypto.SignatureVerificationCache;
 import bisq.core.filter.FilterManager;
 import bisq.core.user.Preferences;
 import bisq.core.user.User;
@@ -53,10 +54,12 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -79,7 +82,7 @@ public class ArbitratorManager {
     private static final long RETRY_REPUBLISH_SEC = 5;
     private static final long REPEATED_REPUBLISH_AT_STARTUP_SEC = 60;
 
-    private final List<String> publicKeys;
+    private final Set<String> publicKeys;
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Instance fields
@@ -90,6 +93,7 @@ public class ArbitratorManager {
     private final User user;
     private final Preferences preferences;
     private final FilterManager filterManager;
+    private final SignatureVerificationCache signatureVerificationCache;
     private final ObservableMap<NodeAddress, Arbitrator> arbitratorsObservableMap = FXCollections.observableHashMap();
     private List<Arbitrator> persistedAcceptedArbitrators;
     private Timer republishArbitratorTimer, retryRepublishArbitratorTimer;
@@ -105,15 +109,17 @@ public class ArbitratorManager {
                              User user,
                              Preferences preferences,
                              FilterManager filterManager,
+                             SignatureVerificationCache signatureVerificationCache,
                              @Named(AppOptionKeys.USE_DEV_PRIVILEGE_KEYS) boolean useDevPrivilegeKeys) {
         this.keyRing = keyRing;
         this.arbitratorService = arbitratorService;
         this.user = user;
         this.preferences = preferences;
         this.filterManager = filterManager;
+        this.signatureVerificationCache = signatureVerificationCache;
         publicKeys = useDevPrivilegeKeys ?
-                Collections.unmodifiableList(Collections.singletonList(DevEnv.DEV_PRIVILEGE_PUB_KEY)) :
-                Collections.unmodifiableList(Arrays.asList(
+                Collections.singleton(DevEnv.DEV_PRIVILEGE_PUB_KEY) :
+                Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
                         "0365c6af94681dbee69de1851f98d4684063bf5c2d64b1c73ed5d90434f375a054",
                         "031c502a60f9dbdb5ae5e438a79819e4e1f417211dd537ac12c9bc23246534c4bd",
                         "02c1e5a242387b6d5319ce27246cea6edaaf51c3550591b528d2578a4753c56c2c",
@@ -129,7 +135,7 @@ public class ArbitratorManager {
                         "03df837a3a0f3d858e82f3356b71d1285327f101f7c10b404abed2abc1c94e7169",
                         "0203a90fb2ab698e524a5286f317a183a84327b8f8c3f7fa4a98fec9e1cefd6b72",
                         "023c99cc073b851c892d8c43329ca3beb5d2213ee87111af49884e3ce66cbd5ba5"
-                ));
+                )));
     }
 
     public void shutDown() {
@@ -162,10 +168,6 @@ public class ArbitratorManager {
         });
 
         persistedAcceptedArbitrators = new ArrayList<>(user.getAcceptedArbitrators());
-        user.clearAcceptedArbitrators();
-
-        // TODO we mirror arbitrator data for mediator as long we have not impl. it in the UI
-        user.clearAcceptedMediators();
 
         if (user.getRegisteredArbitrator() != null) {
             P2PService p2PService = arbitratorService.getP2PService();
@@ -182,7 +184,19 @@ public class ArbitratorManager {
 
         filterManager.filterProperty().addListener((observable, oldValue, newValue) -> updateArbitratorMap());
 
-        updateArbitratorMap();
+        // We verify the signatures of all arbitrators we have at startup in parallel. updateArbitratorMap will then
+        // get the results from the cache. We clear the accepted arbitrators only when we refill them, so other
+        // services never see an empty list in between.
+        signatureVerificationCache.verifyInParallel(arbitratorService.getArbitrators().values(),
+                this::verifySignature,
+                () -> user.batchUpdate(() -> {
+                    user.clearAcceptedArbitrators();
+
+                    // TODO we mirror arbitrator data for mediator as long we have not impl. it in the UI
+                    user.clearAcceptedMediators();
+
+                    updateArbitratorMap();
+                }));
     }
 
     private void startRepublishArbitrator() {
@@ -194,62 +208,41 @@ public class ArbitratorManager {
     }
 
     public void updateArbitratorMap() {
-        Map<NodeAddress, Arbitrator> map = arbitratorService.getArbitrators();
-        arbitratorsObservableMap.clear();
-        Map<NodeAddress, Arbitrator> filtered = map.values().stream()
-                .filter(e -> {
-                    final String pubKeyAsHex = Utils.HEX.encode(e.getRegistrationPubKey());
-                    final boolean isInPublicKeyInList = isPublicKeyInList(pubKeyAsHex);
-                    if (!isInPublicKeyInList) {
-                        if (DevEnv.DEV_PRIVILEGE_PUB_KEY.equals(pubKeyAsHex))
-                            log.info("We got the DEV_PRIVILEGE_PUB_KEY in our list of publicKeys. RegistrationPubKey={}, nodeAddress={}",
-                                    Utilities.bytesAsHexString(e.getRegistrationPubKey()),
-                                    e.getNodeAddress().getFullAddress());
-                        else
-                            log.warn("We got an arbitrator which is not in our list of publicKeys. RegistrationPubKey={}, nodeAddress={}",
-                                    Utilities.bytesAsHexString(e.getRegistrationPubKey()),
-                                    e.getNodeAddress().getFullAddress());
-                    }
-                    final boolean isSigValid = verifySignature(e.getPubKeyRing().getSignaturePubKey(),
-                            e.getRegistrationPubKey(),
-                            e.getRegistrationSignature());
-                    if (!isSigValid)
-                        log.warn("Sig check for arbitrator failed. Arbitrator=", e.toString());
-
-                    return isInPublicKeyInList && isSigValid;
-                })
-                .collect(Collectors.toMap(Arbitrator::getNodeAddress, Function.identity()));
-
-        arbitratorsObservableMap.putAll(filtered);
-        arbitratorsObservableMap.values().stream()
-                .filter(persistedAcceptedArbitrators::contains)
-                .forEach(a -> {
-                    user.addAcceptedArbitrator(a);
-                    user.addAcceptedMediator(getMediator(a)
-                    );
-                });
+        Map<NodeAddress, Arbitrator> filtered = new HashMap<>();
+        arbitratorService.getArbitrators().values().forEach(arbitrator -> {
+            if (isPublicKeyInList(arbitrator) && verifySignature(arbitrator))
+                filtered.put(arbitrator.getNodeAddress(), arbitrator);
+        });
 
-        if (preferences.isAutoSelectArbitrators()) {
+        // We only apply the changes to the observable map so listeners don't get a remove and add event for all
+        // arbitrators at each update
+        arbitratorsObservableMap.keySet().retainAll(filtered.keySet());
+        filtered.forEach((nodeAddress, arbitrator) -> {
+            if (!arbitrator.equals(arbitratorsObservableMap.get(nodeAddress)))
+                arbitratorsObservableMap.put(nodeAddress, arbitrator);
+        });
+
+        user.batchUpdate(() -> {
             arbitratorsObservableMap.values().stream()
-                    .filter(user::hasMatchingLanguage)
-                    .forEach(a -> {
-                        user.addAcceptedArbitrator(a);
-                        user.addAcceptedMediator(getMediator(a)
-                        );
-                    });
-        } else {
+                    .filter(persistedAcceptedArbitrators::contains)
+                    .forEach(this::addAcceptedArbitratorAndMediator);
+
+            if (preferences.isAutoSelectArbitrators()) {
+                arbitratorsObservableMap.values().stream()
+                        .filter(user::hasMatchingLanguage)
+                        .forEach(this::addAcceptedArbitratorAndMediator);
+            }
+        });
+
+        if (!preferences.isAutoSelectArbitrators()) {
             // if we don't have any arbitrator we set all matching
             // we use a delay as we might get our matching arbitrator a bit delayed (first we get one we did not selected
             // then we get our selected one - we don't want to activate the first in that case)
             UserThread.runAfter(() -> {
                 if (user.getAcceptedArbitrators().isEmpty()) {
-                    arbitratorsObservableMap.values().stream()
+                    user.batchUpdate(() -> arbitratorsObservableMap.values().stream()
                             .filter(user::hasMatchingLanguage)
-                            .forEach(a -> {
-                                user.addAcceptedArbitrator(a);
-                                user.addAcceptedMediator(getMediator(a)
-                                );
-                            });
+                            .forEach(this::addAcceptedArbitratorAndMediator));
                 }
             }, 100, TimeUnit.MILLISECONDS);
         }
@@ -339,6 +332,27 @@ public class ArbitratorManager {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private void addAcceptedArbitratorAndMediator(Arbitrator arbitrator) {
+        user.addAcceptedArbitrator(arbitrator);
+        user.addAcceptedMediator(getMediator(arbitrator));
+    }
+
+    private boolean isPublicKeyInList(Arbitrator arbitrator) {
+        final String pubKeyAsHex = Utils.HEX.encode(arbitrator.getRegistrationPubKey());
+        final boolean isInPublicKeyInList = isPublicKeyInList(pubKeyAsHex);
+        if (!isInPublicKeyInList) {
+            if (DevEnv.DEV_PRIVILEGE_PUB_KEY.equals(pubKeyAsHex))
+                log.info("We got the DEV_PRIVILEGE_PUB_KEY in our list of publicKeys. RegistrationPubKey={}, nodeAddress={}",
+                        Utilities.bytesAsHexString(arbitrator.getRegistrationPubKey()),
+                        arbitrator.getNodeAddress().getFullAddress());
+            else
+                log.warn("We got an arbitrator which is not in our list of publicKeys. RegistrationPubKey={}, nodeAddress={}",
+                        Utilities.bytesAsHexString(arbitrator.getRegistrationPubKey()),
+                        arbitrator.getNodeAddress().getFullAddress());
+        }
+        return isInPublicKeyInList;
+    }
+
     private void republishArbitrator() {
         Arbitrator registeredArbitrator = user.getRegisteredArbitrator();
         if (registeredArbitrator != null) {
@@ -355,16 +369,29 @@ public class ArbitratorManager {
         }
     }
 
+    private boolean verifySignature(Arbitrator arbitrator) {
+        boolean isSigValid = verifySignature(arbitrator.getPubKeyRing().getSignaturePubKey(),
+                arbitrator.getRegistrationPubKey(),
+                arbitrator.getRegistrationSignature());
+        if (!isSigValid)
+            log.warn("Sig check for arbitrator failed. Arbitrator={}", arbitrator.toString());
+        return isSigValid;
+    }
+
+    // The result is cached, so we only verify arbitrators we have not seen before
     private boolean verifySignature(PublicKey storageSignaturePubKey, byte[] registrationPubKey, String signature) {
-        String keyToSignAsHex = Utils.HEX.encode(storageSignaturePubKey.getEncoded());
-        try {
-            ECKey key = ECKey.fromPublicOnly(registrationPubKey);
-            key.verifyMessage(keyToSignAsHex, signature);
-            return true;
-        } catch (SignatureException e) {
-            log.warn("verifySignature failed");
-            return false;
-        }
+        byte[] signedData = storageSignaturePubKey.getEncoded();
+        return signatureVerificationCache.verify(registrationPubKey, signedData, signature, () -> {
+            String keyToSignAsHex = Utils.HEX.encode(signedData);
+            try {
+                ECKey key = ECKey.fromPublicOnly(registrationPubKey);
+                key.verifyMessage(keyToSignAsHex, signature);
+                return true;
+            } catch (SignatureException e) {
+                log.warn("verifySignature failed");
+                return false;
+            }
+        });
     }
 
 
@@ -17,26 +17,53 @@
 
 package bisq.core.arbitration;
 
+import bisq.common.crypto.Hash;
 import bisq.common.proto.network.NetworkPayload;
+import bisq.common.util.Utilities;
 
 import io.bisq.generated.protobuffer.PB;
 
 import com.google.protobuf.ByteString;
 
-import lombok.Value;
+import java.util.Objects;
+import java.util.function.Supplier;
 
-@Value
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@Slf4j
 public final class Attachment implements NetworkPayload {
+    @Getter
     private final String fileName;
-    private final byte[] bytes;
+    @Nullable
+    private byte[] bytes;
+    // Set if the bytes are stored outside of the dispute and are loaded at first access (see DisputeStore).
+    @Nullable
+    transient private Supplier<byte[]> bytesLoader;
+    // Hex of the sha256 hash of the bytes. Used for equals and hashCode so that we don't need to load the bytes.
+    @Nullable
+    transient private String contentHash;
 
     public Attachment(String fileName, byte[] bytes) {
         this.fileName = fileName;
         this.bytes = bytes;
     }
 
+    // The contentHash must be the hex of the sha256 hash of the bytes the bytesLoader delivers
+    Attachment(String fileName, String contentHash, Supplier<byte[]> bytesLoader) {
+        this.fileName = fileName;
+        this.contentHash = contentHash;
+        this.bytesLoader = bytesLoader;
+    }
+
     @Override
     public PB.Attachment toProtoMessage() {
+        // We must not send an empty attachment if the stored bytes could not be loaded
+        byte[] bytes = checkNotNull(loadBytes(), "The bytes of attachment " + fileName + " could not be loaded");
         return PB.Attachment.newBuilder()
                 .setFileName(fileName)
                 .setBytes(ByteString.copyFrom(bytes))
@@ -46,4 +73,65 @@ public final class Attachment implements NetworkPayload {
     public static Attachment fromProto(PB.Attachment proto) {
         return new Attachment(proto.getFileName(), proto.getBytes().toByteArray());
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Getters
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns an empty array if the stored bytes could not be loaded
+    public byte[] getBytes() {
+        byte[] loaded = loadBytes();
+        return loaded != null ? loaded : new byte[0];
+    }
+
+    public boolean isAvailable() {
+        return loadBytes() != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Attachment)) return false;
+        Attachment that = (Attachment) o;
+        return Objects.equals(fileName, that.fileName) && getContentHash().equals(that.getContentHash());
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(fileName) + getContentHash().hashCode();
+    }
+
+    // We don't load the bytes for logging
+    @Override
+    public String toString() {
+        return "Attachment{" +
+                "\n     fileName='" + fileName + '\'' +
+                ",\n     loaded=" + (bytes != null) +
+                "\n}";
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // If loading fails we keep the loader, so the data is not replaced by an empty payload and can be loaded later
+    @Nullable
+    private synchronized byte[] loadBytes() {
+        if (bytes == null && bytesLoader != null) {
+            bytes = bytesLoader.get();
+            if (bytes != null)
+                bytesLoader = null;
+            else
+                log.error("Loading the bytes of attachment {} failed", fileName);
+        }
+        return bytes;
+    }
+
+    private synchronized String getContentHash() {
+        if (contentHash == null)
+            contentHash = Utilities.bytesAsHexString(Hash.getSha256Hash(bytes != null ? bytes : new byte[0]));
+        return contentHash;
+    }
 }
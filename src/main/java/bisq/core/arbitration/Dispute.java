@@ -43,6 +43,7 @@ import javafx.collections.ObservableList;
 
 import java.util.Date;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
@@ -90,14 +91,16 @@ public final class Dispute implements NetworkPayload {
 
     private long openingDate;
 
-    transient private Storage<DisputeList> storage;
+    // Null as long as the dispute is not added to a DisputeList
+    @Nullable
+    transient private DisputeList disputeList;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public Dispute(Storage<DisputeList> storage,
+    public Dispute(@Nullable DisputeList disputeList,
                    String tradeId,
                    int traderId,
                    boolean disputeOpenerIsBuyer,
@@ -132,10 +135,53 @@ public final class Dispute implements NetworkPayload {
                 takerContractSignature,
                 arbitratorPubKeyRing,
                 isSupportTicket);
-        this.storage = storage;
+        this.disputeList = disputeList;
         openingDate = new Date().getTime();
     }
 
+    /**
+     * @deprecated Disputes are not persisted with a Storage anymore. Use the constructor with the DisputeList. A
+     * dispute created with this constructor gets bound to the DisputeList when it is added at the DisputeManager.
+     */
+    @Deprecated
+    public Dispute(Storage<DisputeList> storage,
+                   String tradeId,
+                   int traderId,
+                   boolean disputeOpenerIsBuyer,
+                   boolean disputeOpenerIsMaker,
+                   PubKeyRing traderPubKeyRing,
+                   long tradeDate,
+                   Contract contract,
+                   @Nullable byte[] contractHash,
+                   @Nullable byte[] depositTxSerialized,
+                   @Nullable byte[] payoutTxSerialized,
+                   @Nullable String depositTxId,
+                   @Nullable String payoutTxId,
+                   String contractAsJson,
+                   @Nullable String makerContractSignature,
+                   @Nullable String takerContractSignature,
+                   PubKeyRing arbitratorPubKeyRing,
+                   boolean isSupportTicket) {
+        this((DisputeList) null,
+                tradeId,
+                traderId,
+                disputeOpenerIsBuyer,
+                disputeOpenerIsMaker,
+                traderPubKeyRing,
+                tradeDate,
+                contract,
+                contractHash,
+                depositTxSerialized,
+                payoutTxSerialized,
+                depositTxId,
+                payoutTxId,
+                contractAsJson,
+                makerContractSignature,
+                takerContractSignature,
+                arbitratorPubKeyRing,
+                isSupportTicket);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
@@ -176,11 +222,16 @@ public final class Dispute implements NetworkPayload {
         this.arbitratorPubKeyRing = arbitratorPubKeyRing;
         this.isSupportTicket = isSupportTicket;
 
-        id = tradeId + "_" + traderId;
+        id = createId(tradeId, traderId);
     }
 
     @Override
     public PB.Dispute toProtoMessage() {
+        return toProtoMessage(Attachment::toProtoMessage);
+    }
+
+    // Used for persistence where the attachments are stored separately (see DisputeStore)
+    PB.Dispute toProtoMessage(Function<Attachment, PB.Attachment> attachmentToProto) {
         PB.Dispute.Builder builder = PB.Dispute.newBuilder()
                 .setTradeId(tradeId)
                 .setTraderId(traderId)
@@ -193,7 +244,7 @@ public final class Dispute implements NetworkPayload {
                 .setArbitratorPubKeyRing(arbitratorPubKeyRing.toProtoMessage())
                 .setIsSupportTicket(isSupportTicket)
                 .addAllDisputeCommunicationMessages(disputeCommunicationMessages.stream()
-                        .map(msg -> msg.toProtoNetworkEnvelope().getDisputeCommunicationMessage())
+                        .map(msg -> msg.toProtoMessage(attachmentToProto))
                         .collect(Collectors.toList()))
                 .setIsClosed(isClosedProperty.get())
                 .setOpeningDate(openingDate)
@@ -247,10 +298,15 @@ public final class Dispute implements NetworkPayload {
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // A trader can only have one dispute per trade, so the id of the dispute is given by the trade and the trader
+    public static String createId(String tradeId, int traderId) {
+        return tradeId + "_" + traderId;
+    }
+
     public void addDisputeCommunicationMessage(DisputeCommunicationMessage disputeCommunicationMessage) {
         if (!disputeCommunicationMessages.contains(disputeCommunicationMessage)) {
             disputeCommunicationMessages.add(disputeCommunicationMessage);
-            storage.queueUpForSave();
+            persist();
         } else {
             log.error("disputeDirectMessage already exists");
         }
@@ -261,23 +317,31 @@ public final class Dispute implements NetworkPayload {
     // Setters
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    // In case we get the object via the network storage is not set as its transient, so we need to set it.
+    // In case we get the object via the network disputeList is not set as its transient, so we need to set it.
+    public void setDisputeList(DisputeList disputeList) {
+        this.disputeList = disputeList;
+    }
+
+    /**
+     * @deprecated Disputes are persisted by the DisputeList they are bound to, use setDisputeList. The storage is
+     * ignored.
+     */
+    @Deprecated
     public void setStorage(Storage<DisputeList> storage) {
-        this.storage = storage;
     }
 
     public void setIsClosed(boolean isClosed) {
         boolean changed = this.isClosedProperty.get() != isClosed;
         this.isClosedProperty.set(isClosed);
         if (changed)
-            storage.queueUpForSave();
+            persist();
     }
 
     public void setDisputeResult(DisputeResult disputeResult) {
         boolean changed = disputeResultProperty.get() == null || !disputeResultProperty.get().equals(disputeResult);
         disputeResultProperty.set(disputeResult);
         if (changed)
-            storage.queueUpForSave();
+            persist();
     }
 
     @SuppressWarnings("NullableProblems")
@@ -285,7 +349,12 @@ public final class Dispute implements NetworkPayload {
         boolean changed = this.disputePayoutTxId == null || !this.disputePayoutTxId.equals(disputePayoutTxId);
         this.disputePayoutTxId = disputePayoutTxId;
         if (changed)
-            storage.queueUpForSave();
+            persist();
+    }
+
+    private void persist() {
+        if (disputeList != null)
+            disputeList.persist(this);
     }
 
 
@@ -17,7 +17,11 @@
 
 package bisq.core.arbitration;
 
+import bisq.core.arbitration.messages.DisputeCommunicationMessage;
 import bisq.core.proto.CoreProtoResolver;
+import bisq.core.trade.Contract;
+
+import bisq.network.p2p.NodeAddress;
 
 import bisq.common.proto.ProtoUtil;
 import bisq.common.proto.persistable.PersistableEnvelope;
@@ -29,9 +33,16 @@ import io.bisq.generated.protobuffer.PB;
 import com.google.protobuf.Message;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -39,6 +50,8 @@ import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 @ToString
 /**
@@ -46,21 +59,49 @@ import lombok.extern.slf4j.Slf4j;
  *
  * Calls to the List are delegated because this class intercepts the add/remove calls so changes
  * can be saved to disc.
+ *
+ * The disputes are persisted in the DisputeStore with one record per dispute. The storage is only used for reading
+ * the DisputeList file of older versions for the migration to the DisputeStore.
  */
 public final class DisputeList implements PersistableEnvelope, PersistedDataHost {
     transient private final Storage<DisputeList> storage;
+    // Null if the DisputeList is only used as a container for the proto conversion
+    @Nullable
+    transient private final DisputeStore disputeStore;
     @Getter
     private final ObservableList<Dispute> list = FXCollections.observableArrayList();
 
-    public DisputeList(Storage<DisputeList> storage) {
+    // Indexes for the lookups by DisputeManager. They are maintained by a listener as the list can be changed by the
+    // getter as well. Messages are indexed by a listener on the message list of each dispute.
+    transient private final Map<String, Dispute> disputesById = new HashMap<>();
+    transient private final Map<String, List<Dispute>> disputesByTradeId = new HashMap<>();
+    transient private final Map<String, DisputeCommunicationMessage> messagesByUid = new HashMap<>();
+    transient private final Map<String, Dispute> disputesByMessageUid = new HashMap<>();
+    transient private final Map<NodeAddress, Integer> numDisputesByBuyerNodeAddress = new HashMap<>();
+    transient private final Map<NodeAddress, Integer> numDisputesBySellerNodeAddress = new HashMap<>();
+    // Dispute's hashCode is expensive and not stable, so we use identity
+    transient private final Map<Dispute, ListChangeListener<DisputeCommunicationMessage>> messageListeners = new IdentityHashMap<>();
+
+    public DisputeList(Storage<DisputeList> storage, DisputeStore disputeStore) {
         this.storage = storage;
+        this.disputeStore = disputeStore;
+        addListChangeListener();
     }
 
     @Override
     public void readPersisted() {
-        DisputeList persisted = storage.initAndGetPersisted(this, 50);
-        if (persisted != null)
-            list.addAll(persisted.getList());
+        if (disputeStore == null)
+            return;
+
+        if (disputeStore.isInitialized()) {
+            list.addAll(disputeStore.readAll());
+        } else {
+            DisputeList persisted = storage.initAndGetPersisted(this, 50);
+            if (persisted != null)
+                list.addAll(persisted.getList());
+            disputeStore.migrate(list);
+        }
+        list.forEach(dispute -> dispute.setDisputeList(this));
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -69,6 +110,8 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
 
     private DisputeList(Storage<DisputeList> storage, List<Dispute> list) {
         this.storage = storage;
+        disputeStore = null;
+        addListChangeListener();
         this.list.addAll(list);
     }
 
@@ -86,8 +129,9 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
         List<Dispute> list = proto.getDisputeList().stream()
                 .map(disputeProto -> Dispute.fromProto(disputeProto, coreProtoResolver))
                 .collect(Collectors.toList());
-        list.forEach(e -> e.setStorage(storage));
-        return new DisputeList(storage, list);
+        DisputeList disputeList = new DisputeList(storage, list);
+        list.forEach(e -> e.setDisputeList(disputeList));
+        return disputeList;
     }
 
 
@@ -99,7 +143,7 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
         if (!list.contains(dispute)) {
             boolean changed = list.add(dispute);
             if (changed)
-                persist();
+                persist(dispute);
             return changed;
         } else {
             return false;
@@ -109,13 +153,24 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
     public boolean remove(Object dispute) {
         //noinspection SuspiciousMethodCalls
         boolean changed = list.remove(dispute);
-        if (changed)
-            persist();
+        if (changed && disputeStore != null)
+            disputeStore.remove((Dispute) dispute);
         return changed;
     }
 
+    // Only the given dispute gets written. Disputes which are not (or not anymore) in the list are ignored.
+    public void persist(Dispute dispute) {
+        if (disputeStore != null && disputesById.get(dispute.getId()) == dispute)
+            disputeStore.queueUpForSave(dispute);
+    }
+
     public void persist() {
-        storage.queueUpForSave();
+        list.forEach(this::persist);
+    }
+
+    public void shutDown() {
+        if (disputeStore != null)
+            disputeStore.shutDown();
     }
 
     public int size() {
@@ -126,12 +181,116 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
         return list.isEmpty();
     }
 
-    @SuppressWarnings({"BooleanMethodIsAlwaysInverted", "SuspiciousMethodCalls"})
+    // Equal disputes have the same id, so we only need to compare with the dispute with the same id
+    @SuppressWarnings({"BooleanMethodIsAlwaysInverted"})
     public boolean contains(Object o) {
-        return list.contains(o);
+        if (!(o instanceof Dispute))
+            return false;
+        Dispute dispute = disputesById.get(((Dispute) o).getId());
+        return dispute != null && dispute.equals(o);
     }
 
     public Stream<Dispute> stream() {
         return list.stream();
     }
+
+    public Optional<Dispute> findDispute(String tradeId, int traderId) {
+        return Optional.ofNullable(disputesById.get(Dispute.createId(tradeId, traderId)));
+    }
+
+    public List<Dispute> getDisputesByTradeId(String tradeId) {
+        return disputesByTradeId.getOrDefault(tradeId, Collections.emptyList());
+    }
+
+    @Nullable
+    public DisputeCommunicationMessage findMessageByUid(String uid) {
+        return messagesByUid.get(uid);
+    }
+
+    @Nullable
+    public Dispute findDisputeByMessageUid(String uid) {
+        return disputesByMessageUid.get(uid);
+    }
+
+    public int getNumDisputesByBuyerNodeAddress(NodeAddress nodeAddress) {
+        return numDisputesByBuyerNodeAddress.getOrDefault(nodeAddress, 0);
+    }
+
+    public int getNumDisputesBySellerNodeAddress(NodeAddress nodeAddress) {
+        return numDisputesBySellerNodeAddress.getOrDefault(nodeAddress, 0);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addListChangeListener() {
+        list.addListener((ListChangeListener<Dispute>) change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(this::removeFromIndexes);
+                change.getAddedSubList().forEach(this::addToIndexes);
+            }
+        });
+    }
+
+    private void addToIndexes(Dispute dispute) {
+        disputesById.put(dispute.getId(), dispute);
+        disputesByTradeId.computeIfAbsent(dispute.getTradeId(), k -> new ArrayList<>()).add(dispute);
+
+        Contract contract = dispute.getContract();
+        if (contract != null) {
+            if (contract.getBuyerNodeAddress() != null)
+                numDisputesByBuyerNodeAddress.merge(contract.getBuyerNodeAddress(), 1, Integer::sum);
+            if (contract.getSellerNodeAddress() != null)
+                numDisputesBySellerNodeAddress.merge(contract.getSellerNodeAddress(), 1, Integer::sum);
+        }
+
+        ObservableList<DisputeCommunicationMessage> messages = dispute.getDisputeCommunicationMessages();
+        messages.forEach(message -> addMessageToIndexes(dispute, message));
+        ListChangeListener<DisputeCommunicationMessage> messageListener = change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(this::removeMessageFromIndexes);
+                change.getAddedSubList().forEach(message -> addMessageToIndexes(dispute, message));
+            }
+        };
+        messages.addListener(messageListener);
+        messageListeners.put(dispute, messageListener);
+    }
+
+    private void removeFromIndexes(Dispute dispute) {
+        disputesById.remove(dispute.getId(), dispute);
+        List<Dispute> disputesOfTrade = disputesByTradeId.get(dispute.getTradeId());
+        if (disputesOfTrade != null) {
+            disputesOfTrade.removeIf(e -> e == dispute);
+            if (disputesOfTrade.isEmpty())
+                disputesByTradeId.remove(dispute.getTradeId());
+        }
+
+        Contract contract = dispute.getContract();
+        if (contract != null) {
+            decrementCount(numDisputesByBuyerNodeAddress, contract.getBuyerNodeAddress());
+            decrementCount(numDisputesBySellerNodeAddress, contract.getSellerNodeAddress());
+        }
+
+        ListChangeListener<DisputeCommunicationMessage> messageListener = messageListeners.remove(dispute);
+        if (messageListener != null)
+            dispute.getDisputeCommunicationMessages().removeListener(messageListener);
+        dispute.getDisputeCommunicationMessages().forEach(this::removeMessageFromIndexes);
+    }
+
+    private void addMessageToIndexes(Dispute dispute, DisputeCommunicationMessage message) {
+        messagesByUid.put(message.getUid(), message);
+        disputesByMessageUid.put(message.getUid(), dispute);
+    }
+
+    private void removeMessageFromIndexes(DisputeCommunicationMessage message) {
+        if (messagesByUid.remove(message.getUid(), message))
+            disputesByMessageUid.remove(message.getUid());
+    }
+
+    private static void decrementCount(Map<NodeAddress, Integer> map, @Nullable NodeAddress nodeAddress) {
+        if (nodeAddress != null)
+            map.computeIfPresent(nodeAddress, (key, count) -> count > 1 ? count - 1 : null);
+    }
 }
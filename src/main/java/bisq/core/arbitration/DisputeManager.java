@@ -108,6 +108,7 @@ public class DisputeManager implements PersistedDataHost {
     private final P2PService p2PService;
     private final KeyRing keyRing;
     private final Storage<DisputeList> disputeStorage;
+    private final DisputeStore disputeStore;
     private DisputeList disputes;
     private final String disputeInfo;
     private final CopyOnWriteArraySet<DecryptedMessageWithPubKey> decryptedMailboxMessageWithPubKeys = new CopyOnWriteArraySet<>();
@@ -146,6 +147,7 @@ public class DisputeManager implements PersistedDataHost {
         this.keyRing = keyRing;
 
         disputeStorage = new Storage<>(storageDir, persistenceProtoResolver);
+        disputeStore = new DisputeStore(storageDir, persistenceProtoResolver);
 
         openDisputes = new HashMap<>();
         closedDisputes = new HashMap<>();
@@ -170,9 +172,8 @@ public class DisputeManager implements PersistedDataHost {
 
     @Override
     public void readPersisted() {
-        disputes = new DisputeList(disputeStorage);
+        disputes = new DisputeList(disputeStorage, disputeStore);
         disputes.readPersisted();
-        disputes.stream().forEach(dispute -> dispute.setStorage(disputeStorage));
     }
 
     public void onAllServicesInitialized() {
@@ -230,9 +231,14 @@ public class DisputeManager implements PersistedDataHost {
         });
     }
 
+    public void shutDown() {
+        if (disputes != null)
+            disputes.shutDown();
+    }
+
     public void cleanupDisputes() {
         disputes.stream().forEach(dispute -> {
-            dispute.setStorage(disputeStorage);
+            dispute.setDisputeList(disputes);
             if (dispute.isClosed())
                 closedDisputes.put(dispute.getTradeId(), dispute);
             else
@@ -298,16 +304,15 @@ public class DisputeManager implements PersistedDataHost {
                         ackMessage.getSourceMsgClassName(), ackMessage.getSourceId(), ackMessage.getErrorMessage());
             }
 
-            disputes.getList().stream()
-                    .flatMap(dispute -> dispute.getDisputeCommunicationMessages().stream())
-                    .filter(msg -> msg.getUid().equals(ackMessage.getSourceUid()))
-                    .forEach(msg -> {
-                        if (ackMessage.isSuccess())
-                            msg.setAcknowledged(true);
-                        else
-                            msg.setAckError(ackMessage.getErrorMessage());
-                    });
-            disputes.persist();
+            DisputeCommunicationMessage msg = disputes.findMessageByUid(ackMessage.getSourceUid());
+            Dispute dispute = disputes.findDisputeByMessageUid(ackMessage.getSourceUid());
+            if (msg != null && dispute != null) {
+                if (ackMessage.isSuccess())
+                    msg.setAcknowledged(true);
+                else
+                    msg.setAckError(ackMessage.getErrorMessage());
+                disputes.persist(dispute);
+            }
 
             if (decryptedMessageWithPubKey != null)
                 p2PService.removeEntryFromMailbox(decryptedMessageWithPubKey);
@@ -348,6 +353,8 @@ public class DisputeManager implements PersistedDataHost {
                         p2PService.getAddress()
                 );
                 disputeCommunicationMessage.setSystemMessage(true);
+                // Disputes created with the deprecated constructor are not bound to our DisputeList yet
+                dispute.setDisputeList(disputes);
                 dispute.addDisputeCommunicationMessage(disputeCommunicationMessage);
                 if (!reOpen) {
                     disputes.add(dispute);
@@ -376,7 +383,7 @@ public class DisputeManager implements PersistedDataHost {
                                 // We use the disputeCommunicationMessage wrapped inside the openNewDisputeMessage for
                                 // the state, as that is displayed to the user and we only persist that msg
                                 disputeCommunicationMessage.setArrived(true);
-                                disputes.persist();
+                                disputes.persist(dispute);
                                 resultHandler.handleResult();
                             }
 
@@ -391,7 +398,7 @@ public class DisputeManager implements PersistedDataHost {
                                 // We use the disputeCommunicationMessage wrapped inside the openNewDisputeMessage for
                                 // the state, as that is displayed to the user and we only persist that msg
                                 disputeCommunicationMessage.setStoredInMailbox(true);
-                                disputes.persist();
+                                disputes.persist(dispute);
                                 resultHandler.handleResult();
                             }
 
@@ -406,7 +413,7 @@ public class DisputeManager implements PersistedDataHost {
                                 // We use the disputeCommunicationMessage wrapped inside the openNewDisputeMessage for
                                 // the state, as that is displayed to the user and we only persist that msg
                                 disputeCommunicationMessage.setSendMessageError(errorMessage);
-                                disputes.persist();
+                                disputes.persist(dispute);
                                 faultHandler.handleFault("Sending dispute message failed: " +
                                         errorMessage, new MessageDeliveryFailedException());
                             }
@@ -428,7 +435,7 @@ public class DisputeManager implements PersistedDataHost {
     // arbitrator sends that to trading peer when he received openDispute request
     private String sendPeerOpenedDisputeMessage(Dispute disputeFromOpener, Contract contractFromOpener, PubKeyRing pubKeyRing) {
         Dispute dispute = new Dispute(
-                disputeStorage,
+                disputes,
                 disputeFromOpener.getTradeId(),
                 pubKeyRing.hashCode(),
                 !disputeFromOpener.isDisputeOpenerIsBuyer(),
@@ -490,7 +497,7 @@ public class DisputeManager implements PersistedDataHost {
                             // We use the disputeCommunicationMessage wrapped inside the peerOpenedDisputeMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             disputeCommunicationMessage.setArrived(true);
-                            disputes.persist();
+                            disputes.persist(dispute);
                         }
 
                         @Override
@@ -504,7 +511,7 @@ public class DisputeManager implements PersistedDataHost {
                             // We use the disputeCommunicationMessage wrapped inside the peerOpenedDisputeMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             disputeCommunicationMessage.setStoredInMailbox(true);
-                            disputes.persist();
+                            disputes.persist(dispute);
                         }
 
                         @Override
@@ -518,7 +525,7 @@ public class DisputeManager implements PersistedDataHost {
                             // We use the disputeCommunicationMessage wrapped inside the peerOpenedDisputeMessage for
                             // the state, as that is displayed to the user and we only persist that msg
                             disputeCommunicationMessage.setSendMessageError(errorMessage);
-                            disputes.persist();
+                            disputes.persist(dispute);
                         }
                     }
             );
@@ -563,7 +570,7 @@ public class DisputeManager implements PersistedDataHost {
                             log.info("{} arrived at peer {}. tradeId={}, uid={}",
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
                             message.setArrived(true);
-                            disputes.persist();
+                            disputes.persist(dispute);
                         }
 
                         @Override
@@ -571,7 +578,7 @@ public class DisputeManager implements PersistedDataHost {
                             log.info("{} stored in mailbox for peer {}. tradeId={}, uid={}",
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid());
                             message.setStoredInMailbox(true);
-                            disputes.persist();
+                            disputes.persist(dispute);
                         }
 
                         @Override
@@ -579,7 +586,7 @@ public class DisputeManager implements PersistedDataHost {
                             log.error("{} failed: Peer {}. tradeId={}, uid={}, errorMessage={}",
                                     message.getClass().getSimpleName(), peersNodeAddress, message.getTradeId(), message.getUid(), errorMessage);
                             message.setSendMessageError(errorMessage);
-                            disputes.persist();
+                            disputes.persist(dispute);
                         }
                     }
             );
@@ -627,7 +634,7 @@ public class DisputeManager implements PersistedDataHost {
                         // We use the disputeCommunicationMessage wrapped inside the disputeResultMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         disputeCommunicationMessage.setArrived(true);
-                        disputes.persist();
+                        disputes.persist(dispute);
                     }
 
                     @Override
@@ -641,7 +648,7 @@ public class DisputeManager implements PersistedDataHost {
                         // We use the disputeCommunicationMessage wrapped inside the disputeResultMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         disputeCommunicationMessage.setStoredInMailbox(true);
-                        disputes.persist();
+                        disputes.persist(dispute);
                     }
 
                     @Override
@@ -655,7 +662,7 @@ public class DisputeManager implements PersistedDataHost {
                         // We use the disputeCommunicationMessage wrapped inside the disputeResultMessage for
                         // the state, as that is displayed to the user and we only persist that msg
                         disputeCommunicationMessage.setSendMessageError(errorMessage);
-                        disputes.persist();
+                        disputes.persist(dispute);
                     }
                 }
         );
@@ -752,7 +759,7 @@ public class DisputeManager implements PersistedDataHost {
             if (!disputes.contains(dispute)) {
                 final Optional<Dispute> storedDisputeOptional = findDispute(dispute.getTradeId(), dispute.getTraderId());
                 if (!storedDisputeOptional.isPresent()) {
-                    dispute.setStorage(disputeStorage);
+                    dispute.setDisputeList(disputes);
                     disputes.add(dispute);
                     errorMessage = sendPeerOpenedDisputeMessage(dispute, contractFromOpener, peersPubKeyRing);
                 } else {
@@ -786,7 +793,7 @@ public class DisputeManager implements PersistedDataHost {
             if (!disputes.contains(dispute)) {
                 final Optional<Dispute> storedDisputeOptional = findDispute(dispute.getTradeId(), dispute.getTraderId());
                 if (!storedDisputeOptional.isPresent()) {
-                    dispute.setStorage(disputeStorage);
+                    dispute.setDisputeList(disputes);
                     disputes.add(dispute);
                     Optional<Trade> tradeOptional = tradeManager.getTradeById(dispute.getTradeId());
                     tradeOptional.ifPresent(trade -> trade.setDisputeState(Trade.DisputeState.DISPUTE_STARTED_BY_PEER));
@@ -1050,6 +1057,15 @@ public class DisputeManager implements PersistedDataHost {
     // Getters
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    public DisputeList getDisputeList() {
+        return disputes;
+    }
+
+    /**
+     * @deprecated Disputes are persisted in the DisputeStore. The storage only holds the DisputeList file of older
+     * versions which is not read anymore after the migration.
+     */
+    @Deprecated
     public Storage<DisputeList> getDisputeStorage() {
         return disputeStorage;
     }
@@ -1072,21 +1088,13 @@ public class DisputeManager implements PersistedDataHost {
     }
 
     public String getNrOfDisputes(boolean isBuyer, Contract contract) {
-        return String.valueOf(getDisputesAsObservableList().stream()
-                .filter(e -> {
-                    Contract contract1 = e.getContract();
-                    if (contract1 == null)
-                        return false;
-
-                    if (isBuyer) {
-                        NodeAddress buyerNodeAddress = contract1.getBuyerNodeAddress();
-                        return buyerNodeAddress != null && buyerNodeAddress.equals(contract.getBuyerNodeAddress());
-                    } else {
-                        NodeAddress sellerNodeAddress = contract1.getSellerNodeAddress();
-                        return sellerNodeAddress != null && sellerNodeAddress.equals(contract.getSellerNodeAddress());
-                    }
-                })
-                .collect(Collectors.toSet()).size());
+        if (isBuyer) {
+            NodeAddress buyerNodeAddress = contract.getBuyerNodeAddress();
+            return String.valueOf(buyerNodeAddress != null ? disputes.getNumDisputesByBuyerNodeAddress(buyerNodeAddress) : 0);
+        } else {
+            NodeAddress sellerNodeAddress = contract.getSellerNodeAddress();
+            return String.valueOf(sellerNodeAddress != null ? disputes.getNumDisputesBySellerNodeAddress(sellerNodeAddress) : 0);
+        }
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -1114,7 +1122,7 @@ public class DisputeManager implements PersistedDataHost {
     }
 
     private Optional<Dispute> findDispute(String tradeId, int traderId) {
-        return disputes.stream().filter(e -> e.getTradeId().equals(tradeId) && e.getTraderId() == traderId).findAny();
+        return disputes.findDispute(tradeId, traderId);
     }
 
     public Optional<Dispute> findOwnDispute(String tradeId) {
@@ -1122,7 +1130,7 @@ public class DisputeManager implements PersistedDataHost {
     }
 
     private Stream<Dispute> getDisputeStream(String tradeId) {
-        return disputes.stream().filter(e -> e.getTradeId().equals(tradeId));
+        return disputes.getDisputesByTradeId(tradeId).stream();
     }
 
     private void cleanupRetryMap(String uid) {
@@ -0,0 +1,170 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.arbitration;
+
+import bisq.core.arbitration.messages.DisputeCommunicationMessage;
+import bisq.core.util.SegmentedStorage;
+
+import bisq.common.crypto.Hash;
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+import bisq.common.util.Utilities;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+
+import com.google.common.collect.MapMaker;
+
+import java.io.File;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persists each dispute with its messages as its own record, so a new chat message or a state change of a dispute
+ * only rewrites that dispute and not all disputes of the DisputeList. The bytes of the attachments are stored as
+ * content addressed blobs (the key is the sha256 hash of the content) and are loaded at the first access.
+ * <p>
+ * In the dispute records the bytes field of the attachments holds the blob key instead of the content.
+ * <p>
+ * On first start the disputes of the DisputeList file are migrated. The DisputeList file is not written anymore
+ * after the migration but we keep it as backup.
+ */
+@Slf4j
+public class DisputeStore {
+    private static final String DIR_NAME = "disputes";
+    private static final long DELAY_MS = 50;
+
+    private final SegmentedStorage storage;
+    // Blob keys of the attachments we have already stored or loaded. Weak keys use identity comparison, so we don't
+    // need to hash the attachment content for a lookup.
+    private final Map<Attachment, String> blobKeyByAttachment = new MapMaker().weakKeys().makeMap();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public DisputeStore(File storageDir, PersistenceProtoResolver persistenceProtoResolver) {
+        storage = new SegmentedStorage(new File(storageDir, DIR_NAME), persistenceProtoResolver, DELAY_MS);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public boolean isInitialized() {
+        return storage.isInitialized();
+    }
+
+    public List<Dispute> readAll() {
+        List<Dispute> disputes = new ArrayList<>();
+        boolean allRecordsLoaded = true;
+        for (PersistableEnvelope envelope : storage.readAll()) {
+            if (envelope instanceof DisputeList) {
+                disputes.addAll(((DisputeList) envelope).getList());
+            } else {
+                log.error("Unexpected record type in dispute store: " + envelope.getClass().getSimpleName());
+                allRecordsLoaded = false;
+            }
+        }
+
+        Set<String> referencedBlobKeys = new HashSet<>();
+        disputes.forEach(dispute -> dispute.getDisputeCommunicationMessages().forEach(message -> {
+            List<Attachment> attachments = message.getAttachments();
+            for (int i = 0; i < attachments.size(); i++) {
+                Attachment stored = attachments.get(i);
+                String blobKey = Utilities.bytesAsHexString(stored.getBytes());
+                Attachment attachment = new Attachment(stored.getFileName(), blobKey, () -> storage.readBlob(blobKey));
+                blobKeyByAttachment.put(attachment, blobKey);
+                attachments.set(i, attachment);
+                referencedBlobKeys.add(blobKey);
+            }
+        }));
+        // We don't know the blobs referenced by records we could not load, so we only clean up if we got all records.
+        // Corrupted records are handled by the SegmentedStorage.
+        if (allRecordsLoaded)
+            storage.removeBlobsNotIn(referencedBlobKeys);
+        else
+            log.warn("Not all dispute records could be loaded. We don't remove unreferenced attachments.");
+
+        disputes.sort(Comparator.comparing(Dispute::getOpeningDate));
+        return disputes;
+    }
+
+    // Writes all disputes and marks the store as initialized
+    public void migrate(Collection<Dispute> disputes) {
+        log.info("Migrating {} disputes to the dispute store", disputes.size());
+        Map<String, Supplier<? extends Message>> records = new LinkedHashMap<>();
+        disputes.forEach(dispute -> records.put(dispute.getId(), () -> toProtoMessage(dispute)));
+        storage.migrate(records);
+    }
+
+    public void queueUpForSave(Dispute dispute) {
+        storage.queueUpForSave(dispute.getId(), () -> toProtoMessage(dispute));
+    }
+
+    public void remove(Dispute dispute) {
+        storage.remove(dispute.getId());
+    }
+
+    public void shutDown() {
+        storage.shutDown();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Called on the UserThread when the save is due
+    private PB.PersistableEnvelope toProtoMessage(Dispute dispute) {
+        PB.Dispute disputeProto = dispute.toProtoMessage(this::toBlobReference);
+        return PB.PersistableEnvelope.newBuilder()
+                .setDisputeList(PB.DisputeList.newBuilder().addDispute(disputeProto))
+                .build();
+    }
+
+    private PB.Attachment toBlobReference(Attachment attachment) {
+        String blobKey = blobKeyByAttachment.get(attachment);
+        if (blobKey == null) {
+            // New attachment
+            byte[] bytes = attachment.getBytes();
+            blobKey = Utilities.bytesAsHexString(Hash.getSha256Hash(bytes));
+            storage.writeBlob(blobKey, bytes);
+            blobKeyByAttachment.put(attachment, blobKey);
+        }
+        return PB.Attachment.newBuilder()
+                .setFileName(attachment.getFileName())
+                .setBytes(ByteString.copyFrom(Utilities.decodeFromHex(blobKey)))
+                .build();
+    }
+}
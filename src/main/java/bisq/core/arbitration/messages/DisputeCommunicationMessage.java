@@ -38,6 +38,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import java.lang.ref.WeakReference;
@@ -134,12 +135,19 @@ public final class DisputeCommunicationMessage extends DisputeMessage {
 
     @Override
     public PB.NetworkEnvelope toProtoNetworkEnvelope() {
+        return getNetworkEnvelopeBuilder()
+                .setDisputeCommunicationMessage(toProtoMessage(Attachment::toProtoMessage))
+                .build();
+    }
+
+    // Used as payload of a Dispute. For persistence the attachments might get stored separately (see DisputeStore).
+    public PB.DisputeCommunicationMessage toProtoMessage(Function<Attachment, PB.Attachment> attachmentToProto) {
         PB.DisputeCommunicationMessage.Builder builder = PB.DisputeCommunicationMessage.newBuilder()
                 .setTradeId(tradeId)
                 .setTraderId(traderId)
                 .setSenderIsTrader(senderIsTrader)
                 .setMessage(message)
-                .addAllAttachments(attachments.stream().map(Attachment::toProtoMessage).collect(Collectors.toList()))
+                .addAllAttachments(attachments.stream().map(attachmentToProto).collect(Collectors.toList()))
                 .setSenderNodeAddress(senderNodeAddress.toProtoMessage())
                 .setDate(date)
                 .setArrived(arrivedProperty.get())
@@ -149,9 +157,7 @@ public final class DisputeCommunicationMessage extends DisputeMessage {
                 .setAcknowledged(acknowledgedProperty.get());
         Optional.ofNullable(sendMessageErrorProperty.get()).ifPresent(builder::setSendMessageError);
         Optional.ofNullable(ackErrorProperty.get()).ifPresent(builder::setAckError);
-        return getNetworkEnvelopeBuilder()
-                .setDisputeCommunicationMessage(builder)
-                .build();
+        return builder.build();
     }
 
     public static DisputeCommunicationMessage fromProto(PB.DisputeCommunicationMessage proto, int messageVersion) {
@@ -31,7 +31,13 @@ import org.bitcoinj.wallet.Wallet;
 import com.google.inject.Inject;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -41,12 +47,26 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * The List supporting our persistence solution.
+ * <p>
+ * Besides the persisted list we maintain indexes by context, by offerId and by address so that lookups from the
+ * BtcWalletService do not need to copy and stream the whole list. The indexes are transient and rebuilt from the list
+ * at readPersisted and onWalletReady. Queries return unmodifiable views which must not be held across modifications.
+ * <p>
+ * AddressEntry has a mutable field (coinLockedInMultiSig) included in equals/hashCode, so we must not use hash based
+ * sets for the entries themselves.
  */
 @ToString
 @Slf4j
 public final class AddressEntryList implements PersistableEnvelope, PersistedDataHost {
+    // Delay for storage writes. Storage coalesces all save requests within that delay to one write, so bursts of
+    // swaps and additions (e.g. at offer creation or trade completion) result in one write.
+    private static final long PERSIST_DELAY = 200;
+
     transient private Storage<AddressEntryList> storage;
     transient private Wallet wallet;
+    transient private final Map<AddressEntry.Context, List<AddressEntry>> entriesByContext = new EnumMap<>(AddressEntry.Context.class);
+    transient private final Map<String, List<AddressEntry>> entriesByOfferId = new HashMap<>();
+    transient private final Map<String, AddressEntry> entriesByAddress = new HashMap<>();
     @Getter
     private List<AddressEntry> list;
 
@@ -58,8 +78,10 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     @Override
     public void readPersisted() {
         AddressEntryList persisted = storage.initAndGetPersisted(this, 50);
-        if (persisted != null)
+        if (persisted != null) {
             list = new ArrayList<>(persisted.getList());
+            rebuildIndexes();
+        }
     }
 
 
@@ -102,6 +124,8 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
                     log.error("Key from addressEntry not found in that wallet " + addressEntry.toString());
                 }
             });
+            // Addresses are only available once the keys are set
+            rebuildIndexes();
         } else {
             list = new ArrayList<>();
             add(new AddressEntry(wallet.freshReceiveKey(), AddressEntry.Context.ARBITRATOR));
@@ -119,11 +143,17 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     }
 
     private boolean add(AddressEntry addressEntry) {
-        return list.add(addressEntry);
+        boolean changed = list.add(addressEntry);
+        if (changed)
+            addToIndexes(addressEntry);
+        return changed;
     }
 
     private boolean remove(AddressEntry addressEntry) {
-        return list.remove(addressEntry);
+        boolean changed = list.remove(addressEntry);
+        if (changed)
+            removeFromIndexes(addressEntry);
+        return changed;
     }
 
     public AddressEntry addAddressEntry(AddressEntry addressEntry) {
@@ -134,7 +164,7 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     }
 
     public void swapTradeToSavings(String offerId) {
-        list.stream().filter(addressEntry -> offerId.equals(addressEntry.getOfferId()))
+        getAddressEntriesByOfferId(offerId).stream()
                 .findAny().ifPresent(this::swapToAvailable);
     }
 
@@ -156,10 +186,82 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     }
 
     public void persist() {
-        storage.queueUpForSave(50);
+        storage.queueUpForSave(PERSIST_DELAY);
     }
 
     public Stream<AddressEntry> stream() {
         return list.stream();
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Queries
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public Optional<AddressEntry> findAddressEntry(String offerId, AddressEntry.Context context) {
+        return getAddressEntriesByOfferId(offerId).stream()
+                .filter(e -> context == e.getContext())
+                .findAny();
+    }
+
+    public Optional<AddressEntry> findAddressEntryByAddress(String address) {
+        return Optional.ofNullable(entriesByAddress.get(address));
+    }
+
+    // Returns an unmodifiable view
+    public Collection<AddressEntry> getAddressEntriesByContext(AddressEntry.Context context) {
+        List<AddressEntry> entries = entriesByContext.get(context);
+        return entries != null ? Collections.unmodifiableList(entries) : Collections.emptyList();
+    }
+
+    // Returns an unmodifiable view
+    public Collection<AddressEntry> getAddressEntriesByOfferId(String offerId) {
+        List<AddressEntry> entries = entriesByOfferId.get(offerId);
+        return entries != null ? Collections.unmodifiableList(entries) : Collections.emptyList();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void rebuildIndexes() {
+        entriesByContext.clear();
+        entriesByOfferId.clear();
+        entriesByAddress.clear();
+        list.forEach(this::addToIndexes);
+    }
+
+    private void addToIndexes(AddressEntry addressEntry) {
+        entriesByContext.computeIfAbsent(addressEntry.getContext(), k -> new ArrayList<>()).add(addressEntry);
+
+        String offerId = addressEntry.getOfferId();
+        if (offerId != null)
+            entriesByOfferId.computeIfAbsent(offerId, k -> new ArrayList<>(2)).add(addressEntry);
+
+        // The address is only known once the key is set (after onWalletReady)
+        String address = addressEntry.getAddressString();
+        if (address != null)
+            entriesByAddress.put(address, addressEntry);
+    }
+
+    private void removeFromIndexes(AddressEntry addressEntry) {
+        List<AddressEntry> byContext = entriesByContext.get(addressEntry.getContext());
+        if (byContext != null)
+            byContext.remove(addressEntry);
+
+        String offerId = addressEntry.getOfferId();
+        if (offerId != null) {
+            List<AddressEntry> byOfferId = entriesByOfferId.get(offerId);
+            if (byOfferId != null) {
+                byOfferId.remove(addressEntry);
+                if (byOfferId.isEmpty())
+                    entriesByOfferId.remove(offerId);
+            }
+        }
+
+        String address = addressEntry.getAddressString();
+        if (address != null && entriesByAddress.get(address) == addressEntry)
+            entriesByAddress.remove(address);
+    }
 }
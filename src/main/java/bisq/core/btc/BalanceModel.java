@@ -18,6 +18,8 @@
 package bisq.core.btc;
 
 import bisq.core.btc.wallet.BtcWalletService;
+import bisq.core.metrics.MetricTimer;
+import bisq.core.metrics.Metrics;
 import bisq.core.offer.OpenOfferManager;
 import bisq.core.trade.Trade;
 import bisq.core.trade.TradeManager;
@@ -39,6 +41,8 @@ import java.util.stream.Stream;
 import lombok.Getter;
 
 public class BalanceModel {
+    private static final MetricTimer UPDATE_BALANCE_TIMER = Metrics.timer("btc.balanceModel.updateBalance");
+
     private final TradeManager tradeManager;
     private final BtcWalletService btcWalletService;
     private final OpenOfferManager openOfferManager;
@@ -71,9 +75,11 @@ public class BalanceModel {
             updateReservedBalance();
             updateLockedBalance();
         });*/
+        long startTs = Metrics.nanoTime();
         updateAvailableBalance();
         updateReservedBalance();
         updateLockedBalance();
+        UPDATE_BALANCE_TIMER.stop(startTs);
         // TODO add lockingBalance
     }
 
@@ -30,6 +30,8 @@ import bisq.core.dao.state.blockchain.TxOutputKey;
 import bisq.core.provider.fee.FeeService;
 import bisq.core.user.Preferences;
 
+import bisq.common.UserThread;
+
 import org.bitcoinj.core.Address;
 import org.bitcoinj.core.AddressFormatException;
 import org.bitcoinj.core.BlockChain;
@@ -54,6 +56,7 @@ import javax.inject.Inject;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -66,6 +69,8 @@ import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.bitcoinj.core.TransactionConfidence.ConfidenceType.BUILDING;
@@ -73,6 +78,8 @@ import static org.bitcoinj.core.TransactionConfidence.ConfidenceType.PENDING;
 
 @Slf4j
 public class BsqWalletService extends WalletService implements BsqStateListener {
+    private static final int FULL_RECOMPUTE_INTERVAL = 100;
+
     private final BsqCoinSelector bsqCoinSelector;
     private final NonBsqCoinSelector nonBsqCoinSelector;
     private final BsqStateService bsqStateService;
@@ -93,6 +100,18 @@ public class BsqWalletService extends WalletService implements BsqStateListener
     @Getter
     private Coin unlockingBondsBalance = Coin.ZERO;
 
+    // Caches for the balance calculation
+    private final Map<String, Long> unverifiedBalanceByPendingTxId = new HashMap<>();
+    @Nullable
+    private Set<String> lastConfirmedTxIdSet;
+    @Nullable
+    private Set<String> lastPendingTxIdSet;
+    // The available balances depend on the unspent outputs of the wallet, the confidence type of their txs and the
+    // DAO state. They are only recomputed if one of those might have changed.
+    private boolean availableBalancesOutdated = true;
+    private int numIncrementalUpdates;
+    private boolean updateBsqWalletTransactionsScheduled;
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -124,17 +143,20 @@ public class BsqWalletService extends WalletService implements BsqStateListener
                     wallet.addEventListener(new AbstractWalletEventListener() {
                         @Override
                         public void onCoinsReceived(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+                            availableBalancesOutdated = true;
                             updateBsqWalletTransactions();
                         }
 
                         @Override
                         public void onCoinsSent(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+                            availableBalancesOutdated = true;
                             updateBsqWalletTransactions();
                         }
 
                         @Override
                         public void onReorganize(Wallet wallet) {
                             log.warn("onReorganize ");
+                            availableBalancesOutdated = true;
                             updateBsqWalletTransactions();
                         }
 
@@ -184,6 +206,8 @@ public class BsqWalletService extends WalletService implements BsqStateListener
 
     @Override
     public void onParseTxsComplete(Block block) {
+        // The BSQ state has changed so our cached values might be outdated
+        invalidateBsqBalanceCaches();
         if (isWalletReady())
             updateBsqWalletTransactions();
     }
@@ -209,48 +233,81 @@ public class BsqWalletService extends WalletService implements BsqStateListener
     // Balance
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Updates the balances using the cached per-tx and DAO state derived values. Those caches get invalidated at each
+    // parsed block. The available balances are only recomputed if coins were sent or received, if the confidence type
+    // of one of our txs has changed or if a block was parsed. Every FULL_RECOMPUTE_INTERVAL updates we compare the
+    // result with a full recomputation.
     private void updateBsqBalance() {
-        unverifiedBalance = Coin.valueOf(
-                getTransactions(false).stream()
-                        .filter(tx -> tx.getConfidence().getConfidenceType() == PENDING)
-                        .mapToLong(tx -> {
-                            // Sum up outputs into BSQ wallet and subtract the inputs using lockup or unlocking
-                            // outputs since those inputs will be accounted for in lockupBondsBalance and
-                            // unlockingBondsBalance
-                            long outputs = tx.getOutputs().stream()
-                                    .filter(out -> out.isMine(wallet))
-                                    .mapToLong(out -> out.getValue().value)
-                                    .sum();
-                            // Account for spending of locked connectedOutputs
-                            long lockedInputs = tx.getInputs().stream()
-                                    .filter(in -> {
-                                        TransactionOutput connectedOutput = in.getConnectedOutput();
-                                        if (connectedOutput != null) {
-                                            Transaction parentTransaction = connectedOutput.getParentTransaction();
-                                            // TODO SQ
-                                            if (parentTransaction != null/* &&
-                                                    parentTransaction.getConfidence().getConfidenceType() == BUILDING*/) {
-                                                TxOutputKey key = new TxOutputKey(parentTransaction.getHashAsString(),
-                                                        connectedOutput.getIndex());
-
-                                                return (connectedOutput.isMine(wallet)
-                                                        && (bsqStateService.isLockupOutput(key)
-                                                        || bsqStateService.isUnlockingOutput(key)));
-                                            }
-                                        }
-                                        return false;
-                                    })
-                                    .mapToLong(in -> in != null ? in.getValue().value : 0)
-                                    .sum();
-                            return outputs - lockedInputs;
-                        })
-                        .sum()
-        );
-        Set<String> confirmedTxIdSet = getTransactions(false).stream()
-                .filter(tx -> tx.getConfidence().getConfidenceType() == BUILDING)
-                .map(Transaction::getHashAsString)
-                .collect(Collectors.toSet());
+        Set<String> confirmedTxIdSet = new HashSet<>();
+        Set<String> pendingTxIds = new HashSet<>();
+        long unverified = 0;
+        for (Transaction tx : getTransactions(false)) {
+            TransactionConfidence.ConfidenceType confidenceType = tx.getConfidence().getConfidenceType();
+            if (confidenceType == PENDING) {
+                String txId = tx.getHashAsString();
+                pendingTxIds.add(txId);
+                unverified += unverifiedBalanceByPendingTxId.computeIfAbsent(txId, k -> getUnverifiedBalance(tx));
+            } else if (confidenceType == BUILDING) {
+                confirmedTxIdSet.add(tx.getHashAsString());
+            }
+        }
+        // Remove txs which are not pending anymore
+        unverifiedBalanceByPendingTxId.keySet().retainAll(pendingTxIds);
+        unverifiedBalance = Coin.valueOf(unverified);
+
+        // The DAO derived balances only change with a new block or if our set of confirmed txs has changed
+        if (!confirmedTxIdSet.equals(lastConfirmedTxIdSet)) {
+            lastConfirmedTxIdSet = confirmedTxIdSet;
+            applyDaoStateBalances(confirmedTxIdSet);
+            availableBalancesOutdated = true;
+        }
+        if (!pendingTxIds.equals(lastPendingTxIdSet)) {
+            lastPendingTxIdSet = pendingTxIds;
+            availableBalancesOutdated = true;
+        }
 
+        if (availableBalancesOutdated) {
+            availableBalancesOutdated = false;
+            applySpendCandidateBalances();
+        }
+
+        if (++numIncrementalUpdates >= FULL_RECOMPUTE_INTERVAL) {
+            numIncrementalUpdates = 0;
+            checkBsqBalanceConsistency();
+        }
+
+        bsqBalanceListeners.forEach(e -> e.onUpdateBalances(availableBalance, availableNonBsqBalance, unverifiedBalance,
+                lockedForVotingBalance, lockupBondsBalance, unlockingBondsBalance));
+    }
+
+    // Sum up outputs into BSQ wallet and subtract the inputs using lockup or unlocking outputs since those inputs will
+    // be accounted for in lockupBondsBalance and unlockingBondsBalance
+    private long getUnverifiedBalance(Transaction tx) {
+        long outputs = 0;
+        for (TransactionOutput out : tx.getOutputs()) {
+            if (out.isMine(wallet))
+                outputs += out.getValue().value;
+        }
+        // Account for spending of locked connectedOutputs
+        long lockedInputs = 0;
+        for (TransactionInput in : tx.getInputs()) {
+            TransactionOutput connectedOutput = in.getConnectedOutput();
+            if (connectedOutput != null && connectedOutput.isMine(wallet)) {
+                Transaction parentTransaction = connectedOutput.getParentTransaction();
+                // TODO SQ
+                if (parentTransaction != null/* &&
+                        parentTransaction.getConfidence().getConfidenceType() == BUILDING*/) {
+                    TxOutputKey key = new TxOutputKey(parentTransaction.getHashAsString(),
+                            connectedOutput.getIndex());
+                    if (bsqStateService.isLockupOutput(key) || bsqStateService.isUnlockingOutput(key))
+                        lockedInputs += in.getValue().value;
+                }
+            }
+        }
+        return outputs - lockedInputs;
+    }
+
+    private void applyDaoStateBalances(Set<String> confirmedTxIdSet) {
         lockedForVotingBalance = Coin.valueOf(bsqStateService.getUnspentBlindVoteStakeTxOutputs().stream()
                 .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
                 .mapToLong(TxOutput::getValue)
@@ -266,18 +323,73 @@ public class BsqWalletService extends WalletService implements BsqStateListener
                 .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
                 .mapToLong(TxOutput::getValue)
                 .sum());
+    }
 
-        availableBalance = bsqCoinSelector.select(NetworkParameters.MAX_MONEY,
-                wallet.calculateAllSpendCandidates()).valueGathered;
+    private void applySpendCandidateBalances() {
+        // We use the same candidates for both selectors
+        List<TransactionOutput> spendCandidates = wallet.calculateAllSpendCandidates();
+        availableBalance = bsqCoinSelector.select(NetworkParameters.MAX_MONEY, spendCandidates).valueGathered;
 
         if (availableBalance.isNegative())
             availableBalance = Coin.ZERO;
 
-        availableNonBsqBalance = nonBsqCoinSelector.select(NetworkParameters.MAX_MONEY,
-                wallet.calculateAllSpendCandidates()).valueGathered;
+        availableNonBsqBalance = nonBsqCoinSelector.select(NetworkParameters.MAX_MONEY, spendCandidates).valueGathered;
+    }
 
-        bsqBalanceListeners.forEach(e -> e.onUpdateBalances(availableBalance, availableNonBsqBalance, unverifiedBalance,
-                lockedForVotingBalance, lockupBondsBalance, unlockingBondsBalance));
+    // Recomputes all balances without the caches. In case of a mismatch we log an error and use the recomputed values.
+    private void checkBsqBalanceConsistency() {
+        Coin cachedAvailableBalance = availableBalance;
+        Coin cachedAvailableNonBsqBalance = availableNonBsqBalance;
+        Coin cachedUnverifiedBalance = unverifiedBalance;
+        Coin cachedLockedForVotingBalance = lockedForVotingBalance;
+        Coin cachedLockupBondsBalance = lockupBondsBalance;
+        Coin cachedUnlockingBondsBalance = unlockingBondsBalance;
+
+        invalidateBsqBalanceCaches();
+        Set<String> confirmedTxIdSet = new HashSet<>();
+        Set<String> pendingTxIds = new HashSet<>();
+        long unverified = 0;
+        for (Transaction tx : getTransactions(false)) {
+            TransactionConfidence.ConfidenceType confidenceType = tx.getConfidence().getConfidenceType();
+            if (confidenceType == PENDING) {
+                long value = getUnverifiedBalance(tx);
+                pendingTxIds.add(tx.getHashAsString());
+                unverifiedBalanceByPendingTxId.put(tx.getHashAsString(), value);
+                unverified += value;
+            } else if (confidenceType == BUILDING) {
+                confirmedTxIdSet.add(tx.getHashAsString());
+            }
+        }
+        unverifiedBalance = Coin.valueOf(unverified);
+        lastConfirmedTxIdSet = confirmedTxIdSet;
+        lastPendingTxIdSet = pendingTxIds;
+        applyDaoStateBalances(confirmedTxIdSet);
+        availableBalancesOutdated = false;
+        applySpendCandidateBalances();
+
+        if (!availableBalance.equals(cachedAvailableBalance) ||
+                !availableNonBsqBalance.equals(cachedAvailableNonBsqBalance) ||
+                !unverifiedBalance.equals(cachedUnverifiedBalance) ||
+                !lockedForVotingBalance.equals(cachedLockedForVotingBalance) ||
+                !lockupBondsBalance.equals(cachedLockupBondsBalance) ||
+                !unlockingBondsBalance.equals(cachedUnlockingBondsBalance)) {
+            log.error("Inconsistent BSQ balance detected. We use the recomputed values. " +
+                            "available: {}/{}, availableNonBsq: {}/{}, " +
+                            "unverified: {}/{}, lockedForVoting: {}/{}, lockupBonds: {}/{}, unlockingBonds: {}/{}",
+                    cachedAvailableBalance, availableBalance,
+                    cachedAvailableNonBsqBalance, availableNonBsqBalance,
+                    cachedUnverifiedBalance, unverifiedBalance,
+                    cachedLockedForVotingBalance, lockedForVotingBalance,
+                    cachedLockupBondsBalance, lockupBondsBalance,
+                    cachedUnlockingBondsBalance, unlockingBondsBalance);
+        }
+    }
+
+    private void invalidateBsqBalanceCaches() {
+        unverifiedBalanceByPendingTxId.clear();
+        lastConfirmedTxIdSet = null;
+        lastPendingTxIdSet = null;
+        availableBalancesOutdated = true;
     }
 
     public void addBsqBalanceListener(BsqBalanceListener listener) {
@@ -297,10 +409,18 @@ public class BsqWalletService extends WalletService implements BsqStateListener
         return walletTransactions;
     }
 
+    // Wallet events come in bursts (e.g. a confidence change for each tx at a new block), so we batch all requests
+    // until the already queued events on the UserThread are processed.
     private void updateBsqWalletTransactions() {
-        walletTransactions.setAll(getTransactions(false));
-        // walletTransactions.setAll(getBsqWalletTransactions());
-        updateBsqBalance();
+        if (!updateBsqWalletTransactionsScheduled) {
+            updateBsqWalletTransactionsScheduled = true;
+            UserThread.execute(() -> {
+                updateBsqWalletTransactionsScheduled = false;
+                walletTransactions.setAll(getTransactions(false));
+                // walletTransactions.setAll(getBsqWalletTransactions());
+                updateBsqBalance();
+            });
+        }
     }
 
     private Set<Transaction> getBsqWalletTransactions() {
@@ -121,8 +121,9 @@ public class TradeWalletService {
     private Wallet wallet;
     @Nullable
     private WalletConfig walletConfig;
+    // Set on the UserThread, read by the trade protocol executors
     @Nullable
-    private KeyParameter aesKey;
+    private volatile KeyParameter aesKey;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -697,6 +698,8 @@ public class TradeWalletService {
      * @param buyerPubKey               The public key of the buyer.
      * @param sellerPubKey              The public key of the seller.
      * @param arbitratorPubKey          The public key of the arbitrator.
+     * @param aesKey                    The key of the encrypted wallet, taken at the start of the task as this method
+     *                                  can run off the UserThread
      * @return DER encoded canonical signature
      * @throws AddressFormatException
      * @throws TransactionVerificationException
@@ -709,7 +712,8 @@ public class TradeWalletService {
                                      DeterministicKey multiSigKeyPair,
                                      byte[] buyerPubKey,
                                      byte[] sellerPubKey,
-                                     byte[] arbitratorPubKey)
+                                     byte[] arbitratorPubKey,
+                                     @Nullable KeyParameter aesKey)
             throws AddressFormatException, TransactionVerificationException {
         log.trace("sellerSignsPayoutTx called");
         log.trace("depositTx " + depositTx.toString());
@@ -757,6 +761,8 @@ public class TradeWalletService {
      * @param buyerPubKey               The public key of the buyer.
      * @param sellerPubKey              The public key of the seller.
      * @param arbitratorPubKey          The public key of the arbitrator.
+     * @param aesKey                    The key of the encrypted wallet, taken at the start of the task as this method
+     *                                  can run off the UserThread
      * @return The payout transaction
      * @throws AddressFormatException
      * @throws TransactionVerificationException
@@ -771,7 +777,8 @@ public class TradeWalletService {
                                                        DeterministicKey multiSigKeyPair,
                                                        byte[] buyerPubKey,
                                                        byte[] sellerPubKey,
-                                                       byte[] arbitratorPubKey)
+                                                       byte[] arbitratorPubKey,
+                                                       @Nullable KeyParameter aesKey)
             throws AddressFormatException, TransactionVerificationException, WalletException {
         log.trace("buyerSignsAndFinalizesPayoutTx called");
         log.trace("depositTx " + depositTx.toString());
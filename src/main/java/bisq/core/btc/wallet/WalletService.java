@@ -26,6 +26,7 @@ import bisq.core.btc.listeners.TxConfidenceListener;
 import bisq.core.provider.fee.FeeService;
 import bisq.core.user.Preferences;
 
+import bisq.common.UserThread;
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
 
@@ -72,8 +73,14 @@ import javafx.beans.property.SimpleIntegerProperty;
 import org.spongycastle.crypto.params.KeyParameter;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.stream.Collectors;
 
@@ -98,14 +105,24 @@ public abstract class WalletService {
     protected final NetworkParameters params;
     @SuppressWarnings("deprecation")
     protected final WalletEventListener walletEventListener = new BisqWalletListener();
-    protected final CopyOnWriteArraySet<AddressConfidenceListener> addressConfidenceListeners = new CopyOnWriteArraySet<>();
-    protected final CopyOnWriteArraySet<TxConfidenceListener> txConfidenceListeners = new CopyOnWriteArraySet<>();
+    // Confidence listeners are indexed by the address or txId they are interested in, so that a confidence change of
+    // one tx only reaches the listeners related to that tx.
+    protected final Map<Address, CopyOnWriteArraySet<AddressConfidenceListener>> addressConfidenceListeners = new ConcurrentHashMap<>();
+    protected final Map<String, CopyOnWriteArraySet<TxConfidenceListener>> txConfidenceListeners = new ConcurrentHashMap<>();
     protected final CopyOnWriteArraySet<BalanceListener> balanceListeners = new CopyOnWriteArraySet<>();
     protected Wallet wallet;
     protected KeyParameter aesKey;
     @Getter
     protected IntegerProperty chainHeightProperty = new SimpleIntegerProperty();
 
+    // Index of the wallet transactions (by hash) which have an output or connected output to a given address. Only
+    // accessed from the UserThread. It gets filled lazily at the first request and updated at wallet events.
+    private final Map<Address, Set<Sha256Hash>> txHashesByAddress = new HashMap<>();
+    private boolean txHashesByAddressInitialized;
+    // With each new block we get a confidence change for each wallet tx. We collect them and dispatch to the
+    // listeners once all events of that burst are processed.
+    private final Map<Sha256Hash, Transaction> pendingConfidenceChanges = new LinkedHashMap<>();
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -166,19 +183,30 @@ public abstract class WalletService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void addAddressConfidenceListener(AddressConfidenceListener listener) {
-        addressConfidenceListeners.add(listener);
+        // Listeners without an address never got a non-null confidence, so we don't need to register them.
+        if (listener.getAddress() != null)
+            addressConfidenceListeners.computeIfAbsent(listener.getAddress(), k -> new CopyOnWriteArraySet<>()).add(listener);
     }
 
     public void removeAddressConfidenceListener(AddressConfidenceListener listener) {
-        addressConfidenceListeners.remove(listener);
+        if (listener.getAddress() != null)
+            addressConfidenceListeners.computeIfPresent(listener.getAddress(), (k, set) -> {
+                set.remove(listener);
+                return set.isEmpty() ? null : set;
+            });
     }
 
     public void addTxConfidenceListener(TxConfidenceListener listener) {
-        txConfidenceListeners.add(listener);
+        if (listener.getTxID() != null)
+            txConfidenceListeners.computeIfAbsent(listener.getTxID(), k -> new CopyOnWriteArraySet<>()).add(listener);
     }
 
     public void removeTxConfidenceListener(TxConfidenceListener listener) {
-        txConfidenceListeners.remove(listener);
+        if (listener.getTxID() != null)
+            txConfidenceListeners.computeIfPresent(listener.getTxID(), (k, set) -> {
+                set.remove(listener);
+                return set.isEmpty() ? null : set;
+            });
     }
 
     public void addBalanceListener(BalanceListener listener) {
@@ -336,27 +364,62 @@ public abstract class WalletService {
     public TransactionConfidence getConfidenceForAddress(Address address) {
         List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
         if (wallet != null) {
-            Set<Transaction> transactions = wallet.getTransactions(false);
-            if (transactions != null) {
-                transactionConfidenceList.addAll(transactions.stream().map(tx ->
-                        getTransactionConfidence(tx, address)).collect(Collectors.toList()));
+            for (Transaction tx : getTransactionsForAddress(address)) {
+                transactionConfidenceList.add(getTransactionConfidence(tx, address));
             }
         }
         return getMostRecentConfidence(transactionConfidenceList);
     }
 
     @Nullable
-    public TransactionConfidence getConfidenceForTxId(String txId) {
-        if (wallet != null) {
-            Set<Transaction> transactions = wallet.getTransactions(false);
-            for (Transaction tx : transactions) {
-                if (tx.getHashAsString().equals(txId))
-                    return tx.getConfidence();
+    public TransactionConfidence getConfidenceForTxId(@Nullable String txId) {
+        if (wallet != null && txId != null) {
+            Sha256Hash txHash;
+            try {
+                txHash = Sha256Hash.wrap(txId);
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid txId {}. {}", txId, e.toString());
+                return null;
             }
+            Transaction tx = wallet.getTransaction(txHash);
+            if (tx != null && tx.getConfidence().getConfidenceType() != TransactionConfidence.ConfidenceType.DEAD)
+                return tx.getConfidence();
         }
         return null;
     }
 
+    // Returns the not dead wallet transactions having an output or a connected output to that address.
+    private List<Transaction> getTransactionsForAddress(Address address) {
+        if (!txHashesByAddressInitialized) {
+            wallet.getTransactions(false).forEach(this::indexTransaction);
+            txHashesByAddressInitialized = true;
+        }
+
+        Set<Sha256Hash> txHashes = txHashesByAddress.getOrDefault(address, Collections.emptySet());
+        List<Transaction> transactions = new ArrayList<>(txHashes.size());
+        for (Sha256Hash txHash : txHashes) {
+            Transaction tx = wallet.getTransaction(txHash);
+            if (tx != null && tx.getConfidence().getConfidenceType() != TransactionConfidence.ConfidenceType.DEAD)
+                transactions.add(tx);
+        }
+        return transactions;
+    }
+
+    private Set<Address> getAddressesForTransaction(Transaction tx) {
+        Set<Address> addresses = new HashSet<>();
+        for (TransactionOutput output : getOutputsWithConnectedOutputs(tx)) {
+            if (isOutputScriptConvertibleToAddress(output))
+                addresses.add(getAddressFromOutput(output));
+        }
+        return addresses;
+    }
+
+    private void indexTransaction(Transaction tx) {
+        Sha256Hash txHash = tx.getHash();
+        getAddressesForTransaction(tx).forEach(address ->
+                txHashesByAddress.computeIfAbsent(address, k -> new HashSet<>()).add(txHash));
+    }
+
     protected TransactionConfidence getTransactionConfidence(Transaction tx, Address address) {
         List<TransactionConfidence> transactionConfidenceList = getOutputsWithConnectedOutputs(tx)
                 .stream()
@@ -684,35 +747,62 @@ public abstract class WalletService {
     public class BisqWalletListener extends AbstractWalletEventListener {
         @Override
         public void onCoinsReceived(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+            if (txHashesByAddressInitialized)
+                indexTransaction(tx);
             notifyBalanceListeners(tx);
         }
 
         @Override
         public void onCoinsSent(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+            if (txHashesByAddressInitialized)
+                indexTransaction(tx);
             notifyBalanceListeners(tx);
         }
 
         @Override
         public void onReorganize(Wallet wallet) {
             log.warn("onReorganize ");
+            // We rebuild the address index at the next request
+            txHashesByAddress.clear();
+            txHashesByAddressInitialized = false;
         }
 
         @Override
         public void onTransactionConfidenceChanged(Wallet wallet, Transaction tx) {
-            for (AddressConfidenceListener addressConfidenceListener : addressConfidenceListeners) {
-                List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
-                transactionConfidenceList.add(getTransactionConfidence(tx, addressConfidenceListener.getAddress()));
+            if (tx == null)
+                return;
 
-                TransactionConfidence transactionConfidence = getMostRecentConfidence(transactionConfidenceList);
-                addressConfidenceListener.onTransactionConfidenceChanged(transactionConfidence);
+            // The listener is executed on the UserThread, so the dispatch gets executed after all confidence change
+            // events which are already queued (e.g. one for each wallet tx at a new block).
+            boolean dispatchScheduled = !pendingConfidenceChanges.isEmpty();
+            pendingConfidenceChanges.put(tx.getHash(), tx);
+            if (!dispatchScheduled)
+                UserThread.execute(this::dispatchConfidenceChanges);
+        }
+
+        private void dispatchConfidenceChanges() {
+            List<Transaction> transactions = new ArrayList<>(pendingConfidenceChanges.values());
+            pendingConfidenceChanges.clear();
+            transactions.forEach(this::notifyConfidenceListeners);
+        }
+
+        private void notifyConfidenceListeners(Transaction tx) {
+            if (txHashesByAddressInitialized)
+                indexTransaction(tx);
+
+            if (!addressConfidenceListeners.isEmpty()) {
+                for (Address address : getAddressesForTransaction(tx)) {
+                    Set<AddressConfidenceListener> listeners = addressConfidenceListeners.get(address);
+                    if (listeners != null) {
+                        TransactionConfidence transactionConfidence = getTransactionConfidence(tx, address);
+                        listeners.forEach(listener -> listener.onTransactionConfidenceChanged(transactionConfidence));
+                    }
+                }
             }
-            txConfidenceListeners.stream()
-                    .filter(txConfidenceListener -> tx != null &&
-                            tx.getHashAsString() != null &&
-                            txConfidenceListener != null &&
-                            tx.getHashAsString().equals(txConfidenceListener.getTxID()))
-                    .forEach(txConfidenceListener ->
-                            txConfidenceListener.onTransactionConfidenceChanged(tx.getConfidence()));
+
+            Set<TxConfidenceListener> listeners = txConfidenceListeners.get(tx.getHashAsString());
+            if (listeners != null)
+                listeners.forEach(listener -> listener.onTransactionConfidenceChanged(tx.getConfidence()));
         }
 
         void notifyBalanceListeners(Transaction tx) {
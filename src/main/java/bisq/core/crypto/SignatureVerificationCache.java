@@ -0,0 +1,148 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.crypto;
+
+import bisq.common.UserThread;
+import bisq.common.crypto.Hash;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import javax.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Remembers the result of signature checks so that data we get repeatedly from the P2P network (arbitrators, filters)
+ * is only verified once. The entries are keyed by the public key, the hash of the signed data and the signature, so
+ * any change of the data or the signature leads to a new check. Failed checks are cached as well, otherwise invalid
+ * data would be checked again at each update.
+ */
+@Slf4j
+public class SignatureVerificationCache {
+    private static final int MAX_ENTRIES = 1000;
+    // Only used for the startup verification of a few dozen items, so we don't need more threads which would compete
+    // with the other startup tasks
+    private static final int NUM_THREADS = 2;
+
+    @Value
+    private static class Key {
+        private final byte[] pubKey;
+        private final byte[] dataHash;
+        private final String signature;
+    }
+
+    // Access ordered so the least recently used entry gets removed if we exceed MAX_ENTRIES
+    private final Map<Key, Boolean> results = new LinkedHashMap<Key, Boolean>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final ExecutorService executor;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public SignatureVerificationCache() {
+        executor = Executors.newFixedThreadPool(NUM_THREADS, new ThreadFactoryBuilder()
+                .setNameFormat("SignatureVerification-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    public void shutDown() {
+        executor.shutdownNow();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param pubKey       The public key the signature gets checked with
+     * @param data         The signed data
+     * @param signature    The signature
+     * @param verification Does the actual check, only called if we don't have a result for that entry
+     * @return The result of the verification
+     */
+    public boolean verify(byte[] pubKey, byte[] data, String signature, BooleanSupplier verification) {
+        Key key = new Key(pubKey, Hash.getSha256Hash(data), signature);
+        Boolean result;
+        synchronized (results) {
+            result = results.get(key);
+        }
+        if (result == null) {
+            // We don't hold the lock while verifying so that verifications can run in parallel. In the rare case that
+            // the same entry gets verified concurrently we do the work twice with the same result.
+            result = verification.getAsBoolean();
+            synchronized (results) {
+                results.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Runs the verifications for all items on a thread pool, e.g. for all data we have at startup. The results are
+     * cached so that later calls of verify for those items return without checking the signature again.
+     *
+     * @param items           The items to verify
+     * @param verification    Verifies one item by calling verify
+     * @param completeHandler Called on the UserThread after all items have been verified
+     */
+    public <T> void verifyInParallel(Collection<T> items, Consumer<T> verification, Runnable completeHandler) {
+        if (executor.isShutdown()) {
+            log.warn("verifyInParallel called after shutDown. We ignore the call.");
+            return;
+        }
+
+        long startTs = System.currentTimeMillis();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(items.size());
+        items.forEach(item -> futures.add(CompletableFuture.runAsync(() -> verification.accept(item), executor)));
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .whenComplete((result, throwable) -> {
+                    if (throwable != null)
+                        log.error("Verification of signatures failed", throwable);
+                    log.info("Verified {} items in {} ms", items.size(), System.currentTimeMillis() - startTs);
+                    UserThread.execute(completeHandler);
+                });
+    }
+
+    public int size() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+}
@@ -43,6 +43,7 @@ import bisq.core.dao.governance.proposal.param.ChangeParamProposalService;
 import bisq.core.dao.governance.proposal.role.BondedRoleProposalService;
 import bisq.core.dao.governance.role.BondedRole;
 import bisq.core.dao.governance.role.BondedRolesService;
+import bisq.core.dao.state.BsqStateHash;
 import bisq.core.dao.state.BsqStateListener;
 import bisq.core.dao.state.BsqStateService;
 import bisq.core.dao.state.blockchain.Block;
@@ -339,6 +340,11 @@ public class DaoFacade {
         return bsqStateService.getChainHeight();
     }
 
+    // Used for comparing the DAO state with other nodes
+    public Optional<BsqStateHash> getStateHash(int height) {
+        return bsqStateService.getStateHash(height);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Use case: Bonding
@@ -23,6 +23,8 @@ import bisq.core.dao.state.blockchain.RawBlock;
 import bisq.core.dao.state.blockchain.RawTx;
 import bisq.core.dao.state.blockchain.RawTxOutput;
 import bisq.core.dao.state.blockchain.TxInput;
+import bisq.core.metrics.MetricTimer;
+import bisq.core.metrics.Metrics;
 
 import bisq.common.UserThread;
 import bisq.common.handlers.ResultHandler;
@@ -70,6 +72,8 @@ import org.jetbrains.annotations.NotNull;
  */
 @Slf4j
 public class RpcService {
+    private static final MetricTimer REQUEST_BTC_BLOCK_TIMER = Metrics.timer("dao.rpcService.requestBtcBlock");
+
     private final String rpcUser;
     private final String rpcPassword;
     private final String rpcPort;
@@ -199,11 +203,13 @@ public class RpcService {
                          Consumer<Throwable> errorHandler) {
         ListenableFuture<RawBlock> future = executor.submit(() -> {
             long startTs = System.currentTimeMillis();
+            long metricsStartTs = Metrics.nanoTime();
             String blockHash = client.getBlockHash(blockHeight);
             com.neemre.btcdcli4j.core.domain.RawBlock rawBtcBlock = client.getBlock(blockHash, 2);
             List<RawTx> txList = rawBtcBlock.getTx().stream()
                     .map(e -> getTxFromRawTransaction(e, rawBtcBlock))
                     .collect(Collectors.toList());
+            REQUEST_BTC_BLOCK_TIMER.stop(metricsStartTs);
             log.info("requestBtcBlock with all txs took {} ms at blockHeight {}; txList.size={}",
                     System.currentTimeMillis() - startTs, blockHeight, txList.size());
             return new RawBlock(rawBtcBlock.getHeight(),
@@ -22,6 +22,9 @@ import bisq.core.dao.state.BsqStateService;
 import bisq.core.dao.state.blockchain.Block;
 import bisq.core.dao.state.blockchain.RawBlock;
 import bisq.core.dao.state.blockchain.Tx;
+import bisq.core.metrics.Counter;
+import bisq.core.metrics.MetricTimer;
+import bisq.core.metrics.Metrics;
 
 import bisq.common.app.DevEnv;
 
@@ -43,6 +46,9 @@ import javax.annotation.concurrent.Immutable;
 @Slf4j
 @Immutable
 public class BlockParser {
+    private static final MetricTimer PARSE_BLOCK_TIMER = Metrics.timer("dao.blockParser.parseBlock");
+    private static final Counter PARSED_TXS_COUNTER = Metrics.counter("dao.blockParser.parsedTxs");
+
     private final TxParser txParser;
     private final BsqStateService bsqStateService;
     private final String genesisTxId;
@@ -77,6 +83,7 @@ public class BlockParser {
      * @throws BlockNotConnectingException If new block does not connect to previous block
      */
     public Block parseBlock(RawBlock rawBlock) throws BlockNotConnectingException {
+        long metricsStartTs = Metrics.nanoTime();
         int blockHeight = rawBlock.getHeight();
         log.debug("Parse block at height={} ", blockHeight);
 
@@ -116,6 +123,8 @@ public class BlockParser {
         log.debug("parseBsqTxs took {} ms", rawBlock.getRawTxs().size(), System.currentTimeMillis() - startTs);
 
         bsqStateService.onParseBlockComplete(block);
+        PARSED_TXS_COUNTER.add(rawBlock.getRawTxs().size());
+        PARSE_BLOCK_TIMER.stop(metricsStartTs);
         return block;
     }
 
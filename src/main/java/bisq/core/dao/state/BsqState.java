@@ -29,7 +29,9 @@ import bisq.common.proto.persistable.PersistableEnvelope;
 
 import io.bisq.generated.protobuffer.PB;
 
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Message;
+import com.google.protobuf.UnknownFieldSet;
 
 import javax.inject.Inject;
 
@@ -50,6 +52,10 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class BsqState implements PersistableEnvelope {
+    // The state hash chain is not part of PB.BsqState yet. Until the field is added to the proto definition we store it
+    // as unknown field which is preserved by protobuf and ignored by older versions.
+    private static final int STATE_HASH_CHAIN_FIELD_NUMBER = 100;
+
     //TODO not sure if we will use that
   /*  private static final int ISSUANCE_MATURITY = 144 * 30; // 30 days
 
@@ -84,6 +90,10 @@ public class BsqState implements PersistableEnvelope {
     @Getter
     private final List<ParamChange> paramChangeList;
 
+    // One entry for each parsed block, starting with the genesis block
+    @Getter
+    private final List<BsqStateHash> stateHashChain;
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -99,6 +109,7 @@ public class BsqState implements PersistableEnvelope {
                 new HashMap<>(),
                 new HashMap<>(),
                 new HashMap<>(),
+                new ArrayList<>(),
                 new ArrayList<>()
         );
     }
@@ -116,7 +127,8 @@ public class BsqState implements PersistableEnvelope {
                      Map<TxOutputKey, SpentInfo> spentInfoMap,
                      Map<TxOutputKey, TxOutput> confiscatedTxOutputMap,
                      Map<String, Issuance> issuanceMap,
-                     List<ParamChange> paramChangeList) {
+                     List<ParamChange> paramChangeList,
+                     List<BsqStateHash> stateHashChain) {
         this.chainHeight = chainHeight;
         this.blocks = blocks;
         this.cycles = cycles;
@@ -128,6 +140,7 @@ public class BsqState implements PersistableEnvelope {
         this.confiscatedTxOutputMap = confiscatedTxOutputMap;
         this.issuanceMap = issuanceMap;
         this.paramChangeList = paramChangeList;
+        this.stateHashChain = stateHashChain;
     }
 
     @Override
@@ -151,6 +164,12 @@ public class BsqState implements PersistableEnvelope {
                 .putAllIssuanceMap(issuanceMap.entrySet().stream()
                         .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().toProtoMessage())))
                 .addAllParamChangeList(paramChangeList.stream().map(ParamChange::toProtoMessage).collect(Collectors.toList()));
+
+        UnknownFieldSet.Field.Builder stateHashChainField = UnknownFieldSet.Field.newBuilder();
+        stateHashChain.forEach(stateHash -> stateHashChainField.addLengthDelimited(ByteString.copyFrom(stateHash.toBytes())));
+        builder.setUnknownFields(UnknownFieldSet.newBuilder()
+                .addField(STATE_HASH_CHAIN_FIELD_NUMBER, stateHashChainField.build())
+                .build());
         return builder;
     }
 
@@ -172,6 +191,12 @@ public class BsqState implements PersistableEnvelope {
                 .collect(Collectors.toMap(Map.Entry::getKey, e -> Issuance.fromProto(e.getValue())));
         final List<ParamChange> paramChangeList = proto.getParamChangeListList().stream()
                 .map(ParamChange::fromProto).collect(Collectors.toCollection(ArrayList::new));
+        UnknownFieldSet unknownFields = proto.getUnknownFields();
+        final List<BsqStateHash> stateHashChain = unknownFields.hasField(STATE_HASH_CHAIN_FIELD_NUMBER) ?
+                unknownFields.getField(STATE_HASH_CHAIN_FIELD_NUMBER).getLengthDelimitedList().stream()
+                        .map(bytes -> BsqStateHash.fromBytes(bytes.toByteArray()))
+                        .collect(Collectors.toCollection(ArrayList::new)) :
+                new ArrayList<>();
         return new BsqState(proto.getChainHeight(),
                 blocks,
                 cycles,
@@ -180,7 +205,8 @@ public class BsqState implements PersistableEnvelope {
                 spentInfoMap,
                 confiscatedTxOutputMap,
                 issuanceMap,
-                paramChangeList);
+                paramChangeList,
+                stateHashChain);
     }
 
 
@@ -0,0 +1,68 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.state;
+
+import bisq.common.util.Utilities;
+
+import java.nio.ByteBuffer;
+
+import lombok.Value;
+
+/**
+ * Hash of the BsqState after the block at the given height has been parsed. It is the hash of the previous block's
+ * state hash and the changes applied to the state by the block, so two nodes with the same state hash at a height have
+ * the same state up to that height.
+ */
+@Value
+public final class BsqStateHash {
+    private static final int HASH_LENGTH = 32;
+
+    private final int height;
+    private final byte[] hash;
+
+    public BsqStateHash(int height, byte[] hash) {
+        this.height = height;
+        this.hash = hash;
+    }
+
+    public String getHashAsString() {
+        return Utilities.encodeToHex(hash);
+    }
+
+    // Fixed size encoding used for persisting the hash chain
+    byte[] toBytes() {
+        return ByteBuffer.allocate(4 + HASH_LENGTH).putInt(height).put(hash).array();
+    }
+
+    static BsqStateHash fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int height = buffer.getInt();
+        byte[] hash = new byte[HASH_LENGTH];
+        buffer.get(hash);
+        return new BsqStateHash(height, hash);
+    }
+
+    @Override
+    public String toString() {
+        return "BsqStateHash{" +
+                "\n     height=" + height +
+                ",\n     hash=" + getHashAsString() +
+                "\n}";
+    }
+}
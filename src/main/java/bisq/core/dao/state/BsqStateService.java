@@ -33,9 +33,14 @@ import bisq.core.dao.state.governance.Issuance;
 import bisq.core.dao.state.governance.Param;
 import bisq.core.dao.state.governance.ParamChange;
 import bisq.core.dao.state.period.Cycle;
+import bisq.core.metrics.MetricTimer;
+import bisq.core.metrics.Metrics;
 
 import org.bitcoinj.core.Coin;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
 import javax.inject.Inject;
 
 import java.util.ArrayList;
@@ -53,13 +58,25 @@ import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 import static com.google.common.base.Preconditions.checkArgument;
 
 @Slf4j
 public class BsqStateService implements DaoSetupService {
+    private static final MetricTimer ON_NEW_BLOCK_HEIGHT_TIMER = Metrics.timer("dao.bsqStateListeners.onNewBlockHeight");
+    private static final MetricTimer ON_EMPTY_BLOCK_ADDED_TIMER = Metrics.timer("dao.bsqStateListeners.onEmptyBlockAdded");
+    private static final MetricTimer ON_PARSE_TXS_COMPLETE_TIMER = Metrics.timer("dao.bsqStateListeners.onParseTxsComplete");
+    private static final MetricTimer ON_PARSE_BLOCK_CHAIN_COMPLETE_TIMER = Metrics.timer("dao.bsqStateListeners.onParseBlockChainComplete");
+    private static final MetricTimer ADD_STATE_HASH_TIMER = Metrics.timer("dao.bsqState.addStateHash");
+
     private final BsqState bsqState;
     private final GenesisTxInfo genesisTxInfo;
     private final List<BsqStateListener> bsqStateListeners = new CopyOnWriteArrayList<>();
+    // Collects the changes of the state until the block is completely parsed. Not persisted as a block is only added
+    // to the state hash chain once it is complete.
+    @Nullable
+    private Hasher stateDelta;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -114,6 +131,10 @@ public class BsqStateService implements DaoSetupService {
 
         bsqState.getParamChangeList().clear();
         bsqState.getParamChangeList().addAll(snapshot.getParamChangeList());
+
+        bsqState.getStateHashChain().clear();
+        bsqState.getStateHashChain().addAll(snapshot.getStateHashChain());
+        stateDelta = null;
     }
 
     public BsqState getClone() {
@@ -170,25 +191,35 @@ public class BsqStateService implements DaoSetupService {
     // First we get the blockHeight set
     public void onNewBlockHeight(int blockHeight) {
         bsqState.setChainHeight(blockHeight);
+        long startTs = Metrics.nanoTime();
         bsqStateListeners.forEach(listener -> listener.onNewBlockHeight(blockHeight));
+        ON_NEW_BLOCK_HEIGHT_TIMER.stop(startTs);
     }
 
     // Second we get the block added with empty txs
     public void onNewBlockWithEmptyTxs(Block block) {
         bsqState.getBlocks().add(block);
+        long startTs = Metrics.nanoTime();
         bsqStateListeners.forEach(l -> l.onEmptyBlockAdded(block));
+        ON_EMPTY_BLOCK_ADDED_TIMER.stop(startTs);
 
         log.info("New Block added at blockHeight " + block.getHeight());
     }
 
     // Third we get the onParseBlockComplete called after all rawTxs of blocks have been parsed
     public void onParseBlockComplete(Block block) {
+        addStateHash(block);
+
+        long startTs = Metrics.nanoTime();
         bsqStateListeners.forEach(l -> l.onParseTxsComplete(block));
+        ON_PARSE_TXS_COMPLETE_TIMER.stop(startTs);
     }
 
     // Called after parsing of all pending blocks is completed
     public void onParseBlockChainComplete() {
+        long startTs = Metrics.nanoTime();
         bsqStateListeners.forEach(BsqStateListener::onParseBlockChainComplete);
+        ON_PARSE_BLOCK_CHAIN_COMPLETE_TIMER.stop(startTs);
     }
 
 
@@ -359,10 +390,13 @@ public class BsqStateService implements DaoSetupService {
 
     public void addUnspentTxOutput(TxOutput txOutput) {
         getUnspentTxOutputMap().put(txOutput.getKey(), txOutput);
+        addTxOutputToStateDelta(StateChange.ADD_UNSPENT_TX_OUTPUT, txOutput);
     }
 
     public void removeUnspentTxOutput(TxOutput txOutput) {
         getUnspentTxOutputMap().remove(txOutput.getKey());
+        Hasher hasher = getStateDelta().putByte(StateChange.REMOVE_UNSPENT_TX_OUTPUT.tag);
+        putTxOutputKey(hasher, txOutput.getKey());
     }
 
     public boolean isUnspent(TxOutputKey key) {
@@ -489,6 +523,11 @@ public class BsqStateService implements DaoSetupService {
 
     public void addIssuance(Issuance issuance) {
         bsqState.getIssuanceMap().put(issuance.getTxId(), issuance);
+        Hasher hasher = getStateDelta().putByte(StateChange.ISSUANCE.tag);
+        putString(hasher, issuance.getTxId());
+        hasher.putInt(issuance.getChainHeight());
+        hasher.putLong(issuance.getAmount());
+        putString(hasher, issuance.getPubKey());
     }
 
     public Set<Issuance> getIssuanceSet() {
@@ -529,6 +568,7 @@ public class BsqStateService implements DaoSetupService {
         checkArgument(txOutput.getTxOutputType() == TxOutputType.ISSUANCE_CANDIDATE_OUTPUT,
                 "txOutput must be type ISSUANCE_CANDIDATE_OUTPUT");
         bsqState.getNonBsqTxOutputMap().put(txOutput.getKey(), txOutput);
+        addTxOutputToStateDelta(StateChange.NON_BSQ_TX_OUTPUT, txOutput);
     }
 
     public Optional<TxOutput> getBtcTxOutput(TxOutputKey key) {
@@ -718,6 +758,8 @@ public class BsqStateService implements DaoSetupService {
 
     public void applyConfiscateBond(TxOutput txOutput) {
         bsqState.getConfiscatedTxOutputMap().put(txOutput.getKey(), txOutput);
+        Hasher hasher = getStateDelta().putByte(StateChange.CONFISCATION.tag);
+        putTxOutputKey(hasher, txOutput.getKey());
 
         // TODO SQ TxOutputType is immutable after parsing
         // We need to add new checks if a txo is not confiscated by using the map similar like utxo map
@@ -740,6 +782,10 @@ public class BsqStateService implements DaoSetupService {
                 .ifPresent(heightOfNewCycle -> {
                     ParamChange paramChange = new ParamChange(param.name(), paramValue, heightOfNewCycle);
                     paramChangeList.add(paramChange);
+                    Hasher hasher = getStateDelta().putByte(StateChange.PARAM_CHANGE.tag);
+                    putString(hasher, paramChange.getParamName());
+                    hasher.putLong(paramChange.getValue());
+                    hasher.putInt(paramChange.getActivationHeight());
                     // Addition with older height should not be possible but to ensure correct sorting lets run a sort.
                     paramChangeList.sort(Comparator.comparingInt(ParamChange::getActivationHeight));
                 });
@@ -769,6 +815,11 @@ public class BsqStateService implements DaoSetupService {
 
     public void setSpentInfo(TxOutputKey txOutputKey, SpentInfo spentInfo) {
         bsqState.getSpentInfoMap().put(txOutputKey, spentInfo);
+        Hasher hasher = getStateDelta().putByte(StateChange.SPENT_INFO.tag);
+        putTxOutputKey(hasher, txOutputKey);
+        hasher.putLong(spentInfo.getBlockHeight());
+        putString(hasher, spentInfo.getTxId());
+        hasher.putInt(spentInfo.getInputIndex());
     }
 
     public Optional<SpentInfo> getSpentInfo(TxOutput txOutput) {
@@ -776,6 +827,101 @@ public class BsqStateService implements DaoSetupService {
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // StateHash
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public List<BsqStateHash> getStateHashChain() {
+        return bsqState.getStateHashChain();
+    }
+
+    // Hash of the state after the last parsed block
+    public Optional<BsqStateHash> getStateHash() {
+        List<BsqStateHash> stateHashChain = getStateHashChain();
+        return stateHashChain.isEmpty() ? Optional.empty() : Optional.of(stateHashChain.get(stateHashChain.size() - 1));
+    }
+
+    public Optional<BsqStateHash> getStateHash(int height) {
+        // The chain has one entry per block without gaps, so we can access it by the offset to the first entry
+        List<BsqStateHash> stateHashChain = getStateHashChain();
+        if (stateHashChain.isEmpty())
+            return Optional.empty();
+
+        int index = height - stateHashChain.get(0).getHeight();
+        return index >= 0 && index < stateHashChain.size() ? Optional.of(stateHashChain.get(index)) : Optional.empty();
+    }
+
+    // We hash the previous state hash and all changes applied by the block. All nodes apply the changes in the same
+    // order so we don't need to sort anything and the costs only depend on the size of the block.
+    private void addStateHash(Block block) {
+        long startTs = Metrics.nanoTime();
+        if (getStateHashChain().isEmpty() && block.getHeight() != getGenesisBlockHeight())
+            log.warn("The state hash chain does not start at genesis but at height {}. " +
+                    "It will not match the chain of other nodes.", block.getHeight());
+
+        Hasher hasher = getStateDelta();
+        hasher.putInt(block.getHeight());
+        putString(hasher, block.getHash());
+        block.getTxs().forEach(tx -> {
+            putString(hasher, tx.getId());
+            putString(hasher, tx.getTxType().name());
+            hasher.putLong(tx.getBurntFee());
+        });
+        getStateHashChain().add(new BsqStateHash(block.getHeight(), hasher.hash().asBytes()));
+        stateDelta = null;
+        ADD_STATE_HASH_TIMER.stop(startTs);
+    }
+
+    private Hasher getStateDelta() {
+        if (stateDelta == null) {
+            stateDelta = Hashing.sha256().newHasher();
+            getStateHash().ifPresent(stateHash -> stateDelta.putBytes(stateHash.getHash()));
+        }
+        return stateDelta;
+    }
+
+    private void addTxOutputToStateDelta(StateChange stateChange, TxOutput txOutput) {
+        Hasher hasher = getStateDelta();
+        hasher.putByte(stateChange.tag);
+        putTxOutputKey(hasher, txOutput.getKey());
+        hasher.putLong(txOutput.getValue());
+        putString(hasher, txOutput.getTxOutputType().name());
+        hasher.putInt(txOutput.getLockTime());
+    }
+
+    private static void putTxOutputKey(Hasher hasher, TxOutputKey txOutputKey) {
+        putString(hasher, txOutputKey.getTxId());
+        hasher.putInt(txOutputKey.getIndex());
+    }
+
+    // We add the length to not get the same hash for different strings which result in the same concatenation
+    private static void putString(Hasher hasher, @Nullable String value) {
+        if (value == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(value.length());
+            hasher.putUnencodedChars(value);
+        }
+    }
+
+    // Tags to distinguish the type of change in the state delta
+    private enum StateChange {
+        ADD_UNSPENT_TX_OUTPUT(1),
+        REMOVE_UNSPENT_TX_OUTPUT(2),
+        SPENT_INFO(3),
+        ISSUANCE(4),
+        NON_BSQ_TX_OUTPUT(5),
+        CONFISCATION(6),
+        PARAM_CHANGE(7);
+
+        private final byte tag;
+
+        StateChange(int tag) {
+            this.tag = (byte) tag;
+        }
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Listeners
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -29,6 +29,8 @@ import com.google.common.annotations.VisibleForTesting;
 
 import java.io.File;
 
+import java.util.List;
+
 import lombok.extern.slf4j.Slf4j;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -101,8 +103,19 @@ public class SnapshotManager implements BsqStateListener {
         checkNotNull(storage, "storage must not be null");
         BsqState persisted = storage.initAndGetPersisted(bsqState, 100);
         if (persisted != null) {
+            if (!hasCompleteStateHashChain(persisted, bsqStateService.getGenesisBlockHeight())) {
+                // Snapshots written by older versions have no state hash chain. Continuing from such a snapshot would
+                // leave us with a chain which never matches the one of nodes which have parsed from genesis, so we
+                // ignore the snapshot and parse the full chain again.
+                log.warn("The snapshot at height {} has no complete state hash chain. We ignore it and resync from genesis.",
+                        persisted.getChainHeight());
+                return;
+            }
+
             log.info("applySnapshot persisted.chainHeadHeight=" + bsqStateService.getBlocksFromState(persisted).getLast().getHeight());
             bsqStateService.applySnapshot(persisted);
+            bsqStateService.getStateHash().ifPresent(stateHash -> log.info("Applied snapshot with state hash {} at height {}",
+                    stateHash.getHashAsString(), stateHash.getHeight()));
         } else {
             log.info("Try to apply snapshot but no stored snapshot available");
         }
@@ -113,6 +126,19 @@ public class SnapshotManager implements BsqStateListener {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    @VisibleForTesting
+    static boolean hasCompleteStateHashChain(BsqState snapshot, int genesisHeight) {
+        List<BsqStateHash> stateHashChain = snapshot.getStateHashChain();
+        if (stateHashChain.isEmpty())
+            return false;
+
+        int firstHeight = stateHashChain.get(0).getHeight();
+        int lastHeight = stateHashChain.get(stateHashChain.size() - 1).getHeight();
+        return firstHeight == genesisHeight &&
+                lastHeight == snapshot.getChainHeight() &&
+                stateHashChain.size() == lastHeight - firstHeight + 1;
+    }
+
     @VisibleForTesting
     int getSnapshotHeight(int genesisHeight, int height, int grid) {
         return Math.round(Math.max(genesisHeight + 3 * grid, height) / grid) * grid - grid;
@@ -20,6 +20,7 @@ package bisq.core.filter;
 import bisq.core.app.AppOptionKeys;
 import bisq.core.app.BisqEnvironment;
 import bisq.core.btc.BitcoinNodes;
+import bisq.core.crypto.SignatureVerificationCache;
 import bisq.core.payment.payload.PaymentAccountPayload;
 import bisq.core.payment.payload.PaymentMethod;
 import bisq.core.provider.ProvidersRepository;
@@ -89,11 +90,13 @@ public class FilterManager {
     private final Preferences preferences;
     private final BisqEnvironment bisqEnvironment;
     private final ProvidersRepository providersRepository;
+    private final SignatureVerificationCache signatureVerificationCache;
     private boolean ignoreDevMsg;
     private final ObjectProperty<Filter> filterProperty = new SimpleObjectProperty<>();
     private final List<Listener> listeners = new CopyOnWriteArrayList<>();
 
     private final String pubKeyAsHex;
+    private final byte[] pubKey;
     private ECKey filterSigningKey;
 
 
@@ -108,6 +111,7 @@ public class FilterManager {
                          Preferences preferences,
                          BisqEnvironment bisqEnvironment,
                          ProvidersRepository providersRepository,
+                         SignatureVerificationCache signatureVerificationCache,
                          @Named(AppOptionKeys.IGNORE_DEV_MSG_KEY) boolean ignoreDevMsg,
                          @Named(AppOptionKeys.USE_DEV_PRIVILEGE_KEYS) boolean useDevPrivilegeKeys) {
         this.p2PService = p2PService;
@@ -116,10 +120,12 @@ public class FilterManager {
         this.preferences = preferences;
         this.bisqEnvironment = bisqEnvironment;
         this.providersRepository = providersRepository;
+        this.signatureVerificationCache = signatureVerificationCache;
         this.ignoreDevMsg = ignoreDevMsg;
         pubKeyAsHex = useDevPrivilegeKeys ?
                 DevEnv.DEV_PRIVILEGE_PUB_KEY :
                 "022ac7b7766b0aedff82962522c2c14fb8d1961dabef6e5cfd10edc679456a32f1";
+        pubKey = HEX.decode(pubKeyAsHex);
     }
 
     public void onAllServicesInitialized() {
@@ -293,14 +299,19 @@ public class FilterManager {
         filter.setSigAndPubKey(filterSigningKey.signMessage(getHexFromData(filter)), keyRing.getSignatureKeyPair().getPublic());
     }
 
+    // The same filter is delivered repeatedly by our peers, so we cache the result of the signature check
     private boolean verifySignature(Filter filter) {
-        try {
-            ECKey.fromPublicOnly(HEX.decode(pubKeyAsHex)).verifyMessage(getHexFromData(filter), filter.getSignatureAsBase64());
-            return true;
-        } catch (SignatureException e) {
-            log.warn("verifySignature failed");
-            return false;
-        }
+        String hexFromData = getHexFromData(filter);
+        String signature = filter.getSignatureAsBase64();
+        return signatureVerificationCache.verify(pubKey, HEX.decode(hexFromData), signature, () -> {
+            try {
+                ECKey.fromPublicOnly(pubKey).verifyMessage(hexFromData, signature);
+                return true;
+            } catch (SignatureException e) {
+                log.warn("verifySignature failed");
+                return false;
+            }
+        });
     }
 
     // We dont use full data from Filter as we are only interested in the filter data not the sig and keys
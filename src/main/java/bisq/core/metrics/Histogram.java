@@ -0,0 +1,117 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+
+/**
+ * Histogram of non negative values with power of two buckets. Bucket i holds the values from 2^(i-1) to 2^i - 1,
+ * so percentiles are approximated by the upper bound of their bucket (at most factor 2 off).
+ */
+public class Histogram {
+    private static final int NUM_BUCKETS = 65;
+
+    @Getter
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+
+    Histogram(String name) {
+        this.name = name;
+    }
+
+    public void record(long value) {
+        if (Metrics.isEnabled())
+            doRecord(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long count = getCount();
+        return count > 0 ? (double) getSum() / count : 0;
+    }
+
+    // Upper bound of the bucket which contains the percentile, capped by the max value
+    public long getPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0)
+            return 0;
+
+        long threshold = (long) Math.ceil(count * percentile / 100);
+        long numValues = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            numValues += buckets.get(i);
+            if (numValues >= Math.max(1, threshold))
+                return Math.min(getMax(), getUpperBound(i));
+        }
+        return getMax();
+    }
+
+    void doRecord(long value) {
+        long nonNegativeValue = Math.max(0, value);
+        buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(nonNegativeValue));
+        count.increment();
+        sum.add(nonNegativeValue);
+        max.accumulate(nonNegativeValue);
+    }
+
+    Map<String, Object> getSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", getCount());
+        snapshot.put("sum", getSum());
+        snapshot.put("mean", getMean());
+        snapshot.put("max", getMax());
+        snapshot.put("p50", getPercentile(50));
+        snapshot.put("p90", getPercentile(90));
+        snapshot.put("p99", getPercentile(99));
+        return snapshot;
+    }
+
+    void reset() {
+        count.reset();
+        sum.reset();
+        max.reset();
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+    }
+
+    private static long getUpperBound(int bucket) {
+        return bucket >= 64 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import lombok.Getter;
+
+/**
+ * Records durations in a Histogram of nano seconds. Usage:
+ * <pre>
+ *     long startTs = Metrics.nanoTime();
+ *     ...
+ *     TIMER.stop(startTs);
+ * </pre>
+ */
+public class MetricTimer {
+    @Getter
+    private final String name;
+    private final Histogram histogram;
+
+    MetricTimer(String name) {
+        this.name = name;
+        histogram = new Histogram(name);
+    }
+
+    // The startTs is expected from Metrics.nanoTime(). A startTs of 0 means metrics were disabled at the start.
+    public void stop(long startTs) {
+        if (startTs != 0 && Metrics.isEnabled())
+            histogram.doRecord(System.nanoTime() - startTs);
+    }
+
+    public void record(long duration, TimeUnit timeUnit) {
+        if (Metrics.isEnabled())
+            histogram.doRecord(timeUnit.toNanos(duration));
+    }
+
+    public void time(Runnable runnable) {
+        long startTs = Metrics.nanoTime();
+        try {
+            runnable.run();
+        } finally {
+            stop(startTs);
+        }
+    }
+
+    public <T> T time(Supplier<T> supplier) {
+        long startTs = Metrics.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            stop(startTs);
+        }
+    }
+
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    public long getTotalNanos() {
+        return histogram.getSum();
+    }
+
+    Map<String, Object> getSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", histogram.getCount());
+        snapshot.put("totalMs", toMs(histogram.getSum()));
+        snapshot.put("meanMs", histogram.getMean() / 1_000_000d);
+        snapshot.put("maxMs", toMs(histogram.getMax()));
+        snapshot.put("p50Ms", toMs(histogram.getPercentile(50)));
+        snapshot.put("p90Ms", toMs(histogram.getPercentile(90)));
+        snapshot.put("p99Ms", toMs(histogram.getPercentile(99)));
+        return snapshot;
+    }
+
+    void reset() {
+        histogram.reset();
+    }
+
+    private static double toMs(long nanos) {
+        return nanos / 1_000_000d;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of the counters, timers and histograms of the core services. Recording is lock free and is a single
+ * volatile read if metrics are disabled (default). Metrics are enabled with the --enableMetrics option, the
+ * MetricsReporter writes them periodically to the log and to a json file.
+ * Callers should keep the metric objects in static fields instead of looking them up at each recording.
+ */
+@Slf4j
+public class Metrics {
+    private static volatile boolean enabled;
+
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private static final Map<String, MetricTimer> timers = new ConcurrentHashMap<>();
+
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+        log.info("Metrics are {}", enabled ? "enabled" : "disabled");
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    public static Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, Histogram::new);
+    }
+
+    public static MetricTimer timer(String name) {
+        return timers.computeIfAbsent(name, MetricTimer::new);
+    }
+
+    // Returns 0 if metrics are disabled, MetricTimer.stop ignores such a start time
+    public static long nanoTime() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    // Sorted by name, used for the log and the json dump
+    public static Map<String, Map<String, Object>> getSnapshot() {
+        Map<String, Map<String, Object>> snapshot = new TreeMap<>();
+        counters.values().forEach(counter -> snapshot.put(counter.getName(), counter.getSnapshot()));
+        histograms.values().forEach(histogram -> snapshot.put(histogram.getName(), histogram.getSnapshot()));
+        timers.values().forEach(timer -> snapshot.put(timer.getName(), timer.getSnapshot()));
+        return snapshot;
+    }
+
+    public static void reset() {
+        counters.values().forEach(Counter::reset);
+        histograms.values().forEach(Histogram::reset);
+        timers.values().forEach(MetricTimer::reset);
+    }
+}
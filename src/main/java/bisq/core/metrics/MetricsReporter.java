@@ -0,0 +1,102 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.metrics;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+import bisq.common.storage.JsonFileManager;
+import bisq.common.storage.Storage;
+import bisq.common.util.Utilities;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+
+import java.io.File;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writes the metrics periodically to the log and to metrics.json in the storage dir. Does nothing if metrics are
+ * disabled.
+ */
+@Slf4j
+public class MetricsReporter {
+    private static final long REPORT_INTERVAL_MIN = 5;
+
+    private final JsonFileManager jsonFileManager;
+    @Nullable
+    private ExecutorService executor;
+    @Nullable
+    private Timer timer;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public MetricsReporter(@Named(Storage.STORAGE_DIR) File storageDir) {
+        jsonFileManager = new JsonFileManager(storageDir);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void start() {
+        if (!Metrics.isEnabled() || timer != null)
+            return;
+
+        // Writing the file and formatting the log is done off the UserThread
+        executor = Utilities.getSingleThreadExecutor("MetricsReporter");
+        timer = UserThread.runPeriodically(this::report, REPORT_INTERVAL_MIN, TimeUnit.MINUTES);
+    }
+
+    public void shutDown() {
+        if (timer != null) {
+            timer.stop();
+            timer = null;
+            report();
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    public void report() {
+        if (executor == null)
+            return;
+
+        Map<String, Map<String, Object>> snapshot = Metrics.getSnapshot();
+        executor.execute(() -> {
+            StringBuilder sb = new StringBuilder("Metrics:");
+            snapshot.forEach((name, values) -> sb.append("\n    ").append(name).append(": ").append(values));
+            log.info(sb.toString());
+            jsonFileManager.writeToDisc(Utilities.objectToJson(snapshot), "metrics");
+        });
+    }
+}
@@ -19,8 +19,6 @@ package bisq.core.monetary;
 
 import org.bitcoinj.core.Coin;
 
-import java.math.BigInteger;
-
 import lombok.extern.slf4j.Slf4j;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -60,13 +58,12 @@ public class AltcoinExchangeRate {
      * @throws ArithmeticException if the converted altcoin amount is too high or too low.
      */
     public Altcoin coinToAltcoin(Coin convertCoin) {
-        BigInteger converted = BigInteger.valueOf(coin.value)
-                .multiply(BigInteger.valueOf(convertCoin.value))
-                .divide(BigInteger.valueOf(altcoin.value));
-        if (converted.compareTo(BigInteger.valueOf(Long.MAX_VALUE)) > 0
-                || converted.compareTo(BigInteger.valueOf(Long.MIN_VALUE)) < 0)
-            throw new ArithmeticException("Overflow");
-        return Altcoin.valueOf(altcoin.currencyCode, converted.longValue());
+        return Altcoin.valueOf(altcoin.currencyCode, coinToAltcoin(coin.value, altcoin.value, convertCoin.value));
+    }
+
+    // Allocation free version used by Price
+    static long coinToAltcoin(long coinValue, long altcoinValue, long convertCoinValue) {
+        return ExchangeRateMath.multiplyDivide(coinValue, convertCoinValue, altcoinValue);
     }
 
     /**
@@ -77,17 +74,16 @@ public class AltcoinExchangeRate {
     public Coin altcoinToCoin(Altcoin convertAltcoin) {
         checkArgument(convertAltcoin.currencyCode.equals(altcoin.currencyCode), "Currency mismatch: %s vs %s",
                 convertAltcoin.currencyCode, altcoin.currencyCode);
-        // Use BigInteger because it's much easier to maintain full precision without overflowing.
-        BigInteger converted = BigInteger.valueOf(altcoin.value)
-                .multiply(BigInteger.valueOf(convertAltcoin.value))
-                .divide(BigInteger.valueOf(coin.value));
-        if (converted.compareTo(BigInteger.valueOf(Long.MAX_VALUE)) > 0
-                || converted.compareTo(BigInteger.valueOf(Long.MIN_VALUE)) < 0)
-            throw new ArithmeticException("Overflow");
+        long converted = altcoinToCoin(coin.value, altcoin.value, convertAltcoin.value);
         try {
-            return Coin.valueOf(converted.longValue());
+            return Coin.valueOf(converted);
         } catch (IllegalArgumentException x) {
             throw new ArithmeticException("Overflow: " + x.getMessage());
         }
     }
+
+    // Allocation free version used by Price
+    static long altcoinToCoin(long coinValue, long altcoinValue, long convertAltcoinValue) {
+        return ExchangeRateMath.multiplyDivide(altcoinValue, convertAltcoinValue, coinValue);
+    }
 }
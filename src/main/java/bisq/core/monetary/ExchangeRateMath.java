@@ -0,0 +1,75 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.monetary;
+
+import java.math.BigInteger;
+
+/**
+ * Fixed point helpers for the exchange rate conversions in Price, Volume and AltcoinExchangeRate.
+ * <p>
+ * The conversions are all of the form a * b / c with truncation towards zero, as done with BigInteger in bitcoinj's
+ * ExchangeRate and in AltcoinExchangeRate. If the product a * b fits into a long (checked exactly with the high part
+ * of the 128 bit product) we use long arithmetic, which gives the identical result. Otherwise (only for extreme
+ * values) we fall back to BigInteger.
+ */
+final class ExchangeRateMath {
+    private ExchangeRateMath() {
+    }
+
+    /**
+     * Returns a * b / c, truncated towards zero.
+     *
+     * @throws ArithmeticException if the result does not fit into a long or c is 0.
+     */
+    static long multiplyDivide(long a, long b, long c) {
+        long low = a * b;
+        long high = multiplyHigh(a, b);
+        // The product fits into a long if the high part is only the sign extension of the low part
+        if (high == (low >> 63)) {
+            // Long.MIN_VALUE / -1 is the only overflowing long division
+            if (low == Long.MIN_VALUE && c == -1)
+                throw new ArithmeticException("Overflow");
+            return low / c;
+        }
+
+        BigInteger converted = BigInteger.valueOf(a)
+                .multiply(BigInteger.valueOf(b))
+                .divide(BigInteger.valueOf(c));
+        if (converted.compareTo(BigInteger.valueOf(Long.MAX_VALUE)) > 0
+                || converted.compareTo(BigInteger.valueOf(Long.MIN_VALUE)) < 0)
+            throw new ArithmeticException("Overflow");
+        return converted.longValue();
+    }
+
+    /**
+     * Returns the high 64 bits of the signed 128 bit product of a and b (same as Math.multiplyHigh in Java 9).
+     */
+    static long multiplyHigh(long a, long b) {
+        // Technique from section 8-2 of Henry S. Warren, Jr., Hacker's Delight (2nd ed.), 173-174.
+        long a1 = a >> 32;
+        long a2 = a & 0xFFFFFFFFL;
+        long b1 = b >> 32;
+        long b2 = b & 0xFFFFFFFFL;
+        long z2 = a2 * b2;
+        long t = a1 * b2 + (z2 >>> 32);
+        long z1 = t & 0xFFFFFFFFL;
+        long z0 = t >> 32;
+        z1 += a2 * b1;
+        return a1 * b1 + z0 + (z1 >> 32);
+    }
+}
@@ -21,7 +21,6 @@ import bisq.core.locale.CurrencyUtil;
 
 import org.bitcoinj.core.Coin;
 import org.bitcoinj.core.Monetary;
-import org.bitcoinj.utils.ExchangeRate;
 import org.bitcoinj.utils.Fiat;
 
 import org.slf4j.Logger;
@@ -29,6 +28,8 @@ import org.slf4j.LoggerFactory;
 
 import org.jetbrains.annotations.NotNull;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
  * Bitcoin price value with variable precision.
  *
@@ -80,23 +81,52 @@ public class Price extends MonetaryWrapper implements Comparable<Price> {
         }
     }
 
+    // The conversions give the same results as bitcoinj's ExchangeRate and AltcoinExchangeRate with 1 BTC as coin
+    // value, but without creating the exchange rate objects and in most cases without BigInteger.
     public Volume getVolumeByAmount(Coin amount) {
-        if (monetary instanceof Fiat)
-            return new Volume(new ExchangeRate((Fiat) monetary).coinToFiat(amount));
-        else if (monetary instanceof Altcoin)
-            return new Volume(new AltcoinExchangeRate((Altcoin) monetary).coinToAltcoin(amount));
-        else
+        if (monetary instanceof Fiat) {
+            Fiat fiat = (Fiat) monetary;
+            checkArgument(fiat.isPositive());
+            // Same as ExchangeRate.coinToFiat
+            return new Volume(Fiat.valueOf(fiat.currencyCode,
+                    ExchangeRateMath.multiplyDivide(amount.value, fiat.value, Coin.COIN.value)));
+        } else if (monetary instanceof Altcoin) {
+            Altcoin altcoin = (Altcoin) monetary;
+            checkArgument(altcoin.isPositive());
+            return new Volume(Altcoin.valueOf(altcoin.currencyCode,
+                    AltcoinExchangeRate.coinToAltcoin(Coin.COIN.value, altcoin.value, amount.value)));
+        } else {
             throw new IllegalStateException("Monetary must be either of type Fiat or Altcoin");
+        }
     }
 
     public Coin getAmountByVolume(Volume volume) {
         Monetary monetary = volume.getMonetary();
-        if (monetary instanceof Fiat && this.monetary instanceof Fiat)
-            return new ExchangeRate((Fiat) this.monetary).fiatToCoin((Fiat) monetary);
-        else if (monetary instanceof Altcoin && this.monetary instanceof Altcoin)
-            return new AltcoinExchangeRate((Altcoin) this.monetary).altcoinToCoin((Altcoin) monetary);
-        else
+        long converted;
+        if (monetary instanceof Fiat && this.monetary instanceof Fiat) {
+            Fiat fiat = (Fiat) this.monetary;
+            Fiat convertFiat = (Fiat) monetary;
+            checkArgument(fiat.isPositive());
+            checkArgument(convertFiat.currencyCode.equals(fiat.currencyCode), "Currency mismatch: %s vs %s",
+                    convertFiat.currencyCode, fiat.currencyCode);
+            // Same as ExchangeRate.fiatToCoin
+            converted = ExchangeRateMath.multiplyDivide(convertFiat.value, Coin.COIN.value, fiat.value);
+        } else if (monetary instanceof Altcoin && this.monetary instanceof Altcoin) {
+            Altcoin altcoin = (Altcoin) this.monetary;
+            Altcoin convertAltcoin = (Altcoin) monetary;
+            checkArgument(altcoin.isPositive());
+            checkArgument(convertAltcoin.currencyCode.equals(altcoin.currencyCode), "Currency mismatch: %s vs %s",
+                    convertAltcoin.currencyCode, altcoin.currencyCode);
+            converted = AltcoinExchangeRate.altcoinToCoin(Coin.COIN.value, altcoin.value, convertAltcoin.value);
+        } else {
             return Coin.ZERO;
+        }
+
+        try {
+            return Coin.valueOf(converted);
+        } catch (IllegalArgumentException x) {
+            throw new ArithmeticException("Overflow: " + x.getMessage());
+        }
     }
 
     public String getCurrencyCode() {
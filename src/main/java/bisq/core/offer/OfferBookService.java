@@ -18,7 +18,10 @@
 package bisq.core.offer;
 
 import bisq.core.app.AppOptionKeys;
+import bisq.core.metrics.MetricTimer;
+import bisq.core.metrics.Metrics;
 import bisq.core.provider.price.PriceFeedService;
+import bisq.core.util.CoalescingJsonFileWriter;
 
 import bisq.network.p2p.BootstrapListener;
 import bisq.network.p2p.P2PService;
@@ -28,9 +31,7 @@ import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 import bisq.common.UserThread;
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
-import bisq.common.storage.JsonFileManager;
 import bisq.common.storage.Storage;
-import bisq.common.util.Utilities;
 
 import com.google.inject.name.Named;
 
@@ -53,6 +54,11 @@ import javax.annotation.Nullable;
  */
 public class OfferBookService {
     private static final Logger log = LoggerFactory.getLogger(OfferBookService.class);
+    // The offers_statistics dump is written at most every DUMP_INTERVAL_MS or after DUMP_MAX_CHANGES offer changes
+    private static final long DUMP_INTERVAL_MS = 5000;
+    private static final int DUMP_MAX_CHANGES = 1000;
+    private static final MetricTimer ON_OFFER_ADDED_TIMER = Metrics.timer("offer.offerBookService.onAdded");
+    private static final MetricTimer ON_OFFER_REMOVED_TIMER = Metrics.timer("offer.offerBookService.onRemoved");
 
     public interface OfferBookChangedListener {
         void onAdded(Offer offer);
@@ -63,7 +69,8 @@ public class OfferBookService {
     private final P2PService p2PService;
     private final PriceFeedService priceFeedService;
     private final List<OfferBookChangedListener> offerBookChangedListeners = new LinkedList<>();
-    private final JsonFileManager jsonFileManager;
+    @Nullable
+    private final CoalescingJsonFileWriter offersStatisticsWriter;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -77,11 +84,15 @@ public class OfferBookService {
                             @Named(AppOptionKeys.DUMP_STATISTICS) boolean dumpStatistics) {
         this.p2PService = p2PService;
         this.priceFeedService = priceFeedService;
-        jsonFileManager = new JsonFileManager(storageDir);
+        offersStatisticsWriter = dumpStatistics ?
+                new CoalescingJsonFileWriter(storageDir, "offers_statistics", this::getOfferForJsonList,
+                        DUMP_INTERVAL_MS, DUMP_MAX_CHANGES) :
+                null;
 
         p2PService.addHashSetChangedListener(new HashMapChangedListener() {
             @Override
             public void onAdded(ProtectedStorageEntry data) {
+                long startTs = Metrics.nanoTime();
                 offerBookChangedListeners.stream().forEach(listener -> {
                     if (data.getProtectedStoragePayload() instanceof OfferPayload) {
                         OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
@@ -90,10 +101,12 @@ public class OfferBookService {
                         listener.onAdded(offer);
                     }
                 });
+                ON_OFFER_ADDED_TIMER.stop(startTs);
             }
 
             @Override
             public void onRemoved(ProtectedStorageEntry data) {
+                long startTs = Metrics.nanoTime();
                 offerBookChangedListeners.stream().forEach(listener -> {
                     if (data.getProtectedStoragePayload() instanceof OfferPayload) {
                         OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
@@ -102,6 +115,7 @@ public class OfferBookService {
                         listener.onRemoved(offer);
                     }
                 });
+                ON_OFFER_REMOVED_TIMER.stop(startTs);
             }
         });
 
@@ -112,15 +126,15 @@ public class OfferBookService {
                     addOfferBookChangedListener(new OfferBookChangedListener() {
                         @Override
                         public void onAdded(Offer offer) {
-                            doDumpStatistics();
+                            offersStatisticsWriter.onChange();
                         }
 
                         @Override
                         public void onRemoved(Offer offer) {
-                            doDumpStatistics();
+                            offersStatisticsWriter.onChange();
                         }
                     });
-                    UserThread.runAfter(OfferBookService.this::doDumpStatistics, 1);
+                    UserThread.runAfter(offersStatisticsWriter::flush, 1);
                 }
             });
         }
@@ -195,12 +209,17 @@ public class OfferBookService {
         offerBookChangedListeners.add(offerBookChangedListener);
     }
 
+    public void shutDown() {
+        if (offersStatisticsWriter != null)
+            offersStatisticsWriter.shutDown();
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void doDumpStatistics() {
+    private List<OfferForJson> getOfferForJsonList() {
         // We filter the case that it is a MarketBasedPrice but the price is not available
         // That should only be possible if the price feed provider is not available
         final List<OfferForJson> offerForJsonList = getOffers().stream()
@@ -226,6 +245,6 @@ public class OfferBookService {
                 })
                 .filter(e -> e != null)
                 .collect(Collectors.toList());
-        jsonFileManager.writeToDisc(Utilities.objectToJson(offerForJsonList), "offers_statistics");
+        return offerForJsonList;
     }
 }
@@ -0,0 +1,234 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.offer;
+
+import bisq.core.metrics.Histogram;
+import bisq.core.metrics.Metrics;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Single paced work queue for republishing offers and refreshing their TTL.
+ * <p>
+ * The sends are paced with a token bucket instead of scheduling one delayed task per offer. The offer whose TTL
+ * expires first is sent first; offers we have not successfully published yet come before all others. An offer is
+ * only once in the queue, a republish replaces a pending refresh as it refreshes the TTL as well.
+ * Must be used from the UserThread.
+ */
+@Slf4j
+class OfferPublishQueue {
+    enum Type {
+        REPUBLISH(2),   // we send the complete offer
+        REFRESH(1);     // we send only the data needed to refresh the TTL (hash, signature and sequence no.)
+
+        private final int cost;
+
+        Type(int cost) {
+            this.cost = cost;
+        }
+    }
+
+    // About 5 refreshes per second. The small burst lets a user triggered change go out without delay but does not
+    // allow a flood of sends at startup or after reconnecting.
+    static final double TOKENS_PER_SEC = 5;
+    static final double MAX_TOKENS = 4;
+
+    // Recorded at each processing of the queue
+    private static final Histogram QUEUE_SIZE_HISTOGRAM = Metrics.histogram("offer.publishQueue.size");
+    private static final Histogram MIN_REMAINING_TTL_HISTOGRAM = Metrics.histogram("offer.publishQueue.minRemainingTtlMs");
+
+    private static class Entry {
+        private final OpenOffer openOffer;
+        private final Type type;
+        private final long expiryTime;
+        private final long sequenceNumber;
+
+        private Entry(OpenOffer openOffer, Type type, long expiryTime, long sequenceNumber) {
+            this.openOffer = openOffer;
+            this.type = type;
+            this.expiryTime = expiryTime;
+            this.sequenceNumber = sequenceNumber;
+        }
+    }
+
+    private static class Published {
+        private final OpenOffer openOffer;
+        private final long expiryTime;
+
+        private Published(OpenOffer openOffer, long expiryTime) {
+            this.openOffer = openOffer;
+            this.expiryTime = expiryTime;
+        }
+    }
+
+    private final Consumer<OpenOffer> republishHandler;
+    private final Consumer<OpenOffer> refreshHandler;
+    // Checked before sending as the offer might have been removed or deactivated in the meantime
+    private final Predicate<OpenOffer> isValid;
+
+    private final TreeSet<Entry> entries = new TreeSet<>(Comparator.<Entry>comparingLong(e -> e.expiryTime)
+            .thenComparingLong(e -> e.sequenceNumber));
+    private final Map<String, Entry> entryByOfferId = new HashMap<>();
+    // Offers with the expiry of the TTL after our last successful republish or refresh by offer ID
+    private final Map<String, Published> publishedByOfferId = new HashMap<>();
+    private long sequenceNumber;
+    private double tokens = MAX_TOKENS;
+    private long lastRefillTime = System.currentTimeMillis();
+    @Nullable
+    private Timer timer;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    OfferPublishQueue(Consumer<OpenOffer> republishHandler,
+                      Consumer<OpenOffer> refreshHandler,
+                      Predicate<OpenOffer> isValid) {
+        this.republishHandler = republishHandler;
+        this.refreshHandler = refreshHandler;
+        this.isValid = isValid;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void add(OpenOffer openOffer, Type type) {
+        String offerId = openOffer.getId();
+        Entry existing = entryByOfferId.get(offerId);
+        if (existing != null) {
+            if (existing.type == Type.REPUBLISH || existing.type == type)
+                return;
+
+            entries.remove(existing);
+        }
+
+        Published published = publishedByOfferId.get(offerId);
+        long expiryTime = published != null ? published.expiryTime : 0L;
+        Entry entry = new Entry(openOffer, type, expiryTime, sequenceNumber++);
+        entries.add(entry);
+        entryByOfferId.put(offerId, entry);
+
+        // If the timer is running the entry will be processed when the timer fires
+        if (timer == null)
+            process();
+    }
+
+    void onPublished(OpenOffer openOffer) {
+        publishedByOfferId.put(openOffer.getId(), new Published(openOffer,
+                System.currentTimeMillis() + openOffer.getOffer().getOfferPayload().getTTL()));
+    }
+
+    void remove(String offerId) {
+        Entry entry = entryByOfferId.remove(offerId);
+        if (entry != null)
+            entries.remove(entry);
+        publishedByOfferId.remove(offerId);
+    }
+
+    // Drops all pending sends, e.g. if we lost all connections. The expiry times are kept.
+    void clear() {
+        stopTimer();
+        entries.clear();
+        entryByOfferId.clear();
+    }
+
+    int getQueueSize() {
+        return entries.size();
+    }
+
+    // Remaining TTL of the valid offer which expires first, based on our last successful send. Long.MAX_VALUE if we
+    // have not published any valid offer. Deactivated offers are expected to expire, so they are not considered.
+    long getMinRemainingTtl() {
+        long now = System.currentTimeMillis();
+        return publishedByOfferId.values().stream()
+                .filter(published -> isValid.test(published.openOffer))
+                .mapToLong(published -> published.expiryTime - now)
+                .min()
+                .orElse(Long.MAX_VALUE);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void process() {
+        stopTimer();
+        recordMetrics();
+        refillTokens();
+        while (!entries.isEmpty() && tokens >= entries.first().type.cost) {
+            Entry entry = entries.pollFirst();
+            entryByOfferId.remove(entry.openOffer.getId());
+            if (!isValid.test(entry.openOffer))
+                continue;
+
+            tokens -= entry.type.cost;
+            if (entry.type == Type.REPUBLISH)
+                republishHandler.accept(entry.openOffer);
+            else
+                refreshHandler.accept(entry.openOffer);
+        }
+
+        if (!entries.isEmpty()) {
+            double missingTokens = entries.first().type.cost - tokens;
+            long delay = (long) Math.ceil(missingTokens / TOKENS_PER_SEC * 1000);
+            timer = UserThread.runAfter(this::process, Math.max(1, delay), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void recordMetrics() {
+        // getMinRemainingTtl iterates all published offers, so we only call it if metrics are enabled
+        if (!Metrics.isEnabled())
+            return;
+
+        QUEUE_SIZE_HISTOGRAM.record(entries.size());
+        long minRemainingTtl = getMinRemainingTtl();
+        if (minRemainingTtl != Long.MAX_VALUE)
+            MIN_REMAINING_TTL_HISTOGRAM.record(minRemainingTtl);
+    }
+
+    private void refillTokens() {
+        long now = System.currentTimeMillis();
+        tokens = Math.min(MAX_TOKENS, tokens + (now - lastRefillTime) / 1000d * TOKENS_PER_SEC);
+        lastRefillTime = now;
+    }
+
+    private void stopTimer() {
+        if (timer != null) {
+            timer.stop();
+            timer = null;
+        }
+    }
+}
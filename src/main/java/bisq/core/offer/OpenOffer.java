@@ -23,7 +23,6 @@ import bisq.core.trade.TradableList;
 import bisq.common.Timer;
 import bisq.common.UserThread;
 import bisq.common.proto.ProtoUtil;
-import bisq.common.storage.Storage;
 
 import io.bisq.generated.protobuffer.PB;
 
@@ -53,11 +52,11 @@ public final class OpenOffer implements Tradable {
     @Getter
     private State state;
 
-    transient private Storage<TradableList<OpenOffer>> storage;
+    transient private TradableList<? extends Tradable> tradableList;
 
-    public OpenOffer(Offer offer, Storage<TradableList<OpenOffer>> storage) {
+    public OpenOffer(Offer offer, TradableList<OpenOffer> tradableList) {
         this.offer = offer;
-        this.storage = storage;
+        this.tradableList = tradableList;
         state = State.AVAILABLE;
     }
 
@@ -106,16 +105,16 @@ public final class OpenOffer implements Tradable {
         return offer.getShortId();
     }
 
-    public void setStorage(Storage<TradableList<OpenOffer>> storage) {
-        this.storage = storage;
+    public void setTradableList(TradableList<? extends Tradable> tradableList) {
+        this.tradableList = tradableList;
     }
 
     public void setState(State state) {
         log.trace("setState" + state);
         boolean changed = this.state != state;
         this.state = state;
-        if (changed)
-            storage.queueUpForSave();
+        if (changed && tradableList != null)
+            tradableList.persist(this);
 
         // We keep it reserved for a limited time, if trade preparation fails we revert to available state
         if (this.state == State.RESERVED)
@@ -31,6 +31,7 @@ import bisq.core.trade.closed.ClosedTradableManager;
 import bisq.core.trade.handlers.TransactionResultHandler;
 import bisq.core.user.Preferences;
 import bisq.core.user.User;
+import bisq.core.util.SegmentedStorage;
 import bisq.core.util.Validator;
 
 import bisq.network.p2p.AckMessage;
@@ -60,6 +61,7 @@ import org.bitcoinj.core.Coin;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 import java.io.File;
@@ -101,10 +103,12 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private final PriceFeedService priceFeedService;
     private final Preferences preferences;
     private final Storage<TradableList<OpenOffer>> openOfferTradableListStorage;
+    private final SegmentedStorage openOfferSegmentedStorage;
     private final Map<String, OpenOffer> offersToBeEdited = new HashMap<>();
     private boolean stopped;
     private Timer periodicRepublishOffersTimer, periodicRefreshOffersTimer, retryRepublishOffersTimer;
     private TradableList<OpenOffer> openOffers;
+    private final OfferPublishQueue publishQueue;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -137,6 +141,13 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         this.preferences = preferences;
 
         openOfferTradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
+        openOfferSegmentedStorage = new SegmentedStorage(new File(storageDir, "open_offers"), persistenceProtoResolver,
+                TradableList.SAVE_DELAY_MS);
+
+        publishQueue = new OfferPublishQueue(this::republishOffer,
+                this::refreshOffer,
+                openOffer -> getOpenOfferById(openOffer.getId()).filter(e -> e == openOffer).isPresent() &&
+                        !openOffer.isDeactivated());
 
         // In case the app did get killed the shutDown from the modules is not called, so we use a shutdown hook
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
@@ -146,8 +157,16 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
 
     @Override
     public void readPersisted() {
-        openOffers = new TradableList<>(openOfferTradableListStorage, "OpenOffers");
+        openOffers = new TradableList<>(openOfferTradableListStorage, openOfferSegmentedStorage, "OpenOffers");
         openOffers.forEach(e -> e.getOffer().setPriceFeedService(priceFeedService));
+        openOffers.getList().addListener((ListChangeListener<OpenOffer>) change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(openOffer -> {
+                    if (!openOffers.contains(openOffer))
+                        publishQueue.remove(openOffer.getId());
+                });
+            }
+        });
     }
 
     public void onAllServicesInitialized() {
@@ -190,6 +209,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         stopPeriodicRefreshOffersTimer();
         stopPeriodicRepublishOffersTimer();
         stopRetryRepublishOffersTimer();
+        publishQueue.clear();
 
         log.debug("remove all open offers at shutDown");
         // we remove own offers from offerbook when we go offline
@@ -204,6 +224,9 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
             if (completeHandler != null)
                 completeHandler.run();
         }
+
+        if (openOffers != null)
+            openOffers.shutDown();
     }
 
     public void removeAllOpenOffers(@Nullable Runnable completeHandler) {
@@ -288,6 +311,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         stopPeriodicRefreshOffersTimer();
         stopPeriodicRepublishOffersTimer();
         stopRetryRepublishOffersTimer();
+        publishQueue.clear();
 
         restart();
     }
@@ -328,9 +352,8 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         PlaceOfferProtocol placeOfferProtocol = new PlaceOfferProtocol(
                 model,
                 transaction -> {
-                    OpenOffer openOffer = new OpenOffer(offer, openOfferTradableListStorage);
+                    OpenOffer openOffer = new OpenOffer(offer, openOffers);
                     openOffers.add(openOffer);
-                    openOfferTradableListStorage.queueUpForSave();
                     resultHandler.handleResult(transaction);
                     if (!stopped) {
                         startPeriodicRepublishOffersTimer();
@@ -362,10 +385,11 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     public void activateOpenOffer(OpenOffer openOffer, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
         if (!offersToBeEdited.containsKey(openOffer.getId())) {
             Offer offer = openOffer.getOffer();
-            openOffer.setStorage(openOfferTradableListStorage);
+            openOffer.setTradableList(openOffers);
             offerBookService.activateOffer(offer,
                     () -> {
                         openOffer.setState(OpenOffer.State.AVAILABLE);
+                        publishQueue.onPublished(openOffer);
                         log.debug("activateOpenOffer, offerId={}", offer.getId());
                         resultHandler.handleResult();
                     },
@@ -377,10 +401,12 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
 
     public void deactivateOpenOffer(OpenOffer openOffer, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
         Offer offer = openOffer.getOffer();
-        openOffer.setStorage(openOfferTradableListStorage);
+        openOffer.setTradableList(openOffers);
         offerBookService.deactivateOffer(offer.getOfferPayload(),
                 () -> {
                     openOffer.setState(OpenOffer.State.DEACTIVATED);
+                    // The offer is not in the offerbook anymore so we must not send it and its TTL does not matter
+                    publishQueue.remove(offer.getId());
                     log.debug("deactivateOpenOffer, offerId={}", offer.getId());
                     resultHandler.handleResult();
                 },
@@ -391,7 +417,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         if (!offersToBeEdited.containsKey(openOffer.getId())) {
             Offer offer = openOffer.getOffer();
             if (openOffer.isDeactivated()) {
-                openOffer.setStorage(openOfferTradableListStorage);
+                openOffer.setTradableList(openOffers);
                 onRemoved(openOffer, resultHandler, offer);
             } else {
                 offerBookService.removeOffer(offer.getOfferPayload(),
@@ -430,13 +456,13 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         if (openOfferOptional.isPresent()) {
             final OpenOffer openOffer = openOfferOptional.get();
 
-            openOffer.setStorage(openOfferTradableListStorage);
+            openOffer.setTradableList(openOffers);
 
             openOffer.getOffer().setState(Offer.State.REMOVED);
             openOffer.setState(OpenOffer.State.CANCELED);
             openOffers.remove(openOffer);
 
-            final OpenOffer editedOpenOffer = new OpenOffer(editedOffer, openOfferTradableListStorage);
+            final OpenOffer editedOpenOffer = new OpenOffer(editedOffer, openOffers);
             editedOpenOffer.setState(originalState);
 
             openOffers.add(editedOpenOffer);
@@ -505,8 +531,17 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         return openOffers.getList();
     }
 
+    public int getPublishQueueSize() {
+        return publishQueue.getQueueSize();
+    }
+
+    // Remaining TTL in ms of our offer which expires first in the P2P network
+    public long getMinRemainingTtl() {
+        return publishQueue.getMinRemainingTtl();
+    }
+
     public Optional<OpenOffer> getOpenOfferById(String offerId) {
-        return openOffers.stream().filter(e -> e.getId().equals(offerId)).findFirst();
+        return openOffers.getTradableById(offerId);
     }
 
 
@@ -658,27 +693,13 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void republishOffers() {
-        int size = openOffers.size();
-        final ArrayList<OpenOffer> openOffersList = new ArrayList<>(openOffers.getList());
-        Log.traceCall("Number of offer for republish: " + size);
+        Log.traceCall("Number of offer for republish: " + openOffers.size());
         if (!stopped) {
             stopPeriodicRefreshOffersTimer();
-            for (int i = 0; i < size; i++) {
-                // we delay to avoid reaching throttle limits
-
-                long delay = 700;
-                final long minDelay = (i + 1) * delay;
-                final long maxDelay = (i + 2) * delay;
-                final OpenOffer openOffer = openOffersList.get(i);
-                UserThread.runAfterRandomDelay(() -> {
-                    if (openOffers.contains(openOffer)) {
-                        String id = openOffer.getId();
-                        if (id != null && !openOffer.isDeactivated())
-                            republishOffer(openOffer);
-                    }
-
-                }, minDelay, maxDelay, TimeUnit.MILLISECONDS);
-            }
+            openOffers.forEach(openOffer -> {
+                if (!openOffer.isDeactivated())
+                    publishQueue.add(openOffer, OfferPublishQueue.Type.REPUBLISH);
+            });
         } else {
             log.debug("We have stopped already. We ignore that republishOffers call.");
         }
@@ -689,6 +710,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
                 () -> {
                     if (!stopped) {
                         log.debug("Successful added offer to P2P network");
+                        publishQueue.onPublished(openOffer);
                         // Refresh means we send only the dat needed to refresh the TTL (hash, signature and sequence no.)
                         if (periodicRefreshOffersTimer == null)
                             startPeriodicRefreshOffersTimer();
@@ -706,7 +728,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
                         log.debug("We have stopped already. We ignore that offerBookService.republishOffers.onFault call.");
                     }
                 });
-        openOffer.setStorage(openOfferTradableListStorage);
+        openOffer.setTradableList(openOffers);
     }
 
     private void startPeriodicRepublishOffersTimer() {
@@ -733,25 +755,11 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         if (periodicRefreshOffersTimer == null)
             periodicRefreshOffersTimer = UserThread.runPeriodically(() -> {
                         if (!stopped) {
-                            int size = openOffers.size();
-                            Log.traceCall("Number of offer for refresh: " + size);
-
-                            //we clone our list as openOffers might change during our delayed call
-                            final ArrayList<OpenOffer> openOffersList = new ArrayList<>(openOffers.getList());
-                            for (int i = 0; i < size; i++) {
-                                // we delay to avoid reaching throttle limits
-                                // roughly 4 offers per second
-
-                                long delay = 300;
-                                final long minDelay = (i + 1) * delay;
-                                final long maxDelay = (i + 2) * delay;
-                                final OpenOffer openOffer = openOffersList.get(i);
-                                UserThread.runAfterRandomDelay(() -> {
-                                    // we need to check if in the meantime the offer has been removed
-                                    if (openOffers.contains(openOffer) && !openOffer.isDeactivated())
-                                        refreshOffer(openOffer);
-                                }, minDelay, maxDelay, TimeUnit.MILLISECONDS);
-                            }
+                            Log.traceCall("Number of offer for refresh: " + openOffers.size());
+                            openOffers.forEach(openOffer -> {
+                                if (!openOffer.isDeactivated())
+                                    publishQueue.add(openOffer, OfferPublishQueue.Type.REFRESH);
+                            });
                         } else {
                             log.debug("We have stopped already. We ignore that periodicRefreshOffersTimer.run call.");
                         }
@@ -764,7 +772,10 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
 
     private void refreshOffer(OpenOffer openOffer) {
         offerBookService.refreshTTL(openOffer.getOffer().getOfferPayload(),
-                () -> log.debug("Successful refreshed TTL for offer"),
+                () -> {
+                    log.debug("Successful refreshed TTL for offer");
+                    publishQueue.onPublished(openOffer);
+                },
                 log::warn);
     }
 
@@ -0,0 +1,370 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.payment;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.ByteString;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Map of AccountAgeWitnesses which stores each witness as a fixed width record of 28 bytes (20 bytes hash, 8 bytes
+ * date) in a byte array sorted by the hash. Lookups use binary search and only the looked up witness gets created.
+ * New witnesses are appended to a small delta map which is merged into the sorted records once it exceeds a
+ * fraction of the sorted records.
+ * <p>
+ * The sorted array is never modified in place but replaced, so iteration works on a snapshot and does not fail at
+ * concurrent changes like the ConcurrentHashMap we used before.
+ */
+@Slf4j
+class AccountAgeWitnessMap extends AbstractMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> {
+    static final int HASH_SIZE = 20;
+    static final int RECORD_SIZE = HASH_SIZE + 8;
+    private static final int MIN_DELTA_SIZE_FOR_MERGE = 1024;
+
+    private byte[] records = new byte[0];
+    private int numRecords;
+    // Witnesses which are not merged yet
+    private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> delta = new HashMap<>();
+    // Witnesses with an invalid hash size (see AccountAgeWitness.fromProto) are never merged
+    private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> irregular = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    AccountAgeWitnessMap() {
+    }
+
+    // Reads the records directly from the proto items without creating AccountAgeWitness objects
+    static AccountAgeWitnessMap fromProto(List<PB.AccountAgeWitness> items) {
+        AccountAgeWitnessMap map = new AccountAgeWitnessMap();
+        byte[] unsorted = new byte[items.size() * RECORD_SIZE];
+        int count = 0;
+        for (PB.AccountAgeWitness item : items) {
+            ByteString hash = item.getHash();
+            if (hash.size() == HASH_SIZE) {
+                int offset = count * RECORD_SIZE;
+                hash.copyTo(unsorted, offset);
+                writeLong(unsorted, offset + HASH_SIZE, item.getDate());
+                count++;
+            } else {
+                AccountAgeWitness witness = AccountAgeWitness.fromProto(item);
+                map.irregular.put(witness.getHashAsByteArray(), witness);
+            }
+        }
+        map.records = sortAndRemoveDuplicates(unsorted, count);
+        map.numRecords = map.records.length / RECORD_SIZE;
+        return map;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Map implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public synchronized int size() {
+        return numRecords + delta.size() + irregular.size();
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Nullable
+    @Override
+    public synchronized AccountAgeWitness get(Object key) {
+        if (!(key instanceof P2PDataStorage.ByteArray))
+            return null;
+
+        P2PDataStorage.ByteArray hash = (P2PDataStorage.ByteArray) key;
+        if (hash.bytes.length != HASH_SIZE)
+            return irregular.get(hash);
+
+        int index = indexOf(records, numRecords, hash.bytes);
+        if (index >= 0)
+            return toWitness(records, index);
+
+        return delta.get(hash);
+    }
+
+    @Nullable
+    @Override
+    public synchronized AccountAgeWitness put(P2PDataStorage.ByteArray key, PersistableNetworkPayload value) {
+        if (!(value instanceof AccountAgeWitness))
+            throw new IllegalArgumentException("Value must be an AccountAgeWitness. value=" + value);
+
+        AccountAgeWitness witness = (AccountAgeWitness) value;
+        if (witness.getHash().length != HASH_SIZE)
+            return irregular.put(key, witness);
+
+        int index = indexOf(records, numRecords, key.bytes);
+        if (index >= 0) {
+            // Witnesses are immutable, so we only expect that if the same witness is added again
+            AccountAgeWitness previous = toWitness(records, index);
+            if (previous.getDate() != witness.getDate()) {
+                byte[] copy = Arrays.copyOf(records, records.length);
+                writeLong(copy, index * RECORD_SIZE + HASH_SIZE, witness.getDate());
+                records = copy;
+            }
+            return previous;
+        }
+
+        AccountAgeWitness previous = delta.put(key, witness);
+        if (delta.size() >= Math.max(MIN_DELTA_SIZE_FOR_MERGE, numRecords / 16))
+            merge();
+        return previous;
+    }
+
+    @Nullable
+    @Override
+    public synchronized PersistableNetworkPayload putIfAbsent(P2PDataStorage.ByteArray key, PersistableNetworkPayload value) {
+        AccountAgeWitness existing = get(key);
+        if (existing != null)
+            return existing;
+
+        put(key, value);
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public synchronized AccountAgeWitness remove(Object key) {
+        if (!(key instanceof P2PDataStorage.ByteArray))
+            return null;
+
+        P2PDataStorage.ByteArray hash = (P2PDataStorage.ByteArray) key;
+        if (hash.bytes.length != HASH_SIZE)
+            return irregular.remove(hash);
+
+        int index = indexOf(records, numRecords, hash.bytes);
+        if (index < 0)
+            return delta.remove(hash);
+
+        AccountAgeWitness previous = toWitness(records, index);
+        byte[] copy = new byte[records.length - RECORD_SIZE];
+        System.arraycopy(records, 0, copy, 0, index * RECORD_SIZE);
+        System.arraycopy(records, (index + 1) * RECORD_SIZE, copy, index * RECORD_SIZE, copy.length - index * RECORD_SIZE);
+        records = copy;
+        numRecords--;
+        return previous;
+    }
+
+    @Override
+    public synchronized void clear() {
+        records = new byte[0];
+        numRecords = 0;
+        delta.clear();
+        irregular.clear();
+    }
+
+    @Override
+    public Set<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> entrySet() {
+        return new AbstractSet<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>>() {
+            @Override
+            public Iterator<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> iterator() {
+                return snapshotIterator();
+            }
+
+            @Override
+            public int size() {
+                return AccountAgeWitnessMap.this.size();
+            }
+        };
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Writes the proto items directly from the records without creating AccountAgeWitness objects
+    synchronized List<PB.AccountAgeWitness> toProtoList() {
+        List<PB.AccountAgeWitness> list = new ArrayList<>(size());
+        for (int i = 0; i < numRecords; i++) {
+            int offset = i * RECORD_SIZE;
+            list.add(PB.AccountAgeWitness.newBuilder()
+                    .setHash(ByteString.copyFrom(records, offset, HASH_SIZE))
+                    .setDate(readLong(records, offset + HASH_SIZE))
+                    .build());
+        }
+        delta.values().forEach(witness -> list.add(witness.toProtoAccountAgeWitness()));
+        irregular.values().forEach(witness -> list.add(witness.toProtoAccountAgeWitness()));
+        return list;
+    }
+
+    // Merges the delta into the sorted records
+    synchronized void merge() {
+        if (delta.isEmpty())
+            return;
+
+        byte[] deltaRecords = new byte[delta.size() * RECORD_SIZE];
+        int count = 0;
+        for (AccountAgeWitness witness : delta.values()) {
+            int offset = count * RECORD_SIZE;
+            System.arraycopy(witness.getHash(), 0, deltaRecords, offset, HASH_SIZE);
+            writeLong(deltaRecords, offset + HASH_SIZE, witness.getDate());
+            count++;
+        }
+        deltaRecords = sortAndRemoveDuplicates(deltaRecords, count);
+
+        byte[] merged = new byte[records.length + deltaRecords.length];
+        int i = 0, j = 0, k = 0;
+        int numDeltaRecords = deltaRecords.length / RECORD_SIZE;
+        while (i < numRecords || j < numDeltaRecords) {
+            boolean takeExisting = j >= numDeltaRecords ||
+                    (i < numRecords && compare(records, i * RECORD_SIZE, deltaRecords, j * RECORD_SIZE) < 0);
+            if (takeExisting)
+                System.arraycopy(records, i++ * RECORD_SIZE, merged, k++ * RECORD_SIZE, RECORD_SIZE);
+            else
+                System.arraycopy(deltaRecords, j++ * RECORD_SIZE, merged, k++ * RECORD_SIZE, RECORD_SIZE);
+        }
+        records = merged;
+        numRecords = k;
+        delta.clear();
+        log.debug("Merged {} witnesses, we have now {} sorted witnesses", numDeltaRecords, numRecords);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private synchronized Iterator<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> snapshotIterator() {
+        byte[] recordsSnapshot = records;
+        int numRecordsSnapshot = numRecords;
+        List<AccountAgeWitness> others = new ArrayList<>(delta.size() + irregular.size());
+        others.addAll(delta.values());
+        others.addAll(irregular.values());
+
+        return new Iterator<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < numRecordsSnapshot + others.size();
+            }
+
+            @Override
+            public Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+
+                AccountAgeWitness witness = index < numRecordsSnapshot ?
+                        toWitness(recordsSnapshot, index) :
+                        others.get(index - numRecordsSnapshot);
+                index++;
+                return new SimpleImmutableEntry<>(witness.getHashAsByteArray(), witness);
+            }
+        };
+    }
+
+    private static AccountAgeWitness toWitness(byte[] records, int index) {
+        int offset = index * RECORD_SIZE;
+        return new AccountAgeWitness(Arrays.copyOfRange(records, offset, offset + HASH_SIZE),
+                readLong(records, offset + HASH_SIZE));
+    }
+
+    private static int indexOf(byte[] records, int numRecords, byte[] hash) {
+        int low = 0;
+        int high = numRecords - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int result = compare(records, mid * RECORD_SIZE, hash, 0);
+            if (result < 0)
+                low = mid + 1;
+            else if (result > 0)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -1;
+    }
+
+    // Unsigned lexicographic order of the hashes
+    private static int compare(byte[] a, int offsetA, byte[] b, int offsetB) {
+        for (int i = 0; i < HASH_SIZE; i++) {
+            int result = Integer.compare(a[offsetA + i] & 0xff, b[offsetB + i] & 0xff);
+            if (result != 0)
+                return result;
+        }
+        return 0;
+    }
+
+    // Sorts the first count records. For duplicated hashes the last record wins, like at a map put.
+    private static byte[] sortAndRemoveDuplicates(byte[] unsorted, int count) {
+        // Data we have written ourselves is already sorted
+        boolean isSorted = true;
+        for (int i = 1; i < count && isSorted; i++)
+            isSorted = compare(unsorted, (i - 1) * RECORD_SIZE, unsorted, i * RECORD_SIZE) < 0;
+        if (isSorted)
+            return unsorted.length == count * RECORD_SIZE ? unsorted : Arrays.copyOf(unsorted, count * RECORD_SIZE);
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++)
+            order[i] = i;
+        // Stable sort, so equal hashes keep their insertion order
+        Arrays.sort(order, (o1, o2) -> compare(unsorted, o1 * RECORD_SIZE, unsorted, o2 * RECORD_SIZE));
+
+        byte[] sorted = new byte[count * RECORD_SIZE];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int offset = order[i] * RECORD_SIZE;
+            if (size > 0 && compare(sorted, (size - 1) * RECORD_SIZE, unsorted, offset) == 0)
+                size--;
+            System.arraycopy(unsorted, offset, sorted, size * RECORD_SIZE, RECORD_SIZE);
+            size++;
+        }
+        return size == count ? sorted : Arrays.copyOf(sorted, size * RECORD_SIZE);
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++)
+            value = (value << 8) | (bytes[offset + i] & 0xff);
+        return value;
+    }
+
+    private static void writeLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+}
@@ -39,6 +39,10 @@ import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.util.MathUtils;
 import bisq.common.util.Utilities;
 
+import com.google.common.collect.MapMaker;
+
+import javafx.collections.SetChangeListener;
+
 import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
@@ -48,7 +52,6 @@ import java.security.PublicKey;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.GregorianCalendar;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
@@ -72,8 +75,13 @@ public class AccountAgeWitnessService {
     private final KeyRing keyRing;
     private final P2PService p2PService;
     private final User user;
+    private final AccountAgeWitnessStorageService accountAgeWitnessStorageService;
 
-    private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> accountAgeWitnessMap = new HashMap<>();
+    // Witness hashes by payment account payload. A payload does not change once its account is saved (the payloads
+    // of peers are received as part of a contract), so the hash only gets created once per payload. Weak keys use
+    // identity comparison, so a lookup neither hashes the payload nor takes a lock, and the entries of payloads which
+    // are not used anymore get removed by the GC.
+    private final Map<PaymentAccountPayload, WitnessHash> witnessHashes = new MapMaker().weakKeys().makeMap();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -88,6 +96,7 @@ public class AccountAgeWitnessService {
         this.keyRing = keyRing;
         this.p2PService = p2PService;
         this.user = user;
+        this.accountAgeWitnessStorageService = accountAgeWitnessStorageService;
 
         // We need to add that early (before onAllServicesInitialized) as it will be used at startup.
         appendOnlyDataStoreService.addService(accountAgeWitnessStorageService);
@@ -98,16 +107,13 @@ public class AccountAgeWitnessService {
     // Lifecycle
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // We don't keep a copy of the witnesses but look them up in the AccountAgeWitnessStorageService, which gets
+    // all witnesses added by the P2PDataStorage.
     public void onAllServicesInitialized() {
-        p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(payload -> {
-            if (payload instanceof AccountAgeWitness)
-                addToMap((AccountAgeWitness) payload);
-        });
-
-        // At startup the P2PDataStorage initializes earlier, otherwise we ge the listener called.
-        p2PService.getP2PDataStorage().getAppendOnlyDataStoreMap().values().forEach(e -> {
-            if (e instanceof AccountAgeWitness)
-                addToMap((AccountAgeWitness) e);
+        // The payload of a new account can still be changed (e.g. the salt) before the account gets saved
+        user.getPaymentAccountsAsObservable().addListener((SetChangeListener<PaymentAccount>) change -> {
+            if (change.wasAdded())
+                witnessHashes.remove(change.getElementAdded().getPaymentAccountPayload());
         });
 
         if (p2PService.isBootstrapped()) {
@@ -135,12 +141,6 @@ public class AccountAgeWitnessService {
                     });
     }
 
-    private void addToMap(AccountAgeWitness accountAgeWitness) {
-        log.debug("addToMap hash=" + Utilities.bytesAsHexString(accountAgeWitness.getHash()));
-        if (!accountAgeWitnessMap.containsKey(accountAgeWitness.getHashAsByteArray()))
-            accountAgeWitnessMap.put(accountAgeWitness.getHashAsByteArray(), accountAgeWitness);
-    }
-
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Generic
@@ -148,7 +148,7 @@ public class AccountAgeWitnessService {
 
     public void publishMyAccountAgeWitness(PaymentAccountPayload paymentAccountPayload) {
         AccountAgeWitness accountAgeWitness = getMyWitness(paymentAccountPayload);
-        if (!accountAgeWitnessMap.containsKey(accountAgeWitness.getHashAsByteArray()))
+        if (!accountAgeWitnessStorageService.containsKey(accountAgeWitness.getHashAsByteArray()))
             p2PService.addPersistableNetworkPayload(accountAgeWitness, false);
     }
 
@@ -156,29 +156,39 @@ public class AccountAgeWitnessService {
         return Utilities.concatenateByteArrays(paymentAccountPayload.getAgeWitnessInputData(), paymentAccountPayload.getSalt());
     }
 
-    private AccountAgeWitness getNewWitness(PaymentAccountPayload paymentAccountPayload, PubKeyRing pubKeyRing) {
-        byte[] accountInputDataWithSalt = getAccountInputDataWithSalt(paymentAccountPayload);
-        byte[] hash = Hash.getSha256Ripemd160hash(Utilities.concatenateByteArrays(accountInputDataWithSalt,
+    private byte[] getWitnessHash(byte[] accountInputDataWithSalt, PubKeyRing pubKeyRing) {
+        return Hash.getSha256Ripemd160hash(Utilities.concatenateByteArrays(accountInputDataWithSalt,
                 pubKeyRing.getSignaturePubKeyBytes()));
-        return new AccountAgeWitness(hash, new Date().getTime());
     }
 
-    private Optional<AccountAgeWitness> findWitness(PaymentAccountPayload paymentAccountPayload, PubKeyRing pubKeyRing) {
-        byte[] accountInputDataWithSalt = getAccountInputDataWithSalt(paymentAccountPayload);
-        byte[] hash = Hash.getSha256Ripemd160hash(Utilities.concatenateByteArrays(accountInputDataWithSalt,
-                pubKeyRing.getSignaturePubKeyBytes()));
+    // Returns the witness hash from the cache. The pubKeyRing is the same instance for nearly all calls with a
+    // payload, only if it is a different one we compare the keys.
+    private WitnessHash getCachedWitnessHash(PaymentAccountPayload paymentAccountPayload, PubKeyRing pubKeyRing) {
+        WitnessHash witnessHash = witnessHashes.get(paymentAccountPayload);
+        if (witnessHash == null || (witnessHash.pubKeyRing != pubKeyRing && !witnessHash.pubKeyRing.equals(pubKeyRing))) {
+            witnessHash = new WitnessHash(pubKeyRing,
+                    getWitnessHash(getAccountInputDataWithSalt(paymentAccountPayload), pubKeyRing));
+            witnessHashes.put(paymentAccountPayload, witnessHash);
+        }
+        return witnessHash;
+    }
 
-        return getWitnessByHash(hash);
+    private AccountAgeWitness getNewWitness(PaymentAccountPayload paymentAccountPayload, PubKeyRing pubKeyRing) {
+        return new AccountAgeWitness(getCachedWitnessHash(paymentAccountPayload, pubKeyRing).hash, new Date().getTime());
+    }
+
+    private Optional<AccountAgeWitness> findWitness(PaymentAccountPayload paymentAccountPayload, PubKeyRing pubKeyRing) {
+        return Optional.ofNullable(accountAgeWitnessStorageService.getWitness(getCachedWitnessHash(paymentAccountPayload, pubKeyRing).hashAsByteArray));
     }
 
     private Optional<AccountAgeWitness> getWitnessByHash(byte[] hash) {
         P2PDataStorage.ByteArray hashAsByteArray = new P2PDataStorage.ByteArray(hash);
 
-        final boolean containsKey = accountAgeWitnessMap.containsKey(hashAsByteArray);
-        if (!containsKey)
-            log.debug("hash not found in accountAgeWitnessMap");
+        AccountAgeWitness accountAgeWitness = accountAgeWitnessStorageService.getWitness(hashAsByteArray);
+        if (accountAgeWitness == null)
+            log.debug("hash not found in accountAgeWitnessStorageService");
 
-        return accountAgeWitnessMap.containsKey(hashAsByteArray) ? Optional.of(accountAgeWitnessMap.get(hashAsByteArray)) : Optional.<AccountAgeWitness>empty();
+        return Optional.ofNullable(accountAgeWitness);
     }
 
     private Optional<AccountAgeWitness> getWitnessByHashAsHex(String hashAsHex) {
@@ -245,12 +255,13 @@ public class AccountAgeWitnessService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public AccountAgeWitness getMyWitness(PaymentAccountPayload paymentAccountPayload) {
-        final Optional<AccountAgeWitness> accountAgeWitnessOptional = findWitness(paymentAccountPayload, keyRing.getPubKeyRing());
-        return accountAgeWitnessOptional.orElseGet(() -> getNewWitness(paymentAccountPayload, keyRing.getPubKeyRing()));
+        AccountAgeWitness accountAgeWitness = accountAgeWitnessStorageService.getWitness(getCachedWitnessHash(paymentAccountPayload,
+                keyRing.getPubKeyRing()).hashAsByteArray);
+        return accountAgeWitness != null ? accountAgeWitness : getNewWitness(paymentAccountPayload, keyRing.getPubKeyRing());
     }
 
     private byte[] getMyWitnessHash(PaymentAccountPayload paymentAccountPayload) {
-        return getMyWitness(paymentAccountPayload).getHash();
+        return getCachedWitnessHash(paymentAccountPayload, keyRing.getPubKeyRing()).hash;
     }
 
     public String getMyWitnessHashAsHex(PaymentAccountPayload paymentAccountPayload) {
@@ -295,6 +306,17 @@ public class AccountAgeWitnessService {
                                            byte[] nonce,
                                            byte[] signature,
                                            ErrorMessageHandler errorMessageHandler) {
+        return verifyAccountAgeWitnessData(trade, peersPaymentAccountPayload, peersCurrentDate, peersPubKeyRing, errorMessageHandler) &&
+                verifySignature(peersPubKeyRing.getSignaturePubKey(), nonce, signature, errorMessageHandler);
+    }
+
+    // Verifies all but the signature. The signature check is the expensive part and is done separately by the trade
+    // protocol on a background thread.
+    public boolean verifyAccountAgeWitnessData(Trade trade,
+                                               PaymentAccountPayload peersPaymentAccountPayload,
+                                               Date peersCurrentDate,
+                                               PubKeyRing peersPubKeyRing,
+                                               ErrorMessageHandler errorMessageHandler) {
         final Optional<AccountAgeWitness> accountAgeWitnessOptional = findWitness(peersPaymentAccountPayload, peersPubKeyRing);
         // If we don't find a stored witness data we create a new dummy object which makes is easier to reuse the
         // below validation methods. This peersWitness object is not used beside for validation. Some of the
@@ -329,8 +351,7 @@ public class AccountAgeWitnessService {
             log.error("verifyPeersTradeLimit failed: peersPaymentAccountPayload " + peersPaymentAccountPayload);
             return false;
         }
-        // Check if the signature is correct
-        return verifySignature(peersPubKeyRing.getSignaturePubKey(), nonce, signature, errorMessageHandler);
+        return true;
     }
 
 
@@ -398,10 +419,10 @@ public class AccountAgeWitnessService {
         return result;
     }
 
-    boolean verifySignature(PublicKey peersPublicKey,
-                            byte[] nonce,
-                            byte[] signature,
-                            ErrorMessageHandler errorMessageHandler) {
+    public boolean verifySignature(PublicKey peersPublicKey,
+                                   byte[] nonce,
+                                   byte[] signature,
+                                   ErrorMessageHandler errorMessageHandler) {
         boolean result;
         try {
             result = Sig.verify(peersPublicKey, nonce, signature);
@@ -418,4 +439,21 @@ public class AccountAgeWitnessService {
         }
         return result;
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // WitnessHash
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final class WitnessHash {
+        private final PubKeyRing pubKeyRing;
+        private final byte[] hash;
+        private final P2PDataStorage.ByteArray hashAsByteArray;
+
+        WitnessHash(PubKeyRing pubKeyRing, byte[] hash) {
+            this.pubKeyRing = pubKeyRing;
+            this.hash = hash;
+            this.hashAsByteArray = new P2PDataStorage.ByteArray(hash);
+        }
+    }
 }
@@ -33,6 +33,8 @@ import java.util.Map;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 import static com.google.common.base.Preconditions.checkArgument;
 
 @Slf4j
@@ -69,6 +71,15 @@ public class AccountAgeWitnessStorageService extends StoreService<AccountAgeWitn
         return payload instanceof AccountAgeWitness;
     }
 
+    @Nullable
+    public AccountAgeWitness getWitness(P2PDataStorage.ByteArray hash) {
+        return store.getMap().get(hash);
+    }
+
+    public boolean containsKey(P2PDataStorage.ByteArray hash) {
+        return store.containsKey(hash);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Protected
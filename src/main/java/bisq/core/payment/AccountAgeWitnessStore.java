@@ -18,7 +18,6 @@
 package bisq.core.payment;
 
 import bisq.network.p2p.storage.P2PDataStorage;
-import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 
 import bisq.common.proto.persistable.PersistableEnvelope;
 
@@ -26,11 +25,6 @@ import io.bisq.generated.protobuffer.PB;
 
 import com.google.protobuf.Message;
 
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -39,13 +33,16 @@ import lombok.extern.slf4j.Slf4j;
  * We store only the payload in the PB file to save disc space. The hash of the payload can be created anyway and
  * is only used as key in the map. So we have a hybrid data structure which is represented as list in the protobuffer
  * definition and provide a hashMap for the domain access.
+ * The map is an AccountAgeWitnessMap which keeps the witnesses as sorted fixed width records instead of Java objects,
+ * as that data set only grows.
  */
 @Slf4j
 public class AccountAgeWitnessStore implements PersistableEnvelope {
     @Getter
-    private Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = new ConcurrentHashMap<>();
+    private final AccountAgeWitnessMap map;
 
     AccountAgeWitnessStore() {
+        map = new AccountAgeWitnessMap();
     }
 
 
@@ -53,8 +50,8 @@ public class AccountAgeWitnessStore implements PersistableEnvelope {
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private AccountAgeWitnessStore(List<AccountAgeWitness> list) {
-        list.forEach(item -> map.put(new P2PDataStorage.ByteArray(item.getHash()), item));
+    private AccountAgeWitnessStore(AccountAgeWitnessMap map) {
+        this.map = map;
     }
 
     public Message toProtoMessage() {
@@ -64,17 +61,11 @@ public class AccountAgeWitnessStore implements PersistableEnvelope {
     }
 
     private PB.AccountAgeWitnessStore.Builder getBuilder() {
-        final List<PB.AccountAgeWitness> protoList = map.values().stream()
-                .map(payload -> (AccountAgeWitness) payload)
-                .map(AccountAgeWitness::toProtoAccountAgeWitness)
-                .collect(Collectors.toList());
-        return PB.AccountAgeWitnessStore.newBuilder().addAllItems(protoList);
+        return PB.AccountAgeWitnessStore.newBuilder().addAllItems(map.toProtoList());
     }
 
     public static PersistableEnvelope fromProto(PB.AccountAgeWitnessStore proto) {
-        List<AccountAgeWitness> list = proto.getItemsList().stream()
-                .map(AccountAgeWitness::fromProto).collect(Collectors.toList());
-        return new AccountAgeWitnessStore(list);
+        return new AccountAgeWitnessStore(AccountAgeWitnessMap.fromProto(proto.getItemsList()));
     }
 
     public boolean containsKey(P2PDataStorage.ByteArray hash) {
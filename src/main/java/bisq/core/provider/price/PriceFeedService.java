@@ -299,6 +299,11 @@ public class PriceFeedService {
             return new Date();
     }
 
+    // Used if the caller knows that tradeStatistics is the most recent trade of its currency
+    public void applyBisqMarketPrice(TradeStatistics2 tradeStatistics) {
+        setBisqMarketPrice(tradeStatistics.getCurrencyCode(), tradeStatistics.getTradePrice());
+    }
+
     public void applyLatestBisqMarketPrice(Set<TradeStatistics2> tradeStatisticsSet) {
         // takes about 10 ms for 5000 items
         Map<String, List<TradeStatistics2>> mapByCurrencyCode = new HashMap<>();
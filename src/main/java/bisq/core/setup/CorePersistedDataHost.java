@@ -42,6 +42,7 @@ import com.google.inject.name.Names;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -70,4 +71,26 @@ public class CorePersistedDataHost {
         }
         return persistedDataHosts;
     }
+
+    // Preferences are read first, the other hosts use their own files and are read in parallel. Blocks until all
+    // hosts are read, a failure is thrown as RuntimeException.
+    public static void readPersisted(List<PersistedDataHost> persistedDataHosts) {
+        StartupTaskGraph startupTaskGraph = new StartupTaskGraph("PersistedDataHosts", Runnable::run);
+        Optional<String> preferences = persistedDataHosts.stream()
+                .filter(persistedDataHost -> persistedDataHost instanceof Preferences)
+                .findAny()
+                .map(CorePersistedDataHost::getTaskName);
+        persistedDataHosts.forEach(persistedDataHost -> {
+            String taskName = getTaskName(persistedDataHost);
+            if (persistedDataHost instanceof Preferences || !preferences.isPresent())
+                startupTaskGraph.addTask(taskName, persistedDataHost::readPersisted);
+            else
+                startupTaskGraph.addTask(taskName, persistedDataHost::readPersisted, preferences.get());
+        });
+        startupTaskGraph.startAndAwait();
+    }
+
+    private static String getTaskName(PersistedDataHost persistedDataHost) {
+        return persistedDataHost.getClass().getSimpleName();
+    }
 }
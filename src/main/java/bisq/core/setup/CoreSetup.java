@@ -21,6 +21,7 @@ import bisq.core.app.AppOptionKeys;
 import bisq.core.app.BisqEnvironment;
 import bisq.core.locale.CurrencyUtil;
 import bisq.core.locale.Res;
+import bisq.core.metrics.Metrics;
 
 import bisq.common.CommonOptionKeys;
 import bisq.common.app.Log;
@@ -40,6 +41,7 @@ public class CoreSetup {
 
     public static void setup(BisqEnvironment bisqEnvironment) {
         setupLog(bisqEnvironment);
+        Metrics.setEnabled(bisqEnvironment.getProperty(AppOptionKeys.ENABLE_METRICS, Boolean.class, false));
         CoreNetworkCapabilities.setSupportedCapabilities(bisqEnvironment);
         Res.setup();
         CurrencyUtil.setup();
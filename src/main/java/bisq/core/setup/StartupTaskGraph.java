@@ -0,0 +1,325 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.setup;
+
+import bisq.core.metrics.Metrics;
+
+import bisq.common.UserThread;
+import bisq.common.handlers.ResultHandler;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Runs the startup steps as a graph of named tasks. A task starts as soon as all the tasks it depends on are
+ * completed, so independent steps run in parallel. Tasks either run on a small thread pool, on the UserThread or
+ * are async tasks which are started on the UserThread and report their completion with a ResultHandler.
+ * The duration of each task is logged.
+ */
+@Slf4j
+public class StartupTaskGraph {
+    private static final int MAX_THREADS = 4;
+
+    private enum Mode {
+        POOL,
+        USER_THREAD,
+        ASYNC
+    }
+
+    private static class Node {
+        private final String name;
+        private final Mode mode;
+        private final Consumer<ResultHandler> task;
+        private final List<String> dependencies;
+        private final List<Node> dependents = new ArrayList<>();
+        private int numPendingDependencies;
+        private long startTs;
+        private boolean completed;
+
+        private Node(String name, Mode mode, Consumer<ResultHandler> task, List<String> dependencies) {
+            this.name = name;
+            this.mode = mode;
+            this.task = task;
+            this.dependencies = dependencies;
+        }
+    }
+
+    private final String name;
+    private final Executor userThreadExecutor;
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+    @Nullable
+    private ExecutorService pool;
+    @Nullable
+    private ResultHandler completeHandler;
+    @Nullable
+    private Consumer<Throwable> errorHandler;
+    private int numPendingTasks;
+    private long startTs;
+    private long totalDuration;
+    private boolean started;
+    private boolean failed;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public StartupTaskGraph(String name) {
+        this(name, UserThread::execute);
+    }
+
+    // The userThreadExecutor is used for the tasks which need to run on the UserThread and for the handlers. A direct
+    // executor can be used if the graph is executed before the UserThread is available.
+    public StartupTaskGraph(String name, Executor userThreadExecutor) {
+        this.name = name;
+        this.userThreadExecutor = userThreadExecutor;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Runs the task on the thread pool
+    public StartupTaskGraph addTask(String name, Runnable task, String... dependencies) {
+        return addNode(name, Mode.POOL, toResultTask(task), dependencies);
+    }
+
+    public StartupTaskGraph addUserThreadTask(String name, Runnable task, String... dependencies) {
+        return addNode(name, Mode.USER_THREAD, toResultTask(task), dependencies);
+    }
+
+    // The task is started on the UserThread and is completed once it calls the ResultHandler (from any thread)
+    public StartupTaskGraph addAsyncTask(String name, Consumer<ResultHandler> task, String... dependencies) {
+        return addNode(name, Mode.ASYNC, task, dependencies);
+    }
+
+    public void start(ResultHandler completeHandler, Consumer<Throwable> errorHandler) {
+        List<Node> readyNodes;
+        synchronized (this) {
+            if (started)
+                throw new IllegalStateException("StartupTaskGraph " + name + " was already started");
+
+            started = true;
+            this.completeHandler = completeHandler;
+            this.errorHandler = errorHandler;
+            linkNodes();
+
+            long numPoolTasks = nodes.values().stream().filter(node -> node.mode == Mode.POOL).count();
+            if (numPoolTasks > 0) {
+                int numThreads = (int) Math.min(numPoolTasks,
+                        Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+                pool = Executors.newFixedThreadPool(Math.max(1, numThreads), new ThreadFactoryBuilder()
+                        .setNameFormat(name + "-%d")
+                        .setDaemon(true)
+                        .build());
+            }
+
+            numPendingTasks = nodes.size();
+            startTs = System.currentTimeMillis();
+            readyNodes = new ArrayList<>();
+            nodes.values().stream().filter(node -> node.numPendingDependencies == 0).forEach(readyNodes::add);
+        }
+
+        if (readyNodes.isEmpty())
+            onAllTasksCompleted();
+        else
+            readyNodes.forEach(this::execute);
+    }
+
+    // Blocks until all tasks are completed. Must not be called from the UserThread if tasks or handlers run on it.
+    // A failure of a task is thrown as RuntimeException.
+    public void startAndAwait() {
+        CountDownLatch latch = new CountDownLatch(1);
+        Throwable[] failure = new Throwable[1];
+        start(latch::countDown, throwable -> {
+            failure[0] = throwable;
+            latch.countDown();
+        });
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for StartupTaskGraph " + name, e);
+        }
+        if (failure[0] != null)
+            throw new RuntimeException("StartupTaskGraph " + name + " failed", failure[0]);
+    }
+
+    // Durations of the completed tasks in ms in order of completion
+    public synchronized Map<String, Long> getDurations() {
+        return new LinkedHashMap<>(durations);
+    }
+
+    public synchronized long getTotalDuration() {
+        return totalDuration;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static Consumer<ResultHandler> toResultTask(Runnable task) {
+        return resultHandler -> {
+            task.run();
+            resultHandler.handleResult();
+        };
+    }
+
+    private synchronized StartupTaskGraph addNode(String name, Mode mode, Consumer<ResultHandler> task, String... dependencies) {
+        if (started)
+            throw new IllegalStateException("Tasks cannot be added after StartupTaskGraph " + this.name + " was started");
+        if (nodes.containsKey(name))
+            throw new IllegalArgumentException("Task " + name + " was already added");
+
+        nodes.put(name, new Node(name, mode, task, Arrays.asList(dependencies)));
+        return this;
+    }
+
+    private void linkNodes() {
+        nodes.values().forEach(node -> node.dependencies.forEach(dependency -> {
+            Node dependencyNode = nodes.get(dependency);
+            if (dependencyNode == null)
+                throw new IllegalArgumentException("Task " + node.name + " depends on unknown task " + dependency);
+            dependencyNode.dependents.add(node);
+            node.numPendingDependencies++;
+        }));
+
+        // Kahn's algorithm, if not all nodes can be sorted we have a cycle
+        Map<Node, Integer> numPendingDependencies = new LinkedHashMap<>();
+        Deque<Node> queue = new ArrayDeque<>();
+        nodes.values().forEach(node -> {
+            numPendingDependencies.put(node, node.numPendingDependencies);
+            if (node.numPendingDependencies == 0)
+                queue.add(node);
+        });
+        int numSorted = 0;
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            numSorted++;
+            node.dependents.forEach(dependent -> {
+                if (numPendingDependencies.merge(dependent, -1, Integer::sum) == 0)
+                    queue.add(dependent);
+            });
+        }
+        if (numSorted != nodes.size())
+            throw new IllegalArgumentException("Tasks of StartupTaskGraph " + name + " have a cyclic dependency");
+    }
+
+    private void execute(Node node) {
+        Runnable runnable = () -> {
+            synchronized (this) {
+                if (failed)
+                    return;
+                node.startTs = System.currentTimeMillis();
+            }
+            try {
+                node.task.accept(() -> onTaskCompleted(node));
+            } catch (Throwable t) {
+                onTaskFailed(node, t);
+            }
+        };
+        if (node.mode == Mode.POOL && pool != null)
+            pool.execute(runnable);
+        else
+            userThreadExecutor.execute(runnable);
+    }
+
+    private void onTaskCompleted(Node node) {
+        List<Node> readyNodes = new ArrayList<>();
+        boolean allCompleted;
+        synchronized (this) {
+            if (failed || node.completed)
+                return;
+
+            node.completed = true;
+            long duration = System.currentTimeMillis() - node.startTs;
+            durations.put(node.name, duration);
+            log.info("{}: {} completed after {} ms", name, node.name, duration);
+            if (Metrics.isEnabled())
+                Metrics.timer("startup." + name + "." + node.name).record(duration, TimeUnit.MILLISECONDS);
+
+            node.dependents.forEach(dependent -> {
+                if (--dependent.numPendingDependencies == 0)
+                    readyNodes.add(dependent);
+            });
+            allCompleted = --numPendingTasks == 0;
+        }
+
+        readyNodes.forEach(this::execute);
+        if (allCompleted)
+            onAllTasksCompleted();
+    }
+
+    private void onTaskFailed(Node node, Throwable throwable) {
+        synchronized (this) {
+            if (failed)
+                return;
+
+            failed = true;
+            if (pool != null)
+                pool.shutdown();
+        }
+
+        log.error("{}: {} failed", name, node.name, throwable);
+        userThreadExecutor.execute(() -> {
+            if (errorHandler != null)
+                errorHandler.accept(throwable);
+        });
+    }
+
+    private void onAllTasksCompleted() {
+        synchronized (this) {
+            totalDuration = System.currentTimeMillis() - startTs;
+            if (pool != null)
+                pool.shutdown();
+
+            StringBuilder sb = new StringBuilder();
+            durations.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                    .forEach(entry -> sb.append("\n    ").append(entry.getKey()).append(": ").append(entry.getValue()).append(" ms"));
+            log.info("{}: all {} tasks completed after {} ms{}", name, nodes.size(), totalDuration, sb);
+        }
+
+        userThreadExecutor.execute(() -> {
+            if (completeHandler != null)
+                completeHandler.handleResult();
+        });
+    }
+}
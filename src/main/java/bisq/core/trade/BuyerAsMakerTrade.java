@@ -27,7 +27,6 @@ import bisq.core.trade.protocol.MakerProtocol;
 import bisq.network.p2p.NodeAddress;
 
 import bisq.common.handlers.ErrorMessageHandler;
-import bisq.common.storage.Storage;
 
 import io.bisq.generated.protobuffer.PB;
 
@@ -46,10 +45,10 @@ public final class BuyerAsMakerTrade extends BuyerTrade implements MakerTrade {
                              Coin txFee,
                              Coin takeOfferFee,
                              boolean isCurrencyForTakerFeeBtc,
-                             Storage<? extends TradableList> storage,
+                             TradableList<? extends Tradable> tradableList,
                              BtcWalletService btcWalletService) {
         super(offer, txFee, takeOfferFee, isCurrencyForTakerFeeBtc,
-                storage, btcWalletService);
+                tradableList, btcWalletService);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -65,7 +64,6 @@ public final class BuyerAsMakerTrade extends BuyerTrade implements MakerTrade {
     }
 
     public static Tradable fromProto(PB.BuyerAsMakerTrade buyerAsMakerTradeProto,
-                                     Storage<? extends TradableList> storage,
                                      BtcWalletService btcWalletService,
                                      CoreProtoResolver coreProtoResolver) {
         PB.Trade proto = buyerAsMakerTradeProto.getTrade();
@@ -74,7 +72,7 @@ public final class BuyerAsMakerTrade extends BuyerTrade implements MakerTrade {
                 Coin.valueOf(proto.getTxFeeAsLong()),
                 Coin.valueOf(proto.getTakerFeeAsLong()),
                 proto.getIsCurrencyForTakerFeeBtc(),
-                storage,
+                null,
                 btcWalletService);
 
         trade.setTradeAmountAsLong(proto.getTradeAmountAsLong());
@@ -25,7 +25,6 @@ import bisq.network.p2p.NodeAddress;
 
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
-import bisq.common.storage.Storage;
 
 import org.bitcoinj.core.Coin;
 
@@ -43,19 +42,19 @@ public abstract class BuyerTrade extends Trade {
                boolean isCurrencyForTakerFeeBtc,
                long tradePrice,
                NodeAddress tradingPeerNodeAddress,
-               Storage<? extends TradableList> storage,
+               TradableList<? extends Tradable> tradableList,
                BtcWalletService btcWalletService) {
         super(offer, tradeAmount, txFee, takerFee, isCurrencyForTakerFeeBtc, tradePrice,
-                tradingPeerNodeAddress, storage, btcWalletService);
+                tradingPeerNodeAddress, tradableList, btcWalletService);
     }
 
     BuyerTrade(Offer offer,
                Coin txFee,
                Coin takerFee,
                boolean isCurrencyForTakerFeeBtc,
-               Storage<? extends TradableList> storage,
+               TradableList<? extends Tradable> tradableList,
                BtcWalletService btcWalletService) {
-        super(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, storage, btcWalletService);
+        super(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, tradableList, btcWalletService);
     }
 
     public void onFiatPaymentStarted(ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
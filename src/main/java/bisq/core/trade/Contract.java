@@ -225,7 +225,11 @@ public final class Contract implements NetworkPayload {
     }
 
     public void printDiff(@Nullable String peersContractAsJson) {
-        final String json = Utilities.objectToJson(this);
+        printDiff(Utilities.objectToJson(this), peersContractAsJson);
+    }
+
+    // Use that if the json of our contract is already available as it is expensive to create
+    public static void printDiff(String json, @Nullable String peersContractAsJson) {
         String diff = StringUtils.difference(json, peersContractAsJson);
         if (!diff.isEmpty()) {
             log.warn("Diff of both contracts: \n" + diff);
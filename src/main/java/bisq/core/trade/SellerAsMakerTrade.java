@@ -27,7 +27,6 @@ import bisq.core.trade.protocol.SellerAsMakerProtocol;
 import bisq.network.p2p.NodeAddress;
 
 import bisq.common.handlers.ErrorMessageHandler;
-import bisq.common.storage.Storage;
 
 import io.bisq.generated.protobuffer.PB;
 
@@ -46,9 +45,9 @@ public final class SellerAsMakerTrade extends SellerTrade implements MakerTrade
                               Coin txFee,
                               Coin takerFee,
                               boolean isCurrencyForTakerFeeBtc,
-                              Storage<? extends TradableList> storage,
+                              TradableList<? extends Tradable> tradableList,
                               BtcWalletService btcWalletService) {
-        super(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, storage, btcWalletService);
+        super(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, tradableList, btcWalletService);
     }
 
 
@@ -65,7 +64,6 @@ public final class SellerAsMakerTrade extends SellerTrade implements MakerTrade
     }
 
     public static Tradable fromProto(PB.SellerAsMakerTrade sellerAsMakerTradeProto,
-                                     Storage<? extends TradableList> storage,
                                      BtcWalletService btcWalletService,
                                      CoreProtoResolver coreProtoResolver) {
         PB.Trade proto = sellerAsMakerTradeProto.getTrade();
@@ -74,7 +72,7 @@ public final class SellerAsMakerTrade extends SellerTrade implements MakerTrade
                 Coin.valueOf(proto.getTxFeeAsLong()),
                 Coin.valueOf(proto.getTakerFeeAsLong()),
                 proto.getIsCurrencyForTakerFeeBtc(),
-                storage,
+                null,
                 btcWalletService);
 
         trade.setTradeAmountAsLong(proto.getTradeAmountAsLong());
@@ -25,7 +25,6 @@ import bisq.core.trade.protocol.TakerProtocol;
 
 import bisq.network.p2p.NodeAddress;
 
-import bisq.common.storage.Storage;
 
 import io.bisq.generated.protobuffer.PB;
 
@@ -49,10 +48,10 @@ public final class SellerAsTakerTrade extends SellerTrade implements TakerTrade
                               boolean isCurrencyForTakerFeeBtc,
                               long tradePrice,
                               NodeAddress tradingPeerNodeAddress,
-                              Storage<? extends TradableList> storage,
+                              TradableList<? extends Tradable> tradableList,
                               BtcWalletService btcWalletService) {
         super(offer, tradeAmount, txFee, takerFee, isCurrencyForTakerFeeBtc, tradePrice,
-                tradingPeerNodeAddress, storage, btcWalletService);
+                tradingPeerNodeAddress, tradableList, btcWalletService);
     }
 
 
@@ -69,7 +68,6 @@ public final class SellerAsTakerTrade extends SellerTrade implements TakerTrade
     }
 
     public static Tradable fromProto(PB.SellerAsTakerTrade sellerAsTakerTradeProto,
-                                     Storage<? extends TradableList> storage,
                                      BtcWalletService btcWalletService,
                                      CoreProtoResolver coreProtoResolver) {
         PB.Trade proto = sellerAsTakerTradeProto.getTrade();
@@ -81,7 +79,7 @@ public final class SellerAsTakerTrade extends SellerTrade implements TakerTrade
                         proto.getIsCurrencyForTakerFeeBtc(),
                         proto.getTradePrice(),
                         proto.hasTradingPeerNodeAddress() ? NodeAddress.fromProto(proto.getTradingPeerNodeAddress()) : null,
-                        storage,
+                        null,
                         btcWalletService),
                 proto,
                 coreProtoResolver);
@@ -25,7 +25,6 @@ import bisq.network.p2p.NodeAddress;
 
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
-import bisq.common.storage.Storage;
 
 import org.bitcoinj.core.Coin;
 
@@ -42,19 +41,19 @@ public abstract class SellerTrade extends Trade {
                 boolean isCurrencyForTakerFeeBtc,
                 long tradePrice,
                 NodeAddress tradingPeerNodeAddress,
-                Storage<? extends TradableList> storage,
+                TradableList<? extends Tradable> tradableList,
                 BtcWalletService btcWalletService) {
         super(offer, tradeAmount, txFee, takerFee, isCurrencyForTakerFeeBtc, tradePrice,
-                tradingPeerNodeAddress, storage, btcWalletService);
+                tradingPeerNodeAddress, tradableList, btcWalletService);
     }
 
     SellerTrade(Offer offer,
                 Coin txFee,
                 Coin takeOfferFee,
                 boolean isCurrencyForTakerFeeBtc,
-                Storage<? extends TradableList> storage,
+                TradableList<? extends Tradable> tradableList,
                 BtcWalletService btcWalletService) {
-        super(offer, txFee, takeOfferFee, isCurrencyForTakerFeeBtc, storage, btcWalletService);
+        super(offer, txFee, takeOfferFee, isCurrencyForTakerFeeBtc, tradableList, btcWalletService);
     }
 
     public void onFiatPaymentReceived(ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
@@ -20,6 +20,7 @@ package bisq.core.trade;
 import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.offer.OpenOffer;
 import bisq.core.proto.CoreProtoResolver;
+import bisq.core.util.SegmentedStorage;
 
 import bisq.common.proto.ProtoUtil;
 import bisq.common.proto.ProtobufferRuntimeException;
@@ -31,11 +32,19 @@ import io.bisq.generated.protobuffer.PB;
 import com.google.protobuf.Message;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -44,23 +53,57 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
 
+/**
+ * Holds a list of tradables. Each tradable is persisted as its own record in the SegmentedStorage, so a change of a
+ * trade (e.g. a state change during the trade protocol) only rewrites that trade and not the whole list.
+ * The storage is only used for reading the file of older versions for the migration to the SegmentedStorage.
+ */
 @Slf4j
 public final class TradableList<T extends Tradable> implements PersistableEnvelope {
+    public static final long SAVE_DELAY_MS = 50;
+
     transient final private Storage<TradableList<T>> storage;
+    // Null if the TradableList is only used as a container for the proto conversion
+    @Nullable
+    transient final private SegmentedStorage segmentedStorage;
+    transient final private String fileName;
     @Getter
     private final ObservableList<T> list = FXCollections.observableArrayList();
+    // Maintained by a listener as the list can be changed by the getter as well.
+    transient final private Map<String, T> tradablesById = new HashMap<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public TradableList(Storage<TradableList<T>> storage, String fileName) {
+    public TradableList(Storage<TradableList<T>> storage, SegmentedStorage segmentedStorage, String fileName) {
         this.storage = storage;
-
-        TradableList<T> persisted = storage.initAndGetPersisted(this, fileName, 50);
-        if (persisted != null)
-            list.addAll(persisted.getList());
+        this.segmentedStorage = segmentedStorage;
+        this.fileName = fileName;
+        addListChangeListener();
+
+        if (segmentedStorage.isInitialized()) {
+            List<T> persisted = new ArrayList<>();
+            segmentedStorage.readAll().forEach(envelope -> {
+                if (envelope instanceof TradableList)
+                    //noinspection unchecked
+                    persisted.addAll(((TradableList<T>) envelope).getList());
+                else
+                    log.error("Unexpected record type in {}: {}", fileName, envelope.getClass().getSimpleName());
+            });
+            persisted.sort(Comparator.comparing(Tradable::getDate));
+            list.addAll(persisted);
+        } else {
+            TradableList<T> persisted = storage.initAndGetPersisted(this, fileName, 50);
+            if (persisted != null)
+                list.addAll(persisted.getList());
+
+            log.info("Migrating {} tradables of {} to the segmented storage", list.size(), fileName);
+            Map<String, Supplier<? extends Message>> records = new LinkedHashMap<>();
+            list.forEach(tradable -> records.put(tradable.getId(), () -> toRecord(tradable)));
+            segmentedStorage.migrate(records);
+        }
     }
 
 
@@ -70,6 +113,9 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
 
     private TradableList(Storage<TradableList<T>> storage, List<T> list) {
         this.storage = storage;
+        segmentedStorage = null;
+        fileName = null;
+        addListChangeListener();
         this.list.addAll(list);
     }
 
@@ -95,13 +141,13 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
                         case OPEN_OFFER:
                             return OpenOffer.fromProto(tradable.getOpenOffer());
                         case BUYER_AS_MAKER_TRADE:
-                            return BuyerAsMakerTrade.fromProto(tradable.getBuyerAsMakerTrade(), storage, btcWalletService, coreProtoResolver);
+                            return BuyerAsMakerTrade.fromProto(tradable.getBuyerAsMakerTrade(), btcWalletService, coreProtoResolver);
                         case BUYER_AS_TAKER_TRADE:
-                            return BuyerAsTakerTrade.fromProto(tradable.getBuyerAsTakerTrade(), storage, btcWalletService, coreProtoResolver);
+                            return BuyerAsTakerTrade.fromProto(tradable.getBuyerAsTakerTrade(), btcWalletService, coreProtoResolver);
                         case SELLER_AS_MAKER_TRADE:
-                            return SellerAsMakerTrade.fromProto(tradable.getSellerAsMakerTrade(), storage, btcWalletService, coreProtoResolver);
+                            return SellerAsMakerTrade.fromProto(tradable.getSellerAsMakerTrade(), btcWalletService, coreProtoResolver);
                         case SELLER_AS_TAKER_TRADE:
-                            return SellerAsTakerTrade.fromProto(tradable.getSellerAsTakerTrade(), storage, btcWalletService, coreProtoResolver);
+                            return SellerAsTakerTrade.fromProto(tradable.getSellerAsTakerTrade(), btcWalletService, coreProtoResolver);
                         default:
                             log.error("Unknown messageCase. tradable.getMessageCase() = " + tradable.getMessageCase());
                             throw new ProtobufferRuntimeException("Unknown messageCase. tradable.getMessageCase() = " + tradable.getMessageCase());
@@ -120,17 +166,38 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
     public boolean add(T tradable) {
         boolean changed = list.add(tradable);
         if (changed)
-            storage.queueUpForSave();
+            persist(tradable);
         return changed;
     }
 
     public boolean remove(T tradable) {
         boolean changed = list.remove(tradable);
-        if (changed)
-            storage.queueUpForSave();
+        if (changed && segmentedStorage != null)
+            segmentedStorage.remove(tradable.getId());
         return changed;
     }
 
+    // Only the given tradable gets written. A tradable which is moved to another list must be bound to that list,
+    // otherwise its changes would get lost.
+    public void persist(Tradable tradable) {
+        if (segmentedStorage == null)
+            return;
+
+        if (tradablesById.get(tradable.getId()) == tradable)
+            segmentedStorage.queueUpForSave(tradable.getId(), () -> toRecord(tradable));
+        else
+            log.warn("Tradable {} is not in {}. The change does not get persisted.", tradable.getId(), fileName);
+    }
+
+    public void shutDown() {
+        if (segmentedStorage != null)
+            segmentedStorage.shutDown();
+    }
+
+    public Optional<T> getTradableById(String id) {
+        return Optional.ofNullable(tradablesById.get(id));
+    }
+
     public Stream<T> stream() {
         return list.stream();
     }
@@ -146,4 +213,25 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
     public boolean contains(T thing) {
         return list.contains(thing);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addListChangeListener() {
+        list.addListener((ListChangeListener<T>) change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(tradable -> tradablesById.remove(tradable.getId(), tradable));
+                change.getAddedSubList().forEach(tradable -> tradablesById.put(tradable.getId(), tradable));
+            }
+        });
+    }
+
+    private static PB.PersistableEnvelope toRecord(Tradable tradable) {
+        return PB.PersistableEnvelope.newBuilder()
+                .setTradableList(PB.TradableList.newBuilder()
+                        .addAllTradable(ProtoUtil.collectionToProto(Collections.singletonList(tradable))))
+                .build();
+    }
 }
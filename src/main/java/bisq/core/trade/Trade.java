@@ -34,8 +34,10 @@ import bisq.core.payment.payload.PaymentMethod;
 import bisq.core.proto.CoreProtoResolver;
 import bisq.core.trade.protocol.ProcessModel;
 import bisq.core.trade.protocol.TradeProtocol;
+import bisq.core.trade.protocol.TradeProtocolExecutors;
 import bisq.core.trade.statistics.ReferralIdService;
 import bisq.core.user.User;
+import bisq.core.util.SerialExecutor;
 
 import bisq.network.p2p.DecryptedMessageWithPubKey;
 import bisq.network.p2p.NodeAddress;
@@ -45,7 +47,6 @@ import bisq.common.app.Log;
 import bisq.common.crypto.KeyRing;
 import bisq.common.crypto.PubKeyRing;
 import bisq.common.proto.ProtoUtil;
-import bisq.common.storage.Storage;
 import bisq.common.taskrunner.Model;
 import bisq.common.util.Utilities;
 
@@ -338,8 +339,9 @@ public abstract class Trade implements Tradable, Model {
     transient final private Coin txFee;
     @Getter
     transient final private Coin takerFee;
-    @Getter // to set in constructor so not final but set at init
-    transient private Storage<? extends TradableList> storage;
+    // The list the trade is persisted with. Set in constructor or at init, so not final.
+    @Nullable
+    transient private TradableList<? extends Tradable> tradableList;
     @Getter // to set in constructor so not final but set at init
     transient private BtcWalletService btcWalletService;
 
@@ -356,6 +358,9 @@ public abstract class Trade implements Tradable, Model {
     transient private Transaction payoutTx;
     @Nullable
     transient private Transaction depositTx;
+    // Created on first use, runs the expensive steps of the trade protocol off the UserThread
+    @Nullable
+    transient private SerialExecutor protocolExecutor;
     @Nullable
     transient private Coin tradeAmount;
 
@@ -373,13 +378,13 @@ public abstract class Trade implements Tradable, Model {
                     Coin txFee,
                     Coin takerFee,
                     boolean isCurrencyForTakerFeeBtc,
-                    Storage<? extends TradableList> storage,
+                    @Nullable TradableList<? extends Tradable> tradableList,
                     BtcWalletService btcWalletService) {
         this.offer = offer;
         this.txFee = txFee;
         this.takerFee = takerFee;
         this.isCurrencyForTakerFeeBtc = isCurrencyForTakerFeeBtc;
-        this.storage = storage;
+        this.tradableList = tradableList;
         this.btcWalletService = btcWalletService;
 
         txFeeAsLong = txFee.value;
@@ -398,10 +403,10 @@ public abstract class Trade implements Tradable, Model {
                     boolean isCurrencyForTakerFeeBtc,
                     long tradePrice,
                     NodeAddress tradingPeerNodeAddress,
-                    Storage<? extends TradableList> storage,
+                    @Nullable TradableList<? extends Tradable> tradableList,
                     BtcWalletService btcWalletService) {
 
-        this(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, storage, btcWalletService);
+        this(offer, txFee, takerFee, isCurrencyForTakerFeeBtc, tradableList, btcWalletService);
         this.tradePrice = tradePrice;
         this.tradingPeerNodeAddress = tradingPeerNodeAddress;
 
@@ -478,8 +483,8 @@ public abstract class Trade implements Tradable, Model {
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public void setTransientFields(Storage<? extends TradableList> storage, BtcWalletService btcWalletService) {
-        this.storage = storage;
+    public void setTransientFields(TradableList<? extends Tradable> tradableList, BtcWalletService btcWalletService) {
+        this.tradableList = tradableList;
         this.btcWalletService = btcWalletService;
     }
 
@@ -542,6 +547,12 @@ public abstract class Trade implements Tradable, Model {
         persist();
     }
 
+    public SerialExecutor getProtocolExecutor() {
+        if (protocolExecutor == null)
+            protocolExecutor = TradeProtocolExecutors.newSerialExecutor();
+        return protocolExecutor;
+    }
+
     @Nullable
     public Transaction getDepositTx() {
         if (depositTx == null)
@@ -577,8 +588,8 @@ public abstract class Trade implements Tradable, Model {
     // Get called from taskRunner after each completed task
     @Override
     public void persist() {
-        if (storage != null)
-            storage.queueUpForSave();
+        if (tradableList != null)
+            tradableList.persist(this);
     }
 
     @Override
@@ -958,7 +969,6 @@ public abstract class Trade implements Tradable, Model {
                 ",\n     errorMessage='" + errorMessage + '\'' +
                 ",\n     txFee=" + txFee +
                 ",\n     takerFee=" + takerFee +
-                ",\n     storage=" + storage +
                 ",\n     btcWalletService=" + btcWalletService +
                 ",\n     stateProperty=" + stateProperty +
                 ",\n     statePhaseProperty=" + statePhaseProperty +
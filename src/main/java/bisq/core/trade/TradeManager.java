@@ -38,11 +38,13 @@ import bisq.core.trade.messages.TradeMessage;
 import bisq.core.trade.statistics.ReferralIdService;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.user.User;
+import bisq.core.util.SegmentedStorage;
 import bisq.core.util.Validator;
 
 import bisq.network.p2p.AckMessage;
 import bisq.network.p2p.AckMessageSourceType;
 import bisq.network.p2p.BootstrapListener;
+import bisq.network.p2p.DecryptedMessageWithPubKey;
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.P2PService;
 
@@ -81,8 +83,9 @@ import org.spongycastle.crypto.params.KeyParameter;
 import java.io.File;
 
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -119,9 +122,14 @@ public class TradeManager implements PersistedDataHost {
     private final Clock clock;
 
     private final Storage<TradableList<Trade>> tradableListStorage;
+    private final SegmentedStorage segmentedStorage;
     private TradableList<Trade> tradableList;
     private final BooleanProperty pendingTradesInitialized = new SimpleBooleanProperty();
     private List<Trade> tradesForStatistics;
+    // Mailbox messages which arrive before the pending trades are initialized get delivered in one batch at init
+    private final Map<String, List<DecryptedMessageWithPubKey>> bufferedMailboxMessagesByTradeId = new HashMap<>();
+    @Nullable
+    private TradePeriodScheduler tradePeriodScheduler;
     @Setter
     @Nullable
     private ErrorMessageHandler takeOfferRequestErrorMessageHandler;
@@ -168,6 +176,8 @@ public class TradeManager implements PersistedDataHost {
         this.clock = clock;
 
         tradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
+        segmentedStorage = new SegmentedStorage(new File(storageDir, "pending_trades"), persistenceProtoResolver,
+                TradableList.SAVE_DELAY_MS);
 
         p2PService.addDecryptedDirectMessageListener((decryptedMessageWithPubKey, peerNodeAddress) -> {
             NetworkEnvelope networkEnvelope = decryptedMessageWithPubKey.getNetworkEnvelope();
@@ -184,9 +194,13 @@ public class TradeManager implements PersistedDataHost {
             if (networkEnvelope instanceof TradeMessage) {
                 TradeMessage tradeMessage = (TradeMessage) networkEnvelope;
                 String tradeId = tradeMessage.getTradeId();
-                Optional<Trade> tradeOptional = tradableList.stream().filter(e -> e.getId().equals(tradeId)).findAny();
-                // The mailbox message will be removed inside the tasks after they are processed successfully
-                tradeOptional.ifPresent(trade -> trade.addDecryptedMessageWithPubKey(decryptedMessageWithPubKey));
+                if (pendingTradesInitialized.get()) {
+                    // The mailbox message will be removed inside the tasks after they are processed successfully
+                    getTradeById(tradeId).ifPresent(trade -> trade.addDecryptedMessageWithPubKey(decryptedMessageWithPubKey));
+                } else {
+                    bufferedMailboxMessagesByTradeId.computeIfAbsent(tradeId, k -> new ArrayList<>())
+                            .add(decryptedMessageWithPubKey);
+                }
             } else if (networkEnvelope instanceof AckMessage) {
                 AckMessage ackMessage = (AckMessage) networkEnvelope;
                 if (ackMessage.getSourceType() == AckMessageSourceType.TRADE_MESSAGE) {
@@ -205,9 +219,9 @@ public class TradeManager implements PersistedDataHost {
 
     @Override
     public void readPersisted() {
-        tradableList = new TradableList<>(tradableListStorage, "PendingTrades");
+        tradableList = new TradableList<>(tradableListStorage, segmentedStorage, "PendingTrades");
         tradableList.forEach(trade -> {
-            trade.setTransientFields(tradableListStorage, btcWalletService);
+            trade.setTransientFields(tradableList, btcWalletService);
             Offer offer = trade.getOffer();
             if (offer != null)
                 offer.setPriceFeedService(priceFeedService);
@@ -238,11 +252,19 @@ public class TradeManager implements PersistedDataHost {
     }
 
     public void shutDown() {
+        if (tradableList != null)
+            tradableList.shutDown();
+        closedTradableManager.shutDown();
+        failedTradesManager.shutDown();
+        if (tradePeriodScheduler != null)
+            tradePeriodScheduler.shutDown();
     }
 
     private void initPendingTrades() {
         Log.traceCall();
 
+        deliverBufferedMailboxMessages();
+
         List<Trade> addTradeToFailedTradesList = new ArrayList<>();
         List<Trade> removePreparedTradeList = new ArrayList<>();
         tradesForStatistics = new ArrayList<>();
@@ -275,6 +297,22 @@ public class TradeManager implements PersistedDataHost {
         pendingTradesInitialized.set(true);
     }
 
+    // The messages are applied at initTrade
+    private void deliverBufferedMailboxMessages() {
+        if (bufferedMailboxMessagesByTradeId.isEmpty())
+            return;
+
+        log.info("Deliver buffered mailbox messages for {} trades", bufferedMailboxMessagesByTradeId.size());
+        bufferedMailboxMessagesByTradeId.forEach((tradeId, messages) -> {
+            Optional<Trade> tradeOptional = getTradeById(tradeId);
+            if (tradeOptional.isPresent())
+                messages.forEach(tradeOptional.get()::addDecryptedMessageWithPubKey);
+            else
+                log.info("No pending trade found for {} buffered mailbox messages with tradeId {}", messages.size(), tradeId);
+        });
+        bufferedMailboxMessagesByTradeId.clear();
+    }
+
     private void onTradesChanged() {
         this.numPendingTrades.set(tradableList.getList().size());
     }
@@ -321,14 +359,14 @@ public class TradeManager implements PersistedDataHost {
                         Coin.valueOf(payDepositRequest.getTxFee()),
                         Coin.valueOf(payDepositRequest.getTakerFee()),
                         payDepositRequest.isCurrencyForTakerFeeBtc(),
-                        tradableListStorage,
+                        tradableList,
                         btcWalletService);
             else
                 trade = new SellerAsMakerTrade(offer,
                         Coin.valueOf(payDepositRequest.getTxFee()),
                         Coin.valueOf(payDepositRequest.getTakerFee()),
                         payDepositRequest.isCurrencyForTakerFeeBtc(),
-                        tradableListStorage,
+                        tradableList,
                         btcWalletService);
 
             initTrade(trade, trade.getProcessModel().isUseSavingsWallet(), trade.getProcessModel().getFundsNeededForTradeAsLong());
@@ -436,7 +474,7 @@ public class TradeManager implements PersistedDataHost {
                     isCurrencyForTakerFeeBtc,
                     tradePrice,
                     model.getPeerNodeAddress(),
-                    tradableListStorage,
+                    tradableList,
                     btcWalletService);
         else
             trade = new BuyerAsTakerTrade(offer,
@@ -446,7 +484,7 @@ public class TradeManager implements PersistedDataHost {
                     isCurrencyForTakerFeeBtc,
                     tradePrice,
                     model.getPeerNodeAddress(),
-                    tradableListStorage,
+                    tradableList,
                     btcWalletService);
 
         trade.setTakerPaymentAccountId(paymentAccountId);
@@ -570,7 +608,7 @@ public class TradeManager implements PersistedDataHost {
     }
 
     public Optional<Trade> getTradeById(String tradeId) {
-        return tradableList.stream().filter(e -> e.getId().equals(tradeId)).findFirst();
+        return tradableList.getTradableById(tradeId);
     }
 
     public Stream<AddressEntry> getAddressEntriesForAvailableBalanceStream() {
@@ -607,36 +645,24 @@ public class TradeManager implements PersistedDataHost {
     }
 
     public void applyTradePeriodState() {
-        updateTradePeriodState();
-        clock.addListener(new Clock.Listener() {
-            @Override
-            public void onSecondTick() {
-            }
-
-            @Override
-            public void onMinuteTick() {
-                updateTradePeriodState();
-            }
+        if (tradePeriodScheduler != null)
+            return;
 
-            @Override
-            public void onMissedSecondTick(long missed) {
+        tradePeriodScheduler = new TradePeriodScheduler(clock);
+        tradableList.forEach(tradePeriodScheduler::add);
+        tradableList.getList().addListener((ListChangeListener<Trade>) change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(this::removeFromTradePeriodScheduler);
+                change.getAddedSubList().forEach(tradePeriodScheduler::add);
             }
         });
     }
 
-    private void updateTradePeriodState() {
-        tradableList.getList().forEach(trade -> {
-            if (!trade.isPayoutPublished()) {
-                Date maxTradePeriodDate = trade.getMaxTradePeriodDate();
-                Date halfTradePeriodDate = trade.getHalfTradePeriodDate();
-                if (maxTradePeriodDate != null && halfTradePeriodDate != null) {
-                    Date now = new Date();
-                    if (now.after(maxTradePeriodDate))
-                        trade.setTradePeriodState(Trade.TradePeriodState.TRADE_PERIOD_OVER);
-                    else if (now.after(halfTradePeriodDate))
-                        trade.setTradePeriodState(Trade.TradePeriodState.SECOND_HALF);
-                }
-            }
-        });
+    private void removeFromTradePeriodScheduler(Trade trade) {
+        // The same trade instance might have been added again in the same change
+        if (tradableList.getTradableById(trade.getId()).orElse(null) == trade)
+            return;
+
+        tradePeriodScheduler.remove(trade);
     }
 }
@@ -24,6 +24,7 @@ import bisq.core.trade.closed.ClosedTradableManager;
 import bisq.core.trade.failed.FailedTradesManager;
 import bisq.core.trade.statistics.ReferralIdService;
 import bisq.core.trade.statistics.TradeStatistics2StorageService;
+import bisq.core.trade.statistics.TradeStatisticsAggregator;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 
 import bisq.common.app.AppModule;
@@ -44,6 +45,7 @@ public class TradeModule extends AppModule {
     protected void configure() {
         bind(TradeManager.class).in(Singleton.class);
         bind(TradeStatisticsManager.class).in(Singleton.class);
+        bind(TradeStatisticsAggregator.class).in(Singleton.class);
         bind(TradeStatistics2StorageService.class).in(Singleton.class);
         bind(ClosedTradableManager.class).in(Singleton.class);
         bind(FailedTradesManager.class).in(Singleton.class);
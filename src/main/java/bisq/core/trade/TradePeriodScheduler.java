@@ -0,0 +1,223 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade;
+
+import bisq.common.Clock;
+import bisq.common.Timer;
+import bisq.common.UserThread;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import javafx.beans.value.ChangeListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Sets the TradePeriodState of pending trades when their half or max trade period is reached.
+ * Each trade has at most one entry with its next due instant in a sorted set and a single timer is running for the
+ * earliest entry, so we only evaluate trades when they are due instead of scanning all trades periodically.
+ * The due instants depend on the deposit tx confirmation, so we reschedule a trade at each change of its state.
+ * The timer does not account for a suspended computer, so we re-evaluate all trades after the clock has detected
+ * missed ticks.
+ * Must be used from the UserThread.
+ */
+@Slf4j
+class TradePeriodScheduler {
+    private static class Entry {
+        private final Trade trade;
+        private final long dueTime;
+        private final long sequenceNumber;
+
+        private Entry(Trade trade, long dueTime, long sequenceNumber) {
+            this.trade = trade;
+            this.dueTime = dueTime;
+            this.sequenceNumber = sequenceNumber;
+        }
+    }
+
+    private final Clock clock;
+    private final Clock.Listener clockListener;
+    private final TreeSet<Entry> entries = new TreeSet<>(Comparator.<Entry>comparingLong(e -> e.dueTime)
+            .thenComparingLong(e -> e.sequenceNumber));
+    private final Map<Trade, Entry> entryByTrade = new IdentityHashMap<>();
+    // All added trades, also those without an entry (e.g. trade period over)
+    private final Map<Trade, ChangeListener<Trade.State>> stateListenerByTrade = new IdentityHashMap<>();
+    private long sequenceNumber;
+    @Nullable
+    private Timer timer;
+    private long timerDueTime;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    TradePeriodScheduler(Clock clock) {
+        this.clock = clock;
+        clockListener = new Clock.Listener() {
+            @Override
+            public void onSecondTick() {
+            }
+
+            @Override
+            public void onMinuteTick() {
+            }
+
+            @Override
+            public void onMissedSecondTick(long missed) {
+                updateAll();
+            }
+        };
+        clock.addListener(clockListener);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Applies the state for the current time and reschedules the trade at each change of its state.
+    void add(Trade trade) {
+        ChangeListener<Trade.State> listener = (observable, oldValue, newValue) -> update(trade);
+        ChangeListener<Trade.State> previous = stateListenerByTrade.put(trade, listener);
+        if (previous != null)
+            trade.stateProperty().removeListener(previous);
+        trade.stateProperty().addListener(listener);
+        update(trade);
+    }
+
+    void remove(Trade trade) {
+        ChangeListener<Trade.State> listener = stateListenerByTrade.remove(trade);
+        if (listener != null)
+            trade.stateProperty().removeListener(listener);
+        removeEntry(trade);
+        updateTimer();
+    }
+
+    void shutDown() {
+        clock.removeListener(clockListener);
+        stopTimer();
+        stateListenerByTrade.forEach((trade, listener) -> trade.stateProperty().removeListener(listener));
+        stateListenerByTrade.clear();
+        entries.clear();
+        entryByTrade.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // Due time of the running timer or 0 if no timer is running
+    @VisibleForTesting
+    long getTimerDueTime() {
+        return timer != null ? timerDueTime : 0;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void update(Trade trade) {
+        removeEntry(trade);
+        apply(trade, System.currentTimeMillis());
+        updateTimer();
+    }
+
+    private void updateAll() {
+        long now = System.currentTimeMillis();
+        // Applying a state might trigger listeners which change the trades
+        new ArrayList<>(stateListenerByTrade.keySet()).forEach(trade -> {
+            removeEntry(trade);
+            apply(trade, now);
+        });
+        updateTimer();
+    }
+
+    private void apply(Trade trade, long now) {
+        if (trade.isPayoutPublished())
+            return;
+
+        long maxTradePeriodTime = trade.getMaxTradePeriodDate().getTime();
+        long halfTradePeriodTime = trade.getHalfTradePeriodDate().getTime();
+        if (now > maxTradePeriodTime) {
+            trade.setTradePeriodState(Trade.TradePeriodState.TRADE_PERIOD_OVER);
+        } else if (now > halfTradePeriodTime) {
+            trade.setTradePeriodState(Trade.TradePeriodState.SECOND_HALF);
+            addEntry(trade, maxTradePeriodTime + 1);
+        } else {
+            addEntry(trade, halfTradePeriodTime + 1);
+        }
+    }
+
+    private void onTimer() {
+        timer = null;
+        long now = System.currentTimeMillis();
+        while (!entries.isEmpty() && entries.first().dueTime <= now) {
+            Entry entry = entries.pollFirst();
+            entryByTrade.remove(entry.trade);
+            apply(entry.trade, now);
+        }
+        updateTimer();
+    }
+
+    private void addEntry(Trade trade, long dueTime) {
+        Entry entry = new Entry(trade, dueTime, sequenceNumber++);
+        entries.add(entry);
+        entryByTrade.put(trade, entry);
+    }
+
+    private void removeEntry(Trade trade) {
+        Entry entry = entryByTrade.remove(trade);
+        if (entry != null)
+            entries.remove(entry);
+    }
+
+    private void updateTimer() {
+        if (entries.isEmpty()) {
+            stopTimer();
+            return;
+        }
+
+        long dueTime = entries.first().dueTime;
+        if (timer != null && timerDueTime == dueTime)
+            return;
+
+        stopTimer();
+        timerDueTime = dueTime;
+        long delay = Math.max(0, dueTime - System.currentTimeMillis());
+        timer = UserThread.runAfter(this::onTimer, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopTimer() {
+        if (timer != null) {
+            timer.stop();
+            timer = null;
+        }
+    }
+}
@@ -19,10 +19,12 @@ package bisq.core.trade.closed;
 
 import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.offer.Offer;
+import bisq.core.offer.OpenOffer;
 import bisq.core.provider.price.PriceFeedService;
 import bisq.core.trade.Tradable;
 import bisq.core.trade.TradableList;
 import bisq.core.trade.Trade;
+import bisq.core.util.SegmentedStorage;
 
 import bisq.common.crypto.KeyRing;
 import bisq.common.proto.persistable.PersistedDataHost;
@@ -44,8 +46,13 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
+
 public class ClosedTradableManager implements PersistedDataHost {
     private final Storage<TradableList<Tradable>> tradableListStorage;
+    private final SegmentedStorage segmentedStorage;
+    // The closed trades are only read at first access as the history can become large
+    @Nullable
     private TradableList<Tradable> closedTradables;
     private final KeyRing keyRing;
     private final PriceFeedService priceFeedService;
@@ -62,23 +69,25 @@ public class ClosedTradableManager implements PersistedDataHost {
         tradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
         // The ClosedTrades object can become a few MB so we don't keep so many backups
         tradableListStorage.setNumMaxBackupFiles(3);
-
+        segmentedStorage = new SegmentedStorage(new File(storageDir, "closed_trades"), persistenceProtoResolver,
+                TradableList.SAVE_DELAY_MS);
     }
 
     @Override
     public void readPersisted() {
-        closedTradables = new TradableList<>(tradableListStorage, "ClosedTrades");
-        closedTradables.forEach(tradable -> {
-            tradable.getOffer().setPriceFeedService(priceFeedService);
-            if (tradable instanceof Trade) {
-                Trade trade = (Trade) tradable;
-                trade.setTransientFields(tradableListStorage, btcWalletService);
-            }
-        });
+        // We load the closed trades lazily at first access
     }
 
     public void add(Tradable tradable) {
-        closedTradables.add(tradable);
+        TradableList<Tradable> closedTradableList = getClosedTradableList();
+        // The tradable is still bound to the list it was in before (pending trades or open offers)
+        bindToList(tradable, closedTradableList);
+        closedTradableList.add(tradable);
+    }
+
+    public void shutDown() {
+        if (closedTradables != null)
+            closedTradables.shutDown();
     }
 
     public boolean wasMyOffer(Offer offer) {
@@ -86,7 +95,7 @@ public class ClosedTradableManager implements PersistedDataHost {
     }
 
     public ObservableList<Tradable> getClosedTradables() {
-        return closedTradables.getList();
+        return getClosedTradableList().getList();
     }
 
     public List<Trade> getClosedTrades() {
@@ -97,11 +106,29 @@ public class ClosedTradableManager implements PersistedDataHost {
     }
 
     public Optional<Tradable> getTradableById(String id) {
-        return closedTradables.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return getClosedTradableList().getTradableById(id);
     }
 
     public Stream<Trade> getLockedTradesStream() {
         return getClosedTrades().stream()
                 .filter(Trade::isFundsLockedIn);
     }
+
+    private TradableList<Tradable> getClosedTradableList() {
+        if (closedTradables == null) {
+            closedTradables = new TradableList<>(tradableListStorage, segmentedStorage, "ClosedTrades");
+            closedTradables.forEach(tradable -> {
+                tradable.getOffer().setPriceFeedService(priceFeedService);
+                bindToList(tradable, closedTradables);
+            });
+        }
+        return closedTradables;
+    }
+
+    private void bindToList(Tradable tradable, TradableList<Tradable> tradableList) {
+        if (tradable instanceof Trade)
+            ((Trade) tradable).setTransientFields(tradableList, btcWalletService);
+        else if (tradable instanceof OpenOffer)
+            ((OpenOffer) tradable).setTradableList(tradableList);
+    }
 }
@@ -22,6 +22,7 @@ import bisq.core.offer.Offer;
 import bisq.core.provider.price.PriceFeedService;
 import bisq.core.trade.TradableList;
 import bisq.core.trade.Trade;
+import bisq.core.util.SegmentedStorage;
 
 import bisq.common.crypto.KeyRing;
 import bisq.common.proto.persistable.PersistedDataHost;
@@ -49,6 +50,7 @@ public class FailedTradesManager implements PersistedDataHost {
     private final PriceFeedService priceFeedService;
     private final BtcWalletService btcWalletService;
     private final Storage<TradableList<Trade>> tradableListStorage;
+    private final SegmentedStorage segmentedStorage;
 
     @Inject
     public FailedTradesManager(KeyRing keyRing, PriceFeedService priceFeedService,
@@ -59,22 +61,31 @@ public class FailedTradesManager implements PersistedDataHost {
         this.priceFeedService = priceFeedService;
         this.btcWalletService = btcWalletService;
         tradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
-
+        segmentedStorage = new SegmentedStorage(new File(storageDir, "failed_trades"), persistenceProtoResolver,
+                TradableList.SAVE_DELAY_MS);
     }
 
     @Override
     public void readPersisted() {
-        this.failedTrades = new TradableList<>(tradableListStorage, "FailedTrades");
+        this.failedTrades = new TradableList<>(tradableListStorage, segmentedStorage, "FailedTrades");
         failedTrades.forEach(e -> e.getOffer().setPriceFeedService(priceFeedService));
         failedTrades.forEach(trade -> {
             trade.getOffer().setPriceFeedService(priceFeedService);
-            trade.setTransientFields(tradableListStorage, btcWalletService);
+            trade.setTransientFields(failedTrades, btcWalletService);
         });
     }
 
     public void add(Trade trade) {
-        if (!failedTrades.contains(trade))
+        if (!failedTrades.contains(trade)) {
+            // The trade is still bound to the pending trades
+            trade.setTransientFields(failedTrades, btcWalletService);
             failedTrades.add(trade);
+        }
+    }
+
+    public void shutDown() {
+        if (failedTrades != null)
+            failedTrades.shutDown();
     }
 
     public boolean wasMyOffer(Offer offer) {
@@ -86,7 +97,7 @@ public class FailedTradesManager implements PersistedDataHost {
     }
 
     public Optional<Trade> getTradeById(String id) {
-        return failedTrades.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return failedTrades.getTradableById(id);
     }
 
     public Stream<Trade> getLockedTradesStream() {
@@ -0,0 +1,48 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.protocol;
+
+import bisq.core.util.SerialExecutor;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Shared thread pool for the expensive steps of the trade protocols (e.g. signing and verifying). Each trade gets
+ * its own SerialExecutor on that pool, so the steps of one trade run in order while different trades run in
+ * parallel and the UserThread is not blocked.
+ */
+public class TradeProtocolExecutors {
+    private static final ExecutorService POOL;
+
+    static {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat("TradeProtocol-%d")
+                .setDaemon(true)
+                .build();
+        POOL = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), threadFactory);
+    }
+
+    public static SerialExecutor newSerialExecutor() {
+        return new SerialExecutor(POOL);
+    }
+}
@@ -17,18 +17,28 @@
 
 package bisq.core.trade.protocol.tasks;
 
+import bisq.core.metrics.Counter;
+import bisq.core.metrics.Metrics;
 import bisq.core.trade.Trade;
 import bisq.core.trade.protocol.ProcessModel;
 
+import bisq.common.UserThread;
 import bisq.common.taskrunner.Task;
 import bisq.common.taskrunner.TaskRunner;
 
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public abstract class TradeTask extends Task<Trade> {
+    private static final Counter FAILED_TASKS_COUNTER = Metrics.counter("trade.tasks.failed");
+
     protected final ProcessModel processModel;
     protected final Trade trade;
+    // The TaskRunner creates the task right before it runs it
+    private final long metricsStartTs = Metrics.nanoTime();
 
     protected TradeTask(TaskRunner taskHandler, Trade trade) {
         super(taskHandler, trade);
@@ -37,14 +47,43 @@ public abstract class TradeTask extends Task<Trade> {
         processModel = trade.getProcessModel();
     }
 
+    // Runs the work on the protocol executor of the trade, so expensive steps like signing or verifying do not block
+    // the UserThread. The work must not change the trade or use services which are not thread safe. The
+    // resultHandler is called on the UserThread and has to call complete or failed. Exceptions let the task fail.
+    protected <R> void runOffUserThread(Callable<R> work, Consumer<R> resultHandler) {
+        trade.getProtocolExecutor().execute(() -> {
+            try {
+                R result = work.call();
+                UserThread.execute(() -> {
+                    try {
+                        resultHandler.accept(result);
+                    } catch (Throwable t) {
+                        failed(t);
+                    }
+                });
+            } catch (Throwable t) {
+                UserThread.execute(() -> failed(t));
+            }
+        });
+    }
+
+    @Override
+    protected void complete() {
+        if (metricsStartTs != 0)
+            Metrics.timer("trade.tasks." + getClass().getSimpleName()).stop(metricsStartTs);
+        super.complete();
+    }
+
     @Override
     protected void failed() {
+        FAILED_TASKS_COUNTER.inc();
         trade.setErrorMessage(errorMessage);
         super.failed();
     }
 
     @Override
     protected void failed(String message) {
+        FAILED_TASKS_COUNTER.inc();
         appendToErrorMessage(message);
         trade.setErrorMessage(errorMessage);
         super.failed();
@@ -52,6 +91,7 @@ public abstract class TradeTask extends Task<Trade> {
 
     @Override
     protected void failed(Throwable t) {
+        FAILED_TASKS_COUNTER.inc();
         t.printStackTrace();
         appendExceptionToErrorMessage(t);
         trade.setErrorMessage(errorMessage);
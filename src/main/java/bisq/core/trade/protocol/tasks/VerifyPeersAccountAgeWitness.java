@@ -58,17 +58,26 @@ public class VerifyPeersAccountAgeWitness extends TradeTask {
                     long currentDateAsLong = tradingPeer.getCurrentDate();
                     // In case the peer has an older version we get 0, so we use our time instead
                     final Date peersCurrentDate = currentDateAsLong > 0 ? new Date(currentDateAsLong) : new Date();
-                    boolean result = accountAgeWitnessService.verifyAccountAgeWitness(trade,
+                    boolean result = accountAgeWitnessService.verifyAccountAgeWitnessData(trade,
                             peersPaymentAccountPayload,
                             peersCurrentDate,
                             peersPubKeyRing,
-                            nonce,
-                            signature,
                             errorMessage -> errorMsg[0] = errorMessage);
-                    if (result)
-                        complete();
-                    else
+                    if (result) {
+                        // The signature verification is done on the protocol executor of the trade
+                        runOffUserThread(() -> accountAgeWitnessService.verifySignature(peersPubKeyRing.getSignaturePubKey(),
+                                nonce,
+                                signature,
+                                errorMessage -> errorMsg[0] = errorMessage),
+                                isSignatureValid -> {
+                                    if (isSignatureValid)
+                                        complete();
+                                    else
+                                        failed(errorMsg[0]);
+                                });
+                    } else {
                         failed(errorMsg[0]);
+                    }
                 } else {
                     String msg = "Seems that offer was created with an application before v0.6 which did not support the account age witness verification.";
                     msg += "\nTrade ID=" + trade.getId();
@@ -25,8 +25,11 @@ import bisq.core.trade.protocol.tasks.TradeTask;
 import bisq.common.taskrunner.TaskRunner;
 
 import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Transaction;
 import org.bitcoinj.crypto.DeterministicKey;
 
+import org.spongycastle.crypto.params.KeyParameter;
+
 import com.google.common.base.Preconditions;
 
 import java.util.Arrays;
@@ -68,8 +71,14 @@ public class BuyerAsMakerSignPayoutTx extends TradeTask {
                     "buyerMultiSigPubKey from AddressEntry must match the one from the trade data. trade id =" + id);
             final byte[] sellerMultiSigPubKey = processModel.getTradingPeer().getMultiSigPubKey();
 
-            byte[] payoutTxSignature = processModel.getTradeWalletService().buyerSignsPayoutTx(
-                    trade.getDepositTx(),
+            Transaction depositTx = trade.getDepositTx();
+            byte[] arbitratorBtcPubKey = trade.getArbitratorBtcPubKey();
+            // The key might get changed on the UserThread while we sign, so we take it here
+            KeyParameter aesKey = processModel.getTradeWalletService().getAesKey();
+
+            // Signing is done on the protocol executor of the trade
+            runOffUserThread(() -> processModel.getTradeWalletService().buyerSignsPayoutTx(
+                    depositTx,
                     buyerPayoutAmount,
                     sellerPayoutAmount,
                     buyerPayoutAddressString,
@@ -77,10 +86,13 @@ public class BuyerAsMakerSignPayoutTx extends TradeTask {
                     buyerMultiSigKeyPair,
                     buyerMultiSigPubKey,
                     sellerMultiSigPubKey,
-                    trade.getArbitratorBtcPubKey());
-            processModel.setPayoutTxSignature(payoutTxSignature);
+                    arbitratorBtcPubKey,
+                    aesKey),
+                    payoutTxSignature -> {
+                        processModel.setPayoutTxSignature(payoutTxSignature);
 
-            complete();
+                        complete();
+                    });
         } catch (Throwable t) {
             failed(t);
         }
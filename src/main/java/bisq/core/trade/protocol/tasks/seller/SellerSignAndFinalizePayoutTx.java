@@ -30,6 +30,8 @@ import org.bitcoinj.core.Coin;
 import org.bitcoinj.core.Transaction;
 import org.bitcoinj.crypto.DeterministicKey;
 
+import org.spongycastle.crypto.params.KeyParameter;
+
 import java.util.Arrays;
 import java.util.Optional;
 
@@ -76,9 +78,14 @@ public class SellerSignAndFinalizePayoutTx extends TradeTask {
                     "sellerMultiSigPubKey from AddressEntry must match the one from the trade data. trade id =" + id);
 
             DeterministicKey multiSigKeyPair = walletService.getMultiSigKeyPair(id, sellerMultiSigPubKey);
-
-            Transaction transaction = processModel.getTradeWalletService().sellerSignsAndFinalizesPayoutTx(
-                    trade.getDepositTx(),
+            Transaction depositTx = trade.getDepositTx();
+            byte[] arbitratorBtcPubKey = trade.getArbitratorBtcPubKey();
+            // The key might get changed on the UserThread while we sign, so we take it here
+            KeyParameter aesKey = processModel.getTradeWalletService().getAesKey();
+
+            // Signing and verifying is done on the protocol executor of the trade
+            runOffUserThread(() -> processModel.getTradeWalletService().sellerSignsAndFinalizesPayoutTx(
+                    depositTx,
                     buyerSignature,
                     buyerPayoutAmount,
                     sellerPayoutAmount,
@@ -87,14 +94,15 @@ public class SellerSignAndFinalizePayoutTx extends TradeTask {
                     multiSigKeyPair,
                     buyerMultiSigPubKey,
                     sellerMultiSigPubKey,
-                    trade.getArbitratorBtcPubKey()
-            );
-
-            trade.setPayoutTx(transaction);
+                    arbitratorBtcPubKey,
+                    aesKey),
+                    transaction -> {
+                        trade.setPayoutTx(transaction);
 
-            walletService.swapTradeEntryToAvailableEntry(id, AddressEntry.Context.MULTI_SIG);
+                        walletService.swapTradeEntryToAvailableEntry(id, AddressEntry.Context.MULTI_SIG);
 
-            complete();
+                        complete();
+                    });
         } catch (Throwable t) {
             failed(t);
         }
@@ -102,8 +102,10 @@ public class TakerVerifyAndSignContract extends TradeTask {
             String contractAsJson = Utilities.objectToJson(contract);
             log.trace("Contract as json:{}", contractAsJson);
 
-            contract.printDiff(processModel.getTradingPeer().getContractAsJson());
-            checkArgument(contractAsJson.equals(processModel.getTradingPeer().getContractAsJson()), "Contracts are not matching");
+            String peersContractAsJson = processModel.getTradingPeer().getContractAsJson();
+            if (!contractAsJson.equals(peersContractAsJson))
+                Contract.printDiff(contractAsJson, peersContractAsJson);
+            checkArgument(contractAsJson.equals(peersContractAsJson), "Contracts are not matching");
 
             String signature = Sig.sign(processModel.getKeyRing().getSignatureKeyPair().getPrivate(), contractAsJson);
             trade.setContract(contract);
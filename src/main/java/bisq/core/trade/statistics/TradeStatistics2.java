@@ -38,18 +38,30 @@ import io.bisq.generated.protobuffer.PB;
 
 import com.google.protobuf.ByteString;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import org.bitcoinj.core.Coin;
 import org.bitcoinj.utils.ExchangeRate;
 import org.bitcoinj.utils.Fiat;
 
 import org.springframework.util.CollectionUtils;
 
+import java.nio.charset.StandardCharsets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
@@ -65,6 +77,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
 @Slf4j
 @Value
 public final class TradeStatistics2 implements LazyProcessedPayload, PersistableNetworkPayload, PersistableEnvelope, CapabilityRequiringPayload {
+    // The version of the hash is stored in the extraDataMap so it is covered by the hash and older clients can still
+    // handle the object. Entries without that key use the json based hash.
+    public static final String HASH_VERSION = "hashVersion";
+    public static final int LEGACY_JSON_HASH_VERSION = 0;
+    public static final int CANONICAL_HASH_VERSION = 1;
+    // Both traders publish the statistics of a trade and the entries only get merged if they have the same hash. The
+    // version is selected by the offer date which is the same for both traders. Offers created before the activation
+    // date keep the json hash, so clients without support for the canonical hash had time to update.
+    public static final Date CANONICAL_HASH_ACTIVATION_DATE = Utilities.getUTCDate(2018, GregorianCalendar.DECEMBER, 1);
+
     private final OfferPayload.Direction direction;
     private final String baseCurrency;
     private final String counterCurrency;
@@ -113,7 +135,7 @@ public final class TradeStatistics2 implements LazyProcessedPayload, Persistable
                 tradeDate.getTime(),
                 depositTxId,
                 null,
-                extraDataMap);
+                withHashVersion(extraDataMap, getHashVersionForOfferDate(offerPayload.getDate())));
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -152,12 +174,9 @@ public final class TradeStatistics2 implements LazyProcessedPayload, Persistable
         this.depositTxId = depositTxId;
         this.extraDataMap = extraDataMap;
 
-        if (hash == null)
-            // We create hash from all fields excluding hash itself. We use json as simple data serialisation.
-            // tradeDate is different for both peers so we ignore it for hash.
-            this.hash = Hash.getSha256Ripemd160hash(Utilities.objectToJson(this).getBytes());
-        else
-            this.hash = hash;
+        // We create hash from all fields excluding hash itself. tradeDate is different for both peers so we ignore
+        // it for hash.
+        this.hash = hash == null ? createHash() : hash;
     }
 
     @Override
@@ -207,6 +226,21 @@ public final class TradeStatistics2 implements LazyProcessedPayload, Persistable
                 CollectionUtils.isEmpty(proto.getExtraDataMap()) ? null : proto.getExtraDataMap());
     }
 
+    @VisibleForTesting
+    static int getHashVersionForOfferDate(long offerDate) {
+        return offerDate >= CANONICAL_HASH_ACTIVATION_DATE.getTime() ? CANONICAL_HASH_VERSION : LEGACY_JSON_HASH_VERSION;
+    }
+
+    @Nullable
+    private static Map<String, String> withHashVersion(@Nullable Map<String, String> extraDataMap, int hashVersion) {
+        if (hashVersion == LEGACY_JSON_HASH_VERSION)
+            return extraDataMap;
+
+        Map<String, String> map = extraDataMap != null ? new HashMap<>(extraDataMap) : new HashMap<>();
+        map.put(HASH_VERSION, String.valueOf(hashVersion));
+        return map;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // API
@@ -224,6 +258,25 @@ public final class TradeStatistics2 implements LazyProcessedPayload, Persistable
         return hash;
     }
 
+    public int getHashVersion() {
+        String hashVersion = extraDataMap != null ? extraDataMap.get(HASH_VERSION) : null;
+        if (hashVersion == null)
+            return LEGACY_JSON_HASH_VERSION;
+
+        try {
+            return Integer.parseInt(hashVersion);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Recreates the hash with the version of the object. Only cheap for the canonical hash.
+    public boolean isHashValid() {
+        int hashVersion = getHashVersion();
+        return (hashVersion == LEGACY_JSON_HASH_VERSION || hashVersion == CANONICAL_HASH_VERSION) &&
+                Arrays.equals(hash, createHash());
+    }
+
     @Override
     public boolean verifyHashSize() {
         checkNotNull(hash, "hash must not be null");
@@ -231,6 +284,64 @@ public final class TradeStatistics2 implements LazyProcessedPayload, Persistable
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Hash
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private byte[] createHash() {
+        if (getHashVersion() == CANONICAL_HASH_VERSION)
+            return Hash.getSha256Ripemd160hash(getCanonicalBytes());
+        else
+            return Hash.getSha256Ripemd160hash(Utilities.objectToJson(this).getBytes());
+    }
+
+    // Fixed order of the fields, strings as length prefixed UTF-8 and the extraDataMap sorted by key. Must never be
+    // changed, a new encoding requires a new hash version.
+    @VisibleForTesting
+    byte[] getCanonicalBytes() {
+        try {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(byteArrayOutputStream);
+            out.writeByte(CANONICAL_HASH_VERSION);
+            // The proto enum number does not depend on the declaration order of the Java enum
+            out.writeByte(OfferPayload.Direction.toProtoMessage(direction).getNumber());
+            writeString(out, baseCurrency);
+            writeString(out, counterCurrency);
+            writeString(out, offerPaymentMethod);
+            out.writeLong(offerDate);
+            out.writeBoolean(offerUseMarketBasedPrice);
+            out.writeLong(Double.doubleToLongBits(offerMarketPriceMargin));
+            out.writeLong(offerAmount);
+            out.writeLong(offerMinAmount);
+            writeString(out, offerId);
+            out.writeLong(tradePrice);
+            out.writeLong(tradeAmount);
+            writeString(out, depositTxId);
+            Map<String, String> sortedExtraDataMap = new TreeMap<>(extraDataMap);
+            out.writeInt(sortedExtraDataMap.size());
+            for (Map.Entry<String, String> entry : sortedExtraDataMap.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+            out.flush();
+            return byteArrayOutputStream.toByteArray();
+        } catch (IOException e) {
+            // Cannot happen with a ByteArrayOutputStream
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Getters
     ///////////////////////////////////////////////////////////////////////////////////////////
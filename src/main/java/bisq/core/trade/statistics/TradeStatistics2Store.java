@@ -42,9 +42,10 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class TradeStatistics2Store implements PersistableEnvelope {
     @Getter
-    private Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = new ConcurrentHashMap<>();
+    private final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map;
 
     TradeStatistics2Store() {
+        map = new ConcurrentHashMap<>();
     }
 
 
@@ -52,8 +53,13 @@ public class TradeStatistics2Store implements PersistableEnvelope {
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private TradeStatistics2Store(List<TradeStatistics2> list) {
-        list.forEach(item -> map.put(new P2PDataStorage.ByteArray(item.getHash()), item));
+    // We size the map for the whole history to avoid rehashing while loading
+    private TradeStatistics2Store(List<PB.TradeStatistics2> items) {
+        map = new ConcurrentHashMap<>(items.size() * 4 / 3 + 1);
+        items.forEach(proto -> {
+            TradeStatistics2 item = TradeStatistics2.fromProto(proto);
+            map.put(new P2PDataStorage.ByteArray(item.getHash()), item);
+        });
     }
 
     public Message toProtoMessage() {
@@ -71,9 +77,7 @@ public class TradeStatistics2Store implements PersistableEnvelope {
     }
 
     public static PersistableEnvelope fromProto(PB.TradeStatistics2Store proto) {
-        List<TradeStatistics2> list = proto.getItemsList().stream()
-                .map(TradeStatistics2::fromProto).collect(Collectors.toList());
-        return new TradeStatistics2Store(list);
+        return new TradeStatistics2Store(proto.getItemsList());
     }
 
     public boolean containsKey(P2PDataStorage.ByteArray hash) {
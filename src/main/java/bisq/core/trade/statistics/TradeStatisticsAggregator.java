@@ -0,0 +1,113 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import javax.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Maintains per currency OHLC, volume and trade count buckets at the resolutions of TradeStatisticsInterval.
+ * Gets updated by the TradeStatisticsManager for each new TradeStatistics2 object, so consumers (charts, market
+ * data) can query the aggregated data in O(buckets) instead of processing all trades.
+ * <p>
+ * We do not persist the buckets as they are derived from the persisted trade statistics which are loaded at startup
+ * anyway. Must be used from the UserThread.
+ */
+@Slf4j
+public class TradeStatisticsAggregator {
+    private final Map<String, Map<TradeStatisticsInterval, TreeMap<Long, TradeStatisticsBucket>>> bucketsByCurrencyCode = new HashMap<>();
+
+    @Inject
+    public TradeStatisticsAggregator() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The caller is responsible to not add the same trade twice
+    public void add(TradeStatistics2 tradeStatistics) {
+        String currencyCode = tradeStatistics.getCurrencyCode();
+        long tradeDate = tradeStatistics.getTradeDate().getTime();
+        long price = tradeStatistics.getTradePrice().getValue();
+        long amount = tradeStatistics.getTradeAmount().getValue();
+        long volume;
+        try {
+            volume = tradeStatistics.getTradeVolume().getValue();
+        } catch (ArithmeticException e) {
+            // We skip the trade as a bucket with a wrong volume would be worse than a missing trade
+            log.warn("Could not calculate trade volume for tradeStatistics with offerId {}. We skip that trade. {}",
+                    tradeStatistics.getOfferId(), e.toString());
+            return;
+        }
+
+        Map<TradeStatisticsInterval, TreeMap<Long, TradeStatisticsBucket>> bucketsByInterval =
+                bucketsByCurrencyCode.computeIfAbsent(currencyCode, k -> new EnumMap<>(TradeStatisticsInterval.class));
+        for (TradeStatisticsInterval interval : TradeStatisticsInterval.values()) {
+            long startTime = interval.getBucketStart(tradeDate);
+            bucketsByInterval.computeIfAbsent(interval, k -> new TreeMap<>())
+                    .computeIfAbsent(startTime, k -> new TradeStatisticsBucket(currencyCode, interval, startTime))
+                    .add(tradeDate, price, amount, volume);
+        }
+    }
+
+    // Returns the buckets with a start time in the range of from (inclusive) to to (exclusive) sorted by start time.
+    public List<TradeStatisticsBucket> getBuckets(String currencyCode, TradeStatisticsInterval interval, long from, long to) {
+        NavigableMap<Long, TradeStatisticsBucket> buckets = getBucketMap(currencyCode, interval);
+        if (buckets.isEmpty() || from >= to)
+            return Collections.emptyList();
+
+        return new ArrayList<>(buckets.subMap(interval.getBucketStart(from), true, to, false).values());
+    }
+
+    public List<TradeStatisticsBucket> getAllBuckets(String currencyCode, TradeStatisticsInterval interval) {
+        return new ArrayList<>(getBucketMap(currencyCode, interval).values());
+    }
+
+    @Nullable
+    public TradeStatisticsBucket getLatestBucket(String currencyCode, TradeStatisticsInterval interval) {
+        Map.Entry<Long, TradeStatisticsBucket> lastEntry = getBucketMap(currencyCode, interval).lastEntry();
+        return lastEntry != null ? lastEntry.getValue() : null;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private NavigableMap<Long, TradeStatisticsBucket> getBucketMap(String currencyCode, TradeStatisticsInterval interval) {
+        Map<TradeStatisticsInterval, TreeMap<Long, TradeStatisticsBucket>> bucketsByInterval = bucketsByCurrencyCode.get(currencyCode);
+        if (bucketsByInterval == null)
+            return Collections.emptyNavigableMap();
+        TreeMap<Long, TradeStatisticsBucket> buckets = bucketsByInterval.get(interval);
+        return buckets != null ? buckets : Collections.emptyNavigableMap();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Open, high, low, close, volume and number of trades of one currency in one time bucket.
+ * Prices, amounts and volumes are the raw long values as used in TradeStatistics2.
+ */
+@Getter
+@ToString
+public final class TradeStatisticsBucket {
+    private final String currencyCode;
+    private final TradeStatisticsInterval interval;
+    private final long startTime;
+
+    private long open;
+    private long high;
+    private long low;
+    private long close;
+    // BTC amount
+    private long amount;
+    // Volume in the counter currency (fiat) or the base currency (altcoins)
+    private long volume;
+    private int numTrades;
+
+    // Trade dates of the trades used for open and close
+    private long openTradeDate = Long.MAX_VALUE;
+    private long closeTradeDate = Long.MIN_VALUE;
+
+    TradeStatisticsBucket(String currencyCode, TradeStatisticsInterval interval, long startTime) {
+        this.currencyCode = currencyCode;
+        this.interval = interval;
+        this.startTime = startTime;
+    }
+
+    void add(long tradeDate, long price, long tradeAmount, long tradeVolume) {
+        if (numTrades == 0) {
+            high = price;
+            low = price;
+        } else {
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+        }
+        // Trades can arrive in any order, so we use the trade date for open and close
+        if (tradeDate < openTradeDate) {
+            openTradeDate = tradeDate;
+            open = price;
+        }
+        if (tradeDate >= closeTradeDate) {
+            closeTradeDate = tradeDate;
+            close = price;
+        }
+        amount += tradeAmount;
+        volume += tradeVolume;
+        numTrades++;
+    }
+}
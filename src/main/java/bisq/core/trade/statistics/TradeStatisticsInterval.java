@@ -0,0 +1,55 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolution of the aggregated trade statistics. Buckets are aligned to UTC, weeks start on Monday.
+ */
+public enum TradeStatisticsInterval {
+    HOUR,
+    DAY,
+    WEEK,
+    MONTH;
+
+    private static final long HOUR_MS = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    // Returns the start of the bucket containing time (in ms since epoch)
+    public long getBucketStart(long time) {
+        switch (this) {
+            case HOUR:
+                return Math.floorDiv(time, HOUR_MS) * HOUR_MS;
+            case DAY:
+                return Math.floorDiv(time, DAY_MS) * DAY_MS;
+            case WEEK:
+                // 1.1.1970 was a Thursday, so we shift by 3 days to get Monday as start of the week
+                long epochDay = Math.floorDiv(time, DAY_MS);
+                return (Math.floorDiv(epochDay + 3, 7) * 7 - 3) * DAY_MS;
+            case MONTH:
+            default:
+                LocalDate date = Instant.ofEpochMilli(time).atZone(ZoneOffset.UTC).toLocalDate();
+                return date.withDayOfMonth(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        }
+    }
+}
@@ -25,6 +25,7 @@ import bisq.core.offer.Offer;
 import bisq.core.offer.OfferPayload;
 import bisq.core.provider.price.PriceFeedService;
 import bisq.core.trade.Trade;
+import bisq.core.util.CoalescingJsonFileWriter;
 
 import bisq.network.p2p.P2PService;
 import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
@@ -37,21 +38,34 @@ import bisq.common.util.Utilities;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 
+import com.google.gson.Gson;
+
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.IOException;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 @Slf4j
@@ -76,12 +90,27 @@ public class TradeStatisticsManager {
                 tradeStatistics.getExtraDataMap());
     }
 
+    // The trade_statistics dump is written at most every DUMP_INTERVAL_MS or after DUMP_MAX_CHANGES new trades
+    private static final long DUMP_INTERVAL_MS = 5000;
+    private static final int DUMP_MAX_CHANGES = 100;
+
     private final JsonFileManager jsonFileManager;
+    @Nullable
+    private final CoalescingJsonFileWriter tradeStatisticsWriter;
     private final P2PService p2PService;
     private final PriceFeedService priceFeedService;
     private final ReferralIdService referralIdService;
+    private final TradeStatisticsAggregator tradeStatisticsAggregator;
     private final boolean dumpStatistics;
     private final ObservableSet<TradeStatistics2> observableTradeStatisticsSet = FXCollections.observableSet();
+    // Index for the duplicate check as both traders publish the statistics of a trade
+    private final Map<String, TradeStatistics2> tradeStatisticsByOfferId = new HashMap<>();
+    // Most recent trade per currency code, used for the bisq market price
+    private final Map<String, TradeStatistics2> latestTradeStatisticsByCurrencyCode = new HashMap<>();
+    // Only used if dumpStatistics is set. Sorted by trade date in ascending order, so new trades get usually appended.
+    private final List<TradeStatisticsForJson> tradeStatisticsForJsonList = new ArrayList<>();
+    private final File ndjsonFile;
+    private final Gson ndjsonGson = new Gson();
 
     @Inject
     public TradeStatisticsManager(P2PService p2PService,
@@ -89,13 +118,20 @@ public class TradeStatisticsManager {
                                   TradeStatistics2StorageService tradeStatistics2StorageService,
                                   AppendOnlyDataStoreService appendOnlyDataStoreService,
                                   ReferralIdService referralIdService,
+                                  TradeStatisticsAggregator tradeStatisticsAggregator,
                                   @Named(Storage.STORAGE_DIR) File storageDir,
                                   @Named(AppOptionKeys.DUMP_STATISTICS) boolean dumpStatistics) {
         this.p2PService = p2PService;
         this.priceFeedService = priceFeedService;
         this.referralIdService = referralIdService;
+        this.tradeStatisticsAggregator = tradeStatisticsAggregator;
         this.dumpStatistics = dumpStatistics;
         jsonFileManager = new JsonFileManager(storageDir);
+        ndjsonFile = new File(storageDir, "trade_statistics.ndjson");
+        tradeStatisticsWriter = dumpStatistics ?
+                new CoalescingJsonFileWriter(storageDir, "trade_statistics", this::getTradeStatisticsForJsonArray,
+                        DUMP_INTERVAL_MS, DUMP_MAX_CHANGES) :
+                null;
 
         appendOnlyDataStoreService.addService(tradeStatistics2StorageService);
     }
@@ -115,50 +151,71 @@ public class TradeStatisticsManager {
         }
 
         p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(payload -> {
-            if (payload instanceof TradeStatistics2)
+            if (payload instanceof TradeStatistics2 && isHashValid((TradeStatistics2) payload))
                 addToMap((TradeStatistics2) payload, true);
         });
 
         Map<String, TradeStatistics2> map = new HashMap<>();
         p2PService.getP2PDataStorage().getAppendOnlyDataStoreMap().values().stream()
                 .filter(e -> e instanceof TradeStatistics2)
-                .forEach(e -> addToMap((TradeStatistics2) e, map));
+                .map(e -> (TradeStatistics2) e)
+                .filter(TradeStatisticsManager::isHashValid)
+                .forEach(e -> addToMap(e, map));
+        map.values().forEach(this::addToIndexes);
         observableTradeStatisticsSet.addAll(map.values());
 
-        priceFeedService.applyLatestBisqMarketPrice(observableTradeStatisticsSet);
-        dump();
+        latestTradeStatisticsByCurrencyCode.values().forEach(priceFeedService::applyBisqMarketPrice);
+
+        if (dumpStatistics) {
+            map.values().stream().map(TradeStatisticsForJson::new).forEach(tradeStatisticsForJsonList::add);
+            tradeStatisticsForJsonList.sort(Comparator.comparingLong(e -> e.tradeDate));
+            writeNdjsonFile();
+            tradeStatisticsWriter.flush();
+        }
 
         // print all currencies sorted by nr. of trades
         // printAllCurrencyStats();
     }
 
     public void publishTradeStatistics(List<Trade> trades) {
+        // The hash of a new TradeStatistics2 object is expensive if it is created from its json representation.
+        // For trades we have already in our set we use the existing object, but only if it carries our own extra data.
+        // The existing object might be the one published by our peer with the peer's referral ID.
+        String referralId = referralIdService.getOptionalReferralId().orElse(null);
         for (int i = 0; i < trades.size(); i++) {
             Trade trade = trades.get(i);
+            boolean isRecentTrade = (new Date().getTime() - trade.getDate().getTime()) < TimeUnit.DAYS.toMillis(10);
 
-            Map<String, String> extraDataMap = null;
-            if (referralIdService.getOptionalReferralId().isPresent()) {
-                extraDataMap = new HashMap<>();
-                extraDataMap.put(OfferPayload.REFERRAL_ID, referralIdService.getOptionalReferralId().get());
+            TradeStatistics2 tradeStatistics = tradeStatisticsByOfferId.get(trade.getId());
+            boolean isExistingOwnTradeStatistics = tradeStatistics != null && hasReferralId(tradeStatistics, referralId);
+            if (!isExistingOwnTradeStatistics) {
+                Map<String, String> extraDataMap = null;
+                if (referralId != null) {
+                    extraDataMap = new HashMap<>();
+                    extraDataMap.put(OfferPayload.REFERRAL_ID, referralId);
+                }
+                Offer offer = trade.getOffer();
+                checkNotNull(offer, "offer must not ne null");
+                checkNotNull(trade.getTradeAmount(), "trade.getTradeAmount() must not ne null");
+                tradeStatistics = new TradeStatistics2(offer.getOfferPayload(),
+                        trade.getTradePrice(),
+                        trade.getTradeAmount(),
+                        trade.getDate(),
+                        (trade.getDepositTx() != null ? trade.getDepositTx().getHashAsString() : ""),
+                        extraDataMap);
+                addToMap(tradeStatistics, true);
+            } else if (!isRecentTrade) {
+                continue;
             }
-            Offer offer = trade.getOffer();
-            checkNotNull(offer, "offer must not ne null");
-            checkNotNull(trade.getTradeAmount(), "trade.getTradeAmount() must not ne null");
-            TradeStatistics2 tradeStatistics = new TradeStatistics2(offer.getOfferPayload(),
-                    trade.getTradePrice(),
-                    trade.getTradeAmount(),
-                    trade.getDate(),
-                    (trade.getDepositTx() != null ? trade.getDepositTx().getHashAsString() : ""),
-                    extraDataMap);
-            addToMap(tradeStatistics, true);
 
             // We only republish trades from last 10 days
-            if ((new Date().getTime() - trade.getDate().getTime()) < TimeUnit.DAYS.toMillis(10)) {
+            if (isRecentTrade) {
+                TradeStatistics2 finalTradeStatistics = tradeStatistics;
                 long delay = 5000;
                 long minDelay = (i + 1) * delay;
                 long maxDelay = (i + 2) * delay;
                 UserThread.runAfterRandomDelay(() -> {
-                    p2PService.addPersistableNetworkPayload(tradeStatistics, true);
+                    p2PService.addPersistableNetworkPayload(finalTradeStatistics, true);
                 }, minDelay, maxDelay, TimeUnit.MILLISECONDS);
             }
         }
@@ -166,13 +223,20 @@ public class TradeStatisticsManager {
 
     public void addToMap(TradeStatistics2 tradeStatistics, boolean storeLocally) {
         if (!observableTradeStatisticsSet.contains(tradeStatistics)) {
-            boolean itemAlreadyAdded = observableTradeStatisticsSet.stream()
-                    .anyMatch(e -> (e.getOfferId().equals(tradeStatistics.getOfferId())));
+            boolean itemAlreadyAdded = tradeStatisticsByOfferId.containsKey(tradeStatistics.getOfferId());
             if (!itemAlreadyAdded) {
+                boolean isLatestOfCurrency = addToIndexes(tradeStatistics);
                 observableTradeStatisticsSet.add(tradeStatistics);
                 if (storeLocally) {
-                    priceFeedService.applyLatestBisqMarketPrice(observableTradeStatisticsSet);
-                    dump();
+                    if (isLatestOfCurrency)
+                        priceFeedService.applyBisqMarketPrice(tradeStatistics);
+
+                    if (dumpStatistics) {
+                        TradeStatisticsForJson tradeStatisticsForJson = new TradeStatisticsForJson(tradeStatistics);
+                        insertSorted(tradeStatisticsForJson);
+                        appendToNdjsonFile(tradeStatisticsForJson);
+                        dump();
+                    }
                 }
             } else {
                 log.debug("We have already an item with the same offer ID. That might happen if both the maker and the taker published the tradeStatistics");
@@ -190,19 +254,92 @@ public class TradeStatisticsManager {
         return observableTradeStatisticsSet;
     }
 
+    private static boolean hasReferralId(TradeStatistics2 tradeStatistics, @Nullable String referralId) {
+        Map<String, String> extraDataMap = tradeStatistics.getExtraDataMap();
+        String existingReferralId = extraDataMap != null ? extraDataMap.get(OfferPayload.REFERRAL_ID) : null;
+        return Objects.equals(existingReferralId, referralId);
+    }
+
+    // The canonical hash is cheap to recreate, so we ignore objects with a wrong one. Recreating the json hash of
+    // the whole history would be too expensive, objects with the json hash are taken as they are.
+    private static boolean isHashValid(TradeStatistics2 tradeStatistics) {
+        if (tradeStatistics.getHashVersion() == TradeStatistics2.LEGACY_JSON_HASH_VERSION)
+            return true;
+
+        if (tradeStatistics.isHashValid())
+            return true;
+
+        log.warn("We ignore the tradeStatistics with offerId {} as its hash is invalid. hashVersion={}",
+                tradeStatistics.getOfferId(), tradeStatistics.getHashVersion());
+        return false;
+    }
+
+    // Returns true if tradeStatistics is the most recent trade of its currency
+    private boolean addToIndexes(TradeStatistics2 tradeStatistics) {
+        tradeStatisticsByOfferId.put(tradeStatistics.getOfferId(), tradeStatistics);
+        tradeStatisticsAggregator.add(tradeStatistics);
+        TradeStatistics2 latest = latestTradeStatisticsByCurrencyCode.get(tradeStatistics.getCurrencyCode());
+        if (latest == null || tradeStatistics.getTradeDate().getTime() >= latest.getTradeDate().getTime()) {
+            latestTradeStatisticsByCurrencyCode.put(tradeStatistics.getCurrencyCode(), tradeStatistics);
+            return true;
+        }
+        return false;
+    }
+
+    private void insertSorted(TradeStatisticsForJson tradeStatisticsForJson) {
+        int size = tradeStatisticsForJsonList.size();
+        if (size == 0 || tradeStatisticsForJsonList.get(size - 1).tradeDate <= tradeStatisticsForJson.tradeDate) {
+            tradeStatisticsForJsonList.add(tradeStatisticsForJson);
+        } else {
+            int index = Collections.binarySearch(tradeStatisticsForJsonList, tradeStatisticsForJson,
+                    Comparator.comparingLong(e -> e.tradeDate));
+            tradeStatisticsForJsonList.add(index < 0 ? -index - 1 : index, tradeStatisticsForJson);
+        }
+    }
+
+    // We write one json object per line (NDJSON), so new statistics can be appended without rewriting the file.
+    private void writeNdjsonFile() {
+        try (BufferedWriter writer = Files.newBufferedWriter(ndjsonFile.toPath(), StandardCharsets.UTF_8)) {
+            for (TradeStatisticsForJson tradeStatisticsForJson : tradeStatisticsForJsonList) {
+                writer.write(ndjsonGson.toJson(tradeStatisticsForJson));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            log.error("Writing " + ndjsonFile + " failed. " + e.toString());
+        }
+    }
+
+    private void appendToNdjsonFile(TradeStatisticsForJson tradeStatisticsForJson) {
+        try (BufferedWriter writer = Files.newBufferedWriter(ndjsonFile.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(ndjsonGson.toJson(tradeStatisticsForJson));
+            writer.newLine();
+        } catch (IOException e) {
+            log.error("Appending to " + ndjsonFile + " failed. " + e.toString());
+        }
+    }
+
+    // Called on the UserThread by the tradeStatisticsWriter. Sorted with the most recent trade first.
+    private TradeStatisticsForJson[] getTradeStatisticsForJsonArray() {
+        int size = tradeStatisticsForJsonList.size();
+        TradeStatisticsForJson[] array = new TradeStatisticsForJson[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = tradeStatisticsForJsonList.get(size - 1 - i);
+        }
+        return array;
+    }
+
     private void dump() {
-        if (dumpStatistics) {
-            // We store the statistics as json so it is easy for further processing (e.g. for web based services)
-            // TODO This is just a quick solution for storing to one file.
-            // 1 statistic entry has 500 bytes as json.
-            // Need a more scalable solution later when we get more volume.
-            // The flag will only be activated by dedicated nodes, so it should not be too critical for the moment, but needs to
-            // get improved. Maybe a LevelDB like DB...? Could be impl. in a headless version only.
-            List<TradeStatisticsForJson> list = observableTradeStatisticsSet.stream().map(TradeStatisticsForJson::new).collect(Collectors.toList());
-            list.sort((o1, o2) -> (o1.tradeDate < o2.tradeDate ? 1 : (o1.tradeDate == o2.tradeDate ? 0 : -1)));
-            TradeStatisticsForJson[] array = new TradeStatisticsForJson[list.size()];
-            list.toArray(array);
-            jsonFileManager.writeToDisc(Utilities.objectToJson(array), "trade_statistics");
+        if (tradeStatisticsWriter != null) {
+            // We store the statistics as json so it is easy for further processing (e.g. for web based services).
+            // Changes are batched by the writer and the file is written on a separate thread. For processing new
+            // trades incrementally use the ndjson file.
+            tradeStatisticsWriter.onChange();
         }
     }
+
+    public void shutDown() {
+        if (tradeStatisticsWriter != null)
+            tradeStatisticsWriter.shutDown();
+    }
 }
@@ -71,6 +71,9 @@ public final class User implements PersistedDataHost {
     private ObjectProperty<PaymentAccount> currentPaymentAccountProperty;
 
     private UserPayload userPayload = new UserPayload();
+    // Nesting depth of batchUpdate calls. While > 0 we only remember that we need to persist.
+    private int batchDepth;
+    private boolean persistRequested;
 
     @Inject
     public User(Storage<UserPayload> storage, KeyRing keyRing) {
@@ -113,10 +116,30 @@ public final class User implements PersistedDataHost {
     }
 
     public void persist() {
+        if (batchDepth > 0) {
+            persistRequested = true;
+            return;
+        }
         if (storage != null)
             storage.queueUpForSave(userPayload);
     }
 
+    /**
+     * Applies multiple changes and persists only once after all updates are done (if any of them requested it).
+     */
+    public void batchUpdate(Runnable updates) {
+        batchDepth++;
+        try {
+            updates.run();
+        } finally {
+            batchDepth--;
+            if (batchDepth == 0 && persistRequested) {
+                persistRequested = false;
+                persist();
+            }
+        }
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // API
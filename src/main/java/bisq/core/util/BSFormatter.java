@@ -69,19 +69,47 @@ public class BSFormatter {
     // Input of a group separator (1,123,45) lead to an validation error.
     // Note: BtcFormat was intended to be used, but it lead to many problems (automatic format to mBit,
     // no way to remove grouping separator). It seems to be not optimal for user input formatting.
-    protected MonetaryFormat coinFormat;
+    // The coin format and the formats derived from it get replaced together by setCoinFormat, so a formatter used
+    // from a background thread never sees a mix of them.
+    private volatile CoinFormats coinFormats;
 
     //  protected String currencyCode = CurrencyUtil.getDefaultFiatCurrencyAsCode();
 
     protected final MonetaryFormat fiatPriceFormat = new MonetaryFormat().shift(0).minDecimals(4).repeatOptionalDecimals(0, 0);
     protected final MonetaryFormat fiatVolumeFormat = new MonetaryFormat().shift(0).minDecimals(2).repeatOptionalDecimals(0, 0);
     protected final MonetaryFormat altcoinFormat = new MonetaryFormat().shift(0).minDecimals(8).repeatOptionalDecimals(0, 0);
+    /**
+     * @deprecated Not used by BSFormatter anymore. DecimalFormat is not thread safe and the formatter is used from
+     * background threads as well, so subclasses must not use a shared instance. Use formatRoundedDoubleWithPrecision.
+     */
+    @Deprecated
     protected final DecimalFormat decimalFormat = new DecimalFormat("#.#");
 
+    // MonetaryFormat is immutable and each of the builder methods like noCode() creates a new instance, so we derive
+    // the formats we need once and not at each format call. That also makes the formatter safe to be used from
+    // background threads (e.g. for the json exports).
+    private final MonetaryFormat fiatPriceFormatNoCode = fiatPriceFormat.noCode();
+    private final MonetaryFormat fiatVolumeFormatNoCode = fiatVolumeFormat.noCode();
+    private final MonetaryFormat altcoinFormatNoCode = altcoinFormat.noCode();
+    private final MonetaryFormat bsqVolumeFormatNoCode = altcoinFormat.noCode().minDecimals(3).repeatOptionalDecimals(0, 0);
+
+    // DecimalFormat is not thread safe
+    private static final ThreadLocal<DecimalFormat> ROUNDED_DOUBLE_FORMAT = ThreadLocal.withInitial(() -> new DecimalFormat("#.#"));
+    private static final ThreadLocal<DecimalFormat> PERCENT_FORMAT = ThreadLocal.withInitial(() -> {
+        DecimalFormat decimalFormat = new DecimalFormat("#.##");
+        decimalFormat.setMinimumFractionDigits(2);
+        decimalFormat.setMaximumFractionDigits(2);
+        return decimalFormat;
+    });
+
 
     @Inject
     public BSFormatter() {
-        coinFormat = BisqEnvironment.getParameters().getMonetaryFormat();
+        setCoinFormat(BisqEnvironment.getParameters().getMonetaryFormat());
+    }
+
+    protected void setCoinFormat(MonetaryFormat coinFormat) {
+        coinFormats = new CoinFormats(coinFormat);
     }
 
 
@@ -104,11 +132,7 @@ public class BSFormatter {
 
         if (coin != null) {
             try {
-                if (decimalPlaces < 0 || decimalPlaces > 4) {
-                    formattedCoin = coinFormat.noCode().format(coin).toString();
-                } else {
-                    formattedCoin = coinFormat.noCode().minDecimals(decimalPlaces).repeatOptionalDecimals(1, decimalPlaces).format(coin).toString();
-                }
+                formattedCoin = getCoinFormat(decimalPlaces).format(coin).toString();
             } catch (Throwable t) {
                 log.warn("Exception at formatBtc: " + t.toString());
             }
@@ -121,12 +145,34 @@ public class BSFormatter {
         return formattedCoin;
     }
 
+    /**
+     * Appends the formatted coin to the given StringBuilder. Nothing is appended if coin is null or formatting fails.
+     */
+    public StringBuilder appendCoin(StringBuilder sb, Coin coin, int decimalPlaces) {
+        if (coin != null) {
+            try {
+                sb.append(getCoinFormat(decimalPlaces).format(coin));
+            } catch (Throwable t) {
+                log.warn("Exception at appendCoin: " + t.toString());
+            }
+        }
+        return sb;
+    }
+
+    private MonetaryFormat getCoinFormat(int decimalPlaces) {
+        CoinFormats coinFormats = this.coinFormats;
+        if (decimalPlaces < 0 || decimalPlaces >= coinFormats.byDecimalPlaces.length)
+            return coinFormats.noCode;
+        else
+            return coinFormats.byDecimalPlaces[decimalPlaces];
+    }
+
     public String formatCoinWithCode(Coin coin) {
         if (coin != null) {
             try {
                 // we don't use the code feature from coinFormat as it does automatic switching between mBTC and BTC and
                 // pre and post fixing
-                return coinFormat.postfixCode().format(coin).toString();
+                return coinFormats.postfixCode.format(coin).toString();
             } catch (Throwable t) {
                 log.warn("Exception at formatBtcWithCode: " + t.toString());
                 return "";
@@ -139,7 +185,7 @@ public class BSFormatter {
     public Coin parseToCoin(String input) {
         if (input != null && input.length() > 0) {
             try {
-                return coinFormat.parse(cleanDoubleInput(input));
+                return coinFormats.coinFormat.parse(cleanDoubleInput(input));
             } catch (Throwable t) {
                 log.warn("Exception at parseToBtc: " + t.toString());
                 return Coin.ZERO;
@@ -190,7 +236,7 @@ public class BSFormatter {
     public String formatFiat(Fiat fiat, MonetaryFormat format, boolean appendCurrencyCode) {
         if (fiat != null) {
             try {
-                final String res = format.noCode().format(fiat).toString();
+                final String res = getNoCodeFormat(format).format(fiat).toString();
                 if (appendCurrencyCode)
                     return res + " " + fiat.getCurrencyCode();
                 else
@@ -204,6 +250,31 @@ public class BSFormatter {
         }
     }
 
+    public StringBuilder appendFiat(StringBuilder sb, Fiat fiat, MonetaryFormat format, boolean appendCurrencyCode) {
+        if (fiat != null) {
+            try {
+                sb.append(getNoCodeFormat(format).format(fiat));
+                if (appendCurrencyCode)
+                    sb.append(' ').append(fiat.getCurrencyCode());
+            } catch (Throwable t) {
+                log.warn("Exception at appendFiat: " + t.toString());
+                sb.append(Res.get("shared.na")).append(' ').append(fiat.getCurrencyCode());
+            }
+        } else {
+            sb.append(Res.get("shared.na"));
+        }
+        return sb;
+    }
+
+    private MonetaryFormat getNoCodeFormat(MonetaryFormat format) {
+        if (format == fiatPriceFormat)
+            return fiatPriceFormatNoCode;
+        else if (format == fiatVolumeFormat)
+            return fiatVolumeFormatNoCode;
+        else
+            return format.noCode();
+    }
+
     protected Fiat parseToFiat(String input, String currencyCode) {
         if (input != null && input.length() > 0) {
             try {
@@ -261,7 +332,7 @@ public class BSFormatter {
     public String formatAltcoin(Altcoin altcoin, boolean appendCurrencyCode) {
         if (altcoin != null) {
             try {
-                String res = altcoinFormat.noCode().format(altcoin).toString();
+                String res = altcoinFormatNoCode.format(altcoin).toString();
                 if (appendCurrencyCode)
                     return res + " " + altcoin.getCurrencyCode();
                 else
@@ -276,6 +347,28 @@ public class BSFormatter {
     }
 
 
+    public StringBuilder appendAltcoin(StringBuilder sb, Altcoin altcoin, boolean appendCurrencyCode) {
+        return appendAltcoin(sb, altcoin, altcoinFormatNoCode, appendCurrencyCode);
+    }
+
+    // The format must be a noCode format
+    private StringBuilder appendAltcoin(StringBuilder sb, Altcoin altcoin, MonetaryFormat format, boolean appendCurrencyCode) {
+        if (altcoin != null) {
+            try {
+                sb.append(format.format(altcoin));
+                if (appendCurrencyCode)
+                    sb.append(' ').append(altcoin.getCurrencyCode());
+            } catch (Throwable t) {
+                log.warn("Exception at appendAltcoin: " + t.toString());
+                sb.append(Res.get("shared.na")).append(' ').append(altcoin.getCurrencyCode());
+            }
+        } else {
+            sb.append(Res.get("shared.na"));
+        }
+        return sb;
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Volume
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -295,11 +388,7 @@ public class BSFormatter {
 
     @NotNull
     public String fillUpPlacesWithEmptyStrings(String formattedNumber, int maxNumberOfDigits) {
-        int numberOfPlacesToFill = maxNumberOfDigits - formattedNumber.length();
-        for (int i = 0; i < numberOfPlacesToFill; i++) {
-            formattedNumber = " " + formattedNumber;
-        }
-        return formattedNumber;
+        return StringUtils.leftPad(formattedNumber, maxNumberOfDigits);
     }
 
     public String formatVolume(Volume volume) {
@@ -322,15 +411,21 @@ public class BSFormatter {
         }
     }
 
+    public StringBuilder appendVolume(StringBuilder sb, Volume volume, boolean appendCurrencyCode) {
+        if (volume != null) {
+            Monetary monetary = volume.getMonetary();
+            if (monetary instanceof Fiat)
+                appendFiat(sb, (Fiat) monetary, fiatVolumeFormat, appendCurrencyCode);
+            else
+                appendAltcoin(sb, (Altcoin) monetary, getAltcoinVolumeFormat((Altcoin) monetary), appendCurrencyCode);
+        }
+        return sb;
+    }
+
     public String formatAltcoinVolume(Altcoin altcoin, boolean appendCurrencyCode) {
         if (altcoin != null) {
             try {
-                // TODO quick hack...
-                String res;
-                if (altcoin.getCurrencyCode().equals("BSQ"))
-                    res = altcoinFormat.noCode().minDecimals(3).repeatOptionalDecimals(0, 0).format(altcoin).toString();
-                else
-                    res = altcoinFormat.noCode().format(altcoin).toString();
+                String res = getAltcoinVolumeFormat(altcoin).format(altcoin).toString();
                 if (appendCurrencyCode)
                     return res + " " + altcoin.getCurrencyCode();
                 else
@@ -344,6 +439,11 @@ public class BSFormatter {
         }
     }
 
+    private MonetaryFormat getAltcoinVolumeFormat(Altcoin altcoin) {
+        // TODO quick hack...
+        return altcoin.getCurrencyCode().equals("BSQ") ? bsqVolumeFormatNoCode : altcoinFormatNoCode;
+    }
+
     public String formatVolumeLabel(String currencyCode) {
         return formatVolumeLabel(currencyCode, "");
     }
@@ -369,6 +469,12 @@ public class BSFormatter {
         return formattedAmount;
     }
 
+    public StringBuilder appendAmount(StringBuilder sb, Offer offer, int decimalPlaces) {
+        if (offer.isRange())
+            appendCoin(sb, offer.getMinAmount(), decimalPlaces).append(RANGE_SEPARATOR);
+        return appendCoin(sb, offer.getAmount(), decimalPlaces);
+    }
+
     public String formatAmount(Offer offer, int decimalPlaces, boolean decimalAligned, int maxPlaces) {
         String formattedAmount = offer.isRange() ? formatCoin(offer.getMinAmount(), decimalPlaces) + RANGE_SEPARATOR + formatCoin(offer.getAmount(), decimalPlaces) : formatCoin(offer.getAmount(), decimalPlaces);
 
@@ -396,6 +502,19 @@ public class BSFormatter {
         }
     }
 
+    public StringBuilder appendPrice(StringBuilder sb, Price price, boolean appendCurrencyCode) {
+        if (price != null) {
+            Monetary monetary = price.getMonetary();
+            if (monetary instanceof Fiat)
+                appendFiat(sb, (Fiat) monetary, fiatPriceFormat, appendCurrencyCode);
+            else
+                appendAltcoin(sb, (Altcoin) monetary, appendCurrencyCode);
+        } else {
+            sb.append(Res.get("shared.na"));
+        }
+        return sb;
+    }
+
     public String formatPrice(Price price) {
         return formatPrice(price, fiatPriceFormat, false);
     }
@@ -430,6 +549,7 @@ public class BSFormatter {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public String formatRoundedDoubleWithPrecision(double value, int precision) {
+        DecimalFormat decimalFormat = ROUNDED_DOUBLE_FORMAT.get();
         decimalFormat.setMinimumFractionDigits(precision);
         decimalFormat.setMaximumFractionDigits(precision);
         return decimalFormat.format(MathUtils.roundDouble(value, precision)).replace(",", ".");
@@ -504,10 +624,7 @@ public class BSFormatter {
     }
 
     public String formatToPercent(double value) {
-        DecimalFormat decimalFormat = new DecimalFormat("#.##");
-        decimalFormat.setMinimumFractionDigits(2);
-        decimalFormat.setMaximumFractionDigits(2);
-        return decimalFormat.format(MathUtils.roundDouble(value * 100.0, 2)).replace(",", ".");
+        return PERCENT_FORMAT.get().format(MathUtils.roundDouble(value * 100.0, 2)).replace(",", ".");
     }
 
     public double parseNumberStringToDouble(String input) throws NumberFormatException {
@@ -746,4 +863,23 @@ public class BSFormatter {
     public Locale getLocale() {
         return GlobalSettings.getLocale();
     }
+
+    // Immutable, so it can be published with a volatile field
+    private static final class CoinFormats {
+        private final MonetaryFormat coinFormat;
+        private final MonetaryFormat noCode;
+        private final MonetaryFormat postfixCode;
+        // Index is the number of decimal places (0 - 4)
+        private final MonetaryFormat[] byDecimalPlaces = new MonetaryFormat[5];
+
+        private CoinFormats(MonetaryFormat coinFormat) {
+            this.coinFormat = coinFormat;
+            noCode = coinFormat.noCode();
+            postfixCode = coinFormat.postfixCode();
+            for (int decimalPlaces = 0; decimalPlaces < byDecimalPlaces.length; decimalPlaces++) {
+                byDecimalPlaces[decimalPlaces] = noCode.minDecimals(decimalPlaces)
+                        .repeatOptionalDecimals(1, decimalPlaces);
+            }
+        }
+    }
 }
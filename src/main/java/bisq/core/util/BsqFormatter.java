@@ -39,8 +39,13 @@ public class BsqFormatter extends BSFormatter {
     @SuppressWarnings("PointlessBooleanExpression")
     private static final boolean useBsqAddressFormat = true || !DevEnv.isDevMode();
     private final String prefix = "B";
-    private final DecimalFormat amountFormat = new DecimalFormat("###,###,###.##");
-    private final DecimalFormat marketCapFormat = new DecimalFormat("###,###,###");
+    // DecimalFormat is not thread safe
+    private static final ThreadLocal<DecimalFormat> AMOUNT_FORMAT = ThreadLocal.withInitial(() -> {
+        DecimalFormat decimalFormat = new DecimalFormat("###,###,###.##");
+        decimalFormat.setMinimumFractionDigits(2);
+        return decimalFormat;
+    });
+    private static final ThreadLocal<DecimalFormat> MARKET_CAP_FORMAT = ThreadLocal.withInitial(() -> new DecimalFormat("###,###,###"));
 
     @Inject
     private BsqFormatter() {
@@ -49,20 +54,18 @@ public class BsqFormatter extends BSFormatter {
         final String baseCurrencyCode = BisqEnvironment.getBaseCurrencyNetwork().getCurrencyCode();
         switch (baseCurrencyCode) {
             case "BTC":
-                coinFormat = new MonetaryFormat().shift(6).code(6, "BSQ").minDecimals(2);
+                setCoinFormat(new MonetaryFormat().shift(6).code(6, "BSQ").minDecimals(2));
                 break;
             case "LTC":
-                coinFormat = new MonetaryFormat().shift(3).code(3, "BSQ").minDecimals(5);
+                setCoinFormat(new MonetaryFormat().shift(3).code(3, "BSQ").minDecimals(5));
                 break;
             case "DASH":
                 // BSQ for DASH not used/supported
-                coinFormat = new MonetaryFormat().shift(3).code(3, "???").minDecimals(5);
+                setCoinFormat(new MonetaryFormat().shift(3).code(3, "???").minDecimals(5));
                 break;
             default:
                 throw new RuntimeException("baseCurrencyCode not defined. baseCurrencyCode=" + baseCurrencyCode);
         }
-
-        amountFormat.setMinimumFractionDigits(2);
     }
 
     /**
@@ -90,13 +93,13 @@ public class BsqFormatter extends BSFormatter {
     }
 
     public String formatAmountWithGroupSeparatorAndCode(Coin amount) {
-        return amountFormat.format(MathUtils.scaleDownByPowerOf10(amount.value, 2)) + " BSQ";
+        return AMOUNT_FORMAT.get().format(MathUtils.scaleDownByPowerOf10(amount.value, 2)) + " BSQ";
     }
 
     public String formatMarketCap(MarketPrice bsqPriceMarketPrice, MarketPrice fiatMarketPrice, Coin issuedAmount) {
         if (bsqPriceMarketPrice != null && fiatMarketPrice != null) {
             double marketCap = bsqPriceMarketPrice.getPrice() * fiatMarketPrice.getPrice() * (MathUtils.scaleDownByPowerOf10(issuedAmount.value, 2));
-            return marketCapFormat.format(MathUtils.doubleToLong(marketCap)) + " " + fiatMarketPrice.getCurrencyCode();
+            return MARKET_CAP_FORMAT.get().format(MathUtils.doubleToLong(marketCap)) + " " + fiatMarketPrice.getCurrencyCode();
         } else {
             return "";
         }
@@ -0,0 +1,339 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.util;
+
+import bisq.core.metrics.Counter;
+import bisq.core.metrics.MetricTimer;
+import bisq.core.metrics.Metrics;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+import bisq.common.util.JsonExclude;
+import bisq.common.util.Utilities;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writes a json file for data which changes frequently (e.g. the offer book or the trade statistics used by
+ * statistics nodes). Change events are coalesced: the snapshot is taken at most once per minIntervalMs, or earlier if
+ * maxChanges changes are pending. Only the snapshot is created on the UserThread, serialisation and writing is done on
+ * a dedicated thread with a streaming writer. If a write is still in progress, intermediate snapshots are skipped and
+ * only the latest one gets written.
+ * <p>
+ * The file is written to a temp file and then moved to the target file, so readers never see a partially written file.
+ * Along with the json file we write a [fileName]_meta.json file with the sequence number of the written snapshot. The
+ * sequence number continues with the one of the existing meta file. At shutDown pending changes get written before
+ * the call returns.
+ */
+@Slf4j
+public class CoalescingJsonFileWriter {
+    private static final long SHUT_DOWN_TIMEOUT_SEC = 10;
+
+    private static final Gson GSON = new GsonBuilder()
+            .setExclusionStrategies(new ExclusionStrategy() {
+                @Override
+                public boolean shouldSkipField(FieldAttributes f) {
+                    return f.getAnnotation(JsonExclude.class) != null;
+                }
+
+                @Override
+                public boolean shouldSkipClass(Class<?> clazz) {
+                    return false;
+                }
+            })
+            .setPrettyPrinting()
+            .create();
+
+    private final File dir;
+    private final String fileName;
+    private final Supplier<Object> snapshotSupplier;
+    private final long minIntervalMs;
+    private final int maxChanges;
+    private final ListeningExecutorService executor;
+
+    // Only accessed from UserThread
+    @Nullable
+    private Timer timer;
+    private int pendingChanges;
+
+    // Written snapshot waiting for the writer thread. Gets replaced if a newer snapshot arrives before it got written.
+    private final AtomicReference<Snapshot> pendingSnapshot = new AtomicReference<>();
+    // Incremented by the writer thread, volatile for the getter
+    private volatile long sequenceNumber;
+
+    // Metrics. The counters are always maintained and exposed by the getters. If metrics are enabled they are
+    // reported as well under util.jsonFileWriter.[fileName].
+    private final AtomicLong numChanges = new AtomicLong();
+    private final AtomicLong numWrites = new AtomicLong();
+    private final AtomicLong numSkippedSnapshots = new AtomicLong();
+    private final AtomicLong lastWriteDurationMs = new AtomicLong();
+    private final AtomicLong maxWriteDurationMs = new AtomicLong();
+    // Time from the first coalesced change to the finished write
+    private final AtomicLong lastDumpLatencyMs = new AtomicLong();
+    private long firstPendingChangeTs;
+    private final Counter changesCounter;
+    private final Counter writesCounter;
+    private final Counter skippedSnapshotsCounter;
+    private final MetricTimer writeTimer;
+    private final MetricTimer dumpLatencyTimer;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public CoalescingJsonFileWriter(File dir,
+                                    String fileName,
+                                    Supplier<Object> snapshotSupplier,
+                                    long minIntervalMs,
+                                    int maxChanges) {
+        this.dir = dir;
+        this.fileName = fileName;
+        this.snapshotSupplier = snapshotSupplier;
+        this.minIntervalMs = minIntervalMs;
+        this.maxChanges = maxChanges;
+        executor = Utilities.getSingleThreadExecutor("CoalescingJsonFileWriter-" + fileName);
+
+        String metricsPrefix = "util.jsonFileWriter." + fileName + ".";
+        changesCounter = Metrics.counter(metricsPrefix + "changes");
+        writesCounter = Metrics.counter(metricsPrefix + "writes");
+        skippedSnapshotsCounter = Metrics.counter(metricsPrefix + "skippedSnapshots");
+        writeTimer = Metrics.timer(metricsPrefix + "write");
+        dumpLatencyTimer = Metrics.timer(metricsPrefix + "dumpLatency");
+
+        // Consumers use the sequence number to detect new data, so we continue with the one of the last run
+        sequenceNumber = readSequenceNumber();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Must be called on the UserThread
+    public void onChange() {
+        numChanges.incrementAndGet();
+        changesCounter.inc();
+        if (pendingChanges++ == 0)
+            firstPendingChangeTs = System.currentTimeMillis();
+
+        if (pendingChanges >= maxChanges) {
+            flush();
+        } else if (timer == null) {
+            timer = UserThread.runAfter(this::flush, minIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Takes the snapshot immediately. Must be called on the UserThread
+    public void flush() {
+        if (timer != null) {
+            timer.stop();
+            timer = null;
+        }
+        if (executor.isShutdown()) {
+            log.warn("flush called for {} after shutDown. We ignore the call.", fileName);
+            return;
+        }
+
+        if (pendingChanges > 1)
+            addSkippedSnapshots(pendingChanges - 1);
+        pendingChanges = 0;
+
+        Snapshot snapshot = new Snapshot(snapshotSupplier.get(), firstPendingChangeTs > 0 ? firstPendingChangeTs : System.currentTimeMillis());
+        firstPendingChangeTs = 0;
+        Snapshot previous = pendingSnapshot.getAndSet(snapshot);
+        if (previous != null) {
+            // The writer thread has not picked up the previous snapshot yet, so it gets replaced by the new one.
+            addSkippedSnapshots(1);
+        } else {
+            executor.submit(this::write);
+        }
+    }
+
+    // Writes pending changes and blocks until the file is written. Must be called on the UserThread
+    public void shutDown() {
+        if (executor.isShutdown())
+            return;
+
+        if (pendingChanges > 0)
+            flush();
+        else if (timer != null) {
+            timer.stop();
+            timer = null;
+        }
+
+        // Submitted writes are completed before the executor terminates
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUT_DOWN_TIMEOUT_SEC, TimeUnit.SECONDS))
+                log.warn("Writing {} did not complete within {} sec.", fileName, SHUT_DOWN_TIMEOUT_SEC);
+        } catch (InterruptedException e) {
+            log.warn("Interrupted at shutDown while writing {}", fileName);
+            Thread.currentThread().interrupt();
+        }
+        log.info("Shut down writer of {}. changes={}, writes={}, skippedSnapshots={}, maxWriteDurationMs={}",
+                fileName, getNumChanges(), getNumWrites(), getNumSkippedSnapshots(), getMaxWriteDurationMs());
+    }
+
+    public long getNumChanges() {
+        return numChanges.get();
+    }
+
+    public long getNumWrites() {
+        return numWrites.get();
+    }
+
+    // Snapshots not written as they got replaced by a newer one, i.e. the number of coalesced changes
+    public long getNumSkippedSnapshots() {
+        return numSkippedSnapshots.get();
+    }
+
+    public long getLastWriteDurationMs() {
+        return lastWriteDurationMs.get();
+    }
+
+    public long getMaxWriteDurationMs() {
+        return maxWriteDurationMs.get();
+    }
+
+    public long getLastDumpLatencyMs() {
+        return lastDumpLatencyMs.get();
+    }
+
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Runs on the writer thread
+    private void write() {
+        Snapshot snapshot = pendingSnapshot.getAndSet(null);
+        if (snapshot == null)
+            return;
+
+        long ts = System.currentTimeMillis();
+        sequenceNumber++;
+        try {
+            writeAtomically(fileName + ".json", writer -> GSON.toJson(snapshot.data, writer));
+            writeAtomically(fileName + "_meta.json", writer -> GSON.toJson(new Meta(sequenceNumber, ts), writer));
+
+            long now = System.currentTimeMillis();
+            long duration = now - ts;
+            numWrites.incrementAndGet();
+            writesCounter.inc();
+            lastWriteDurationMs.set(duration);
+            maxWriteDurationMs.accumulateAndGet(duration, Math::max);
+            writeTimer.record(duration, TimeUnit.MILLISECONDS);
+            lastDumpLatencyMs.set(now - snapshot.firstChangeTs);
+            dumpLatencyTimer.record(now - snapshot.firstChangeTs, TimeUnit.MILLISECONDS);
+            log.debug("Writing {} with sequence number {} took {} ms. Skipped snapshots so far: {}",
+                    fileName, sequenceNumber, duration, numSkippedSnapshots.get());
+        } catch (Throwable t) {
+            log.error("Writing {} failed. {}", fileName, t.toString());
+        }
+    }
+
+    private void addSkippedSnapshots(long numSnapshots) {
+        numSkippedSnapshots.addAndGet(numSnapshots);
+        skippedSnapshotsCounter.add(numSnapshots);
+    }
+
+    private long readSequenceNumber() {
+        File metaFile = new File(dir, fileName + "_meta.json");
+        if (!metaFile.exists())
+            return 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(metaFile.toPath(), StandardCharsets.UTF_8)) {
+            Meta meta = GSON.fromJson(reader, Meta.class);
+            return meta != null ? meta.sequenceNumber : 0;
+        } catch (Throwable t) {
+            log.warn("Reading the sequence number of {} failed. We start with 0. {}", fileName, t.toString());
+            return 0;
+        }
+    }
+
+    private void writeAtomically(String targetFileName, JsonWriterConsumer consumer) throws IOException {
+        if (!dir.exists() && !dir.mkdirs())
+            log.warn("make dir failed.\ndir=" + dir.getAbsolutePath());
+
+        Path target = new File(dir, targetFileName).toPath();
+        Path tempFile = new File(dir, targetFileName + ".tmp").toPath();
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            consumer.accept(writer);
+        }
+        try {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private interface JsonWriterConsumer {
+        void accept(BufferedWriter writer) throws IOException;
+    }
+
+    private static final class Snapshot {
+        private final Object data;
+        private final long firstChangeTs;
+
+        Snapshot(Object data, long firstChangeTs) {
+            this.data = data;
+            this.firstChangeTs = firstChangeTs;
+        }
+    }
+
+    @SuppressWarnings({"FieldCanBeLocal", "unused"})
+    private static final class Meta {
+        private final long sequenceNumber;
+        private final long date;
+
+        Meta(long sequenceNumber, long date) {
+            this.sequenceNumber = sequenceNumber;
+            this.date = date;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.util;
+
+import bisq.core.metrics.Histogram;
+import bisq.core.metrics.MetricTimer;
+import bisq.core.metrics.Metrics;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+import bisq.common.util.Utilities;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.Message;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Persists a collection as independent records with one file per record in a dedicated directory. A change of one
+ * item only rewrites its own record instead of the whole collection as it is the case with Storage and a
+ * PersistableEnvelope holding a list. Each record file contains a PB.PersistableEnvelope which gets resolved with the
+ * PersistenceProtoResolver.
+ * <p>
+ * Like with Storage saves are queued up and coalesced. The proto message is created on the UserThread after the delay
+ * and the bytes are written on a dedicated thread (to a temp file which gets moved to the record file).
+ * <p>
+ * Large content (e.g. dispute attachments) can be stored as content addressed blobs in the blobs sub directory. Blob
+ * writes use the same thread as the record writes, so a blob is on disk before a record referencing it.
+ */
+@Slf4j
+public class SegmentedStorage {
+    private static final String RECORD_FILE_SUFFIX = ".record";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String CORRUPTED_FILE_SUFFIX = "_corrupted";
+    private static final MetricTimer WRITE_TIMER = Metrics.timer("storage.segmentedStorage.write");
+    private static final Histogram WRITE_SIZE_HISTOGRAM = Metrics.histogram("storage.segmentedStorage.writeBytes");
+    // Marks that all records have been written (e.g. after a migration from a single file). Without it the directory
+    // content is not considered complete.
+    private static final String INITIALIZED_MARKER_FILE_NAME = "initialized";
+
+    private final File dir;
+    private final File blobsDir;
+    private final PersistenceProtoResolver persistenceProtoResolver;
+    private final long delayMs;
+    private final ListeningExecutorService executor;
+
+    // Only accessed from UserThread
+    private final Map<String, Supplier<? extends Message>> pendingRecords = new LinkedHashMap<>();
+    @Nullable
+    private Timer timer;
+
+    // Metrics
+    @Getter
+    private final AtomicLong numRecordWrites = new AtomicLong();
+    @Getter
+    private final AtomicLong numBlobWrites = new AtomicLong();
+    @Getter
+    private final AtomicLong numBytesWritten = new AtomicLong();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public SegmentedStorage(File dir, PersistenceProtoResolver persistenceProtoResolver, long delayMs) {
+        this.dir = dir;
+        this.persistenceProtoResolver = persistenceProtoResolver;
+        this.delayMs = delayMs;
+        blobsDir = new File(dir, "blobs");
+        executor = Utilities.getSingleThreadExecutor("SegmentedStorage-" + dir.getName());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Read
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public boolean isInitialized() {
+        return new File(dir, INITIALIZED_MARKER_FILE_NAME).exists();
+    }
+
+    public Set<String> getKeys() {
+        Set<String> keys = new HashSet<>();
+        File[] files = dir.listFiles((d, name) -> name.endsWith(RECORD_FILE_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                keys.add(name.substring(0, name.length() - RECORD_FILE_SUFFIX.length()));
+            }
+        }
+        return keys;
+    }
+
+    public List<PersistableEnvelope> readAll() {
+        long ts = System.currentTimeMillis();
+        List<PersistableEnvelope> result = new ArrayList<>();
+        for (String key : getKeys()) {
+            PersistableEnvelope envelope = read(key);
+            if (envelope != null)
+                result.add(envelope);
+        }
+        log.info("Reading {} records from {} took {} ms", result.size(), dir.getName(), System.currentTimeMillis() - ts);
+        return result;
+    }
+
+    @Nullable
+    public PersistableEnvelope read(String key) {
+        File file = getRecordFile(key);
+        if (!file.exists())
+            return null;
+
+        try {
+            PB.PersistableEnvelope proto = PB.PersistableEnvelope.parseFrom(Files.readAllBytes(file.toPath()));
+            return persistenceProtoResolver.fromProto(proto);
+        } catch (Throwable t) {
+            log.error("Reading record {} failed. We keep the file as {}. {}", file.getName(),
+                    file.getName() + CORRUPTED_FILE_SUFFIX, t.toString());
+            if (!file.renameTo(new File(dir, file.getName() + CORRUPTED_FILE_SUFFIX)))
+                log.warn("Renaming corrupted record file failed. file=" + file.getAbsolutePath());
+            return null;
+        }
+    }
+
+    // Records which could not be read are kept as corrupted files (see read)
+    public boolean hasCorruptedRecords() {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(CORRUPTED_FILE_SUFFIX));
+        return files != null && files.length > 0;
+    }
+
+    public boolean hasBlob(String blobKey) {
+        return new File(blobsDir, toFileName(blobKey)).exists();
+    }
+
+    // Blocking call, the caller is responsible for not calling it in a performance critical context.
+    @Nullable
+    public byte[] readBlob(String blobKey) {
+        File file = new File(blobsDir, toFileName(blobKey));
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            log.error("Reading blob {} failed. {}", file.getAbsolutePath(), e.toString());
+            return null;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Write, must be called on the UserThread
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The supplier is called on the UserThread when the delay has passed, so multiple changes of the same record
+    // result in one write.
+    public void queueUpForSave(String key, Supplier<? extends Message> protoSupplier) {
+        pendingRecords.put(key, protoSupplier);
+        if (timer == null)
+            timer = UserThread.runAfter(this::flush, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void remove(String key) {
+        pendingRecords.remove(key);
+        submit(() -> {
+            File file = getRecordFile(key);
+            if (file.exists() && !file.delete())
+                log.warn("Deleting record file failed. file=" + file.getAbsolutePath());
+        });
+    }
+
+    // The bytes must not be modified after this call. Blobs are never overwritten as the key is derived from the content.
+    public void writeBlob(String blobKey, byte[] bytes) {
+        submit(() -> {
+            File file = new File(blobsDir, toFileName(blobKey));
+            if (!file.exists()) {
+                try {
+                    writeAtomically(blobsDir, file, bytes);
+                    numBlobWrites.incrementAndGet();
+                } catch (Throwable t) {
+                    log.error("Writing blob {} failed. {}", file.getName(), t.toString());
+                }
+            }
+        });
+    }
+
+    // Deletes all blobs which are not referenced anymore. Must only be called if all records have been loaded,
+    // otherwise blobs of the records we could not load would get lost. We never clean up if there is a corrupted
+    // record.
+    public void removeBlobsNotIn(Collection<String> referencedBlobKeys) {
+        if (hasCorruptedRecords()) {
+            log.warn("There are corrupted records in {}. We don't remove unreferenced blobs.", dir.getName());
+            return;
+        }
+
+        Set<String> referencedFileNames = new HashSet<>();
+        referencedBlobKeys.forEach(key -> referencedFileNames.add(toFileName(key)));
+        submit(() -> {
+            File[] files = blobsDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    if (!referencedFileNames.contains(file.getName()) && !file.delete())
+                        log.warn("Deleting unreferenced blob failed. file=" + file.getAbsolutePath());
+                }
+            }
+        });
+    }
+
+    // Writes the records of a migration and then the marker file. In contrast to the other write methods it can be
+    // called from any thread (readPersisted runs on the startup threads), the records are queued up on the UserThread.
+    public void migrate(Map<String, Supplier<? extends Message>> records) {
+        UserThread.execute(() -> {
+            records.forEach(this::queueUpForSave);
+            setInitialized();
+        });
+    }
+
+    // Writes all pending records and then the marker file which flags the records as complete.
+    public void setInitialized() {
+        flush();
+        submit(() -> {
+            try {
+                writeAtomically(dir, new File(dir, INITIALIZED_MARKER_FILE_NAME), new byte[0]);
+            } catch (Throwable t) {
+                log.error("Writing marker file failed. {}", t.toString());
+            }
+        });
+    }
+
+    public void flush() {
+        if (timer != null) {
+            timer.stop();
+            timer = null;
+        }
+
+        pendingRecords.forEach((key, protoSupplier) -> {
+            byte[] bytes = protoSupplier.get().toByteArray();
+            submit(() -> {
+                File file = getRecordFile(key);
+                try {
+                    writeAtomically(dir, file, bytes);
+                    numRecordWrites.incrementAndGet();
+                } catch (Throwable t) {
+                    log.error("Writing record {} failed. {}", file.getName(), t.toString());
+                }
+            });
+        });
+        pendingRecords.clear();
+    }
+
+    public void shutDown() {
+        flush();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS))
+                log.warn("Not all records of {} got written at shutdown", dir.getName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Changes after shutDown (e.g. by a shutdown hook) get dropped
+    private void submit(Runnable task) {
+        if (executor.isShutdown())
+            log.warn("Write to {} after shutDown is ignored", dir.getName());
+        else
+            executor.submit(task);
+    }
+
+    private File getRecordFile(String key) {
+        return new File(dir, toFileName(key) + RECORD_FILE_SUFFIX);
+    }
+
+    // Keys are ids or hashes, we only guard against characters which are not safe for file names.
+    private static String toFileName(String key) {
+        return key.replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+
+    // Runs on the writer thread
+    private void writeAtomically(File targetDir, File target, byte[] bytes) throws IOException {
+        if (!targetDir.exists() && !targetDir.mkdirs())
+            log.warn("make dir failed.\ndir=" + targetDir.getAbsolutePath());
+
+        long startTs = Metrics.nanoTime();
+        Path tempFile = new File(targetDir, target.getName() + TEMP_FILE_SUFFIX).toPath();
+        Files.write(tempFile, bytes);
+        try {
+            Files.move(tempFile, target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        numBytesWritten.addAndGet(bytes.length);
+        WRITE_TIMER.stop(startTs);
+        WRITE_SIZE_HISTOGRAM.record(bytes.length);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.util;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the submitted tasks one after another in submission order on a shared executor. Many SerialExecutors can
+ * share a small thread pool while each of them behaves like a single thread.
+ */
+@Slf4j
+public class SerialExecutor implements Executor {
+    private final Executor executor;
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private boolean isRunning;
+
+    public SerialExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public synchronized void execute(Runnable task) {
+        tasks.add(task);
+        if (!isRunning)
+            scheduleNext();
+    }
+
+    public synchronized int getNumPendingTasks() {
+        return tasks.size();
+    }
+
+    private synchronized void scheduleNext() {
+        Runnable next = tasks.poll();
+        isRunning = next != null;
+        if (next != null) {
+            executor.execute(() -> {
+                try {
+                    next.run();
+                } catch (Throwable t) {
+                    log.error("Task of serial executor failed", t);
+                } finally {
+                    scheduleNext();
+                }
+            });
+        }
+    }
+}
@@ -17,6 +17,7 @@
 
 package bisq.core.arbitration;
 
+import bisq.core.crypto.SignatureVerificationCache;
 import bisq.core.user.User;
 
 import bisq.network.p2p.NodeAddress;
@@ -55,7 +56,7 @@ public class ArbitratorManagerTest {
         User user = mock(User.class);
         ArbitratorService arbitratorService = mock(ArbitratorService.class);
 
-        ArbitratorManager manager = new ArbitratorManager(null, arbitratorService, user, null, null, false);
+        ArbitratorManager manager = new ArbitratorManager(null, arbitratorService, user, null, null, new SignatureVerificationCache(), false);
 
         ArrayList<String> languagesOne = new ArrayList<String>() {{
             add("en");
@@ -91,7 +92,7 @@ public class ArbitratorManagerTest {
         User user = mock(User.class);
         ArbitratorService arbitratorService = mock(ArbitratorService.class);
 
-        ArbitratorManager manager = new ArbitratorManager(null, arbitratorService, user, null, null, false);
+        ArbitratorManager manager = new ArbitratorManager(null, arbitratorService, user, null, null, new SignatureVerificationCache(), false);
 
         ArrayList<String> languagesOne = new ArrayList<String>() {{
             add("en");
@@ -0,0 +1,179 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.arbitration;
+
+import bisq.core.arbitration.messages.DisputeCommunicationMessage;
+import bisq.core.trade.Contract;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.crypto.PubKeyRing;
+
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JMockit.class)
+public class DisputeListTest {
+    private static final NodeAddress BUYER_NODE_ADDRESS = new NodeAddress("buyer", 9999);
+    private static final NodeAddress SELLER_NODE_ADDRESS = new NodeAddress("seller", 9999);
+
+    @Mocked
+    private Contract contract;
+    @Mocked
+    private PubKeyRing pubKeyRing;
+
+    private DisputeList disputeList;
+
+    @Before
+    public void setup() {
+        new Expectations() {{
+            contract.getBuyerNodeAddress();
+            result = BUYER_NODE_ADDRESS;
+            minTimes = 0;
+            contract.getSellerNodeAddress();
+            result = SELLER_NODE_ADDRESS;
+            minTimes = 0;
+        }};
+
+        disputeList = new DisputeList(null, null);
+    }
+
+    @Test
+    public void testCreateId() {
+        Dispute dispute = createDispute("tradeId", 1);
+        assertEquals(Dispute.createId("tradeId", 1), dispute.getId());
+    }
+
+    @Test
+    public void testFindDispute() {
+        Dispute dispute1 = createDispute("tradeId1", 1);
+        Dispute dispute2 = createDispute("tradeId1", 2);
+        Dispute dispute3 = createDispute("tradeId2", 1);
+        disputeList.add(dispute1);
+        disputeList.add(dispute2);
+        disputeList.add(dispute3);
+
+        assertSame(dispute1, disputeList.findDispute("tradeId1", 1).orElse(null));
+        assertSame(dispute2, disputeList.findDispute("tradeId1", 2).orElse(null));
+        assertSame(dispute3, disputeList.findDispute("tradeId2", 1).orElse(null));
+        assertFalse(disputeList.findDispute("tradeId2", 2).isPresent());
+
+        assertEquals(2, disputeList.getDisputesByTradeId("tradeId1").size());
+        assertEquals(1, disputeList.getDisputesByTradeId("tradeId2").size());
+        assertTrue(disputeList.getDisputesByTradeId("tradeId3").isEmpty());
+
+        assertTrue(disputeList.contains(dispute1));
+        assertFalse(disputeList.add(dispute1));
+        assertEquals(3, disputeList.size());
+
+        disputeList.remove(dispute1);
+        assertFalse(disputeList.contains(dispute1));
+        assertFalse(disputeList.findDispute("tradeId1", 1).isPresent());
+        assertEquals(1, disputeList.getDisputesByTradeId("tradeId1").size());
+        assertSame(dispute2, disputeList.getDisputesByTradeId("tradeId1").get(0));
+    }
+
+    @Test
+    public void testMessageIndexes() {
+        Dispute dispute = createDispute("tradeId", 1);
+        DisputeCommunicationMessage message1 = createMessage("tradeId");
+        dispute.addDisputeCommunicationMessage(message1);
+        disputeList.add(dispute);
+
+        assertSame(message1, disputeList.findMessageByUid(message1.getUid()));
+        assertSame(dispute, disputeList.findDisputeByMessageUid(message1.getUid()));
+
+        // Messages added after the dispute was added are indexed as well
+        DisputeCommunicationMessage message2 = createMessage("tradeId");
+        dispute.addDisputeCommunicationMessage(message2);
+        assertSame(message2, disputeList.findMessageByUid(message2.getUid()));
+        assertSame(dispute, disputeList.findDisputeByMessageUid(message2.getUid()));
+
+        disputeList.remove(dispute);
+        assertNull(disputeList.findMessageByUid(message1.getUid()));
+        assertNull(disputeList.findDisputeByMessageUid(message2.getUid()));
+
+        // A removed dispute is not tracked anymore
+        DisputeCommunicationMessage message3 = createMessage("tradeId");
+        dispute.addDisputeCommunicationMessage(message3);
+        assertNull(disputeList.findMessageByUid(message3.getUid()));
+    }
+
+    @Test
+    public void testNumDisputesByNodeAddress() {
+        Dispute dispute1 = createDispute("tradeId1", 1);
+        Dispute dispute2 = createDispute("tradeId2", 1);
+        disputeList.add(dispute1);
+        disputeList.add(dispute2);
+
+        assertEquals(2, disputeList.getNumDisputesByBuyerNodeAddress(BUYER_NODE_ADDRESS));
+        assertEquals(2, disputeList.getNumDisputesBySellerNodeAddress(SELLER_NODE_ADDRESS));
+        assertEquals(0, disputeList.getNumDisputesByBuyerNodeAddress(SELLER_NODE_ADDRESS));
+
+        disputeList.remove(dispute1);
+        assertEquals(1, disputeList.getNumDisputesByBuyerNodeAddress(BUYER_NODE_ADDRESS));
+        assertEquals(1, disputeList.getNumDisputesBySellerNodeAddress(SELLER_NODE_ADDRESS));
+
+        disputeList.remove(dispute2);
+        assertEquals(0, disputeList.getNumDisputesByBuyerNodeAddress(BUYER_NODE_ADDRESS));
+        assertEquals(0, disputeList.getNumDisputesBySellerNodeAddress(SELLER_NODE_ADDRESS));
+    }
+
+    @Test
+    public void testIndexesFollowChangesOfTheList() {
+        Dispute dispute1 = createDispute("tradeId1", 1);
+        Dispute dispute2 = createDispute("tradeId2", 1);
+        DisputeCommunicationMessage message = createMessage("tradeId2");
+        dispute2.addDisputeCommunicationMessage(message);
+
+        // The list can be changed by the getter as well
+        disputeList.getList().add(dispute1);
+        disputeList.getList().set(0, dispute2);
+
+        assertFalse(disputeList.findDispute("tradeId1", 1).isPresent());
+        assertSame(dispute2, disputeList.findDispute("tradeId2", 1).orElse(null));
+        assertSame(dispute2, disputeList.findDisputeByMessageUid(message.getUid()));
+        assertEquals(1, disputeList.getNumDisputesByBuyerNodeAddress(BUYER_NODE_ADDRESS));
+
+        disputeList.getList().clear();
+        assertFalse(disputeList.findDispute("tradeId2", 1).isPresent());
+        assertNull(disputeList.findMessageByUid(message.getUid()));
+        assertEquals(0, disputeList.getNumDisputesBySellerNodeAddress(SELLER_NODE_ADDRESS));
+    }
+
+    private Dispute createDispute(String tradeId, int traderId) {
+        return new Dispute(disputeList, tradeId, traderId, true, true, pubKeyRing, 0, contract,
+                null, null, null, null, null, "contractAsJson", null, null, pubKeyRing, false);
+    }
+
+    private DisputeCommunicationMessage createMessage(String tradeId) {
+        return new DisputeCommunicationMessage(tradeId, 1, true, "message", new NodeAddress("localhost", 9999));
+    }
+}
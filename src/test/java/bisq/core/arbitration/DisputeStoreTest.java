@@ -0,0 +1,227 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.arbitration;
+
+import bisq.core.arbitration.messages.DisputeCommunicationMessage;
+import bisq.core.proto.persistable.CorePersistenceProtoResolver;
+import bisq.core.trade.Contract;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.UserThread;
+import bisq.common.crypto.Hash;
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.storage.FileUtil;
+import bisq.common.storage.Storage;
+import bisq.common.util.Utilities;
+
+import io.bisq.generated.protobuffer.PB;
+
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JMockit.class)
+public class DisputeStoreTest {
+    private static final byte[] CONTENT_1 = "content 1".getBytes();
+    private static final byte[] CONTENT_2 = "content 2".getBytes();
+
+    // The contract and the key rings are not relevant for the persistence of the disputes
+    @Mocked
+    private Contract contract;
+    @Mocked
+    private PubKeyRing pubKeyRing;
+
+    private File storageDir;
+    private CorePersistenceProtoResolver persistenceProtoResolver;
+
+    @Before
+    public void setup() throws IOException {
+        new Expectations() {{
+            contract.toProtoMessage();
+            result = PB.Contract.getDefaultInstance();
+            minTimes = 0;
+            pubKeyRing.toProtoMessage();
+            result = PB.PubKeyRing.getDefaultInstance();
+            minTimes = 0;
+        }};
+
+        storageDir = Files.createTempDirectory("DisputeStoreTest").toFile();
+        persistenceProtoResolver = new CorePersistenceProtoResolver(null, null, storageDir);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(storageDir);
+    }
+
+    @Test
+    public void testMigrationFromDisputeListFile() throws IOException, InterruptedException {
+        Dispute dispute = createDispute(null, "tradeId", new Attachment("file", CONTENT_1));
+        PB.PersistableEnvelope legacy = PB.PersistableEnvelope.newBuilder()
+                .setDisputeList(PB.DisputeList.newBuilder().addDispute(dispute.toProtoMessage()))
+                .build();
+        File legacyFile = new File(storageDir, "DisputeList");
+        try (FileOutputStream outputStream = new FileOutputStream(legacyFile)) {
+            legacy.writeDelimitedTo(outputStream);
+        }
+
+        DisputeList migrated = readDisputeList();
+        assertEquals(1, migrated.size());
+        // The migrated records are queued up on the UserThread
+        awaitUserThread();
+        migrated.shutDown();
+        // We keep the old file as backup
+        assertTrue(legacyFile.exists());
+
+        DisputeList reloaded = readDisputeList();
+        assertEquals(1, reloaded.size());
+        Dispute reloadedDispute = reloaded.getList().get(0);
+        assertEquals(dispute.getId(), reloadedDispute.getId());
+        assertArrayEquals(CONTENT_1, getAttachment(reloadedDispute).getBytes());
+        assertTrue(hasBlob(CONTENT_1));
+        reloaded.shutDown();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        DisputeList disputeList = readDisputeList();
+        Attachment attachment = new Attachment("file", CONTENT_1);
+        Dispute dispute = createDispute(disputeList, "tradeId", attachment);
+        disputeList.add(dispute);
+        dispute.setIsClosed(true);
+        disputeList.shutDown();
+
+        DisputeList reloaded = readDisputeList();
+        assertEquals(1, reloaded.size());
+        Dispute reloadedDispute = reloaded.getList().get(0);
+        assertEquals(dispute.getId(), reloadedDispute.getId());
+        assertTrue(reloadedDispute.isClosed());
+        assertEquals("message", reloadedDispute.getDisputeCommunicationMessages().get(0).getMessage());
+        // Equality must not need the bytes of the stored attachment
+        Attachment reloadedAttachment = getAttachment(reloadedDispute);
+        assertEquals(attachment, reloadedAttachment);
+        assertFalse(reloadedAttachment.toString().contains("loaded=true"));
+        assertArrayEquals(CONTENT_1, reloadedAttachment.getBytes());
+        reloaded.shutDown();
+    }
+
+    @Test
+    public void testCorruptedRecord() throws IOException {
+        DisputeList disputeList = readDisputeList();
+        Dispute dispute1 = createDispute(disputeList, "tradeId1", new Attachment("file", CONTENT_1));
+        Dispute dispute2 = createDispute(disputeList, "tradeId2", new Attachment("file", CONTENT_2));
+        disputeList.add(dispute1);
+        disputeList.add(dispute2);
+        disputeList.shutDown();
+
+        File recordFile = new File(new File(storageDir, "disputes"), dispute1.getId() + ".record");
+        assertTrue(recordFile.exists());
+        Files.write(recordFile.toPath(), new byte[]{0, 1, 2, 3});
+
+        DisputeList reloaded = readDisputeList();
+        assertEquals(1, reloaded.size());
+        assertEquals(dispute2.getId(), reloaded.getList().get(0).getId());
+        reloaded.shutDown();
+        assertTrue(new File(recordFile.getParentFile(), recordFile.getName() + "_corrupted").exists());
+        // The attachment of the corrupted record must not be removed, we might be able to recover the record
+        assertTrue(hasBlob(CONTENT_1));
+
+        // Also not at the next start
+        readDisputeList().shutDown();
+        assertTrue(hasBlob(CONTENT_1));
+    }
+
+    @Test
+    public void testUnreferencedBlobsAreRemoved() {
+        DisputeList disputeList = readDisputeList();
+        Dispute dispute1 = createDispute(disputeList, "tradeId1", new Attachment("file", CONTENT_1));
+        Dispute dispute2 = createDispute(disputeList, "tradeId2", new Attachment("file", CONTENT_2));
+        disputeList.add(dispute1);
+        disputeList.add(dispute2);
+        disputeList.shutDown();
+        assertTrue(hasBlob(CONTENT_1));
+        assertTrue(hasBlob(CONTENT_2));
+
+        DisputeList reloaded = readDisputeList();
+        reloaded.remove(reloaded.getList().stream()
+                .filter(dispute -> dispute.getId().equals(dispute1.getId()))
+                .findAny()
+                .orElse(null));
+        reloaded.shutDown();
+        // Blobs are cleaned up at startup
+        assertTrue(hasBlob(CONTENT_1));
+
+        readDisputeList().shutDown();
+        assertFalse(hasBlob(CONTENT_1));
+        assertTrue(hasBlob(CONTENT_2));
+    }
+
+    private static void awaitUserThread() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        UserThread.execute(latch::countDown);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    private DisputeList readDisputeList() {
+        DisputeList disputeList = new DisputeList(new Storage<>(storageDir, persistenceProtoResolver),
+                new DisputeStore(storageDir, persistenceProtoResolver));
+        disputeList.readPersisted();
+        return disputeList;
+    }
+
+    private Dispute createDispute(DisputeList disputeList, String tradeId, Attachment attachment) {
+        Dispute dispute = new Dispute(disputeList, tradeId, 1, true, true, pubKeyRing, 0, contract,
+                null, null, null, null, null, "contractAsJson", null, null, pubKeyRing, false);
+        DisputeCommunicationMessage message = new DisputeCommunicationMessage(tradeId, 1, true, "message",
+                new NodeAddress("localhost", 9999));
+        message.addAllAttachments(Arrays.asList(attachment));
+        dispute.addDisputeCommunicationMessage(message);
+        return dispute;
+    }
+
+    private Attachment getAttachment(Dispute dispute) {
+        return dispute.getDisputeCommunicationMessages().get(0).getAttachments().get(0);
+    }
+
+    private boolean hasBlob(byte[] content) {
+        File blobsDir = new File(new File(storageDir, "disputes"), "blobs");
+        return new File(blobsDir, Utilities.bytesAsHexString(Hash.getSha256Hash(content))).exists();
+    }
+}
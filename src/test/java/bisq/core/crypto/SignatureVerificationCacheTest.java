@@ -0,0 +1,87 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.crypto;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SignatureVerificationCacheTest {
+    private SignatureVerificationCache cache;
+    private AtomicInteger numVerifications;
+
+    @Before
+    public void setup() {
+        cache = new SignatureVerificationCache();
+        numVerifications = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() {
+        cache.shutDown();
+    }
+
+    @Test
+    public void testVerifiesOnlyOnce() {
+        assertTrue(verify(new byte[]{1}, new byte[]{2}, "sig", true));
+        assertTrue(verify(new byte[]{1}, new byte[]{2}, "sig", true));
+        assertEquals(1, numVerifications.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testCachesInvalidResult() {
+        assertFalse(verify(new byte[]{1}, new byte[]{2}, "sig", false));
+        assertFalse(verify(new byte[]{1}, new byte[]{2}, "sig", true));
+        assertEquals(1, numVerifications.get());
+    }
+
+    @Test
+    public void testChangedEntryGetsVerified() {
+        verify(new byte[]{1}, new byte[]{2}, "sig", true);
+        assertFalse(verify(new byte[]{1}, new byte[]{3}, "sig", false));
+        assertFalse(verify(new byte[]{1}, new byte[]{2}, "otherSig", false));
+        assertFalse(verify(new byte[]{4}, new byte[]{2}, "sig", false));
+        assertEquals(4, numVerifications.get());
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void testVerifyInParallelIsIgnoredAfterShutDown() throws InterruptedException {
+        cache.shutDown();
+        cache.verifyInParallel(Arrays.asList(1, 2, 3), item -> numVerifications.incrementAndGet(), () -> {
+        });
+        Thread.sleep(100);
+        assertEquals(0, numVerifications.get());
+    }
+
+    private boolean verify(byte[] pubKey, byte[] data, String signature, boolean result) {
+        return cache.verify(pubKey, data, signature, () -> {
+            numVerifications.incrementAndGet();
+            return result;
+        });
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.node.parser;
+
+import bisq.core.dao.node.parser.exceptions.BlockNotConnectingException;
+import bisq.core.dao.state.BsqState;
+import bisq.core.dao.state.BsqStateHash;
+import bisq.core.dao.state.BsqStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.blockchain.RawBlock;
+import bisq.core.dao.state.period.CycleService;
+import bisq.core.dao.state.period.PeriodService;
+
+import java.io.File;
+
+import java.lang.management.ManagementFactory;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Wires up the parser with the state services like the DaoSetup does, so a chain can be parsed from the genesis block on
+ * including the cycles which are required for the phase checks of the governance txs.
+ * Can be run from the command line to create a chain file with the SyntheticChainGenerator and to replay it:
+ * <pre>
+ * generate &lt;file&gt; &lt;numBlocks&gt; [bsqTxsPerBlock] [nonBsqTxsPerBlock] [maxChainLength] [seed]
+ * replay &lt;file&gt; [runs]
+ * </pre>
+ * The replay reports the throughput, the allocated memory and the hash of the resulting state. The hash must be the
+ * same for all runs and should only change with changes of the parser rules.
+ */
+public class ChainReplay {
+    @Getter
+    private final BsqStateService bsqStateService;
+    @Getter
+    private final BlockParser blockParser;
+
+    public ChainReplay(GenesisTxInfo genesisTxInfo) {
+        this(new BsqState(), genesisTxInfo);
+    }
+
+    public ChainReplay(BsqState bsqState, GenesisTxInfo genesisTxInfo) {
+        bsqStateService = new BsqStateService(bsqState, genesisTxInfo);
+        bsqStateService.start();
+
+        CycleService cycleService = new CycleService(bsqStateService, genesisTxInfo.getGenesisBlockHeight());
+        cycleService.addListeners();
+        cycleService.start();
+
+        blockParser = new BlockParser(new TxParser(new PeriodService(bsqStateService), bsqStateService),
+                bsqStateService);
+    }
+
+    public void parseBlocks(List<RawBlock> rawBlocks) throws BlockNotConnectingException {
+        for (RawBlock rawBlock : rawBlocks) {
+            blockParser.parseBlock(rawBlock);
+        }
+    }
+
+    // Hash maintained by the BsqStateService while parsing
+    public String getStateHash() {
+        return bsqStateService.getStateHash().map(BsqStateHash::getHashAsString).orElse("");
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Command line
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && args[0].equals("generate")) {
+            generate(new File(args[1]),
+                    Integer.parseInt(args[2]),
+                    args.length > 3 ? Integer.parseInt(args[3]) : 20,
+                    args.length > 4 ? Integer.parseInt(args[4]) : 40,
+                    args.length > 5 ? Integer.parseInt(args[5]) : 24,
+                    args.length > 6 ? Long.parseLong(args[6]) : 1);
+        } else if (args.length >= 2 && args[0].equals("replay")) {
+            replay(new File(args[1]), args.length > 2 ? Integer.parseInt(args[2]) : 1);
+        } else {
+            System.err.println("Usage:\n" +
+                    "  generate <file> <numBlocks> [bsqTxsPerBlock] [nonBsqTxsPerBlock] [maxChainLength] [seed]\n" +
+                    "  replay <file> [runs]");
+            System.exit(1);
+        }
+    }
+
+    private static void generate(File file, int numBlocks, int bsqTxsPerBlock, int nonBsqTxsPerBlock,
+                                 int maxChainLength, long seed) throws Exception {
+        SyntheticChainGenerator generator = new SyntheticChainGenerator(seed, bsqTxsPerBlock, nonBsqTxsPerBlock,
+                maxChainLength);
+        new SyntheticChainFile(generator.getGenesisTxInfo(), generator.generate(numBlocks)).write(file);
+        System.out.println("Wrote " + numBlocks + " blocks with " + generator.getNumBsqTxs() + " BSQ txs to " +
+                file + ". Txs by type: " + generator.getNumTxsByType());
+    }
+
+    private static void replay(File file, int runs) throws Exception {
+        // We load all blocks before measuring so that reading the file is not part of the result
+        SyntheticChainFile chainFile = SyntheticChainFile.read(file);
+        List<RawBlock> rawBlocks = chainFile.getRawBlocks();
+        long numTxs = rawBlocks.stream().mapToLong(rawBlock -> rawBlock.getRawTxs().size()).sum();
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int run = 1; run <= runs; run++) {
+            ChainReplay chainReplay = new ChainReplay(chainFile.getGenesisTxInfo());
+            long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+            long startTs = System.nanoTime();
+            chainReplay.parseBlocks(rawBlocks);
+            double seconds = (System.nanoTime() - startTs) / 1e9;
+            double allocatedMb = (threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / 1e6;
+
+            System.out.println(String.format("Run %d: %d blocks, %d txs in %.2f s, %.1f blocks/s, %.0f txs/s, " +
+                            "allocated %.1f MB (%.1f MB/s), state hash %s",
+                    run, rawBlocks.size(), numTxs, seconds, rawBlocks.size() / seconds, numTxs / seconds,
+                    allocatedMb, allocatedMb / seconds, chainReplay.getStateHash()));
+        }
+    }
+}
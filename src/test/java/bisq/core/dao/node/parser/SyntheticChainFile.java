@@ -0,0 +1,96 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.node.parser;
+
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.blockchain.RawBlock;
+
+import io.bisq.generated.protobuffer.PB;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import lombok.Getter;
+
+/**
+ * Stores a generated chain so that the same blocks can be replayed across runs and versions without depending on the
+ * generator. The file is gzipped and contains a small header followed by the length delimited protobuf messages of
+ * the RawBlocks.
+ */
+public class SyntheticChainFile {
+    private static final int MAGIC = 0x42535143;
+    private static final int VERSION = 1;
+
+    @Getter
+    private final GenesisTxInfo genesisTxInfo;
+    @Getter
+    private final List<RawBlock> rawBlocks;
+
+    public SyntheticChainFile(GenesisTxInfo genesisTxInfo, List<RawBlock> rawBlocks) {
+        this.genesisTxInfo = genesisTxInfo;
+        this.rawBlocks = rawBlocks;
+    }
+
+    public void write(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(genesisTxInfo.getGenesisTxId());
+            out.writeInt(genesisTxInfo.getGenesisBlockHeight());
+            out.writeInt(rawBlocks.size());
+            for (RawBlock rawBlock : rawBlocks) {
+                rawBlock.toProtoMessage().writeDelimitedTo(out);
+            }
+        }
+    }
+
+    public static SyntheticChainFile read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(
+                new BufferedInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != MAGIC)
+                throw new IOException("File is not a synthetic chain file. file=" + file);
+            int version = in.readInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported synthetic chain file version. version=" + version);
+
+            GenesisTxInfo genesisTxInfo = new GenesisTxInfo(in.readUTF(), in.readInt());
+            int numBlocks = in.readInt();
+            List<RawBlock> rawBlocks = new ArrayList<>(numBlocks);
+            for (int i = 0; i < numBlocks; i++) {
+                PB.BaseBlock proto = PB.BaseBlock.parseDelimitedFrom(in);
+                if (proto == null)
+                    throw new IOException("Unexpected end of file after " + i + " of " + numBlocks + " blocks");
+                rawBlocks.add(RawBlock.fromProto(proto));
+            }
+            return new SyntheticChainFile(genesisTxInfo, rawBlocks);
+        }
+    }
+}
@@ -0,0 +1,596 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.node.parser;
+
+import bisq.core.dao.bonding.BondingConsensus;
+import bisq.core.dao.bonding.lockup.LockupType;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.blockchain.OpReturnType;
+import bisq.core.dao.state.blockchain.RawBlock;
+import bisq.core.dao.state.blockchain.RawTx;
+import bisq.core.dao.state.blockchain.RawTxOutput;
+import bisq.core.dao.state.blockchain.TxInput;
+import bisq.core.dao.state.blockchain.TxType;
+import bisq.core.dao.state.governance.Param;
+import bisq.core.dao.state.period.DaoPhase;
+
+import bisq.common.app.Version;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import lombok.Getter;
+
+/**
+ * Creates a deterministic chain of RawBlocks starting with a genesis block. Used by tests, benchmarks and the
+ * ChainReplay tool which need more than a few hand built blocks.
+ * The BSQ txs are picked according to the TxMix. Proposals, compensation requests, blind votes and vote reveals are
+ * only created in their phase, every blind vote gets revealed in the vote reveal phase of the same cycle.
+ * Beside that we add txs without any BSQ and chains of transfers where each tx spends the first output of the
+ * previous tx in the same block.
+ * Issuance is not covered as it is not done by the parser but by the vote result.
+ */
+public class SyntheticChainGenerator {
+    public static final String GENESIS_TX_ID = String.format("%064x", 0);
+    public static final int GENESIS_BLOCK_HEIGHT = 100;
+    private static final int NUM_GENESIS_OUTPUTS = 20;
+    private static final long GENESIS_BLOCK_TIME = 1534800000000L;
+    private static final long BLOCK_INTERVAL_MS = 600_000;
+    private static final int MAX_LOCK_TIME = 20;
+
+    /**
+     * Relative weights of the BSQ tx types. Vote reveals are not part of the mix as they follow the blind votes.
+     */
+    public static class TxMix {
+        private final Map<TxType, Integer> weights = new EnumMap<>(TxType.class);
+
+        public static TxMix transfersOnly() {
+            return new TxMix().with(TxType.TRANSFER_BSQ, 1);
+        }
+
+        // Roughly what we expect on mainnet, with governance and bonding txs being rare
+        public static TxMix defaultMix() {
+            return new TxMix().with(TxType.TRANSFER_BSQ, 60)
+                    .with(TxType.PAY_TRADE_FEE, 25)
+                    .with(TxType.PROPOSAL, 3)
+                    .with(TxType.COMPENSATION_REQUEST, 3)
+                    .with(TxType.BLIND_VOTE, 5)
+                    .with(TxType.LOCKUP, 2)
+                    .with(TxType.UNLOCK, 2);
+        }
+
+        public TxMix with(TxType txType, int weight) {
+            weights.put(txType, weight);
+            return this;
+        }
+    }
+
+    private final Random random;
+    private final int bsqTxsPerBlock;
+    private final int nonBsqTxsPerBlock;
+    private final int maxChainLength;
+    private final TxMix txMix;
+    private final int cycleDuration;
+    // Unspent BSQ outputs created by the generator which can be spent by any BSQ tx
+    private final List<Utxo> bsqUtxos = new ArrayList<>();
+    // Stake outputs of the blind votes of the current cycle, waiting for their vote reveal
+    private final List<Utxo> blindVoteStakes = new ArrayList<>();
+    private final List<Utxo> lockups = new ArrayList<>();
+    // Unlock outputs get spendable once the lock time is over
+    private final List<Utxo> unlocking = new ArrayList<>();
+    @Getter
+    private final Map<TxType, Integer> numTxsByType = new EnumMap<>(TxType.class);
+    private int height = GENESIS_BLOCK_HEIGHT;
+    private long idCounter = 1;
+    private String previousBlockHash;
+    @Getter
+    private long totalBurntFee;
+    @Getter
+    private int numBsqTxs;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public SyntheticChainGenerator(long seed, int bsqTxsPerBlock, int nonBsqTxsPerBlock, int maxChainLength) {
+        this(seed, bsqTxsPerBlock, nonBsqTxsPerBlock, maxChainLength, TxMix.defaultMix());
+    }
+
+    /**
+     * @param seed              Seed for the random source, the same seed results in the same chain
+     * @param bsqTxsPerBlock    Number of BSQ txs in each block after the genesis block, not counting vote reveals
+     * @param nonBsqTxsPerBlock Number of txs without any BSQ input in each block
+     * @param maxChainLength    Max. number of transfers spending each others output in the same block
+     * @param txMix             Weights of the BSQ tx types
+     */
+    public SyntheticChainGenerator(long seed, int bsqTxsPerBlock, int nonBsqTxsPerBlock, int maxChainLength,
+                                   TxMix txMix) {
+        this.random = new Random(seed);
+        this.bsqTxsPerBlock = bsqTxsPerBlock;
+        this.nonBsqTxsPerBlock = nonBsqTxsPerBlock;
+        this.maxChainLength = maxChainLength;
+        this.txMix = txMix;
+        this.cycleDuration = Arrays.stream(DaoPhase.Phase.values())
+                .mapToInt(SyntheticChainGenerator::getPhaseDuration)
+                .sum();
+        // The genesis block is connected to a bitcoin block we don't know
+        previousBlockHash = nextId();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public GenesisTxInfo getGenesisTxInfo() {
+        return new GenesisTxInfo(GENESIS_TX_ID, GENESIS_BLOCK_HEIGHT);
+    }
+
+    public List<RawBlock> generate(int numBlocks) {
+        List<RawBlock> rawBlocks = new ArrayList<>(numBlocks);
+        for (int i = 0; i < numBlocks; i++) {
+            rawBlocks.add(nextBlock());
+        }
+        return rawBlocks;
+    }
+
+    public RawBlock nextBlock() {
+        String blockHash = nextId();
+        long time = GENESIS_BLOCK_TIME + (height - GENESIS_BLOCK_HEIGHT) * BLOCK_INTERVAL_MS;
+        List<RawTx> rawTxs = new ArrayList<>();
+        if (height == GENESIS_BLOCK_HEIGHT)
+            rawTxs.add(getGenesisTx(blockHash, time));
+        else
+            addTxs(rawTxs, blockHash, time);
+
+        RawBlock rawBlock = new RawBlock(height, time, blockHash, previousBlockHash, ImmutableList.copyOf(rawTxs));
+        previousBlockHash = blockHash;
+        height++;
+        return rawBlock;
+    }
+
+    // Value of all BSQ outputs which have not been spent or burnt
+    public long getUnspentBsqValue() {
+        return sum(bsqUtxos) + sum(blindVoteStakes) + sum(lockups) + sum(unlocking);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Block
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private RawTx getGenesisTx(String blockHash, long time) {
+        long totalSupply = GenesisTxInfo.GENESIS_TOTAL_SUPPLY.value;
+        long value = totalSupply / NUM_GENESIS_OUTPUTS;
+        List<RawTxOutput> outputs = new ArrayList<>();
+        for (int i = 0; i < NUM_GENESIS_OUTPUTS; i++) {
+            // Last output takes the rest so that the sum matches the total supply
+            long outputValue = i == NUM_GENESIS_OUTPUTS - 1 ? totalSupply - value * i : value;
+            outputs.add(getOutput(i, outputValue, GENESIS_TX_ID));
+            bsqUtxos.add(new Utxo(GENESIS_TX_ID, i, outputValue, 0));
+        }
+        numTxsByType.merge(TxType.GENESIS, 1, Integer::sum);
+        return new RawTx(GENESIS_TX_ID, height, blockHash, time,
+                ImmutableList.of(getBtcInput()), ImmutableList.copyOf(outputs));
+    }
+
+    private void addTxs(List<RawTx> rawTxs, String blockHash, long time) {
+        DaoPhase.Phase phase = getPhase(height);
+        releaseUnlockedOutputs();
+
+        int remaining = bsqTxsPerBlock;
+        while (remaining > 0 && !bsqUtxos.isEmpty()) {
+            if (maxChainLength > 1 && random.nextInt(4) == 0) {
+                int chainLength = Math.min(2 + random.nextInt(maxChainLength - 1), remaining);
+                Utxo input = removeRandom(bsqUtxos);
+                for (int i = 0; i < chainLength && input != null; i++) {
+                    input = addTransferTx(rawTxs, blockHash, time, input, 0, i < chainLength - 1);
+                    remaining--;
+                }
+            } else {
+                addBsqTx(rawTxs, blockHash, time, getRandomTxType(phase));
+                remaining--;
+            }
+        }
+
+        if (phase == DaoPhase.Phase.VOTE_REVEAL)
+            addVoteRevealTxs(rawTxs, blockHash, time);
+
+        // Stakes which did not get revealed can be spent like any other BSQ
+        if (phase != DaoPhase.Phase.BLIND_VOTE && phase != DaoPhase.Phase.VOTE_REVEAL && !blindVoteStakes.isEmpty()) {
+            bsqUtxos.addAll(blindVoteStakes);
+            blindVoteStakes.clear();
+        }
+
+        // Non BSQ txs are spread randomly over the block. As they don't depend on any BSQ tx the order of the BSQ txs
+        // is not affected.
+        for (int i = 0; i < nonBsqTxsPerBlock; i++) {
+            rawTxs.add(random.nextInt(rawTxs.size() + 1), getNonBsqTx(blockHash, time));
+        }
+    }
+
+    private TxType getRandomTxType(DaoPhase.Phase phase) {
+        List<TxType> candidates = new ArrayList<>();
+        int totalWeight = 0;
+        for (Map.Entry<TxType, Integer> entry : txMix.weights.entrySet()) {
+            if (isTxTypePossible(entry.getKey(), phase)) {
+                candidates.add(entry.getKey());
+                totalWeight += entry.getValue();
+            }
+        }
+        if (totalWeight > 0) {
+            int pick = random.nextInt(totalWeight);
+            for (TxType txType : candidates) {
+                pick -= txMix.weights.get(txType);
+                if (pick < 0)
+                    return txType;
+            }
+        }
+        return TxType.TRANSFER_BSQ;
+    }
+
+    private boolean isTxTypePossible(TxType txType, DaoPhase.Phase phase) {
+        switch (txType) {
+            case PROPOSAL:
+            case COMPENSATION_REQUEST:
+                return phase == DaoPhase.Phase.PROPOSAL;
+            case BLIND_VOTE:
+                return phase == DaoPhase.Phase.BLIND_VOTE;
+            case UNLOCK:
+                return !lockups.isEmpty();
+            case TRANSFER_BSQ:
+            case PAY_TRADE_FEE:
+            case LOCKUP:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void addBsqTx(List<RawTx> rawTxs, String blockHash, long time, TxType txType) {
+        switch (txType) {
+            case PAY_TRADE_FEE:
+                addTransferTx(rawTxs, blockHash, time, removeRandom(bsqUtxos), 50 + random.nextInt(500), false);
+                break;
+            case PROPOSAL:
+            case COMPENSATION_REQUEST:
+                addProposalTx(rawTxs, blockHash, time, txType);
+                break;
+            case BLIND_VOTE:
+                addBlindVoteTx(rawTxs, blockHash, time);
+                break;
+            case LOCKUP:
+                addLockupTx(rawTxs, blockHash, time);
+                break;
+            case UNLOCK:
+                addUnlockTx(rawTxs, blockHash, time);
+                break;
+            default:
+                addTransferTx(rawTxs, blockHash, time, removeRandom(bsqUtxos), 0, false);
+        }
+    }
+
+    // Each blind vote is revealed in a random block of the vote reveal phase
+    private void addVoteRevealTxs(List<RawTx> rawTxs, String blockHash, long time) {
+        int remainingBlocksInPhase = getFirstBlockOfPhase(DaoPhase.Phase.VOTE_REVEAL) +
+                getPhaseDuration(DaoPhase.Phase.VOTE_REVEAL) - getOffsetInCycle(height);
+        Iterator<Utxo> iterator = blindVoteStakes.iterator();
+        while (iterator.hasNext()) {
+            Utxo stake = iterator.next();
+            if (remainingBlocksInPhase <= 1 || random.nextInt(remainingBlocksInPhase) == 0) {
+                iterator.remove();
+                addVoteRevealTx(rawTxs, blockHash, time, stake);
+            }
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Txs
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Transfer or trade fee payment if fee > 0. Returns the output to be spent by the next tx in the chain or null.
+    private Utxo addTransferTx(List<RawTx> rawTxs, String blockHash, long time, Utxo input, long fee,
+                               boolean continueChain) {
+        String txId = nextId();
+        fee = Math.min(input.value, fee);
+        long available = input.value - fee;
+        List<Utxo> bsqOutputs = new ArrayList<>();
+        if (available >= 2) {
+            long first = 1 + (long) (random.nextDouble() * (available - 1));
+            bsqOutputs.add(new Utxo(txId, 0, first, 0));
+            bsqOutputs.add(new Utxo(txId, 1, available - first, 0));
+        } else if (available == 1) {
+            bsqOutputs.add(new Utxo(txId, 0, available, 0));
+        }
+        List<RawTxOutput> outputs = getOutputs(txId, bsqOutputs);
+        outputs.add(getBtcChangeOutput(outputs.size(), txId));
+        addTx(rawTxs, blockHash, time, txId, input, outputs, fee > 0 ? TxType.PAY_TRADE_FEE : TxType.TRANSFER_BSQ, fee);
+
+        Utxo next = null;
+        for (Utxo utxo : bsqOutputs) {
+            if (next == null && continueChain)
+                next = utxo;
+            else
+                bsqUtxos.add(utxo);
+        }
+        return next;
+    }
+
+    private void addProposalTx(List<RawTx> rawTxs, String blockHash, long time, TxType txType) {
+        long fee = Param.PROPOSAL_FEE.getDefaultValue();
+        Utxo input = removeRandom(bsqUtxos, fee + 1);
+        if (input == null) {
+            addTransferTx(rawTxs, blockHash, time, removeRandom(bsqUtxos), 0, false);
+            return;
+        }
+
+        String txId = nextId();
+        Utxo change = new Utxo(txId, 0, input.value - fee, 0);
+        List<RawTxOutput> outputs = getOutputs(txId, Collections.singletonList(change));
+        if (txType == TxType.COMPENSATION_REQUEST) {
+            // Issuance candidate, it must be the second output. The requested amount is in BSQ satoshi.
+            outputs.add(getOutput(1, 10_000 + random.nextInt(1_000_000), txId));
+            outputs.add(getBtcChangeOutput(2, txId));
+            outputs.add(getOpReturnOutput(3, txId, getOpReturnData(OpReturnType.COMPENSATION_REQUEST,
+                    Version.COMPENSATION_REQUEST, 22)));
+        } else {
+            outputs.add(getBtcChangeOutput(1, txId));
+            outputs.add(getOpReturnOutput(2, txId, getOpReturnData(OpReturnType.PROPOSAL, Version.PROPOSAL, 22)));
+        }
+        addTx(rawTxs, blockHash, time, txId, input, outputs, txType, fee);
+        bsqUtxos.add(change);
+    }
+
+    private void addBlindVoteTx(List<RawTx> rawTxs, String blockHash, long time) {
+        long fee = Param.BLIND_VOTE_FEE.getDefaultValue();
+        Utxo input = removeRandom(bsqUtxos, fee + 1);
+        if (input == null) {
+            addTransferTx(rawTxs, blockHash, time, removeRandom(bsqUtxos), 0, false);
+            return;
+        }
+
+        String txId = nextId();
+        long available = input.value - fee;
+        // The stake has to be the first output
+        Utxo stake = new Utxo(txId, 0, 1 + (long) (random.nextDouble() * (available - 1)), 0);
+        List<Utxo> bsqOutputs = new ArrayList<>();
+        bsqOutputs.add(stake);
+        if (available > stake.value)
+            bsqOutputs.add(new Utxo(txId, 1, available - stake.value, 0));
+        List<RawTxOutput> outputs = getOutputs(txId, bsqOutputs);
+        outputs.add(getBtcChangeOutput(outputs.size(), txId));
+        outputs.add(getOpReturnOutput(outputs.size(), txId, getOpReturnData(OpReturnType.BLIND_VOTE,
+                Version.BLIND_VOTE, 22)));
+        addTx(rawTxs, blockHash, time, txId, input, outputs, TxType.BLIND_VOTE, fee);
+
+        blindVoteStakes.add(stake);
+        bsqUtxos.addAll(bsqOutputs.subList(1, bsqOutputs.size()));
+    }
+
+    private void addVoteRevealTx(List<RawTx> rawTxs, String blockHash, long time, Utxo stake) {
+        String txId = nextId();
+        // The unlocked stake has to be the first output
+        Utxo unlockedStake = new Utxo(txId, 0, stake.value, 0);
+        List<RawTxOutput> outputs = getOutputs(txId, Collections.singletonList(unlockedStake));
+        outputs.add(getBtcChangeOutput(1, txId));
+        outputs.add(getOpReturnOutput(2, txId, getOpReturnData(OpReturnType.VOTE_REVEAL, Version.VOTE_REVEAL, 38)));
+        addTx(rawTxs, blockHash, time, txId, stake, outputs, TxType.VOTE_REVEAL, 0);
+        bsqUtxos.add(unlockedStake);
+    }
+
+    private void addLockupTx(List<RawTx> rawTxs, String blockHash, long time) {
+        Utxo input = removeRandom(bsqUtxos, 2);
+        if (input == null) {
+            addTransferTx(rawTxs, blockHash, time, removeRandom(bsqUtxos), 0, false);
+            return;
+        }
+
+        String txId = nextId();
+        int lockTime = 1 + random.nextInt(MAX_LOCK_TIME);
+        // The bonded amount has to be the first output
+        Utxo lockup = new Utxo(txId, 0, 1 + (long) (random.nextDouble() * (input.value - 1)), lockTime);
+        List<Utxo> bsqOutputs = new ArrayList<>();
+        bsqOutputs.add(lockup);
+        if (input.value > lockup.value)
+            bsqOutputs.add(new Utxo(txId, 1, input.value - lockup.value, 0));
+        List<RawTxOutput> outputs = getOutputs(txId, bsqOutputs);
+        outputs.add(getBtcChangeOutput(outputs.size(), txId));
+        outputs.add(getOpReturnOutput(outputs.size(), txId, getLockupOpReturnData(lockTime)));
+        addTx(rawTxs, blockHash, time, txId, input, outputs, TxType.LOCKUP, 0);
+
+        lockups.add(lockup);
+        bsqUtxos.addAll(bsqOutputs.subList(1, bsqOutputs.size()));
+    }
+
+    private void addUnlockTx(List<RawTx> rawTxs, String blockHash, long time) {
+        Utxo lockup = removeRandom(lockups);
+        String txId = nextId();
+        // The unlock output has to be the first output and must have the value of the lockup output
+        Utxo unlock = new Utxo(txId, 0, lockup.value, height + lockup.lockTime);
+        List<RawTxOutput> outputs = getOutputs(txId, Collections.singletonList(unlock));
+        outputs.add(getBtcChangeOutput(1, txId));
+        addTx(rawTxs, blockHash, time, txId, lockup, outputs, TxType.UNLOCK, 0);
+        unlocking.add(unlock);
+    }
+
+    private void addTx(List<RawTx> rawTxs, String blockHash, long time, String txId, Utxo input,
+                       List<RawTxOutput> outputs, TxType txType, long fee) {
+        rawTxs.add(new RawTx(txId, height, blockHash, time,
+                ImmutableList.of(new TxInput(input.txId, input.index, null), getBtcInput()),
+                ImmutableList.copyOf(outputs)));
+        totalBurntFee += fee;
+        numBsqTxs++;
+        numTxsByType.merge(txType, 1, Integer::sum);
+    }
+
+    private RawTx getNonBsqTx(String blockHash, long time) {
+        String txId = nextId();
+        return new RawTx(txId, height, blockHash, time,
+                ImmutableList.of(getBtcInput(), getBtcInput()),
+                ImmutableList.of(getOutput(0, 10_000 + random.nextInt(10_000_000), txId),
+                        getOutput(1, 10_000 + random.nextInt(1_000_000), txId)));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Outputs
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private List<RawTxOutput> getOutputs(String txId, List<Utxo> bsqOutputs) {
+        List<RawTxOutput> outputs = new ArrayList<>();
+        bsqOutputs.forEach(utxo -> outputs.add(getOutput(utxo.index, utxo.value, txId)));
+        return outputs;
+    }
+
+    // The value is always larger than any BSQ fee so it does not get interpreted as BSQ output
+    private RawTxOutput getBtcChangeOutput(int index, String txId) {
+        return getOutput(index, 10_000 + random.nextInt(1_000_000), txId);
+    }
+
+    private RawTxOutput getOutput(int index, long value, String txId) {
+        return new RawTxOutput(index, value, txId, null, "1" + Long.toHexString(random.nextLong()), null, height);
+    }
+
+    private RawTxOutput getOpReturnOutput(int index, String txId, byte[] opReturnData) {
+        return new RawTxOutput(index, 0, txId, null, null, opReturnData, height);
+    }
+
+    // Type and version followed by random bytes in place of the hashes
+    private byte[] getOpReturnData(OpReturnType opReturnType, byte version, int length) {
+        byte[] opReturnData = new byte[length];
+        random.nextBytes(opReturnData);
+        opReturnData[0] = opReturnType.getType();
+        opReturnData[1] = version;
+        return opReturnData;
+    }
+
+    private byte[] getLockupOpReturnData(int lockTime) {
+        byte[] hash = new byte[20];
+        random.nextBytes(hash);
+        try {
+            return BondingConsensus.getLockupOpReturnData(lockTime, LockupType.BONDED_ROLE, hash);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // Input connected to a tx outside of our chain
+    private TxInput getBtcInput() {
+        return new TxInput(nextId(), random.nextInt(3), null);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Utils
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void releaseUnlockedOutputs() {
+        Iterator<Utxo> iterator = unlocking.iterator();
+        while (iterator.hasNext()) {
+            Utxo utxo = iterator.next();
+            if (height >= utxo.lockTime) {
+                iterator.remove();
+                bsqUtxos.add(new Utxo(utxo.txId, utxo.index, utxo.value, 0));
+            }
+        }
+    }
+
+    private Utxo removeRandom(List<Utxo> utxos) {
+        int index = random.nextInt(utxos.size());
+        // We move the last element to the removed position to avoid shifting the list
+        Utxo utxo = utxos.get(index);
+        Utxo last = utxos.remove(utxos.size() - 1);
+        if (index < utxos.size())
+            utxos.set(index, last);
+        return utxo;
+    }
+
+    // Returns null if we did not find an output with at least minValue after a few tries
+    private Utxo removeRandom(List<Utxo> utxos, long minValue) {
+        for (int i = 0; i < 10 && !utxos.isEmpty(); i++) {
+            Utxo utxo = removeRandom(utxos);
+            if (utxo.value >= minValue)
+                return utxo;
+            utxos.add(utxo);
+        }
+        return null;
+    }
+
+    // Phases use the default durations from Param as the generated chain does not contain any param change
+    private DaoPhase.Phase getPhase(int height) {
+        int offset = getOffsetInCycle(height);
+        for (DaoPhase.Phase phase : DaoPhase.Phase.values()) {
+            int firstBlock = getFirstBlockOfPhase(phase);
+            if (offset >= firstBlock && offset < firstBlock + getPhaseDuration(phase))
+                return phase;
+        }
+        return DaoPhase.Phase.UNDEFINED;
+    }
+
+    private int getOffsetInCycle(int height) {
+        return (height - GENESIS_BLOCK_HEIGHT) % cycleDuration;
+    }
+
+    private int getFirstBlockOfPhase(DaoPhase.Phase phase) {
+        int firstBlock = 0;
+        for (int i = 0; i < phase.ordinal(); i++) {
+            firstBlock += getPhaseDuration(DaoPhase.Phase.values()[i]);
+        }
+        return firstBlock;
+    }
+
+    private static int getPhaseDuration(DaoPhase.Phase phase) {
+        return (int) Param.valueOf("PHASE_" + phase.name()).getDefaultValue();
+    }
+
+    private static long sum(List<Utxo> utxos) {
+        return utxos.stream().mapToLong(utxo -> utxo.value).sum();
+    }
+
+    private String nextId() {
+        return String.format("%064x", idCounter++);
+    }
+
+    private static final class Utxo {
+        private final String txId;
+        private final int index;
+        private final long value;
+        // Lock time for lockup outputs, unlock height for unlock outputs
+        private final int lockTime;
+
+        private Utxo(String txId, int index, long value, int lockTime) {
+            this.txId = txId;
+            this.index = index;
+            this.value = value;
+            this.lockTime = lockTime;
+        }
+    }
+}
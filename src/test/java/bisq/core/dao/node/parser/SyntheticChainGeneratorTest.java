@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.dao.node.parser;
+
+import bisq.core.dao.node.parser.exceptions.BlockNotConnectingException;
+import bisq.core.dao.state.BsqStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.blockchain.RawBlock;
+import bisq.core.dao.state.blockchain.Tx;
+import bisq.core.dao.state.blockchain.TxOutput;
+import bisq.core.dao.state.blockchain.TxType;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SyntheticChainGeneratorTest {
+
+    @Test
+    public void testParsedStateMatchesGeneratedChain() throws BlockNotConnectingException {
+        SyntheticChainGenerator generator = new SyntheticChainGenerator(1, 20, 30, 5);
+        ChainReplay chainReplay = new ChainReplay(generator.getGenesisTxInfo());
+        // Covers several cycles so that all governance txs get created
+        chainReplay.parseBlocks(generator.generate(100));
+        BsqStateService bsqStateService = chainReplay.getBsqStateService();
+
+        Map<TxType, Integer> numTxsByType = new EnumMap<>(TxType.class);
+        bsqStateService.getTxStream().map(Tx::getTxType).forEach(txType -> numTxsByType.merge(txType, 1, Integer::sum));
+        Assert.assertEquals(generator.getNumTxsByType(), numTxsByType);
+        Assert.assertEquals(generator.getNumBsqTxs() + 1, bsqStateService.getTxStream().count());
+        for (TxType txType : new TxType[]{TxType.TRANSFER_BSQ, TxType.PAY_TRADE_FEE, TxType.PROPOSAL,
+                TxType.COMPENSATION_REQUEST, TxType.BLIND_VOTE, TxType.VOTE_REVEAL, TxType.LOCKUP, TxType.UNLOCK}) {
+            Assert.assertTrue("Missing " + txType, numTxsByType.getOrDefault(txType, 0) > 0);
+        }
+
+        long unspentBsq = bsqStateService.getUnspentTxOutputs().stream().mapToLong(TxOutput::getValue).sum();
+        Assert.assertEquals(generator.getUnspentBsqValue(), unspentBsq);
+        Assert.assertEquals(generator.getTotalBurntFee(), bsqStateService.getTotalBurntFee());
+        Assert.assertEquals(GenesisTxInfo.GENESIS_TOTAL_SUPPLY.value, unspentBsq + generator.getTotalBurntFee());
+        Assert.assertEquals(numTxsByType.get(TxType.COMPENSATION_REQUEST).intValue(),
+                bsqStateService.getIssuanceCandidateTxOutputs().size());
+    }
+
+    @Test
+    public void testTransfersOnly() throws BlockNotConnectingException {
+        SyntheticChainGenerator generator = new SyntheticChainGenerator(2, 20, 0, 5,
+                SyntheticChainGenerator.TxMix.transfersOnly());
+        ChainReplay chainReplay = new ChainReplay(generator.getGenesisTxInfo());
+        chainReplay.parseBlocks(generator.generate(50));
+
+        Assert.assertTrue(chainReplay.getBsqStateService().getTxStream()
+                .allMatch(tx -> tx.getTxType() == TxType.GENESIS || tx.getTxType() == TxType.TRANSFER_BSQ));
+        Assert.assertEquals(0, chainReplay.getBsqStateService().getTotalBurntFee());
+    }
+
+    @Test
+    public void testReplayIsDeterministic() throws BlockNotConnectingException {
+        Assert.assertEquals(getStateHash(new SyntheticChainGenerator(3, 10, 10, 5)),
+                getStateHash(new SyntheticChainGenerator(3, 10, 10, 5)));
+        Assert.assertNotEquals(getStateHash(new SyntheticChainGenerator(3, 10, 10, 5)),
+                getStateHash(new SyntheticChainGenerator(4, 10, 10, 5)));
+    }
+
+    @Test
+    public void testChainFileRoundTrip() throws BlockNotConnectingException, IOException {
+        SyntheticChainGenerator generator = new SyntheticChainGenerator(5, 10, 10, 5);
+        List<RawBlock> rawBlocks = generator.generate(40);
+        File file = File.createTempFile("synthetic-chain", ".bin");
+        file.deleteOnExit();
+        new SyntheticChainFile(generator.getGenesisTxInfo(), rawBlocks).write(file);
+
+        SyntheticChainFile chainFile = SyntheticChainFile.read(file);
+        Assert.assertEquals(generator.getGenesisTxInfo().getGenesisTxId(), chainFile.getGenesisTxInfo().getGenesisTxId());
+        Assert.assertEquals(generator.getGenesisTxInfo().getGenesisBlockHeight(),
+                chainFile.getGenesisTxInfo().getGenesisBlockHeight());
+        Assert.assertEquals(rawBlocks, chainFile.getRawBlocks());
+
+        ChainReplay original = new ChainReplay(generator.getGenesisTxInfo());
+        original.parseBlocks(rawBlocks);
+        ChainReplay replayed = new ChainReplay(chainFile.getGenesisTxInfo());
+        replayed.parseBlocks(chainFile.getRawBlocks());
+        Assert.assertEquals(original.getStateHash(), replayed.getStateHash());
+    }
+
+    private static String getStateHash(SyntheticChainGenerator generator) throws BlockNotConnectingException {
+        ChainReplay chainReplay = new ChainReplay(generator.getGenesisTxInfo());
+        chainReplay.parseBlocks(generator.generate(60));
+        return chainReplay.getStateHash();
+    }
+}
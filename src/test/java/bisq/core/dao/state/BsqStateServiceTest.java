@@ -17,7 +17,18 @@
 
 package bisq.core.dao.state;
 
+import bisq.core.dao.node.parser.ChainReplay;
+import bisq.core.dao.node.parser.SyntheticChainGenerator;
+import bisq.core.dao.node.parser.exceptions.BlockNotConnectingException;
 import bisq.core.dao.state.blockchain.Block;
+import bisq.core.dao.state.blockchain.RawBlock;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.util.List;
+
 import org.junit.Test;
 
 import org.junit.Assert;
@@ -65,4 +76,90 @@ public class BsqStateServiceTest {
                 stateService.isBlockHashKnown("fakeblockhash3")
         );
     }
+
+    @Test
+    public void testStateHashChain() throws BlockNotConnectingException {
+        SyntheticChainGenerator generator = new SyntheticChainGenerator(1, 10, 10, 5);
+        List<RawBlock> rawBlocks = generator.generate(50);
+        ChainReplay chainReplay = new ChainReplay(generator.getGenesisTxInfo());
+        chainReplay.parseBlocks(rawBlocks.subList(0, 30));
+        BsqStateService stateService = chainReplay.getBsqStateService();
+
+        List<BsqStateHash> stateHashChain = stateService.getStateHashChain();
+        Assert.assertEquals(30, stateHashChain.size());
+        Assert.assertEquals(rawBlocks.get(29).getHeight(), stateService.getStateHash().get().getHeight());
+        Assert.assertEquals(stateHashChain.get(10), stateService.getStateHash(rawBlocks.get(10).getHeight()).get());
+        Assert.assertFalse(stateService.getStateHash(rawBlocks.get(30).getHeight()).isPresent());
+        Assert.assertNotEquals(stateHashChain.get(28).getHashAsString(), stateHashChain.get(29).getHashAsString());
+
+        // The hash chain is part of the snapshot and parsing can continue from a snapshot with the same result
+        BsqState snapshot = stateService.getClone();
+        Assert.assertEquals(stateHashChain, snapshot.getStateHashChain());
+        chainReplay.parseBlocks(rawBlocks.subList(30, 50));
+
+        ChainReplay fromSnapshot = new ChainReplay(generator.getGenesisTxInfo());
+        fromSnapshot.getBsqStateService().applySnapshot(snapshot);
+        fromSnapshot.parseBlocks(rawBlocks.subList(30, 50));
+        Assert.assertEquals(stateService.getStateHashChain(), fromSnapshot.getBsqStateService().getStateHashChain());
+    }
+
+    @Test
+    public void testStateHashChainSurvivesSerialization() throws BlockNotConnectingException,
+            InvalidProtocolBufferException {
+        SyntheticChainGenerator generator = new SyntheticChainGenerator(1, 10, 10, 5);
+        List<RawBlock> rawBlocks = generator.generate(40);
+        ChainReplay chainReplay = new ChainReplay(generator.getGenesisTxInfo());
+        chainReplay.parseBlocks(rawBlocks.subList(0, 20));
+        BsqStateService stateService = chainReplay.getBsqStateService();
+
+        // The chain is stored as unknown proto field, so we check it survives the way through the persisted bytes
+        byte[] bytes = ((PB.PersistableEnvelope) stateService.getClone().toProtoMessage()).toByteArray();
+        BsqState snapshot = (BsqState) BsqState.fromProto(PB.PersistableEnvelope.parseFrom(bytes).getBsqState());
+        Assert.assertEquals(stateService.getStateHashChain(), snapshot.getStateHashChain());
+        Assert.assertTrue(SnapshotManager.hasCompleteStateHashChain(snapshot, generator.getGenesisTxInfo().getGenesisBlockHeight()));
+
+        chainReplay.parseBlocks(rawBlocks.subList(20, 40));
+        ChainReplay fromSnapshot = new ChainReplay(generator.getGenesisTxInfo());
+        fromSnapshot.getBsqStateService().applySnapshot(snapshot);
+        fromSnapshot.parseBlocks(rawBlocks.subList(20, 40));
+        Assert.assertEquals(stateService.getStateHashChain(), fromSnapshot.getBsqStateService().getStateHashChain());
+    }
+
+    @Test
+    public void testSnapshotWithoutStateHashChainIsRejected() throws BlockNotConnectingException {
+        SyntheticChainGenerator generator = new SyntheticChainGenerator(1, 10, 10, 5);
+        List<RawBlock> rawBlocks = generator.generate(20);
+        ChainReplay chainReplay = new ChainReplay(generator.getGenesisTxInfo());
+        chainReplay.parseBlocks(rawBlocks);
+        int genesisHeight = generator.getGenesisTxInfo().getGenesisBlockHeight();
+
+        // A snapshot written by an older version has no state hash chain
+        BsqState snapshot = chainReplay.getBsqStateService().getClone();
+        snapshot.getStateHashChain().clear();
+        Assert.assertFalse(SnapshotManager.hasCompleteStateHashChain(snapshot, genesisHeight));
+
+        // A chain with a gap or not reaching the chain height is incomplete as well
+        snapshot = chainReplay.getBsqStateService().getClone();
+        snapshot.getStateHashChain().remove(5);
+        Assert.assertFalse(SnapshotManager.hasCompleteStateHashChain(snapshot, genesisHeight));
+        snapshot = chainReplay.getBsqStateService().getClone();
+        snapshot.getStateHashChain().remove(snapshot.getStateHashChain().size() - 1);
+        Assert.assertFalse(SnapshotManager.hasCompleteStateHashChain(snapshot, genesisHeight));
+
+        Assert.assertTrue(SnapshotManager.hasCompleteStateHashChain(chainReplay.getBsqStateService().getClone(), genesisHeight));
+    }
+
+    @Test
+    public void testStateHashDependsOnState() throws BlockNotConnectingException {
+        Assert.assertEquals(getStateHash(new SyntheticChainGenerator(1, 10, 10, 5)),
+                getStateHash(new SyntheticChainGenerator(1, 10, 10, 5)));
+        Assert.assertNotEquals(getStateHash(new SyntheticChainGenerator(1, 10, 10, 5)),
+                getStateHash(new SyntheticChainGenerator(2, 10, 10, 5)));
+    }
+
+    private static String getStateHash(SyntheticChainGenerator generator) throws BlockNotConnectingException {
+        ChainReplay chainReplay = new ChainReplay(generator.getGenesisTxInfo());
+        chainReplay.parseBlocks(generator.generate(20));
+        return chainReplay.getStateHash();
+    }
 }
@@ -0,0 +1,141 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTest {
+
+    @Before
+    public void setUp() {
+        Metrics.reset();
+        Metrics.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    @Test
+    public void testNothingIsRecordedIfDisabled() {
+        Metrics.setEnabled(false);
+        Counter counter = Metrics.counter("test.disabled.counter");
+        MetricTimer timer = Metrics.timer("test.disabled.timer");
+        counter.inc();
+        long startTs = Metrics.nanoTime();
+        timer.stop(startTs);
+        timer.record(1, TimeUnit.SECONDS);
+
+        assertEquals(0, startTs);
+        assertEquals(0, counter.getCount());
+        assertEquals(0, timer.getCount());
+    }
+
+    @Test
+    public void testTimerStartedWhileDisabledIsIgnored() {
+        Metrics.setEnabled(false);
+        long startTs = Metrics.nanoTime();
+        Metrics.setEnabled(true);
+        MetricTimer timer = Metrics.timer("test.timer");
+        timer.stop(startTs);
+        assertEquals(0, timer.getCount());
+
+        timer.stop(Metrics.nanoTime());
+        assertEquals(1, timer.getCount());
+    }
+
+    @Test
+    public void testHistogram() {
+        Histogram histogram = Metrics.histogram("test.histogram");
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(5050, histogram.getSum());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50.5, histogram.getMean(), 0.0001);
+        // 50 is in the bucket 32..63, 99 and 100 in the bucket 64..127 capped by the max
+        assertEquals(63, histogram.getPercentile(50));
+        assertEquals(100, histogram.getPercentile(99));
+        // Percentiles are at most a factor 2 off
+        assertTrue(histogram.getPercentile(90) >= 90 && histogram.getPercentile(90) <= 180);
+    }
+
+    @Test
+    public void testHistogramWithZeroAndNegativeValues() {
+        Histogram histogram = Metrics.histogram("test.histogram");
+        histogram.record(0);
+        histogram.record(-5);
+
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        Counter counter = Metrics.counter("test.concurrent.counter");
+        Histogram histogram = Metrics.histogram("test.concurrent.histogram");
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    counter.inc();
+                    histogram.record(j);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80000, counter.getCount());
+        assertEquals(80000, histogram.getCount());
+        assertEquals(9999, histogram.getMax());
+    }
+
+    @Test
+    public void testSnapshot() {
+        Metrics.counter("test.b.counter").add(3);
+        Metrics.timer("test.a.timer").record(2, TimeUnit.MILLISECONDS);
+
+        Map<String, Map<String, Object>> snapshot = Metrics.getSnapshot();
+        assertEquals(3L, snapshot.get("test.b.counter").get("count"));
+        assertEquals(1L, snapshot.get("test.a.timer").get("count"));
+        assertEquals(2d, (double) snapshot.get("test.a.timer").get("totalMs"), 0.0001);
+        // Sorted by name
+        List<String> names = new ArrayList<>(snapshot.keySet());
+        assertTrue(names.indexOf("test.a.timer") < names.indexOf("test.b.counter"));
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.monetary;
+
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.utils.ExchangeRate;
+import org.bitcoinj.utils.Fiat;
+
+import java.math.BigInteger;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ExchangeRateMathTest {
+    private static final int NUM_RUNS = 100_000;
+
+    @Test
+    public void testMultiplyHigh() {
+        Random random = new Random(1);
+        long[] edgeValues = {0, 1, -1, Long.MAX_VALUE, Long.MIN_VALUE, 0xFFFFFFFFL, -0xFFFFFFFFL};
+        for (long a : edgeValues) {
+            for (long b : edgeValues) {
+                assertMultiplyHigh(a, b);
+            }
+        }
+        for (int i = 0; i < NUM_RUNS; i++) {
+            assertMultiplyHigh(random.nextLong(), random.nextLong());
+        }
+    }
+
+    @Test
+    public void testMultiplyDivide() {
+        Random random = new Random(2);
+        for (int i = 0; i < NUM_RUNS; i++) {
+            // Mix of small values (long path) and full range values (BigInteger fallback)
+            long a = i % 2 == 0 ? random.nextLong() : random.nextInt();
+            long b = i % 3 == 0 ? random.nextLong() : random.nextInt();
+            long c = random.nextInt();
+            if (c == 0)
+                continue;
+
+            BigInteger expected = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).divide(BigInteger.valueOf(c));
+            if (expected.bitLength() < 64) {
+                assertEquals(expected.longValue(), ExchangeRateMath.multiplyDivide(a, b, c));
+            } else {
+                try {
+                    ExchangeRateMath.multiplyDivide(a, b, c);
+                    fail("Expected ArithmeticException");
+                } catch (ArithmeticException ignore) {
+                }
+            }
+        }
+
+        try {
+            ExchangeRateMath.multiplyDivide(Long.MIN_VALUE, 1, -1);
+            fail("Expected ArithmeticException");
+        } catch (ArithmeticException ignore) {
+        }
+    }
+
+    @Test
+    public void testPriceConversionsMatchExchangeRate() {
+        Random random = new Random(3);
+        for (int i = 0; i < NUM_RUNS; i++) {
+            // Up to 1 000 000 fiat per BTC and up to 100 000 BTC
+            Fiat fiat = Fiat.valueOf("USD", 1 + (long) (random.nextDouble() * 10_000_000_000L));
+            Coin amount = Coin.valueOf((long) (random.nextDouble() * 10_000_000_000_000L));
+            Price price = new Price(fiat);
+            ExchangeRate exchangeRate = new ExchangeRate(fiat);
+
+            Fiat expectedVolume = exchangeRate.coinToFiat(amount);
+            Volume volume = price.getVolumeByAmount(amount);
+            assertEquals(expectedVolume.value, volume.getValue());
+            assertEquals(exchangeRate.fiatToCoin(expectedVolume), price.getAmountByVolume(volume));
+        }
+    }
+
+    // {altcoin price in BTC, amount, expected volume, expected amount by that volume}. The expected values are
+    // computed with the BigInteger based formulas AltcoinExchangeRate used before it delegated to ExchangeRateMath:
+    // volume = 1 BTC * amount / price and amount = price * volume / 1 BTC, both truncated.
+    private static final long[][] ALTCOIN_CONVERSIONS = {
+            {1L, 1L, 100000000L, 1L},
+            {1L, 100000000L, 10000000000000000L, 100000000L},
+            {75L, 100000000L, 133333333333333L, 99999999L},
+            {1234567L, 100000000L, 8100005913L, 99999999L},
+            {1234567L, 12345678L, 1000000648L, 12345677L},
+            {1000000L, 1L, 100L, 1L},
+            {99999999L, 250000000L, 250000002L, 249999999L},
+            {10000000000L, 10000000000000L, 100000000000L, 10000000000000L},
+            {123456789L, 987654321L, 800000007L, 987654320L},
+            {3L, 7L, 233333333L, 6L},
+            {100000000L, 1L, 1L, 1L},
+            {5000000L, 1999999999L, 39999999980L, 1999999999L},
+    };
+
+    @Test
+    public void testAltcoinPriceConversions() {
+        for (long[] conversion : ALTCOIN_CONVERSIONS) {
+            Price price = new Price(Altcoin.valueOf("XMR", conversion[0]));
+            Volume volume = price.getVolumeByAmount(Coin.valueOf(conversion[1]));
+            assertEquals(conversion[2], volume.getValue());
+            assertEquals(conversion[3], price.getAmountByVolume(volume).value);
+
+            AltcoinExchangeRate exchangeRate = new AltcoinExchangeRate(Altcoin.valueOf("XMR", conversion[0]));
+            assertEquals(conversion[2], exchangeRate.coinToAltcoin(Coin.valueOf(conversion[1])).value);
+            assertEquals(conversion[3], exchangeRate.altcoinToCoin(Altcoin.valueOf("XMR", conversion[2])).value);
+        }
+
+        // 1 BTC * 1000 BTC / 1 does not fit into a long
+        try {
+            new Price(Altcoin.valueOf("XMR", 1)).getVolumeByAmount(Coin.valueOf(100_000_000_000L));
+            fail("Expected ArithmeticException");
+        } catch (ArithmeticException ignore) {
+        }
+    }
+
+    @Test
+    public void testAltcoinPriceConversionsMatchBigIntegerFormula() {
+        Random random = new Random(4);
+        BigInteger coinValue = BigInteger.valueOf(Coin.COIN.value);
+        for (int i = 0; i < NUM_RUNS; i++) {
+            // Altcoin prices are in BTC
+            long priceValue = 1 + (long) (random.nextDouble() * 10_000_000_000L);
+            long amountValue = (long) (random.nextDouble() * 10_000_000_000_000L);
+            Price price = new Price(Altcoin.valueOf("XMR", priceValue));
+
+            // The formulas of AltcoinExchangeRate before it used ExchangeRateMath
+            BigInteger expectedVolume = coinValue.multiply(BigInteger.valueOf(amountValue))
+                    .divide(BigInteger.valueOf(priceValue));
+            if (expectedVolume.bitLength() >= 64) {
+                try {
+                    price.getVolumeByAmount(Coin.valueOf(amountValue));
+                    fail("Expected ArithmeticException");
+                } catch (ArithmeticException ignore) {
+                }
+                continue;
+            }
+            BigInteger expectedAmount = BigInteger.valueOf(priceValue).multiply(expectedVolume).divide(coinValue);
+
+            Volume volume = price.getVolumeByAmount(Coin.valueOf(amountValue));
+            assertEquals(expectedVolume.longValue(), volume.getValue());
+            assertEquals(expectedAmount.longValue(), price.getAmountByVolume(volume).value);
+        }
+    }
+
+    private static void assertMultiplyHigh(long a, long b) {
+        long expected = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).shiftRight(64).longValue();
+        assertEquals(expected, ExchangeRateMath.multiplyHigh(a, b));
+    }
+}
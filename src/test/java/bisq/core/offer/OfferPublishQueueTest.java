@@ -0,0 +1,217 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.offer;
+
+import bisq.core.metrics.Histogram;
+import bisq.core.metrics.Metrics;
+
+import bisq.common.UserThread;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.offer.OfferMaker.id;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OfferPublishQueueTest {
+    private final List<String> republished = new ArrayList<>();
+    private final List<String> refreshed = new ArrayList<>();
+    private final Set<String> invalidOfferIds = new HashSet<>();
+    private OfferPublishQueue queue;
+
+    @Before
+    public void setup() {
+        queue = new OfferPublishQueue(openOffer -> republished.add(openOffer.getId()),
+                openOffer -> refreshed.add(openOffer.getId()),
+                openOffer -> !invalidOfferIds.contains(openOffer.getId()));
+    }
+
+    @Test
+    public void testBurstIsCapped() throws InterruptedException {
+        List<OpenOffer> openOffers = createOpenOffers(10);
+        onUserThread(() -> {
+            openOffers.forEach(openOffer -> queue.add(openOffer, OfferPublishQueue.Type.REFRESH));
+            assertEquals((int) OfferPublishQueue.MAX_TOKENS, refreshed.size());
+            assertEquals(10 - (int) OfferPublishQueue.MAX_TOKENS, queue.getQueueSize());
+            return null;
+        });
+
+        // The remaining offers are sent paced by the timer
+        awaitOnUserThread(() -> refreshed.size() == 10, 5);
+        onUserThread(() -> {
+            assertEquals(0, queue.getQueueSize());
+            assertTrue(republished.isEmpty());
+            return null;
+        });
+    }
+
+    @Test
+    public void testUnpublishedOffersAreSentFirst() throws InterruptedException {
+        List<OpenOffer> openOffers = createOpenOffers(4);
+        onUserThread(() -> {
+            // Use up the tokens so the following entries get queued
+            queue.add(openOffers.get(0), OfferPublishQueue.Type.REPUBLISH);
+            queue.add(openOffers.get(1), OfferPublishQueue.Type.REPUBLISH);
+            queue.onPublished(openOffers.get(0));
+            queue.onPublished(openOffers.get(1));
+
+            queue.add(openOffers.get(0), OfferPublishQueue.Type.REFRESH);
+            queue.add(openOffers.get(2), OfferPublishQueue.Type.REFRESH);
+            // A republish replaces the pending refresh
+            queue.add(openOffers.get(2), OfferPublishQueue.Type.REPUBLISH);
+            queue.add(openOffers.get(2), OfferPublishQueue.Type.REFRESH);
+            queue.add(openOffers.get(3), OfferPublishQueue.Type.REFRESH);
+            assertEquals(3, queue.getQueueSize());
+            return null;
+        });
+
+        awaitOnUserThread(() -> queue.getQueueSize() == 0, 5);
+        onUserThread(() -> {
+            assertEquals(3, republished.size());
+            assertEquals("offer2", republished.get(2));
+            assertEquals(2, refreshed.size());
+            assertEquals("offer3", refreshed.get(0));
+            assertEquals("offer0", refreshed.get(1));
+            return null;
+        });
+    }
+
+    @Test
+    public void testInvalidOffersAreSkipped() throws InterruptedException {
+        List<OpenOffer> openOffers = createOpenOffers(4);
+        onUserThread(() -> {
+            openOffers.forEach(openOffer -> queue.add(openOffer, OfferPublishQueue.Type.REPUBLISH));
+            invalidOfferIds.add("offer2");
+            queue.remove("offer3");
+            assertEquals(1, queue.getQueueSize());
+            return null;
+        });
+
+        awaitOnUserThread(() -> queue.getQueueSize() == 0, 5);
+        onUserThread(() -> {
+            assertEquals(2, republished.size());
+            assertTrue(!republished.contains("offer2") && !republished.contains("offer3"));
+            return null;
+        });
+    }
+
+    @Test
+    public void testMinRemainingTtl() throws InterruptedException {
+        List<OpenOffer> openOffers = createOpenOffers(2);
+        onUserThread(() -> {
+            assertEquals(Long.MAX_VALUE, queue.getMinRemainingTtl());
+
+            openOffers.forEach(queue::onPublished);
+            long ttl = openOffers.get(0).getOffer().getOfferPayload().getTTL();
+            long minRemainingTtl = queue.getMinRemainingTtl();
+            assertTrue(minRemainingTtl > 0 && minRemainingTtl <= ttl);
+
+            // Deactivated or removed offers do not count
+            invalidOfferIds.add("offer0");
+            queue.remove("offer1");
+            assertEquals(Long.MAX_VALUE, queue.getMinRemainingTtl());
+            return null;
+        });
+    }
+
+    @Test
+    public void testMetricsAreRecordedAtProcess() throws InterruptedException {
+        List<OpenOffer> openOffers = createOpenOffers(2);
+        Histogram queueSizeHistogram = Metrics.histogram("offer.publishQueue.size");
+        Histogram minRemainingTtlHistogram = Metrics.histogram("offer.publishQueue.minRemainingTtlMs");
+        Metrics.reset();
+        Metrics.setEnabled(true);
+        try {
+            onUserThread(() -> {
+                // Nothing published yet, so there is no remaining TTL to record
+                queue.add(openOffers.get(0), OfferPublishQueue.Type.REPUBLISH);
+                assertEquals(1, queueSizeHistogram.getCount());
+                assertEquals(1, queueSizeHistogram.getMax());
+                assertEquals(0, minRemainingTtlHistogram.getCount());
+
+                queue.onPublished(openOffers.get(0));
+                queue.add(openOffers.get(1), OfferPublishQueue.Type.REPUBLISH);
+                assertEquals(2, queueSizeHistogram.getCount());
+                assertEquals(1, minRemainingTtlHistogram.getCount());
+                assertTrue(minRemainingTtlHistogram.getMax() <= openOffers.get(0).getOffer().getOfferPayload().getTTL());
+                return null;
+            });
+        } finally {
+            Metrics.setEnabled(false);
+            Metrics.reset();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static List<OpenOffer> createOpenOffers(int numOffers) {
+        List<OpenOffer> openOffers = new ArrayList<>();
+        for (int i = 0; i < numOffers; i++)
+            openOffers.add(new OpenOffer(make(btcUsdOffer.but(with(id, "offer" + i))), null));
+        return openOffers;
+    }
+
+    // The queue must be used from the UserThread, so we run all calls and assertions there
+    private static void onUserThread(Supplier<Void> supplier) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Throwable> errors = new ArrayList<>();
+        UserThread.execute(() -> {
+            try {
+                supplier.get();
+            } catch (Throwable t) {
+                errors.add(t);
+            } finally {
+                latch.countDown();
+            }
+        });
+        assertTrue("Timeout at UserThread", latch.await(5, TimeUnit.SECONDS));
+        if (!errors.isEmpty())
+            throw new AssertionError(errors.get(0));
+    }
+
+    private static void awaitOnUserThread(Supplier<Boolean> condition, int timeoutSec) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeoutSec);
+        boolean[] result = new boolean[1];
+        while (System.currentTimeMillis() < deadline) {
+            onUserThread(() -> {
+                result[0] = condition.get();
+                return null;
+            });
+            if (result[0])
+                return;
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Condition not met within " + timeoutSec + " sec.");
+    }
+}
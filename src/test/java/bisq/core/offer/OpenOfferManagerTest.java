@@ -5,7 +5,6 @@ import bisq.network.p2p.peers.PeerManager;
 
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
-import bisq.common.storage.Storage;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -22,7 +21,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({P2PService.class, PeerManager.class, OfferBookService.class, Storage.class})
+@PrepareForTest({P2PService.class, PeerManager.class, OfferBookService.class})
 public class OpenOfferManagerTest {
 
     @Test
@@ -63,7 +62,6 @@ public class OpenOfferManagerTest {
     public void testStartEditOfferForDeactivatedOffer() {
         P2PService p2PService = mock(P2PService.class);
         OfferBookService offerBookService = mock(OfferBookService.class);
-        Storage storage = mock(Storage.class);
 
         when(p2PService.getPeerManager()).thenReturn(mock(PeerManager.class));
 
@@ -78,7 +76,7 @@ public class OpenOfferManagerTest {
             startEditOfferSuccessful.set(true);
         };
 
-        final OpenOffer openOffer = new OpenOffer(make(btcUsdOffer), storage);
+        final OpenOffer openOffer = new OpenOffer(make(btcUsdOffer), null);
         openOffer.setState(OpenOffer.State.DEACTIVATED);
 
         manager.editOpenOfferStart(openOffer, resultHandler, null);
@@ -90,7 +88,6 @@ public class OpenOfferManagerTest {
     public void testStartEditOfferForOfferThatIsCurrentlyEdited() {
         P2PService p2PService = mock(P2PService.class);
         OfferBookService offerBookService = mock(OfferBookService.class);
-        Storage storage = mock(Storage.class);
 
         when(p2PService.getPeerManager()).thenReturn(mock(PeerManager.class));
 
@@ -105,7 +102,7 @@ public class OpenOfferManagerTest {
             startEditOfferSuccessful.set(true);
         };
 
-        final OpenOffer openOffer = new OpenOffer(make(btcUsdOffer), storage);
+        final OpenOffer openOffer = new OpenOffer(make(btcUsdOffer), null);
         openOffer.setState(OpenOffer.State.DEACTIVATED);
 
         manager.editOpenOfferStart(openOffer, resultHandler, null);
@@ -0,0 +1,102 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.payment;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import io.bisq.generated.protobuffer.PB;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AccountAgeWitnessMapTest {
+    private final Random random = new Random(1);
+
+    @Test
+    public void testPutAndGet() {
+        AccountAgeWitnessMap map = new AccountAgeWitnessMap();
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> expected = new HashMap<>();
+        // Enough witnesses to get several merges of the delta
+        for (int i = 0; i < 5000; i++) {
+            AccountAgeWitness witness = newWitness();
+            assertNull(map.put(witness.getHashAsByteArray(), witness));
+            expected.put(witness.getHashAsByteArray(), witness);
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((hash, witness) -> assertEquals(witness, map.get(hash)));
+        assertEquals(expected, new HashMap<>(map));
+        assertFalse(map.containsKey(newWitness().getHashAsByteArray()));
+
+        map.merge();
+        assertEquals(expected, new HashMap<>(map));
+    }
+
+    @Test
+    public void testPutIfAbsentAndRemove() {
+        AccountAgeWitnessMap map = new AccountAgeWitnessMap();
+        AccountAgeWitness witness = newWitness();
+        assertNull(map.putIfAbsent(witness.getHashAsByteArray(), witness));
+        AccountAgeWitness other = new AccountAgeWitness(witness.getHash(), witness.getDate() + 1);
+        assertEquals(witness, map.putIfAbsent(witness.getHashAsByteArray(), other));
+
+        map.merge();
+        assertEquals(witness, map.remove(witness.getHashAsByteArray()));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testProtoRoundTrip() {
+        List<PB.AccountAgeWitness> items = new ArrayList<>();
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> expected = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            AccountAgeWitness witness = newWitness();
+            items.add(witness.toProtoAccountAgeWitness());
+            expected.put(witness.getHashAsByteArray(), witness);
+        }
+        // Duplicates and witnesses with an invalid hash size (they get an empty hash) must be handled as well
+        items.add(items.get(0));
+        AccountAgeWitness invalid = AccountAgeWitness.fromProto(new AccountAgeWitness(new byte[]{1, 2}, 3).toProtoAccountAgeWitness());
+        items.add(invalid.toProtoAccountAgeWitness());
+        expected.put(invalid.getHashAsByteArray(), invalid);
+        Collections.shuffle(items, random);
+
+        AccountAgeWitnessMap map = AccountAgeWitnessMap.fromProto(items);
+        assertEquals(expected, new HashMap<>(map));
+        assertEquals(expected, new HashMap<>(AccountAgeWitnessMap.fromProto(map.toProtoList())));
+    }
+
+    private AccountAgeWitness newWitness() {
+        byte[] hash = new byte[AccountAgeWitnessMap.HASH_SIZE];
+        random.nextBytes(hash);
+        return new AccountAgeWitness(hash, random.nextLong());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.setup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StartupTaskGraphTest {
+
+    @Test
+    public void testDependenciesAreCompletedFirst() {
+        List<String> completed = Collections.synchronizedList(new ArrayList<>());
+        StartupTaskGraph graph = new StartupTaskGraph("test", Runnable::run)
+                .addTask("a", () -> completed.add("a"))
+                .addTask("b", () -> completed.add("b"))
+                .addTask("c", () -> completed.add("c"), "a", "b")
+                .addUserThreadTask("d", () -> completed.add("d"), "c")
+                .addAsyncTask("e", resultHandler -> {
+                    completed.add("e");
+                    new Thread(resultHandler::handleResult).start();
+                }, "a")
+                .addTask("f", () -> completed.add("f"), "d", "e");
+        graph.startAndAwait();
+
+        assertEquals(6, completed.size());
+        assertTrue(completed.indexOf("c") > completed.indexOf("a"));
+        assertTrue(completed.indexOf("c") > completed.indexOf("b"));
+        assertTrue(completed.indexOf("d") > completed.indexOf("c"));
+        assertTrue(completed.indexOf("e") > completed.indexOf("a"));
+        assertEquals("f", completed.get(5));
+        assertEquals(6, graph.getDurations().size());
+    }
+
+    @Test
+    public void testIndependentTasksRunInParallel() {
+        int numTasks = Math.min(4, Runtime.getRuntime().availableProcessors());
+        if (numTasks < 2)
+            return;
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        StartupTaskGraph graph = new StartupTaskGraph("test", Runnable::run);
+        for (int i = 0; i < numTasks; i++) {
+            graph.addTask("task" + i, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException ignore) {
+                }
+                running.decrementAndGet();
+            });
+        }
+        graph.startAndAwait();
+
+        assertTrue(maxRunning.get() > 1);
+    }
+
+    @Test
+    public void testAsyncTaskIsCompletedOnlyOnce() {
+        AtomicInteger numRuns = new AtomicInteger();
+        new StartupTaskGraph("test", Runnable::run)
+                .addAsyncTask("a", resultHandler -> {
+                    resultHandler.handleResult();
+                    resultHandler.handleResult();
+                })
+                .addTask("b", numRuns::incrementAndGet, "a")
+                .startAndAwait();
+
+        assertEquals(1, numRuns.get());
+    }
+
+    @Test
+    public void testFailedTaskStopsDependents() {
+        AtomicInteger numRuns = new AtomicInteger();
+        StartupTaskGraph graph = new StartupTaskGraph("test", Runnable::run)
+                .addTask("a", () -> {
+                    throw new IllegalStateException("test");
+                })
+                .addTask("b", numRuns::incrementAndGet, "a");
+        try {
+            graph.startAndAwait();
+            fail("Expected RuntimeException");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(0, numRuns.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCyclicDependency() {
+        new StartupTaskGraph("test", Runnable::run)
+                .addTask("a", () -> {
+                }, "c")
+                .addTask("b", () -> {
+                }, "a")
+                .addTask("c", () -> {
+                }, "b")
+                .startAndAwait();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownDependency() {
+        new StartupTaskGraph("test", Runnable::run)
+                .addTask("a", () -> {
+                }, "b")
+                .startAndAwait();
+    }
+}
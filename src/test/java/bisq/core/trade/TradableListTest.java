@@ -20,14 +20,31 @@ package bisq.core.trade;
 import bisq.core.offer.Offer;
 import bisq.core.offer.OfferPayload;
 import bisq.core.offer.OpenOffer;
+import bisq.core.trade.closed.ClosedTradableManager;
+import bisq.core.util.SegmentedStorage;
 
+import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.storage.Storage;
 
 import io.bisq.generated.protobuffer.PB;
 
+import org.bitcoinj.core.Coin;
+
+import mockit.Deencapsulation;
+import mockit.Delegate;
+import mockit.Expectations;
 import mockit.Mocked;
+import mockit.Verifications;
 import mockit.integration.junit4.JMockit;
 
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
@@ -39,19 +56,96 @@ import static org.junit.Assert.assertTrue;
 public class TradableListTest {
 
     @Test
-    public void protoTesting(@Mocked OfferPayload offerPayload) {
+    public void protoTesting(@Mocked OfferPayload offerPayload) throws IOException {
+        new Expectations() {{
+            offerPayload.getId();
+            result = "offerId";
+            minTimes = 0;
+        }};
+
         Storage<TradableList<OpenOffer>> storage = new Storage<>(null, null);
-        TradableList<OpenOffer> openOfferTradableList = new TradableList<>(storage, "filename");
+        File dir = Files.createTempDirectory("TradableListTest").toFile();
+        dir.deleteOnExit();
+        SegmentedStorage segmentedStorage = new SegmentedStorage(dir, null, TradableList.SAVE_DELAY_MS);
+        TradableList<OpenOffer> openOfferTradableList = new TradableList<>(storage, segmentedStorage, "filename");
         PB.PersistableEnvelope message = (PB.PersistableEnvelope) openOfferTradableList.toProtoMessage();
         assertTrue(message.getMessageCase().equals(TRADABLE_LIST));
 
         // test adding an OpenOffer and convert toProto
         Offer offer = new Offer(offerPayload);
-        OpenOffer openOffer = new OpenOffer(offer, storage);
+        OpenOffer openOffer = new OpenOffer(offer, openOfferTradableList);
         //openOfferTradableList = new TradableList<OpenOffer>(storage,Lists.newArrayList(openOffer));
         openOfferTradableList.add(openOffer);
         message = (PB.PersistableEnvelope) openOfferTradableList.toProtoMessage();
         assertTrue(message.getMessageCase().equals(TRADABLE_LIST));
         assertEquals(1, message.getTradableList().getTradableList().size());
+        assertEquals(openOffer, openOfferTradableList.getTradableById("offerId").orElse(null));
+
+        openOfferTradableList.remove(openOffer);
+        assertTrue(!openOfferTradableList.getTradableById("offerId").isPresent());
+        openOfferTradableList.shutDown();
+    }
+
+    @Test
+    public void testChangeOfClosedTradeGetsPersisted(@Mocked OfferPayload offerPayload,
+                                                     @Mocked PersistenceProtoResolver persistenceProtoResolver)
+            throws IOException {
+        new Expectations() {{
+            offerPayload.getId();
+            result = "tradeId";
+            minTimes = 0;
+        }};
+
+        File storageDir = Files.createTempDirectory("TradableListTest").toFile();
+        storageDir.deleteOnExit();
+        SegmentedStorage pendingTradesStorage = new SegmentedStorage(new File(storageDir, "pending_trades"),
+                persistenceProtoResolver, TradableList.SAVE_DELAY_MS);
+        TradableList<Trade> pendingTrades = new TradableList<>(new Storage<>(storageDir, persistenceProtoResolver),
+                pendingTradesStorage, "PendingTrades");
+        BuyerAsMakerTrade trade = new BuyerAsMakerTrade(new Offer(offerPayload), Coin.ZERO, Coin.ZERO, true,
+                pendingTrades, null);
+
+        // The full proto of a trade requires a complete trade setup, we are only interested in the dispute state
+        new Expectations(trade) {{
+            trade.toProtoMessage();
+            result = new Delegate<PB.Tradable>() {
+                @SuppressWarnings("unused")
+                PB.Tradable delegate() {
+                    return PB.Tradable.newBuilder()
+                            .setBuyerAsMakerTrade(PB.BuyerAsMakerTrade.newBuilder()
+                                    .setTrade(PB.Trade.newBuilder()
+                                            .setDisputeState(Trade.DisputeState.toProtoMessage(trade.getDisputeState()))))
+                            .build();
+                }
+            };
+            minTimes = 0;
+        }};
+
+        pendingTrades.add(trade);
+
+        // Same as TradeManager.addTradeToClosedTrades
+        pendingTrades.remove(trade);
+        ClosedTradableManager closedTradableManager = new ClosedTradableManager(null, null,
+                persistenceProtoResolver, null, storageDir);
+        closedTradableManager.add(trade);
+        // Write the closed trade before we change it
+        SegmentedStorage closedTradesStorage = Deencapsulation.getField(closedTradableManager, "segmentedStorage");
+        closedTradesStorage.flush();
+
+        trade.setDisputeState(Trade.DisputeState.DISPUTE_CLOSED);
+        pendingTrades.shutDown();
+        closedTradableManager.shutDown();
+
+        // Reload
+        new SegmentedStorage(new File(storageDir, "closed_trades"), persistenceProtoResolver, TradableList.SAVE_DELAY_MS)
+                .read("tradeId");
+        assertTrue(pendingTradesStorage.getKeys().isEmpty());
+        new Verifications() {{
+            List<PB.PersistableEnvelope> records = new ArrayList<>();
+            persistenceProtoResolver.fromProto(withCapture(records));
+            assertEquals(1, records.size());
+            assertEquals(PB.Trade.DisputeState.DISPUTE_CLOSED, records.get(0).getTradableList().getTradable(0)
+                    .getBuyerAsMakerTrade().getTrade().getDisputeState());
+        }};
     }
 }
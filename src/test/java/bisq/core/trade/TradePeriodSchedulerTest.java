@@ -0,0 +1,184 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade;
+
+import bisq.common.Clock;
+
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(JMockit.class)
+public class TradePeriodSchedulerTest {
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @Mocked
+    private Clock clock;
+    @Mocked
+    private Trade trade;
+
+    private final ObjectProperty<Trade.State> stateProperty = new SimpleObjectProperty<>(Trade.State.PREPARATION);
+    private long halfTradePeriodTime;
+    private long maxTradePeriodTime;
+    private boolean payoutPublished;
+    private TradePeriodScheduler scheduler;
+
+    @Before
+    public void setup() {
+        long now = System.currentTimeMillis();
+        halfTradePeriodTime = now + HOUR;
+        maxTradePeriodTime = now + 2 * HOUR;
+
+        new Expectations() {{
+            trade.stateProperty();
+            result = stateProperty;
+            minTimes = 0;
+            trade.isPayoutPublished();
+            result = new Delegate<Boolean>() {
+                @SuppressWarnings("unused")
+                boolean delegate() {
+                    return payoutPublished;
+                }
+            };
+            minTimes = 0;
+            trade.getHalfTradePeriodDate();
+            result = new Delegate<Date>() {
+                @SuppressWarnings("unused")
+                Date delegate() {
+                    return new Date(halfTradePeriodTime);
+                }
+            };
+            minTimes = 0;
+            trade.getMaxTradePeriodDate();
+            result = new Delegate<Date>() {
+                @SuppressWarnings("unused")
+                Date delegate() {
+                    return new Date(maxTradePeriodTime);
+                }
+            };
+            minTimes = 0;
+        }};
+
+        scheduler = new TradePeriodScheduler(clock);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutDown();
+    }
+
+    @Test
+    public void testRescheduleOnStateChange() {
+        scheduler.add(trade);
+        assertEquals(1, scheduler.size());
+        assertEquals(halfTradePeriodTime + 1, scheduler.getTimerDueTime());
+
+        // The trade period starts with the confirmation of the deposit tx
+        halfTradePeriodTime += HOUR;
+        maxTradePeriodTime += HOUR;
+        stateProperty.set(Trade.State.DEPOSIT_CONFIRMED_IN_BLOCK_CHAIN);
+        assertEquals(1, scheduler.size());
+        assertEquals(halfTradePeriodTime + 1, scheduler.getTimerDueTime());
+
+        payoutPublished = true;
+        stateProperty.set(Trade.State.BUYER_SAW_PAYOUT_TX_IN_NETWORK);
+        assertEquals(0, scheduler.size());
+        assertEquals(0, scheduler.getTimerDueTime());
+    }
+
+    @Test
+    public void testRemovedTradeIsNotRescheduled() {
+        scheduler.add(trade);
+        scheduler.remove(trade);
+        assertEquals(0, scheduler.size());
+        assertEquals(0, scheduler.getTimerDueTime());
+
+        stateProperty.set(Trade.State.DEPOSIT_CONFIRMED_IN_BLOCK_CHAIN);
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void testReevaluateOnMissedSecondTick() {
+        scheduler.add(trade);
+        Clock.Listener clockListener = getClockListener();
+
+        // The computer was suspended while the half of the trade period was reached
+        long now = System.currentTimeMillis();
+        halfTradePeriodTime = now - HOUR;
+        maxTradePeriodTime = now + HOUR;
+        clockListener.onMissedSecondTick(HOUR);
+        assertEquals(1, scheduler.size());
+        assertEquals(maxTradePeriodTime + 1, scheduler.getTimerDueTime());
+        new Verifications() {{
+            trade.setTradePeriodState(Trade.TradePeriodState.SECOND_HALF);
+            times = 1;
+        }};
+
+        // And again until the trade period was over
+        maxTradePeriodTime = now - 1;
+        clockListener.onMissedSecondTick(HOUR);
+        assertEquals(0, scheduler.size());
+        assertEquals(0, scheduler.getTimerDueTime());
+        new Verifications() {{
+            trade.setTradePeriodState(Trade.TradePeriodState.TRADE_PERIOD_OVER);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void testShutDown() {
+        scheduler.add(trade);
+        Clock.Listener clockListener = getClockListener();
+        scheduler.shutDown();
+        assertEquals(0, scheduler.getTimerDueTime());
+
+        stateProperty.set(Trade.State.DEPOSIT_CONFIRMED_IN_BLOCK_CHAIN);
+        assertEquals(0, scheduler.size());
+        new Verifications() {{
+            clock.removeListener(clockListener);
+            times = 1;
+        }};
+    }
+
+    private Clock.Listener getClockListener() {
+        List<Clock.Listener> listeners = new ArrayList<>();
+        new Verifications() {{
+            clock.addListener(withCapture(listeners));
+            times = 1;
+        }};
+        return listeners.get(0);
+    }
+}
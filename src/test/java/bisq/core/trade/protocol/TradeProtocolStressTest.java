@@ -0,0 +1,351 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.protocol;
+
+import bisq.core.btc.AddressEntry;
+import bisq.core.btc.wallet.BtcWalletService;
+import bisq.core.btc.wallet.TradeWalletService;
+import bisq.core.offer.Offer;
+import bisq.core.offer.OfferPayload;
+import bisq.core.payment.AccountAgeWitnessService;
+import bisq.core.payment.payload.PaymentAccountPayload;
+import bisq.core.trade.BuyerAsMakerTrade;
+import bisq.core.trade.SellerAsMakerTrade;
+import bisq.core.trade.Trade;
+import bisq.core.trade.protocol.tasks.VerifyPeersAccountAgeWitness;
+import bisq.core.trade.protocol.tasks.buyer_as_maker.BuyerAsMakerSignPayoutTx;
+import bisq.core.trade.protocol.tasks.seller.SellerSignAndFinalizePayoutTx;
+import bisq.core.user.User;
+
+import bisq.common.UserThread;
+import bisq.common.crypto.KeyRing;
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.handlers.ErrorMessageHandler;
+
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+
+import org.spongycastle.crypto.params.KeyParameter;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.offer.OfferMaker.direction;
+import static bisq.core.offer.OfferMaker.id;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives many trades at the same time through the real payout and account age witness tasks. The wallet and the
+ * account age witness service are mocked and signing or verifying takes a few ms. We check that the expensive steps
+ * run on the protocol executor of the trades while the UserThread keeps going, that the aesKey is taken on the
+ * UserThread when the task starts and that failures of the off thread steps let the trade fail.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({User.class, AddressEntry.class, KeyRing.class, PubKeyRing.class})
+public class TradeProtocolStressTest {
+    private static final int NUM_TRADES = 40;
+    private static final int SIGNING_MS = 20;
+    // Every 10th buyer trade gets an invalid witness signature and every 10th seller trade fails at signing
+    private static final int FAILING_TRADE_INTERVAL = 10;
+    private static final byte[] MY_MULTI_SIG_PUB_KEY = new byte[]{1, 2, 3};
+    private static final byte[] PEERS_MULTI_SIG_PUB_KEY = new byte[]{4, 5, 6};
+    private static final KeyParameter AES_KEY_AT_START = new KeyParameter(new byte[]{1});
+    private static final KeyParameter CHANGED_AES_KEY = new KeyParameter(new byte[]{2});
+
+    private BtcWalletService btcWalletService;
+    private TradeWalletService tradeWalletService;
+    private AccountAgeWitnessService accountAgeWitnessService;
+    private User user;
+    private KeyRing keyRing;
+    private PubKeyRing peersPubKeyRing;
+
+    private volatile Thread userThread;
+    private final AtomicReference<KeyParameter> aesKey = new AtomicReference<>();
+    private final Map<String, List<String>> stepsByTradeId = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> inFlightByTradeId = new ConcurrentHashMap<>();
+    private final Map<String, KeyParameter> aesKeyByTradeId = new ConcurrentHashMap<>();
+    private final Map<String, Transaction> payoutTxByTradeId = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    // Steps on the UserThread while signing or verifying of another trade was in progress
+    private final AtomicInteger interleavedUserThreadSteps = new AtomicInteger();
+    private final AtomicBoolean wrongThread = new AtomicBoolean();
+    private final AtomicBoolean overlapWithinTrade = new AtomicBoolean();
+
+    @Before
+    public void setUp() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        UserThread.execute(() -> {
+            userThread = Thread.currentThread();
+            latch.countDown();
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        aesKey.set(AES_KEY_AT_START);
+
+        AddressEntry addressEntry = mock(AddressEntry.class);
+        when(addressEntry.getAddressString()).thenReturn("address");
+        when(addressEntry.getPubKey()).thenReturn(MY_MULTI_SIG_PUB_KEY);
+
+        btcWalletService = mock(BtcWalletService.class);
+        when(btcWalletService.getOrCreateAddressEntry(anyString(), any())).thenReturn(addressEntry);
+        when(btcWalletService.getAddressEntry(anyString(), any())).thenReturn(Optional.of(addressEntry));
+
+        tradeWalletService = mock(TradeWalletService.class);
+        when(tradeWalletService.getAesKey()).thenAnswer(invocation -> {
+            onUserThreadStep();
+            return aesKey.get();
+        });
+        when(tradeWalletService.buyerSignsPayoutTx(any(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    String tradeId = ((Transaction) invocation.getArgument(0)).getHashAsString();
+                    aesKeyByTradeId.put(tradeId, invocation.getArgument(9));
+                    simulateWalletWork(tradeId, "sign");
+                    return new byte[]{1};
+                });
+        when(tradeWalletService.sellerSignsAndFinalizesPayoutTx(any(), any(), any(), any(), any(), any(), any(), any(),
+                any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    String tradeId = ((Transaction) invocation.getArgument(0)).getHashAsString();
+                    aesKeyByTradeId.put(tradeId, invocation.getArgument(10));
+                    simulateWalletWork(tradeId, "sign");
+                    if (isFailingTrade(tradeId))
+                        throw new IllegalStateException("Signing failed");
+                    return payoutTxByTradeId.get(tradeId);
+                });
+
+        accountAgeWitnessService = mock(AccountAgeWitnessService.class);
+        when(accountAgeWitnessService.verifyAccountAgeWitnessData(any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    onUserThreadStep();
+                    return true;
+                });
+        when(accountAgeWitnessService.verifySignature(any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    // We pass the trade id as nonce
+                    String tradeId = new String((byte[]) invocation.getArgument(1), StandardCharsets.UTF_8);
+                    simulateWalletWork(tradeId, "verify");
+                    if (isFailingTrade(tradeId)) {
+                        ((ErrorMessageHandler) invocation.getArgument(3)).handleErrorMessage("Invalid signature");
+                        return false;
+                    }
+                    return true;
+                });
+
+        user = mock(User.class);
+        when(user.getAccountId()).thenReturn("accountId");
+        keyRing = mock(KeyRing.class);
+        when(keyRing.getPubKeyRing()).thenReturn(mock(PubKeyRing.class));
+        peersPubKeyRing = mock(PubKeyRing.class);
+    }
+
+    @Test
+    public void testManyTradesInParallel() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2 * NUM_TRADES);
+        List<String> completedTradeIds = Collections.synchronizedList(new ArrayList<>());
+        List<String> failedTradeIds = Collections.synchronizedList(new ArrayList<>());
+        List<Trade> buyerTrades = new ArrayList<>();
+        List<Trade> sellerTrades = new ArrayList<>();
+        for (int i = 0; i < NUM_TRADES; i++) {
+            Offer buyOffer = make(btcUsdOffer.but(with(id, "buyer" + i), with(direction, OfferPayload.Direction.BUY)));
+            buyerTrades.add(createTrade(new BuyerAsMakerTrade(buyOffer, Coin.ZERO, Coin.ZERO, true, null,
+                    btcWalletService)));
+            Offer sellOffer = make(btcUsdOffer.but(with(id, "seller" + i), with(direction, OfferPayload.Direction.SELL)));
+            sellerTrades.add(createTrade(new SellerAsMakerTrade(sellOffer, Coin.ZERO, Coin.ZERO, true, null,
+                    btcWalletService)));
+        }
+
+        UserThread.execute(() -> {
+            buyerTrades.forEach(trade -> {
+                TradeTaskRunner taskRunner = new TradeTaskRunner(trade,
+                        () -> {
+                            completedTradeIds.add(trade.getId());
+                            latch.countDown();
+                        },
+                        errorMessage -> {
+                            failedTradeIds.add(trade.getId());
+                            latch.countDown();
+                        });
+                //noinspection unchecked
+                taskRunner.addTasks(VerifyPeersAccountAgeWitness.class,
+                        BuyerAsMakerSignPayoutTx.class);
+                taskRunner.run();
+            });
+            sellerTrades.forEach(trade -> {
+                TradeTaskRunner taskRunner = new TradeTaskRunner(trade,
+                        () -> {
+                            completedTradeIds.add(trade.getId());
+                            latch.countDown();
+                        },
+                        errorMessage -> {
+                            failedTradeIds.add(trade.getId());
+                            latch.countDown();
+                        });
+                //noinspection unchecked
+                taskRunner.addTasks(SellerSignAndFinalizePayoutTx.class);
+                taskRunner.run();
+            });
+
+            // The sellers have taken the key and are signing now. The buyers only take it after the witness
+            // verification, so they have to use the changed key.
+            aesKey.set(CHANGED_AES_KEY);
+        });
+
+        assertTrue("Not all trades completed", latch.await(30, TimeUnit.SECONDS));
+        int numFailingTrades = 2 * NUM_TRADES / FAILING_TRADE_INTERVAL;
+        assertEquals(numFailingTrades, failedTradeIds.size());
+        assertEquals(2 * NUM_TRADES - numFailingTrades, completedTradeIds.size());
+
+        assertFalse("UserThread steps ran on another thread or off thread steps on the UserThread", wrongThread.get());
+        assertFalse("Steps of one trade overlapped", overlapWithinTrade.get());
+        assertTrue("Trades were not processed in parallel", maxInFlight.get() > 1);
+        assertTrue("The UserThread was blocked while signing", interleavedUserThreadSteps.get() > 0);
+
+        for (Trade trade : buyerTrades) {
+            List<String> steps = stepsByTradeId.get(trade.getId());
+            if (isFailingTrade(trade.getId())) {
+                assertEquals(1, steps.size());
+                assertTrue(failedTradeIds.contains(trade.getId()));
+                assertTrue(trade.getErrorMessage().contains("Invalid signature"));
+                assertNull(trade.getProcessModel().getPayoutTxSignature());
+            } else {
+                assertEquals(2, steps.size());
+                assertEquals("verify", steps.get(0));
+                assertEquals("sign", steps.get(1));
+                assertNotNull(trade.getProcessModel().getPayoutTxSignature());
+                assertSame(CHANGED_AES_KEY, aesKeyByTradeId.get(trade.getId()));
+            }
+        }
+        for (Trade trade : sellerTrades) {
+            assertEquals(1, stepsByTradeId.get(trade.getId()).size());
+            assertSame(AES_KEY_AT_START, aesKeyByTradeId.get(trade.getId()));
+            if (isFailingTrade(trade.getId())) {
+                assertTrue(failedTradeIds.contains(trade.getId()));
+                assertNotNull(trade.getErrorMessage());
+                assertNull(trade.getPayoutTx());
+            } else {
+                assertSame(payoutTxByTradeId.get(trade.getId()), trade.getPayoutTx());
+            }
+        }
+        verify(btcWalletService, times(NUM_TRADES - NUM_TRADES / FAILING_TRADE_INTERVAL))
+                .swapTradeEntryToAvailableEntry(anyString(), eq(AddressEntry.Context.MULTI_SIG));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Trade createTrade(Trade trade) {
+        String tradeId = trade.getId();
+        stepsByTradeId.put(tradeId, Collections.synchronizedList(new ArrayList<>()));
+        inFlightByTradeId.put(tradeId, new AtomicInteger());
+
+        trade.getProcessModel().onAllServicesInitialized(trade.getOffer(), null, null, null, btcWalletService, null,
+                tradeWalletService, null, user, null, accountAgeWitnessService, keyRing, false, Coin.ZERO);
+        trade.getProcessModel().setMyMultiSigPubKey(MY_MULTI_SIG_PUB_KEY);
+        trade.setTradePrice(100000L);
+        trade.setTradeAmount(Coin.valueOf(100000L));
+        trade.setArbitratorBtcPubKey(new byte[]{7, 8, 9});
+
+        // We use the trade id as hash of the deposit tx, so the wallet mocks know for which trade they sign
+        TransactionConfidence confidence = mock(TransactionConfidence.class);
+        when(confidence.getConfidenceType()).thenReturn(TransactionConfidence.ConfidenceType.BUILDING);
+        Transaction depositTx = mock(Transaction.class);
+        when(depositTx.getHashAsString()).thenReturn(tradeId);
+        when(depositTx.getConfidence()).thenReturn(confidence);
+        trade.setDepositTx(depositTx);
+
+        Transaction payoutTx = mock(Transaction.class);
+        when(payoutTx.getHashAsString()).thenReturn(tradeId + "-payout");
+        payoutTxByTradeId.put(tradeId, payoutTx);
+
+        TradingPeer tradingPeer = trade.getProcessModel().getTradingPeer();
+        tradingPeer.setPayoutAddressString("peersAddress");
+        tradingPeer.setMultiSigPubKey(PEERS_MULTI_SIG_PUB_KEY);
+        tradingPeer.setSignature(new byte[]{1});
+        tradingPeer.setPaymentAccountPayload(mock(PaymentAccountPayload.class));
+        tradingPeer.setPubKeyRing(peersPubKeyRing);
+        tradingPeer.setAccountAgeWitnessNonce(tradeId.getBytes(StandardCharsets.UTF_8));
+        tradingPeer.setAccountAgeWitnessSignature(new byte[]{1});
+        tradingPeer.setCurrentDate(System.currentTimeMillis());
+        return trade;
+    }
+
+    // Simulates the work of the wallet on the protocol executor
+    private void simulateWalletWork(String tradeId, String step) throws InterruptedException {
+        if (Thread.currentThread() == userThread)
+            wrongThread.set(true);
+        if (inFlightByTradeId.get(tradeId).incrementAndGet() > 1)
+            overlapWithinTrade.set(true);
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(SIGNING_MS);
+            stepsByTradeId.get(tradeId).add(step);
+        } finally {
+            inFlight.decrementAndGet();
+            inFlightByTradeId.get(tradeId).decrementAndGet();
+        }
+    }
+
+    private void onUserThreadStep() {
+        if (Thread.currentThread() != userThread)
+            wrongThread.set(true);
+        if (inFlight.get() > 0)
+            interleavedUserThreadSteps.incrementAndGet();
+    }
+
+    private static boolean isFailingTrade(String tradeId) {
+        return Integer.parseInt(tradeId.replaceAll("\\D", "")) % FAILING_TRADE_INTERVAL == 0;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import bisq.core.offer.OfferPayload;
+
+import io.bisq.generated.protobuffer.PB;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TradeStatistics2Test {
+
+    @Test
+    public void testLegacyJsonHashStaysVerifiable() {
+        TradeStatistics2 tradeStatistics = createTradeStatistics("offerId", 2, null);
+        assertEquals(TradeStatistics2.LEGACY_JSON_HASH_VERSION, tradeStatistics.getHashVersion());
+        assertTrue(tradeStatistics.isHashValid());
+        assertTrue(TradeStatistics2.fromProto(tradeStatistics.toProtoTradeStatistics2()).isHashValid());
+    }
+
+    @Test
+    public void testCanonicalHash() {
+        Map<String, String> extraDataMap = new HashMap<>();
+        extraDataMap.put("ref", "123456");
+        extraDataMap.put(TradeStatistics2.HASH_VERSION, String.valueOf(TradeStatistics2.CANONICAL_HASH_VERSION));
+        TradeStatistics2 tradeStatistics = createTradeStatistics("offerId", 2, extraDataMap);
+        assertEquals(TradeStatistics2.CANONICAL_HASH_VERSION, tradeStatistics.getHashVersion());
+        assertEquals(20, tradeStatistics.getHash().length);
+        assertTrue(tradeStatistics.isHashValid());
+
+        // The trade date is ignored and the order of the extraDataMap does not matter
+        Map<String, String> reversedExtraDataMap = new TreeMap<>(Comparator.reverseOrder());
+        reversedExtraDataMap.putAll(extraDataMap);
+        assertArrayEquals(tradeStatistics.getHash(), createTradeStatistics("offerId", 3, reversedExtraDataMap).getHash());
+        assertFalse(Arrays.equals(tradeStatistics.getHash(), createTradeStatistics("otherOfferId", 2, extraDataMap).getHash()));
+
+        // It is a different hash than the json hash of the same data
+        Map<String, String> legacyExtraDataMap = new HashMap<>(extraDataMap);
+        legacyExtraDataMap.remove(TradeStatistics2.HASH_VERSION);
+        assertFalse(Arrays.equals(tradeStatistics.getHash(), createTradeStatistics("offerId", 2, legacyExtraDataMap).getHash()));
+
+        TradeStatistics2 fromProto = TradeStatistics2.fromProto(tradeStatistics.toProtoTradeStatistics2());
+        assertEquals(tradeStatistics, fromProto);
+        assertTrue(fromProto.isHashValid());
+    }
+
+    @Test
+    public void testHashVersionIsSelectedByOfferDate() {
+        long activationTime = TradeStatistics2.CANONICAL_HASH_ACTIVATION_DATE.getTime();
+        assertEquals(TradeStatistics2.LEGACY_JSON_HASH_VERSION, TradeStatistics2.getHashVersionForOfferDate(activationTime - 1));
+        assertEquals(TradeStatistics2.CANONICAL_HASH_VERSION, TradeStatistics2.getHashVersionForOfferDate(activationTime));
+    }
+
+    @Test
+    public void testCanonicalBytesUseProtoEnumNumber() {
+        Map<String, String> extraDataMap = Collections.singletonMap(TradeStatistics2.HASH_VERSION,
+                String.valueOf(TradeStatistics2.CANONICAL_HASH_VERSION));
+        byte[] canonicalBytes = createTradeStatistics("offerId", 2, extraDataMap).getCanonicalBytes();
+        assertEquals(TradeStatistics2.CANONICAL_HASH_VERSION, canonicalBytes[0]);
+        assertEquals(PB.OfferPayload.Direction.BUY.getNumber(), canonicalBytes[1]);
+    }
+
+    @Test
+    public void testInvalidHashIsDetected() {
+        Map<String, String> extraDataMap = Collections.singletonMap(TradeStatistics2.HASH_VERSION,
+                String.valueOf(TradeStatistics2.CANONICAL_HASH_VERSION));
+        PB.TradeStatistics2 proto = createTradeStatistics("offerId", 2, extraDataMap).toProtoTradeStatistics2();
+        assertFalse(TradeStatistics2.fromProto(PB.TradeStatistics2.newBuilder(proto)
+                .setTradeAmount(1)
+                .build()).isHashValid());
+
+        // A json hash tagged as canonical hash or an unknown version is not valid
+        PB.TradeStatistics2 legacyProto = createTradeStatistics("offerId", 2, null).toProtoTradeStatistics2();
+        assertFalse(TradeStatistics2.fromProto(PB.TradeStatistics2.newBuilder(legacyProto)
+                .putAllExtraData(extraDataMap)
+                .build()).isHashValid());
+        assertFalse(createTradeStatistics("offerId", 2, Collections.singletonMap(TradeStatistics2.HASH_VERSION, "2"))
+                .isHashValid());
+    }
+
+    private static TradeStatistics2 createTradeStatistics(String offerId, long tradeDate, Map<String, String> extraDataMap) {
+        return new TradeStatistics2(OfferPayload.Direction.BUY,
+                "BTC",
+                "EUR",
+                "SEPA",
+                1,
+                false,
+                0,
+                100000,
+                50000,
+                offerId,
+                60000000,
+                100000,
+                tradeDate,
+                "depositTxId",
+                null,
+                extraDataMap);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import bisq.core.offer.OfferPayload;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TradeStatisticsAggregatorTest {
+    private TradeStatisticsAggregator aggregator;
+
+    private static long utc(int year, int month, int day, int hour, int minute) {
+        return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    private static TradeStatistics2 createTradeStatistics(String counterCurrency, long tradePrice, long tradeAmount, long tradeDate) {
+        return new TradeStatistics2(OfferPayload.Direction.BUY,
+                "BTC",
+                counterCurrency,
+                "SEPA",
+                1,
+                false,
+                0,
+                tradeAmount,
+                tradeAmount,
+                "offerId" + tradeDate,
+                tradePrice,
+                tradeAmount,
+                tradeDate,
+                "depositTxId" + tradeDate,
+                null,
+                null);
+    }
+
+    @Before
+    public void setUp() {
+        aggregator = new TradeStatisticsAggregator();
+        // Not added in order of the trade date. A 0.001 BTC trade at a price of 6000 EUR has a volume of 6 EUR.
+        aggregator.add(createTradeStatistics("EUR", 62000000, 200000, utc(2018, 8, 15, 13, 50)));
+        aggregator.add(createTradeStatistics("EUR", 60000000, 100000, utc(2018, 8, 15, 13, 10)));
+        aggregator.add(createTradeStatistics("EUR", 58000000, 100000, utc(2018, 8, 16, 9, 0)));
+        aggregator.add(createTradeStatistics("EUR", 61000000, 100000, utc(2018, 8, 20, 10, 0)));
+        aggregator.add(createTradeStatistics("EUR", 63000000, 100000, utc(2018, 9, 3, 10, 0)));
+        aggregator.add(createTradeStatistics("USD", 70000000, 100000, utc(2018, 8, 15, 13, 20)));
+    }
+
+    @Test
+    public void testHourBuckets() {
+        assertEquals(5, aggregator.getAllBuckets("EUR", TradeStatisticsInterval.HOUR).size());
+
+        // The bucket containing from is included, the one starting at to is not
+        List<TradeStatisticsBucket> buckets = aggregator.getBuckets("EUR", TradeStatisticsInterval.HOUR,
+                utc(2018, 8, 15, 13, 30), utc(2018, 8, 16, 10, 0));
+        assertEquals(2, buckets.size());
+        TradeStatisticsBucket bucket = buckets.get(0);
+        assertEquals(utc(2018, 8, 15, 13, 0), bucket.getStartTime());
+        assertEquals(2, bucket.getNumTrades());
+        assertEquals(60000000, bucket.getOpen());
+        assertEquals(62000000, bucket.getClose());
+        assertEquals(300000, bucket.getAmount());
+        assertEquals(60000 + 124000, bucket.getVolume());
+        assertEquals(utc(2018, 8, 16, 9, 0), buckets.get(1).getStartTime());
+
+        assertEquals(1, aggregator.getBuckets("EUR", TradeStatisticsInterval.HOUR,
+                utc(2018, 8, 15, 13, 30), utc(2018, 8, 16, 9, 0)).size());
+    }
+
+    @Test
+    public void testDayBuckets() {
+        List<TradeStatisticsBucket> buckets = aggregator.getBuckets("EUR", TradeStatisticsInterval.DAY,
+                utc(2018, 8, 15, 0, 0), utc(2018, 8, 17, 0, 0));
+        assertEquals(2, buckets.size());
+        assertEquals(utc(2018, 8, 15, 0, 0), buckets.get(0).getStartTime());
+        assertEquals(2, buckets.get(0).getNumTrades());
+        assertEquals(utc(2018, 8, 16, 0, 0), buckets.get(1).getStartTime());
+        assertEquals(1, buckets.get(1).getNumTrades());
+        assertEquals(58000000, buckets.get(1).getOpen());
+    }
+
+    @Test
+    public void testWeekBuckets() {
+        List<TradeStatisticsBucket> buckets = aggregator.getAllBuckets("EUR", TradeStatisticsInterval.WEEK);
+        assertEquals(3, buckets.size());
+        assertEquals(utc(2018, 8, 13, 0, 0), buckets.get(0).getStartTime());
+        assertEquals(3, buckets.get(0).getNumTrades());
+        assertEquals(62000000, buckets.get(0).getHigh());
+        assertEquals(58000000, buckets.get(0).getLow());
+        assertEquals(58000000, buckets.get(0).getClose());
+        assertEquals(utc(2018, 8, 20, 0, 0), buckets.get(1).getStartTime());
+        assertEquals(utc(2018, 9, 3, 0, 0), buckets.get(2).getStartTime());
+    }
+
+    @Test
+    public void testMonthBuckets() {
+        // from is inside of August, so the August bucket is included
+        List<TradeStatisticsBucket> buckets = aggregator.getBuckets("EUR", TradeStatisticsInterval.MONTH,
+                utc(2018, 8, 20, 0, 0), utc(2018, 9, 30, 0, 0));
+        assertEquals(2, buckets.size());
+        TradeStatisticsBucket august = buckets.get(0);
+        assertEquals(utc(2018, 8, 1, 0, 0), august.getStartTime());
+        assertEquals(4, august.getNumTrades());
+        assertEquals(60000000, august.getOpen());
+        assertEquals(62000000, august.getHigh());
+        assertEquals(58000000, august.getLow());
+        assertEquals(61000000, august.getClose());
+        assertEquals(500000, august.getAmount());
+        assertEquals(60000 + 124000 + 58000 + 61000, august.getVolume());
+
+        assertEquals(utc(2018, 9, 1, 0, 0), aggregator.getLatestBucket("EUR", TradeStatisticsInterval.MONTH).getStartTime());
+    }
+
+    @Test
+    public void testCurrenciesAreSeparated() {
+        List<TradeStatisticsBucket> usdBuckets = aggregator.getAllBuckets("USD", TradeStatisticsInterval.HOUR);
+        assertEquals(1, usdBuckets.size());
+        assertEquals("USD", usdBuckets.get(0).getCurrencyCode());
+        assertEquals(1, usdBuckets.get(0).getNumTrades());
+        assertEquals(70000000, usdBuckets.get(0).getOpen());
+        assertEquals(70000, usdBuckets.get(0).getVolume());
+
+        // The USD trade in the same hour is not part of the EUR bucket
+        TradeStatisticsBucket eurBucket = aggregator.getAllBuckets("EUR", TradeStatisticsInterval.HOUR).get(0);
+        assertEquals("EUR", eurBucket.getCurrencyCode());
+        assertEquals(2, eurBucket.getNumTrades());
+
+        assertTrue(aggregator.getAllBuckets("JPY", TradeStatisticsInterval.DAY).isEmpty());
+        assertTrue(aggregator.getBuckets("JPY", TradeStatisticsInterval.DAY, 0, Long.MAX_VALUE).isEmpty());
+        assertNull(aggregator.getLatestBucket("JPY", TradeStatisticsInterval.DAY));
+    }
+
+    @Test
+    public void testTradeWithVolumeOverflowIsSkipped() {
+        aggregator.add(createTradeStatistics("EUR", Long.MAX_VALUE / 2, 2100000000000000L, utc(2018, 8, 17, 12, 0)));
+
+        assertEquals(5, aggregator.getAllBuckets("EUR", TradeStatisticsInterval.HOUR).size());
+        assertTrue(aggregator.getBuckets("EUR", TradeStatisticsInterval.DAY,
+                utc(2018, 8, 17, 0, 0), utc(2018, 8, 18, 0, 0)).isEmpty());
+        assertEquals(4, aggregator.getAllBuckets("EUR", TradeStatisticsInterval.MONTH).get(0).getNumTrades());
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TradeStatisticsBucketTest {
+
+    private static long utc(int year, int month, int day, int hour, int minute) {
+        return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    @Test
+    public void testGetBucketStart() {
+        // Wednesday
+        long time = utc(2018, 8, 15, 13, 45);
+        assertEquals(utc(2018, 8, 15, 13, 0), TradeStatisticsInterval.HOUR.getBucketStart(time));
+        assertEquals(utc(2018, 8, 15, 0, 0), TradeStatisticsInterval.DAY.getBucketStart(time));
+        assertEquals(utc(2018, 8, 13, 0, 0), TradeStatisticsInterval.WEEK.getBucketStart(time));
+        assertEquals(utc(2018, 8, 1, 0, 0), TradeStatisticsInterval.MONTH.getBucketStart(time));
+
+        // A Monday is the start of its week
+        long monday = utc(2018, 8, 13, 0, 0);
+        assertEquals(monday, TradeStatisticsInterval.WEEK.getBucketStart(monday));
+        // Sunday belongs to the week started at the Monday before
+        assertEquals(monday, TradeStatisticsInterval.WEEK.getBucketStart(utc(2018, 8, 19, 23, 59)));
+    }
+
+    @Test
+    public void testAdd() {
+        TradeStatisticsBucket bucket = new TradeStatisticsBucket("EUR", TradeStatisticsInterval.DAY, utc(2018, 8, 15, 0, 0));
+        // Trades are not added in order of their trade date
+        bucket.add(utc(2018, 8, 15, 12, 0), 60000000, 100, 60);
+        bucket.add(utc(2018, 8, 15, 6, 0), 50000000, 200, 100);
+        bucket.add(utc(2018, 8, 15, 18, 0), 55000000, 300, 165);
+        bucket.add(utc(2018, 8, 15, 9, 0), 70000000, 400, 280);
+
+        assertEquals(50000000, bucket.getOpen());
+        assertEquals(70000000, bucket.getHigh());
+        assertEquals(50000000, bucket.getLow());
+        assertEquals(55000000, bucket.getClose());
+        assertEquals(1000, bucket.getAmount());
+        assertEquals(605, bucket.getVolume());
+        assertEquals(4, bucket.getNumTrades());
+    }
+}
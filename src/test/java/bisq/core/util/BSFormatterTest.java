@@ -0,0 +1,97 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.util;
+
+import bisq.core.monetary.Altcoin;
+import bisq.core.monetary.Price;
+import bisq.core.monetary.Volume;
+
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.utils.Fiat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BSFormatterTest {
+    private final BSFormatter formatter = new BSFormatter();
+
+    @Test
+    public void testAppendMatchesFormat() {
+        Coin coin = Coin.valueOf(123456789);
+        for (int decimalPlaces = -1; decimalPlaces <= 5; decimalPlaces++) {
+            assertEquals(formatter.formatCoin(coin, decimalPlaces),
+                    formatter.appendCoin(new StringBuilder(), coin, decimalPlaces).toString());
+        }
+
+        Price fiatPrice = Price.valueOf("EUR", 65432109);
+        assertEquals(formatter.formatPrice(fiatPrice), formatter.appendPrice(new StringBuilder(), fiatPrice, false).toString());
+        Price altcoinPrice = Price.valueOf("XMR", 1234567);
+        assertEquals(formatter.formatPrice(altcoinPrice), formatter.appendPrice(new StringBuilder(), altcoinPrice, false).toString());
+
+        Volume fiatVolume = new Volume(Fiat.valueOf("EUR", 123456));
+        assertEquals(formatter.formatVolumeWithCode(fiatVolume), formatter.appendVolume(new StringBuilder(), fiatVolume, true).toString());
+        Volume bsqVolume = new Volume(Altcoin.valueOf("BSQ", 123456789));
+        assertEquals(formatter.formatVolume(bsqVolume), formatter.appendVolume(new StringBuilder(), bsqVolume, false).toString());
+
+        Altcoin altcoin = Altcoin.valueOf("XMR", 123456789);
+        assertEquals(formatter.formatAltcoin(altcoin, false), formatter.appendAltcoin(new StringBuilder(), altcoin, false).toString());
+        assertEquals(formatter.formatAltcoin(altcoin, true), formatter.appendAltcoin(new StringBuilder(), altcoin, true).toString());
+    }
+
+    @Test
+    public void testFillUpPlacesWithEmptyStrings() {
+        assertEquals("   1.00", formatter.fillUpPlacesWithEmptyStrings("1.00", 7));
+        assertEquals("1.00", formatter.fillUpPlacesWithEmptyStrings("1.00", 2));
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        int numValues = 10_000;
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < numValues; i++) {
+            expected.add(formatter.formatRoundedDoubleWithPrecision(i / 7d, i % 9));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < numValues; j++) {
+                        if (!expected.get(j).equals(formatter.formatRoundedDoubleWithPrecision(j / 7d, j % 9)))
+                            return false;
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertEquals(true, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.util;
+
+import bisq.common.storage.FileUtil;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import com.google.common.io.Files;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CoalescingJsonFileWriterTest {
+    private File dir;
+    private final List<String> data = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        dir = Files.createTempDir();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testShutDownWritesPendingChanges() throws IOException {
+        // The interval is long enough that only the shutDown writes the file
+        CoalescingJsonFileWriter writer = createWriter();
+        data.add("a");
+        writer.onChange();
+        data.add("b");
+        writer.onChange();
+        writer.shutDown();
+
+        assertEquals(Arrays.asList("a", "b"), readData());
+        assertEquals(1, readSequenceNumber());
+        assertEquals(2, writer.getNumChanges());
+        assertEquals(1, writer.getNumWrites());
+        assertEquals(1, writer.getNumSkippedSnapshots());
+
+        // Changes after shutDown are ignored
+        data.add("c");
+        writer.flush();
+        assertEquals(1, writer.getNumWrites());
+    }
+
+    @Test
+    public void testSequenceNumberContinuesAfterRestart() throws IOException {
+        CoalescingJsonFileWriter writer = createWriter();
+        writer.flush();
+        writer.flush();
+        writer.shutDown();
+        long sequenceNumber = readSequenceNumber();
+        assertTrue(sequenceNumber >= 1);
+
+        writer = createWriter();
+        assertEquals(sequenceNumber, writer.getSequenceNumber());
+        data.add("a");
+        writer.onChange();
+        writer.shutDown();
+        assertEquals(sequenceNumber + 1, readSequenceNumber());
+        assertEquals(Arrays.asList("a"), readData());
+    }
+
+    private CoalescingJsonFileWriter createWriter() {
+        return new CoalescingJsonFileWriter(dir, "test", () -> new ArrayList<>(data), 60_000, 100);
+    }
+
+    private List<String> readData() throws IOException {
+        List<String> result = new ArrayList<>();
+        new JsonParser().parse(Files.toString(new File(dir, "test.json"), StandardCharsets.UTF_8)).getAsJsonArray()
+                .forEach(element -> result.add(element.getAsString()));
+        return result;
+    }
+
+    private long readSequenceNumber() throws IOException {
+        JsonObject meta = new JsonParser().parse(Files.toString(new File(dir, "test_meta.json"), StandardCharsets.UTF_8))
+                .getAsJsonObject();
+        return meta.get("sequenceNumber").getAsLong();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SerialExecutorTest {
+    private static final int NUM_TRADES = 50;
+    private static final int NUM_TASKS = 200;
+
+    private ExecutorService pool;
+
+    @Before
+    public void setUp() {
+        pool = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testTasksOfEachExecutorRunInOrder() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(NUM_TRADES * NUM_TASKS);
+        AtomicBoolean outOfOrder = new AtomicBoolean();
+        List<List<Integer>> results = new ArrayList<>();
+        List<SerialExecutor> executors = new ArrayList<>();
+        for (int i = 0; i < NUM_TRADES; i++) {
+            results.add(Collections.synchronizedList(new ArrayList<>()));
+            executors.add(new SerialExecutor(pool));
+        }
+
+        for (int task = 0; task < NUM_TASKS; task++) {
+            for (int trade = 0; trade < NUM_TRADES; trade++) {
+                List<Integer> result = results.get(trade);
+                int index = task;
+                executors.get(trade).execute(() -> {
+                    if (result.size() != index)
+                        outOfOrder.set(true);
+                    result.add(index);
+                    latch.countDown();
+                });
+            }
+        }
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertFalse(outOfOrder.get());
+        results.forEach(result -> assertEquals(NUM_TASKS, result.size()));
+    }
+
+    @Test
+    public void testTasksOfOneExecutorDoNotOverlap() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(NUM_TASKS);
+        AtomicInteger running = new AtomicInteger();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        SerialExecutor executor = new SerialExecutor(pool);
+        for (int i = 0; i < NUM_TASKS; i++) {
+            executor.execute(() -> {
+                if (running.incrementAndGet() > 1)
+                    overlapped.set(true);
+                running.decrementAndGet();
+                latch.countDown();
+            });
+        }
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertFalse(overlapped.get());
+    }
+
+    @Test
+    public void testFailingTaskDoesNotBlockQueue() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        SerialExecutor executor = new SerialExecutor(pool);
+        executor.execute(() -> {
+            throw new RuntimeException("test");
+        });
+        executor.execute(latch::countDown);
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertEquals(0, executor.getNumPendingTasks());
+    }
+}